@@ -160,6 +160,11 @@ public class XianCore extends JavaPlugin {
                 skillSystem.shutdown();
             }
 
+            // 应用未处理的 Boss 伤害事件
+            if (damageStatisticsManager != null) {
+                damageStatisticsManager.shutdown();
+            }
+
             // 保存所有数据
             if (dataManager != null) {
                 getLogger().info("保存玩家数据...");
@@ -271,6 +276,31 @@ public class XianCore extends JavaPlugin {
                 
                 damageStatisticsManager = new com.xiancore.systems.boss.damage.DamageStatisticsManager();
                 damageStatisticsManager.initialize();
+                // 启用 SQL 时战斗历史写入数据库，否则写入本地段文件
+                if (dataManager.getDatabaseManager().isUseSql()) {
+                    damageStatisticsManager.setDatabase(new com.xiancore.systems.boss.damage.persistence.JdbcDamageDatabase(
+                        dataManager.getDatabaseManager(), getLogger()));
+                } else {
+                    damageStatisticsManager.setDatabase(new com.xiancore.systems.boss.damage.persistence.FileBasedDamageDatabase(
+                        new java.io.File(getDataFolder(), "damage-data").getPath(), getLogger()));
+                }
+                if (getConfig().getBoolean("boss-refresh.damage-replay-log", false)) {
+                    damageStatisticsManager.enableReplayLog(new java.io.File(getDataFolder(), "damage-data/replay"));
+                }
+                if (!damageStatisticsManager.enablePersistence()) {
+                    getLogger().warning("§eBoss 伤害历史持久化启用失败，本次运行的战斗记录不会保存");
+                } else {
+                    // 从已保存的历史重建排行/击杀汇总，之后随每场战斗增量更新
+                    com.xiancore.systems.boss.damage.DamageStatisticsManager damageManager = damageStatisticsManager;
+                    getServer().getScheduler().runTaskAsynchronously(this, () -> {
+                        try {
+                            int count = damageManager.rebuildRollup();
+                            getLogger().info("  §a✓ Boss 伤害汇总已重建 (" + count + " 场战斗)");
+                        } catch (Exception e) {
+                            getLogger().warning("§eBoss 伤害汇总重建失败: " + e.getMessage());
+                        }
+                    });
+                }
                 
                 getLogger().info("  §a✓ Boss 系统初始化完成");
             } catch (Exception e) {
@@ -480,6 +510,11 @@ public class XianCore extends JavaPlugin {
             }
         }, 20L * 60 * 60, 20L * 60 * 60); // 1小时后开始，每1小时执行一次
 
+        // Boss 伤害事件批处理任务（主线程，每 tick 执行一次）
+        if (damageStatisticsManager != null) {
+            Bukkit.getScheduler().runTaskTimer(this, damageStatisticsManager::processBatchQueue, 1L, 1L);
+        }
+
         getLogger().info("§a✓ 定时任务启动完成");
     }
 
@@ -0,0 +1,185 @@
+package com.xiancore.ai;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Boss导航服务
+ * Boss Navigator - world-aware A* paths computed off the main thread
+ * <p>
+ * 主线程只负责截取路径范围内已加载区块的快照 (已缓存的区块不再截取)，
+ * A*搜索在后台线程上基于 {@link SnapshotWalkability} 进行，不访问世界；
+ * 成功的路径按起点/终点方块缓存，经过的区块有方块变动时失效
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+public class BossNavigator {
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final PathfindingAI pathfinding;
+    private final PathCache pathCache;
+    private final WalkabilityProvider walkability;
+
+    private ExecutorService worker;
+
+    // ==================== 配置 ====================
+    private int maxPathDistance = 64;   // 起点到终点的最大水平距离
+    private int chunkMargin = 1;        // 截取范围在起点/终点外扩的区块数
+    private int clearance = 2;          // 实体需要的净空高度
+
+    // ==================== 统计 ====================
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BossNavigator(Plugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.pathfinding = new PathfindingAI(maxPathDistance);
+        this.pathfinding.setMaxExpansions(20_000);
+        this.pathCache = new PathCache(512, 60_000L);
+        this.walkability = new WalkabilityProvider(plugin, pathCache);
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 启动导航服务 (主线程调用)
+     */
+    public void start() {
+        walkability.start();
+        logger.info("✓ Boss导航服务已启动 (最大路径距离: " + maxPathDistance + ")");
+    }
+
+    /**
+     * 停止导航服务: 关闭搜索线程并丢弃所有缓存 (主线程调用)
+     */
+    public synchronized void shutdown() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+        walkability.shutdown();
+        pathCache.clear();
+        pathfinding.clearCache();
+    }
+
+    private synchronized ExecutorService worker() {
+        if (worker == null || worker.isShutdown()) {
+            worker = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "BossNavigator");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return worker;
+    }
+
+    // ==================== 寻路 ====================
+
+    /**
+     * 请求从起点到终点的路径
+     * 在主线程上调用时直接截取区块；其他线程调用时截取会被调度到下一个 tick
+     *
+     * @param from 起点 (脚部位置)
+     * @param to   终点
+     * @return 路径结果，不在同一世界或距离过远时返回失败结果
+     */
+    public CompletableFuture<PathfindingAI.PathResult> requestPath(Location from, Location to) {
+        if (!Bukkit.isPrimaryThread()) {
+            CompletableFuture<PathfindingAI.PathResult> future = new CompletableFuture<>();
+            Bukkit.getScheduler().runTask(plugin, () -> requestPath(from, to).whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            }));
+            return future;
+        }
+
+        requests.incrementAndGet();
+        World world = from.getWorld();
+        if (world == null || !world.equals(to.getWorld())) {
+            rejected.incrementAndGet();
+            return CompletableFuture.completedFuture(new PathfindingAI.PathResult());
+        }
+
+        int sx = from.getBlockX(), sy = from.getBlockY(), sz = from.getBlockZ();
+        int ex = to.getBlockX(), ey = to.getBlockY(), ez = to.getBlockZ();
+        if (Math.abs(ex - sx) > maxPathDistance || Math.abs(ez - sz) > maxPathDistance) {
+            rejected.incrementAndGet();
+            logger.fine("⚠ 导航请求距离过远: (" + sx + ", " + sz + ") -> (" + ex + ", " + ez + ")");
+            return CompletableFuture.completedFuture(new PathfindingAI.PathResult());
+        }
+
+        String worldName = world.getName();
+        PathfindingAI.PathResult cached = pathCache.get(worldName, sx, sy, sz, ex, ey, ez);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        walkability.capture(world,
+            (Math.min(sx, ex) >> 4) - chunkMargin, (Math.min(sz, ez) >> 4) - chunkMargin,
+            (Math.max(sx, ex) >> 4) + chunkMargin, (Math.max(sz, ez) >> 4) + chunkMargin);
+        SnapshotWalkability view = walkability.view(world, clearance);
+
+        return CompletableFuture.supplyAsync(() -> {
+            PathfindingAI.PathResult result = pathfinding.findPath(view, sx, sy, sz, ex, ey, ez);
+            // 搜索期间读取过的区块有变动时，结果可能已过时，不放入缓存
+            if (result.success && !view.isStale()) {
+                pathCache.put(worldName, sx, sy, sz, ex, ey, ez, result);
+            }
+            return result;
+        }, worker());
+    }
+
+    // ==================== 配置与统计 ====================
+
+    public void setMaxPathDistance(int maxPathDistance) {
+        this.maxPathDistance = Math.max(1, maxPathDistance);
+    }
+
+    public void setClearance(int clearance) {
+        this.clearance = Math.max(1, clearance);
+    }
+
+    public void setMaxExpansions(int maxExpansions) {
+        pathfinding.setMaxExpansions(maxExpansions);
+    }
+
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    public WalkabilityProvider getWalkabilityProvider() {
+        return walkability;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("cache_hits", cacheHits.get());
+        stats.put("rejected", rejected.get());
+        stats.put("path_cache", pathCache.getStatistics());
+        stats.put("walkability", walkability.getStatistics());
+        stats.put("pathfinding", pathfinding.getStatistics());
+        return stats;
+    }
+}
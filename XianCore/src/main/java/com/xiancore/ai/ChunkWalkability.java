@@ -0,0 +1,194 @@
+package com.xiancore.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 区块可行走数据
+ * Chunk Walkability - solid/air/liquid bits packed per 16x16x16 section
+ * <p>
+ * 每个区段用两组 4096 位的位图分别记录固体和液体方块，其余视为空气；
+ * 全空气和全固体的区段共享同一实例。区段在第一次被读取时才从方块分类器编码，
+ * 编码后不可变，可被多个寻路线程同时读取
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+public final class ChunkWalkability {
+
+    public static final byte AIR = 0;
+    public static final byte SOLID = 1;
+    public static final byte LIQUID = 2;
+
+    /**
+     * 方块分类器
+     * x、z 为区块内坐标 (0-15)，y 为世界高度；只会在寻路线程上被调用，实现必须线程安全
+     */
+    @FunctionalInterface
+    public interface BlockClassifier {
+        byte classify(int x, int y, int z);
+    }
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minHeight;
+    private final int maxHeight;
+    private final BlockClassifier classifier;
+    private final AtomicReferenceArray<Section> sections;
+    private final long capturedAt;
+
+    private volatile boolean invalidated;
+
+    /**
+     * 构造函数
+     *
+     * @param chunkX     区块X
+     * @param chunkZ     区块Z
+     * @param minHeight  世界最低高度
+     * @param maxHeight  世界最高高度 (不含)
+     * @param classifier 方块分类器 (通常基于不可变的区块快照)
+     */
+    public ChunkWalkability(int chunkX, int chunkZ, int minHeight, int maxHeight, BlockClassifier classifier) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.classifier = classifier;
+        this.sections = new AtomicReferenceArray<>(Math.max(0, (maxHeight - minHeight + 15) >> 4));
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取方块类型
+     *
+     * @param localX 区块内X (0-15)
+     * @param y      世界高度
+     * @param localZ 区块内Z (0-15)
+     * @return {@link #AIR}、{@link #SOLID} 或 {@link #LIQUID}；世界高度范围外视为空气
+     */
+    public byte getType(int localX, int y, int localZ) {
+        if (y < minHeight || y >= maxHeight) {
+            return AIR;
+        }
+        int offset = y - minHeight;
+        int index = offset >> 4;
+        Section section = sections.get(index);
+        if (section == null) {
+            // 多个线程同时编码同一区段时结果相同，保留先写入的即可
+            section = Section.encode(classifier, minHeight + (index << 4), maxHeight);
+            if (!sections.compareAndSet(index, null, section)) {
+                section = sections.get(index);
+            }
+        }
+        return section.get(localX, offset & 15, localZ);
+    }
+
+    /**
+     * 标记为失效 (区块有方块变动或被卸载)
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    public boolean isInvalidated() {
+        return invalidated;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * 已编码的区段数
+     */
+    public int getEncodedSectionCount() {
+        int count = 0;
+        for (int i = 0; i < sections.length(); i++) {
+            if (sections.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 区块键
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 16x16x16 区段，按 (y, z, x) 顺序编址
+     */
+    static final class Section {
+        private static final int WORDS = 4096 / 64;
+        private static final long[] FULL = new long[WORDS];
+
+        static {
+            Arrays.fill(FULL, -1L);
+        }
+
+        static final Section EMPTY = new Section(null, null);
+        static final Section FULL_SOLID = new Section(FULL, null);
+
+        private final long[] solid;
+        private final long[] liquid;
+
+        private Section(long[] solid, long[] liquid) {
+            this.solid = solid;
+            this.liquid = liquid;
+        }
+
+        byte get(int x, int y, int z) {
+            int bit = (y << 8) | (z << 4) | x;
+            if (solid != null && (solid[bit >>> 6] & (1L << bit)) != 0) {
+                return SOLID;
+            }
+            if (liquid != null && (liquid[bit >>> 6] & (1L << bit)) != 0) {
+                return LIQUID;
+            }
+            return AIR;
+        }
+
+        static Section encode(BlockClassifier classifier, int baseY, int maxHeight) {
+            long[] solid = new long[WORDS];
+            long[] liquid = new long[WORDS];
+            int solidCount = 0;
+            int liquidCount = 0;
+            int height = Math.min(16, maxHeight - baseY);
+
+            for (int y = 0; y < height; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        byte type = classifier.classify(x, baseY + y, z);
+                        int bit = (y << 8) | (z << 4) | x;
+                        if (type == SOLID) {
+                            solid[bit >>> 6] |= 1L << bit;
+                            solidCount++;
+                        } else if (type == LIQUID) {
+                            liquid[bit >>> 6] |= 1L << bit;
+                            liquidCount++;
+                        }
+                    }
+                }
+            }
+
+            if (solidCount == 0 && liquidCount == 0) {
+                return EMPTY;
+            }
+            if (solidCount == 4096) {
+                return FULL_SOLID;
+            }
+            return new Section(solidCount > 0 ? solid : null, liquidCount > 0 ? liquid : null);
+        }
+    }
+}
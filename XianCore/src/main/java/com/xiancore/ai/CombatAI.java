@@ -1,6 +1,9 @@
 package com.xiancore.ai;
 
+import org.bukkit.Location;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
@@ -16,6 +19,7 @@ public class CombatAI {
     private final Logger logger = Logger.getLogger(getClass().getName());
     private final Map<String, BossAI> bossAIs = new ConcurrentHashMap<>();
     private final List<Skill> skillLibrary = new ArrayList<>();
+    private volatile BossNavigator navigator;
 
     /**
      * 技能定义
@@ -58,6 +62,7 @@ public class CombatAI {
         public List<String> threatList;  // 威胁排行
         public Map<String, Double> skillCooldowns;
         public StrategyMode strategyMode; // 战斗策略
+        public volatile List<PathfindingAI.Node> pursuitPath;  // 当前追击路径 (可能为空)
 
         public enum AIState {
             IDLE, PATROLLING, COMBAT, WEAK, DESPERATE
@@ -80,6 +85,7 @@ public class CombatAI {
             this.threatList = new ArrayList<>();
             this.skillCooldowns = new ConcurrentHashMap<>();
             this.strategyMode = StrategyMode.BALANCED;
+            this.pursuitPath = Collections.emptyList();
         }
 
         public double getHealthPercent() {
@@ -353,6 +359,36 @@ public class CombatAI {
         }
     }
 
+    /**
+     * 设置导航服务 (为null时不提供寻路)
+     */
+    public void setNavigator(BossNavigator navigator) {
+        this.navigator = navigator;
+    }
+
+    /**
+     * 请求Boss追击目标的路径
+     * 寻路在后台线程上基于区块快照进行；成功后写入 {@link BossAI#pursuitPath}
+     *
+     * @param bossId         Boss ID
+     * @param bossLocation   Boss当前位置
+     * @param targetLocation 追击目标位置
+     * @return 路径结果，Boss不存在或未设置导航服务时返回失败结果
+     */
+    public CompletableFuture<PathfindingAI.PathResult> requestPursuitPath(String bossId, Location bossLocation,
+                                                                          Location targetLocation) {
+        BossAI bossAI = bossAIs.get(bossId);
+        BossNavigator nav = navigator;
+        if (bossAI == null || nav == null) {
+            return CompletableFuture.completedFuture(new PathfindingAI.PathResult());
+        }
+
+        return nav.requestPath(bossLocation, targetLocation).thenApply(result -> {
+            bossAI.pursuitPath = result.success ? result.path : Collections.emptyList();
+            return result;
+        });
+    }
+
     /**
      * 记录技能使用 (设置冷却时间)
      */
@@ -1,6 +1,9 @@
 package com.xiancore.ai;
 
+import org.bukkit.Location;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
@@ -17,6 +20,7 @@ public class GroupBehavior {
     private final Logger logger = Logger.getLogger(getClass().getName());
     private final Map<String, BossGroup> bossGroups = new ConcurrentHashMap<>();
     private final Map<String, BossFormation> formations = new ConcurrentHashMap<>();
+    private volatile BossNavigator navigator;
 
     /**
      * Boss组群
@@ -30,6 +34,7 @@ public class GroupBehavior {
         public String leader;                  // 领导Boss
         public BossFormation currentFormation; // 当前阵型
         public GroupState state;               // 组群状态
+        public Map<String, List<PathfindingAI.Node>> memberPaths;  // bossId -> 当前移动路径
         public long createdTime;
 
         public enum GroupType {
@@ -50,6 +55,7 @@ public class GroupBehavior {
             this.memberOrder = new CopyOnWriteArrayList<>();
             this.cohesion = 1.0;
             this.state = GroupState.FORMING;
+            this.memberPaths = new ConcurrentHashMap<>();
             this.createdTime = System.currentTimeMillis();
         }
 
@@ -62,6 +68,7 @@ public class GroupBehavior {
 
         public void removeMember(String bossId) {
             bossIds.remove(bossId);
+            memberPaths.remove(bossId);
             if (leader != null && leader.equals(bossId)) {
                 leader = bossIds.isEmpty() ? null : bossIds.get(0);
             }
@@ -281,6 +288,41 @@ public class GroupBehavior {
         return command;
     }
 
+    /**
+     * 设置导航服务 (为null时不提供寻路)
+     */
+    public void setNavigator(BossNavigator navigator) {
+        this.navigator = navigator;
+    }
+
+    /**
+     * 请求组群成员移动到目标位置 (例如阵型位置) 的路径
+     * 寻路在后台线程上基于区块快照进行；成功后写入 {@link BossGroup#memberPaths}
+     *
+     * @param groupId 组群ID
+     * @param bossId  成员Boss ID
+     * @param from    Boss当前位置
+     * @param to      目标位置
+     * @return 路径结果，组群或成员不存在、未设置导航服务时返回失败结果
+     */
+    public CompletableFuture<PathfindingAI.PathResult> requestMemberPath(String groupId, String bossId,
+                                                                         Location from, Location to) {
+        BossGroup group = bossGroups.get(groupId);
+        BossNavigator nav = navigator;
+        if (group == null || nav == null || !group.bossIds.contains(bossId)) {
+            return CompletableFuture.completedFuture(new PathfindingAI.PathResult());
+        }
+
+        return nav.requestPath(from, to).thenApply(result -> {
+            if (result.success && group.bossIds.contains(bossId)) {
+                group.memberPaths.put(bossId, result.path);
+            } else {
+                group.memberPaths.remove(bossId);
+            }
+            return result;
+        });
+    }
+
     /**
      * 计算组群凝聚力
      */
@@ -0,0 +1,257 @@
+package com.xiancore.ai;
+
+import java.util.*;
+
+/**
+ * 路径缓存
+ * Path Cache - computed paths keyed by world and start/goal block cells
+ * <p>
+ * 每条路径记录它经过的区块；区块有方块变动时，经过该区块的路径全部失效。
+ * 缓存按最近使用顺序淘汰，并在有效期后过期。只缓存成功的路径，
+ * 取出的结果每次都是新的 {@link PathfindingAI.PathResult}，调用方可以随意修改
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+public class PathCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** 世界名 -> 区块键 -> 经过该区块的路径 */
+    private final Map<String, Map<Long, Set<Key>>> byChunk = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    /**
+     * 构造函数
+     *
+     * @param maxEntries 最多缓存的路径数
+     * @param ttlMillis  路径有效期 (毫秒)
+     */
+    public PathCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = Math.max(1, ttlMillis);
+    }
+
+    /**
+     * 缓存键: 世界 + 起点方块 + 终点方块
+     */
+    private static final class Key {
+        final String world;
+        final int sx, sy, sz;
+        final int ex, ey, ez;
+
+        Key(String world, int sx, int sy, int sz, int ex, int ey, int ez) {
+            this.world = world;
+            this.sx = sx;
+            this.sy = sy;
+            this.sz = sz;
+            this.ex = ex;
+            this.ey = ey;
+            this.ez = ez;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key key)) return false;
+            return sx == key.sx && sy == key.sy && sz == key.sz
+                && ex == key.ex && ey == key.ey && ez == key.ez
+                && world.equals(key.world);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = world.hashCode();
+            h = 31 * h + sx;
+            h = 31 * h + sy;
+            h = 31 * h + sz;
+            h = 31 * h + ex;
+            h = 31 * h + ey;
+            h = 31 * h + ez;
+            return h;
+        }
+    }
+
+    /**
+     * 缓存条目: 路径坐标按 x,y,z 顺序平铺存储
+     */
+    private static final class Entry {
+        final int[] coords;
+        final double distance;
+        final long[] chunkKeys;
+        final long createdAt;
+
+        Entry(int[] coords, double distance, long[] chunkKeys) {
+            this.coords = coords;
+            this.distance = distance;
+            this.chunkKeys = chunkKeys;
+            this.createdAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 查找缓存的路径
+     *
+     * @return 路径结果，没有有效缓存时返回null
+     */
+    public synchronized PathfindingAI.PathResult get(String world, int sx, int sy, int sz, int ex, int ey, int ez) {
+        Key key = new Key(world, sx, sy, sz, ex, ey, ez);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.createdAt > ttlMillis) {
+            remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return toResult(entry);
+    }
+
+    /**
+     * 缓存成功的路径，失败的结果被忽略
+     */
+    public synchronized void put(String world, int sx, int sy, int sz, int ex, int ey, int ez,
+                                 PathfindingAI.PathResult result) {
+        if (result == null || !result.success || result.path.isEmpty()) {
+            return;
+        }
+
+        List<PathfindingAI.Node> path = result.path;
+        int[] coords = new int[path.size() * 3];
+        Set<Long> chunks = new LinkedHashSet<>();
+        for (int i = 0; i < path.size(); i++) {
+            PathfindingAI.Node node = path.get(i);
+            coords[i * 3] = node.x;
+            coords[i * 3 + 1] = node.y;
+            coords[i * 3 + 2] = node.z;
+            chunks.add(ChunkWalkability.key(node.x >> 4, node.z >> 4));
+        }
+        long[] chunkKeys = new long[chunks.size()];
+        int n = 0;
+        for (long chunkKey : chunks) {
+            chunkKeys[n++] = chunkKey;
+        }
+
+        Key key = new Key(world, sx, sy, sz, ex, ey, ez);
+        remove(key);
+        entries.put(key, new Entry(coords, result.distance, chunkKeys));
+        Map<Long, Set<Key>> worldChunks = byChunk.computeIfAbsent(world, w -> new HashMap<>());
+        for (long chunkKey : chunkKeys) {
+            worldChunks.computeIfAbsent(chunkKey, k -> new HashSet<>()).add(key);
+        }
+
+        while (entries.size() > maxEntries) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * 使经过指定区块的路径失效
+     *
+     * @return 失效的路径数
+     */
+    public synchronized int invalidateChunk(String world, int chunkX, int chunkZ) {
+        Map<Long, Set<Key>> worldChunks = byChunk.get(world);
+        if (worldChunks == null) {
+            return 0;
+        }
+        Set<Key> keys = worldChunks.get(ChunkWalkability.key(chunkX, chunkZ));
+        if (keys == null) {
+            return 0;
+        }
+        List<Key> removed = new ArrayList<>(keys);
+        for (Key key : removed) {
+            remove(key);
+        }
+        invalidations += removed.size();
+        return removed.size();
+    }
+
+    /**
+     * 使整个世界的路径失效
+     */
+    public synchronized void invalidateWorld(String world) {
+        Map<Long, Set<Key>> worldChunks = byChunk.get(world);
+        if (worldChunks == null) {
+            return;
+        }
+        Set<Key> keys = new HashSet<>();
+        for (Set<Key> chunkKeys : worldChunks.values()) {
+            keys.addAll(chunkKeys);
+        }
+        for (Key key : keys) {
+            remove(key);
+        }
+        invalidations += keys.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+        byChunk.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cached_paths", entries.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("invalidations", invalidations);
+        long total = hits + misses;
+        stats.put("hit_rate", total > 0 ? String.format("%.1f%%", hits * 100.0 / total) : "0.0%");
+        return stats;
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        Map<Long, Set<Key>> worldChunks = byChunk.get(key.world);
+        if (worldChunks == null) {
+            return;
+        }
+        for (long chunkKey : entry.chunkKeys) {
+            Set<Key> keys = worldChunks.get(chunkKey);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                worldChunks.remove(chunkKey);
+            }
+        }
+        if (worldChunks.isEmpty()) {
+            byChunk.remove(key.world);
+        }
+    }
+
+    private static PathfindingAI.PathResult toResult(Entry entry) {
+        PathfindingAI.PathResult result = new PathfindingAI.PathResult();
+        int[] coords = entry.coords;
+        PathfindingAI.Node previous = null;
+        for (int i = 0; i < coords.length; i += 3) {
+            PathfindingAI.Node node = new PathfindingAI.Node(coords[i], coords[i + 1], coords[i + 2]);
+            node.state = PathfindingAI.Node.NodeState.CLOSED;
+            node.parent = previous;
+            result.path.add(node);
+            previous = node;
+        }
+        result.distance = entry.distance;
+        result.success = true;
+        return result;
+    }
+}
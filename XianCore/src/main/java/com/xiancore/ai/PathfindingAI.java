@@ -1,21 +1,60 @@
 package com.xiancore.ai;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
  * 路径寻找AI - A*寻路算法实现
  * Pathfinding AI - A* Algorithm Implementation
+ * <p>
+ * 开放集是支持 decrease-key 的索引二叉堆，坐标打包为 long 后存入原始类型哈希表，
+ * 搜索节点以数组形式保存在可复用的搜索上下文中，扩展过程不分配对象；
+ * 只有最终路径会转换为 {@link Node} 列表
+ * <p>
+ * 可行走判断默认只检查网格边界；传入 {@link WalkabilitySource} 的重载在世界坐标上搜索，
+ * 由可行走数据源 (例如基于区块快照的 {@link SnapshotWalkability}) 决定哪些方块可以通过
  *
  * @author XianCore
  * @version 1.0
  */
 public class PathfindingAI {
 
+    /** 默认单次搜索最多扩展的节点数 */
+    public static final int DEFAULT_MAX_EXPANSIONS = 20_000;
+
+    /** 池中最多保留的搜索上下文数 */
+    private static final int MAX_POOLED_CONTEXTS = 4;
+
+    /** 可归还到池中的上下文最大节点容量，超出的上下文用完即丢弃 */
+    static final int MAX_POOLED_CAPACITY = 16_384;
+
+    /** 26个邻居方向及其移动成本 */
+    private static final int[][] DIRECTIONS = new int[26][];
+    private static final double[] DIRECTION_COSTS = new double[26];
+
+    static {
+        int i = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dy == 0 && dz == 0) continue;
+                    DIRECTIONS[i] = new int[]{dx, dy, dz};
+                    DIRECTION_COSTS[i] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                    i++;
+                }
+            }
+        }
+    }
+
     private final Logger logger = Logger.getLogger(getClass().getName());
     private final int gridSize;
-    private final Map<String, Node> nodeCache = new ConcurrentHashMap<>();
+    private final Deque<SearchContext> contextPool = new ConcurrentLinkedDeque<>();
+    private volatile int maxExpansions = DEFAULT_MAX_EXPANSIONS;
+
+    private final AtomicLong totalSearches = new AtomicLong();
+    private final AtomicLong totalExpansions = new AtomicLong();
 
     /**
      * 网格节点
@@ -68,6 +107,7 @@ public class PathfindingAI {
         public int nodesExpanded;
         public long computeTime;
         public boolean success;
+        public boolean budgetExceeded;  // 因扩展预算耗尽而终止
 
         public PathResult() {
             this.path = new ArrayList<>();
@@ -75,6 +115,7 @@ public class PathfindingAI {
             this.nodesExpanded = 0;
             this.computeTime = 0;
             this.success = false;
+            this.budgetExceeded = false;
         }
     }
 
@@ -87,121 +128,248 @@ public class PathfindingAI {
     }
 
     /**
-     * A*寻路算法
+     * A*寻路算法 (一次完成)
      */
     public PathResult findPath(int startX, int startY, int startZ,
                                int endX, int endY, int endZ) {
-        long startTime = System.currentTimeMillis();
-        PathResult result = new PathResult();
-
-        Node startNode = new Node(startX, startY, startZ);
-        Node endNode = new Node(endX, endY, endZ);
-
-        PriorityQueue<Node> openSet = new PriorityQueue<>(
-                Comparator.comparingDouble((Node n) -> n.f)
-        );
-        Set<String> closedSet = new HashSet<>();
-
-        startNode.h = heuristic(startNode, endNode);
-        startNode.f = startNode.h;
-        openSet.add(startNode);
-
-        int nodesExpanded = 0;
-
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-            nodesExpanded++;
-
-            if (current.equals(endNode)) {
-                result.path = reconstructPath(current);
-                result.success = true;
-                result.nodesExpanded = nodesExpanded;
-                result.computeTime = System.currentTimeMillis() - startTime;
-                result.distance = calculateDistance(result.path);
-                logger.info("✓ 路径寻找成功: " + result.path.size() + "个节点");
-                return result;
-            }
-
-            closedSet.add(current.getKey());
-
-            // 检查所有邻居 (26方向立体网格)
-            for (Node neighbor : getNeighbors(current, endNode)) {
-                if (closedSet.contains(neighbor.getKey())) {
-                    continue;
-                }
-
-                double tentativeG = current.g + distance(current, neighbor);
-
-                Node openNode = findNodeInQueue(openSet, neighbor);
-                if (openNode != null && tentativeG >= openNode.g) {
-                    continue;
-                }
-
-                neighbor.g = tentativeG;
-                neighbor.h = heuristic(neighbor, endNode);
-                neighbor.f = neighbor.g + neighbor.h;
-                neighbor.parent = current;
-
-                if (openNode == null) {
-                    openSet.add(neighbor);
-                }
-            }
-        }
+        return findPath(this::isWalkable, startX, startY, startZ, endX, endY, endZ);
+    }
 
-        result.success = false;
-        result.nodesExpanded = nodesExpanded;
-        result.computeTime = System.currentTimeMillis() - startTime;
-        logger.warning("⚠ 路径寻找失败: 无法到达目标");
-        return result;
+    /**
+     * 使用指定可行走数据源的A*寻路 (一次完成)
+     *
+     * @param walkability 可行走数据源，同一时间只被本次搜索使用
+     */
+    public PathResult findPath(WalkabilitySource walkability,
+                               int startX, int startY, int startZ,
+                               int endX, int endY, int endZ) {
+        PathSearch search = startSearch(walkability, startX, startY, startZ, endX, endY, endZ);
+        search.step(Integer.MAX_VALUE);
+        return search.getResult();
     }
 
     /**
-     * 启发式函数 (欧几里得距离)
+     * 开始一次可分片执行的A*搜索
+     * 调用方每 tick 调用 {@link PathSearch#stepFor(long)} 或 {@link PathSearch#step(int)} 推进，
+     * 完成后从 {@link PathSearch#getResult()} 取结果；中途放弃需调用 {@link PathSearch#cancel()} 归还上下文
      */
-    private double heuristic(Node a, Node b) {
-        double dx = a.x - b.x;
-        double dy = a.y - b.y;
-        double dz = a.z - b.z;
-        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    public PathSearch startSearch(int startX, int startY, int startZ,
+                                  int endX, int endY, int endZ) {
+        return startSearch(this::isWalkable, startX, startY, startZ, endX, endY, endZ);
     }
 
     /**
-     * 计算两个节点间距离
+     * 开始一次使用指定可行走数据源的可分片A*搜索
+     *
+     * @param walkability 可行走数据源，同一时间只被本次搜索使用
      */
-    private double distance(Node a, Node b) {
-        return heuristic(a, b);
+    public PathSearch startSearch(WalkabilitySource walkability,
+                                  int startX, int startY, int startZ,
+                                  int endX, int endY, int endZ) {
+        SearchContext context = contextPool.pollFirst();
+        if (context == null) {
+            context = new SearchContext();
+        }
+        totalSearches.incrementAndGet();
+        return new PathSearch(context, walkability, startX, startY, startZ, endX, endY, endZ);
     }
 
     /**
-     * 获取邻近节点 (26方向)
+     * 可分片执行的A*搜索
+     * 同一个搜索对象只能由一个线程推进
      */
-    private List<Node> getNeighbors(Node current, Node target) {
-        List<Node> neighbors = new ArrayList<>();
+    public class PathSearch {
+        private SearchContext context;
+        private final WalkabilitySource walkability;
+        private final int endX, endY, endZ;
+        private int nodesExpanded;
+        private long activeNanos;
+        private PathResult result;
+
+        private PathSearch(SearchContext context, WalkabilitySource walkability,
+                           int startX, int startY, int startZ,
+                           int endX, int endY, int endZ) {
+            this.context = context;
+            this.walkability = walkability;
+            this.endX = endX;
+            this.endY = endY;
+            this.endZ = endZ;
+
+            context.reset();
+            int start = context.node(startX, startY, startZ, heuristic(startX, startY, startZ));
+            context.g[start] = 0;
+            context.f[start] = context.h[start];
+            context.push(start);
+        }
 
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                for (int dz = -1; dz <= 1; dz++) {
-                    if (dx == 0 && dy == 0 && dz == 0) continue;
+        /**
+         * 最多扩展给定数量的节点
+         *
+         * @param expansions 本次允许扩展的节点数
+         * @return 搜索是否已结束
+         */
+        public boolean step(int expansions) {
+            if (result != null) {
+                return true;
+            }
+            long begin = System.nanoTime();
+            expand(expansions, Long.MAX_VALUE);
+            return afterSlice(begin);
+        }
+
+        /**
+         * 在给定时间内推进搜索 (用于每 tick 的时间片)
+         *
+         * @param maxNanos 本次允许使用的纳秒数
+         * @return 搜索是否已结束
+         */
+        public boolean stepFor(long maxNanos) {
+            if (result != null) {
+                return true;
+            }
+            long begin = System.nanoTime();
+            expand(Integer.MAX_VALUE, begin + maxNanos);
+            return afterSlice(begin);
+        }
+
+        /**
+         * 累计本次分片耗时，结束时写入结果
+         */
+        private boolean afterSlice(long begin) {
+            activeNanos += System.nanoTime() - begin;
+            if (result != null) {
+                result.computeTime = activeNanos / 1_000_000;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 放弃搜索并归还上下文
+         */
+        public void cancel() {
+            if (result == null) {
+                finish(-1, false);
+            }
+        }
+
+        public boolean isDone() {
+            return result != null;
+        }
+
+        /**
+         * 获取结果
+         *
+         * @return 搜索结果，未结束时返回null
+         */
+        public PathResult getResult() {
+            return result;
+        }
+
+        public int getNodesExpanded() {
+            return nodesExpanded;
+        }
+
+        private void expand(int expansions, long deadline) {
+            SearchContext ctx = context;
+            WalkabilitySource source = walkability;
+            int limit = maxExpansions;
+
+            for (int i = 0; i < expansions; i++) {
+                if (ctx.heapSize == 0) {
+                    finish(-1, false);
+                    return;
+                }
+                // 每64次扩展检查一次时间片
+                if ((i & 63) == 63 && System.nanoTime() >= deadline) {
+                    return;
+                }
+
+                int current = ctx.pop();
+                nodesExpanded++;
+
+                int cx = ctx.xs[current];
+                int cy = ctx.ys[current];
+                int cz = ctx.zs[current];
+                if (cx == endX && cy == endY && cz == endZ) {
+                    finish(current, false);
+                    return;
+                }
+                if (nodesExpanded >= limit) {
+                    finish(-1, true);
+                    return;
+                }
+
+                double currentG = ctx.g[current];
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int[] dir = DIRECTIONS[d];
+                    int nx = cx + dir[0];
+                    int ny = cy + dir[1];
+                    int nz = cz + dir[2];
+                    if (!source.isWalkable(nx, ny, nz)) {
+                        continue;
+                    }
+
+                    int neighbor = ctx.node(nx, ny, nz, Double.NaN);
+                    if (ctx.heapPos[neighbor] == SearchContext.CLOSED) {
+                        continue;
+                    }
 
-                    int nx = current.x + dx;
-                    int ny = current.y + dy;
-                    int nz = current.z + dz;
+                    double tentativeG = currentG + DIRECTION_COSTS[d];
+                    if (tentativeG >= ctx.g[neighbor]) {
+                        continue;
+                    }
 
-                    // 边界检查
-                    if (isWalkable(nx, ny, nz)) {
-                        neighbors.add(new Node(nx, ny, nz));
+                    if (Double.isNaN(ctx.h[neighbor])) {
+                        ctx.h[neighbor] = heuristic(nx, ny, nz);
+                    }
+                    ctx.g[neighbor] = tentativeG;
+                    ctx.f[neighbor] = tentativeG + ctx.h[neighbor];
+                    ctx.parent[neighbor] = current;
+                    if (ctx.heapPos[neighbor] == SearchContext.NOT_IN_HEAP) {
+                        ctx.push(neighbor);
+                    } else {
+                        ctx.decreaseKey(neighbor);
                     }
                 }
             }
         }
 
-        return neighbors;
+        private double heuristic(int x, int y, int z) {
+            double dx = x - endX;
+            double dy = y - endY;
+            double dz = z - endZ;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        private void finish(int goal, boolean budgetExceeded) {
+            PathResult pathResult = new PathResult();
+            pathResult.nodesExpanded = nodesExpanded;
+            pathResult.budgetExceeded = budgetExceeded;
+
+            if (goal >= 0) {
+                pathResult.path = reconstructPath(context, goal);
+                pathResult.success = true;
+                pathResult.distance = calculateDistance(pathResult.path);
+                logger.fine("✓ 路径寻找成功: " + pathResult.path.size() + "个节点");
+            } else if (budgetExceeded) {
+                logger.fine("⚠ 路径寻找中止: 超出扩展预算 (" + nodesExpanded + ")");
+            } else if (context.heapSize == 0) {
+                logger.warning("⚠ 路径寻找失败: 无法到达目标");
+            }
+            pathResult.computeTime = activeNanos / 1_000_000;
+
+            totalExpansions.addAndGet(nodesExpanded);
+            releaseContext(context);
+            context = null;
+            result = pathResult;
+        }
     }
 
     /**
      * 检查节点是否可行走
      */
-    private boolean isWalkable(int x, int y, int z) {
+    protected boolean isWalkable(int x, int y, int z) {
         // 简单的网格边界检查
         return x >= 0 && x < gridSize &&
                y >= 0 && y < gridSize &&
@@ -209,25 +377,31 @@ public class PathfindingAI {
     }
 
     /**
-     * 在队列中查找节点
+     * 计算两个节点间距离
      */
-    private Node findNodeInQueue(PriorityQueue<Node> queue, Node target) {
-        for (Node node : queue) {
-            if (node.equals(target)) {
-                return node;
-            }
-        }
-        return null;
+    private double distance(Node a, Node b) {
+        double dx = a.x - b.x;
+        double dy = a.y - b.y;
+        double dz = a.z - b.z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
     /**
      * 重建路径
      */
-    private List<Node> reconstructPath(Node node) {
+    private List<Node> reconstructPath(SearchContext ctx, int goal) {
         List<Node> path = new ArrayList<>();
-        while (node != null) {
-            path.add(0, node);
-            node = node.parent;
+        for (int id = goal; id >= 0; id = ctx.parent[id]) {
+            Node node = new Node(ctx.xs[id], ctx.ys[id], ctx.zs[id]);
+            node.g = ctx.g[id];
+            node.h = ctx.h[id];
+            node.f = ctx.f[id];
+            node.state = Node.NodeState.CLOSED;
+            path.add(node);
+        }
+        Collections.reverse(path);
+        for (int i = 1; i < path.size(); i++) {
+            path.get(i).parent = path.get(i - 1);
         }
         return path;
     }
@@ -291,19 +465,273 @@ public class PathfindingAI {
     }
 
     /**
-     * 清空缓存
+     * 归还搜索上下文到池中
+     * 上下文的数组只增不减，一次大范围搜索撑大的上下文不再复用，交给GC回收
+     */
+    private void releaseContext(SearchContext context) {
+        if (context != null && context.capacity() <= MAX_POOLED_CAPACITY
+                && contextPool.size() < MAX_POOLED_CONTEXTS) {
+            contextPool.offerFirst(context);
+        }
+    }
+
+    /**
+     * 设置单次搜索最多扩展的节点数
+     */
+    public void setMaxExpansions(int maxExpansions) {
+        this.maxExpansions = Math.max(1, maxExpansions);
+    }
+
+    public int getMaxExpansions() {
+        return maxExpansions;
+    }
+
+    /**
+     * 清空缓存 (释放池中的搜索上下文)
      */
     public void clearCache() {
-        nodeCache.clear();
+        contextPool.clear();
     }
 
     /**
      * 获取统计信息
      */
     public Map<String, Object> getStatistics() {
+        int pooledCapacity = 0;
+        for (SearchContext context : contextPool) {
+            pooledCapacity += context.capacity();
+        }
         Map<String, Object> stats = new LinkedHashMap<>();
         stats.put("grid_size", gridSize);
-        stats.put("cached_nodes", nodeCache.size());
+        stats.put("max_expansions", maxExpansions);
+        stats.put("total_searches", totalSearches.get());
+        stats.put("total_expansions", totalExpansions.get());
+        stats.put("pooled_contexts", contextPool.size());
+        stats.put("pooled_node_capacity", pooledCapacity);
         return stats;
     }
+
+    /**
+     * 搜索上下文
+     * 节点以数组下标表示，字段分列存储；开放集是按 f 排序的索引二叉堆，
+     * 坐标到节点下标的映射使用打包坐标的开放寻址哈希表。上下文在搜索之间复用
+     */
+    private static final class SearchContext {
+        static final int NOT_IN_HEAP = -1;
+        static final int CLOSED = -2;
+
+        int[] xs, ys, zs;
+        int[] parent;
+        int[] heapPos;
+        double[] g, h, f;
+        int count;
+
+        int[] heap;
+        int heapSize;
+
+        final LongIntMap index = new LongIntMap();
+
+        SearchContext() {
+            allocate(1024);
+        }
+
+        int capacity() {
+            return xs.length;
+        }
+
+        void reset() {
+            count = 0;
+            heapSize = 0;
+            index.clear();
+        }
+
+        /**
+         * 获取或创建坐标对应的节点
+         */
+        int node(int x, int y, int z, double heuristic) {
+            long key = pack(x, y, z);
+            int id = index.get(key);
+            if (id >= 0) {
+                return id;
+            }
+
+            if (count == xs.length) {
+                allocate(xs.length * 2);
+            }
+            id = count++;
+            xs[id] = x;
+            ys[id] = y;
+            zs[id] = z;
+            parent[id] = -1;
+            heapPos[id] = NOT_IN_HEAP;
+            g[id] = Double.POSITIVE_INFINITY;
+            h[id] = heuristic;
+            f[id] = Double.POSITIVE_INFINITY;
+            index.put(key, id);
+            return id;
+        }
+
+        private void allocate(int capacity) {
+            xs = xs == null ? new int[capacity] : Arrays.copyOf(xs, capacity);
+            ys = ys == null ? new int[capacity] : Arrays.copyOf(ys, capacity);
+            zs = zs == null ? new int[capacity] : Arrays.copyOf(zs, capacity);
+            parent = parent == null ? new int[capacity] : Arrays.copyOf(parent, capacity);
+            heapPos = heapPos == null ? new int[capacity] : Arrays.copyOf(heapPos, capacity);
+            g = g == null ? new double[capacity] : Arrays.copyOf(g, capacity);
+            h = h == null ? new double[capacity] : Arrays.copyOf(h, capacity);
+            f = f == null ? new double[capacity] : Arrays.copyOf(f, capacity);
+            heap = heap == null ? new int[capacity] : Arrays.copyOf(heap, capacity);
+        }
+
+        // ==================== 索引二叉堆 ====================
+
+        void push(int id) {
+            heap[heapSize] = id;
+            heapPos[id] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        int pop() {
+            int top = heap[0];
+            heapPos[top] = CLOSED;
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        void decreaseKey(int id) {
+            siftUp(heapPos[id]);
+        }
+
+        private void siftUp(int pos) {
+            int id = heap[pos];
+            while (pos > 0) {
+                int parentPos = (pos - 1) >>> 1;
+                int parentId = heap[parentPos];
+                if (!less(id, parentId)) {
+                    break;
+                }
+                heap[pos] = parentId;
+                heapPos[parentId] = pos;
+                pos = parentPos;
+            }
+            heap[pos] = id;
+            heapPos[id] = pos;
+        }
+
+        private void siftDown(int pos) {
+            int id = heap[pos];
+            int half = heapSize >>> 1;
+            while (pos < half) {
+                int child = 2 * pos + 1;
+                int right = child + 1;
+                if (right < heapSize && less(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!less(heap[child], id)) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                heapPos[heap[pos]] = pos;
+                pos = child;
+            }
+            heap[pos] = id;
+            heapPos[id] = pos;
+        }
+
+        /**
+         * f 小者优先，f 相同时优先离目标更近 (g 更大) 的节点
+         */
+        private boolean less(int a, int b) {
+            if (f[a] != f[b]) {
+                return f[a] < f[b];
+            }
+            return g[a] > g[b];
+        }
+
+        /**
+         * 坐标打包 (每轴21位，范围 ±1048576)
+         */
+        static long pack(int x, int y, int z) {
+            return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+        }
+    }
+
+    /**
+     * long -> int 开放寻址哈希表
+     * 以代数标记有效槽位，clear() 为 O(1)
+     */
+    private static final class LongIntMap {
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private int[] stamps = new int[2048];
+        private int generation = 1;
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (stamps[slot] == generation) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (stamps[slot] == generation) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            stamps[slot] = generation;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            int[] oldStamps = stamps;
+            int oldGeneration = generation;
+
+            keys = new long[capacity];
+            values = new int[capacity];
+            stamps = new int[capacity];
+            generation = 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStamps[i] == oldGeneration) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
 }
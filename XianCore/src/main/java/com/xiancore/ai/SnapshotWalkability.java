@@ -0,0 +1,95 @@
+package com.xiancore.ai;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于区块快照的可行走数据源
+ * Snapshot Walkability - world-coordinate view over cached {@link ChunkWalkability}
+ * <p>
+ * 位置可行走的条件: 脚部及上方 (clearance - 1) 格不是固体，且脚下是固体或脚部处于液体中；
+ * 未缓存的区块视为不可通过。视图记住最近访问的区块，只供一次搜索使用，不能跨线程共享
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+public class SnapshotWalkability implements WalkabilitySource {
+
+    private final Map<Long, ChunkWalkability> chunks;
+    private final int clearance;
+
+    private long lastKey;
+    private ChunkWalkability lastChunk;
+    private final Set<ChunkWalkability> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 构造函数
+     *
+     * @param chunks    区块键 -> 区块可行走数据 (可被其他线程移除条目)
+     * @param clearance 实体需要的净空高度 (格)
+     */
+    public SnapshotWalkability(Map<Long, ChunkWalkability> chunks, int clearance) {
+        this.chunks = chunks;
+        this.clearance = Math.max(1, clearance);
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y, int z) {
+        ChunkWalkability chunk = chunkAt(x, z);
+        if (chunk == null) {
+            return false;
+        }
+
+        int localX = x & 15;
+        int localZ = z & 15;
+        byte feet = chunk.getType(localX, y, localZ);
+        if (feet == ChunkWalkability.SOLID) {
+            return false;
+        }
+        for (int dy = 1; dy < clearance; dy++) {
+            if (chunk.getType(localX, y + dy, localZ) == ChunkWalkability.SOLID) {
+                return false;
+            }
+        }
+        return feet == ChunkWalkability.LIQUID
+            || chunk.getType(localX, y - 1, localZ) == ChunkWalkability.SOLID;
+    }
+
+    /**
+     * 获取方块类型
+     *
+     * @return 方块类型，区块未缓存时返回 -1
+     */
+    public byte getType(int x, int y, int z) {
+        ChunkWalkability chunk = chunkAt(x, z);
+        return chunk != null ? chunk.getType(x & 15, y, z & 15) : -1;
+    }
+
+    /**
+     * 本视图读取过的区块是否有已失效的 (失效后的搜索结果不应被缓存)
+     */
+    public boolean isStale() {
+        for (ChunkWalkability chunk : touched) {
+            if (chunk.isInvalidated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ChunkWalkability chunkAt(int x, int z) {
+        long key = ChunkWalkability.key(x >> 4, z >> 4);
+        if (lastChunk != null && key == lastKey) {
+            return lastChunk;
+        }
+        ChunkWalkability chunk = chunks.get(key);
+        if (chunk != null) {
+            lastKey = key;
+            lastChunk = chunk;
+            touched.add(chunk);
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,249 @@
+package com.xiancore.ai;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 可行走数据提供者
+ * Walkability Provider - caches chunk snapshots as packed walkability data
+ * <p>
+ * 在主线程上为已加载的区块截取快照，寻路线程通过 {@link #view(World, int)} 读取，
+ * 不再访问世界。区块内有方块变动或区块卸载时，丢弃该区块的数据并使经过它的缓存路径失效；
+ * 下次寻路前会重新截取
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+public class WalkabilityProvider implements Listener {
+
+    private final Plugin plugin;
+    private final PathCache pathCache;
+
+    /** 世界名 -> 区块键 -> 区块可行走数据 */
+    private final Map<String, Map<Long, ChunkWalkability>> worlds = new ConcurrentHashMap<>();
+
+    private int maxChunksPerWorld = 1024;
+    private boolean started;
+
+    // ==================== 统计 ====================
+    private long captured;
+    private long invalidated;
+    private long evicted;
+
+    public WalkabilityProvider(Plugin plugin, PathCache pathCache) {
+        this.plugin = plugin;
+        this.pathCache = pathCache;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 注册方块变动监听 (主线程调用)
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        started = true;
+    }
+
+    /**
+     * 注销监听并丢弃所有数据 (主线程调用)
+     */
+    public void shutdown() {
+        if (started) {
+            HandlerList.unregisterAll(this);
+            started = false;
+        }
+        for (Map<Long, ChunkWalkability> chunks : worlds.values()) {
+            chunks.values().forEach(ChunkWalkability::invalidate);
+        }
+        worlds.clear();
+    }
+
+    // ==================== 截取 ====================
+
+    /**
+     * 截取范围内已加载且尚未缓存的区块 (主线程调用)
+     * 未加载的区块不会被加载，寻路时视为不可通过
+     *
+     * @return 本次新截取的区块数
+     */
+    public int capture(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        Map<Long, ChunkWalkability> chunks = worlds.computeIfAbsent(world.getName(), w -> new ConcurrentHashMap<>());
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+
+        int count = 0;
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                long key = ChunkWalkability.key(cx, cz);
+                if (chunks.containsKey(key) || !world.isChunkLoaded(cx, cz)) {
+                    continue;
+                }
+                Chunk chunk = world.getChunkAt(cx, cz);
+                ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, false, false);
+                chunks.put(key, new ChunkWalkability(cx, cz, minHeight, maxHeight,
+                    (x, y, z) -> classify(snapshot.getBlockType(x, y, z))));
+                count++;
+            }
+        }
+        captured += count;
+
+        if (chunks.size() > maxChunksPerWorld) {
+            evictOldest(chunks, chunks.size() - maxChunksPerWorld);
+        }
+        return count;
+    }
+
+    /**
+     * 创建世界的可行走视图 (每次搜索一个)
+     *
+     * @param clearance 实体需要的净空高度
+     */
+    public SnapshotWalkability view(World world, int clearance) {
+        Map<Long, ChunkWalkability> chunks = worlds.computeIfAbsent(world.getName(), w -> new ConcurrentHashMap<>());
+        return new SnapshotWalkability(chunks, clearance);
+    }
+
+    /**
+     * 方块材质分类
+     */
+    static byte classify(Material material) {
+        if (material == null) {
+            return ChunkWalkability.AIR;
+        }
+        if (material == Material.WATER || material == Material.LAVA || material == Material.BUBBLE_COLUMN) {
+            return ChunkWalkability.LIQUID;
+        }
+        return material.isSolid() ? ChunkWalkability.SOLID : ChunkWalkability.AIR;
+    }
+
+    /**
+     * 淘汰最早截取的区块 (只丢弃数据，不影响已缓存的路径)
+     */
+    private void evictOldest(Map<Long, ChunkWalkability> chunks, int excess) {
+        List<ChunkWalkability> ordered = new ArrayList<>(chunks.values());
+        ordered.sort(Comparator.comparingLong(ChunkWalkability::getCapturedAt));
+        for (int i = 0; i < excess && i < ordered.size(); i++) {
+            ChunkWalkability chunk = ordered.get(i);
+            chunks.remove(ChunkWalkability.key(chunk.getChunkX(), chunk.getChunkZ()));
+            chunk.invalidate();
+            evicted++;
+        }
+    }
+
+    // ==================== 失效 ====================
+
+    /**
+     * 使区块数据和经过该区块的路径失效
+     */
+    public void invalidate(World world, int chunkX, int chunkZ) {
+        Map<Long, ChunkWalkability> chunks = worlds.get(world.getName());
+        if (chunks != null) {
+            ChunkWalkability chunk = chunks.remove(ChunkWalkability.key(chunkX, chunkZ));
+            if (chunk != null) {
+                chunk.invalidate();
+                invalidated++;
+            }
+        }
+        pathCache.invalidateChunk(world.getName(), chunkX, chunkZ);
+    }
+
+    private void markChanged(Block block) {
+        invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFlow(BlockFromToEvent event) {
+        markChanged(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        event.blockList().forEach(this::markChanged);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        event.blockList().forEach(this::markChanged);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        Map<Long, ChunkWalkability> chunks = worlds.get(chunk.getWorld().getName());
+        if (chunks != null) {
+            ChunkWalkability data = chunks.remove(ChunkWalkability.key(chunk.getX(), chunk.getZ()));
+            if (data != null) {
+                data.invalidate();
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        String world = event.getWorld().getName();
+        Map<Long, ChunkWalkability> chunks = worlds.remove(world);
+        if (chunks != null) {
+            chunks.values().forEach(ChunkWalkability::invalidate);
+        }
+        pathCache.invalidateWorld(world);
+    }
+
+    // ==================== 配置与统计 ====================
+
+    public void setMaxChunksPerWorld(int maxChunksPerWorld) {
+        this.maxChunksPerWorld = Math.max(16, maxChunksPerWorld);
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        int cachedChunks = 0;
+        int encodedSections = 0;
+        for (Map<Long, ChunkWalkability> chunks : worlds.values()) {
+            cachedChunks += chunks.size();
+            for (ChunkWalkability chunk : chunks.values()) {
+                encodedSections += chunk.getEncodedSectionCount();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cached_chunks", cachedChunks);
+        stats.put("encoded_sections", encodedSections);
+        stats.put("captured", captured);
+        stats.put("invalidated", invalidated);
+        stats.put("evicted", evicted);
+        return stats;
+    }
+}
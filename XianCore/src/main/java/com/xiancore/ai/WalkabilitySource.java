@@ -0,0 +1,19 @@
+package com.xiancore.ai;
+
+/**
+ * 可行走数据源
+ * Walkability Source - pluggable block passability for {@link PathfindingAI}
+ * <p>
+ * 寻路在工作线程上执行时，实现不能访问 Bukkit 世界，只能读取预先截取的数据
+ *
+ * @author XianCore
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface WalkabilitySource {
+
+    /**
+     * 检查实体能否站在给定方块位置 (脚部坐标)
+     */
+    boolean isWalkable(int x, int y, int z);
+}
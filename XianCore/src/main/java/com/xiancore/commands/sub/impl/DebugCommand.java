@@ -2,13 +2,19 @@ package com.xiancore.commands.sub.impl;
 
 import com.xiancore.XianCore;
 import com.xiancore.commands.sub.AbstractSubCommand;
+import com.xiancore.core.data.StatementMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * 调试命令
  * /xiancore debug
+ * /xiancore debug sql [reset] - 查看/重置 SQL 语句耗时统计
  *
  * @author XianCore Team
  * @version 1.0.0
@@ -36,7 +42,7 @@ public class DebugCommand extends AbstractSubCommand {
 
     @Override
     public String getUsage() {
-        return "/xiancore debug";
+        return "/xiancore debug [sql [reset]]";
     }
 
     @Override
@@ -50,6 +56,11 @@ public class DebugCommand extends AbstractSubCommand {
             return;
         }
 
+        if (args.length > 0 && args[0].equalsIgnoreCase("sql")) {
+            showStatementMetrics(sender, args.length > 1 && args[1].equalsIgnoreCase("reset"));
+            return;
+        }
+
         // 切换调试模式
         boolean currentDebugMode = plugin.isDebugMode();
         boolean newDebugMode = !currentDebugMode;
@@ -73,4 +84,47 @@ public class DebugCommand extends AbstractSubCommand {
             }
         }
     }
+
+    /**
+     * 显示累计耗时最高的 SQL 语句
+     */
+    private void showStatementMetrics(CommandSender sender, boolean reset) {
+        StatementMetrics metrics = plugin.getDataManager().getDatabaseManager().getStatementMetrics();
+        if (reset) {
+            metrics.reset();
+            sendSuccess(sender, "§aSQL 统计已重置");
+            return;
+        }
+
+        List<StatementMetrics.Histogram> top = metrics.getTop(10);
+        sendInfo(sender, "§6===== SQL 语句耗时（按累计耗时排序） =====");
+        sendInfo(sender, "§7工作单元（连接获取）次数: §f" + metrics.getConnectionCount());
+        if (top.isEmpty()) {
+            sendInfo(sender, "§7暂无数据（未启用数据库或尚未执行语句）");
+            return;
+        }
+
+        for (StatementMetrics.Histogram histogram : top) {
+            String sql = histogram.getSql().replaceAll("\\s+", " ").trim();
+            if (sql.length() > 60) {
+                sql = sql.substring(0, 57) + "...";
+            }
+            sendInfo(sender, "§f" + sql);
+            sendInfo(sender, String.format("  §7次数 §f%d §7平均 §f%.2fms §7p50 §f%.2fms §7p99 §f%.2fms §7最大 §f%.2fms §7累计 §f%.0fms",
+                    histogram.getCount(), histogram.getMeanMillis(),
+                    histogram.getPercentileMillis(0.5), histogram.getPercentileMillis(0.99),
+                    histogram.getMaxMillis(), histogram.getTotalNanos() / 1_000_000.0));
+        }
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            return filterTabComplete(Arrays.asList("sql"), args[0]);
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("sql")) {
+            return filterTabComplete(Arrays.asList("reset"), args[1]);
+        }
+        return new ArrayList<>();
+    }
 }
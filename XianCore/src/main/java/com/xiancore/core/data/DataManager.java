@@ -10,6 +10,7 @@ import lombok.Getter;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -79,6 +80,9 @@ public class DataManager {
         // 2. 创建/迁移表结构
         schemaManager.initialize();
 
+        // 3. 启动玩家数据延迟写入
+        playerRepository.initialize();
+
         plugin.getLogger().info("§a数据管理器初始化完成!");
     }
 
@@ -94,6 +98,16 @@ public class DataManager {
         return playerRepository.load(uuid);
     }
 
+    /**
+     * 预加载玩家数据（异步线程调用，加载结果进入缓存）
+     *
+     * @param uuid 玩家 UUID
+     * @return 玩家数据，如果不存在返回 null
+     */
+    public PlayerData preloadPlayerData(UUID uuid) {
+        return playerRepository.preload(uuid);
+    }
+
     /**
      * 创建新玩家数据
      *
@@ -113,6 +127,24 @@ public class DataManager {
         playerRepository.save(data);
     }
 
+    /**
+     * 标记玩家在线（数据常驻缓存）
+     *
+     * @param data 玩家数据
+     */
+    public void markPlayerOnline(PlayerData data) {
+        playerRepository.markOnline(data);
+    }
+
+    /**
+     * 标记玩家离线（数据进入可淘汰的离线缓存）
+     *
+     * @param uuid 玩家 UUID
+     */
+    public void markPlayerOffline(UUID uuid) {
+        playerRepository.markOffline(uuid);
+    }
+
     /**
      * 移除玩家数据缓存
      *
@@ -142,6 +174,16 @@ public class DataManager {
         sectRepository.save(sect);
     }
 
+    /**
+     * 批量保存宗门数据（未变化的宗门跳过）
+     *
+     * @param sects 宗门列表
+     * @return 实际写入的宗门数
+     */
+    public int saveSects(Collection<Sect> sects) {
+        return sectRepository.saveDirty(sects);
+    }
+
     /**
      * 加载所有宗门数据
      *
@@ -241,16 +283,16 @@ public class DataManager {
      * @throws RuntimeException 如果保存失败，事务会回滚
      */
     public void savePlayerAndSectAtomic(PlayerData playerData, Sect sect) {
-        if (!databaseManager.isUseMySql()) {
+        if (!databaseManager.isUseSql()) {
             // 降级为普通保存
             savePlayerData(playerData);
             saveSect(sect);
             return;
         }
 
-        transactionManager.executeInTransactionVoid(conn -> {
-            playerRepository.saveWithConnection(conn, playerData);
-            sectRepository.saveWithConnection(conn, sect);
+        transactionManager.executeInTransactionVoid(work -> {
+            playerRepository.save(work, playerData);
+            sectRepository.save(work, sect);
         });
 
         plugin.getLogger().fine(String.format("§a事务提交成功: 玩家=%s, 宗门=%s",
@@ -275,6 +317,7 @@ public class DataManager {
      */
     public void shutdown() {
         saveAll();
+        playerRepository.shutdown();
         databaseManager.shutdown();
     }
 
@@ -298,11 +341,20 @@ public class DataManager {
     }
 
     /**
-     * 检查 MySQL 连接是否可用
+     * 检查是否使用 SQL 数据库（MySQL 或 SQLite）
+     *
+     * @return 是否使用 SQL
+     */
+    public boolean isUsingSql() {
+        return databaseManager.isUseSql();
+    }
+
+    /**
+     * 检查 SQL 数据库连接是否可用（MySQL 或 SQLite）
      *
      * @return 是否可用
      */
-    public boolean isMySqlAvailable() {
+    public boolean isSqlAvailable() {
         return databaseManager.isAvailable();
     }
 
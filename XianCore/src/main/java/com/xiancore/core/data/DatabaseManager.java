@@ -6,12 +6,13 @@ import com.zaxxer.hikari.HikariDataSource;
 import lombok.Getter;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
  * 数据库连接管理器
- * 负责 HikariCP 连接池的初始化、获取连接、关闭
+ * 负责 HikariCP 连接池（MySQL）或 SQLite 数据库的初始化、获取连接、关闭
  *
  * @author Olivia Diaz
  * @version 1.0.0
@@ -20,10 +21,23 @@ public class DatabaseManager {
 
     private final XianCore plugin;
     private HikariDataSource dataSource;
+    private SqliteDatabase sqlite;
 
     @Getter
     private boolean useMySql = false;
 
+    /**
+     * 当前 SQL 方言（仅在 isUseSql() 时有意义）
+     */
+    @Getter
+    private SqlDialect dialect = SqlDialect.MYSQL;
+
+    /**
+     * 语句耗时统计（所有工作单元共用）
+     */
+    @Getter
+    private final StatementMetrics statementMetrics = new StatementMetrics();
+
     public DatabaseManager(XianCore plugin) {
         this.plugin = plugin;
     }
@@ -37,11 +51,32 @@ public class DatabaseManager {
 
         if (useMySql) {
             setupHikariCP(config);
+        } else if (config.getBoolean("database.sqlite.enabled", false)) {
+            setupSqlite(config);
         } else {
             plugin.getLogger().info("使用本地文件存储（YAML）");
         }
     }
 
+    /**
+     * 打开 SQLite 数据库（WAL 模式，单写连接 + 只读连接池）
+     */
+    private void setupSqlite(FileConfiguration config) {
+        File file = new File(plugin.getDataFolder(), config.getString("database.sqlite.file", "xiancore.db"));
+        int readerPoolSize = config.getInt("database.sqlite.reader-pool-size", 4);
+        int busyTimeout = config.getInt("database.sqlite.busy-timeout", 5000);
+
+        try {
+            sqlite = new SqliteDatabase(file, readerPoolSize, busyTimeout);
+            dialect = SqlDialect.SQLITE;
+            plugin.getLogger().info("§a✓ SQLite 数据库已打开: " + file.getName() + "（读连接: " + readerPoolSize + "）");
+        } catch (Exception e) {
+            plugin.getLogger().severe("§c✗ SQLite 数据库打开失败: " + e.getMessage());
+            plugin.getLogger().warning("§e切换到本地文件存储（YAML）");
+            sqlite = null;
+        }
+    }
+
     /**
      * 设置 HikariCP 连接池
      */
@@ -54,8 +89,10 @@ public class DatabaseManager {
         String username = config.getString("database.username", "root");
         String password = config.getString("database.password", "password");
 
+        // rewriteBatchedStatements: 批处理的 INSERT 合并为多行语句，减少批量保存的往返次数
         String jdbcUrl = String.format(
-                "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai",
+                "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai"
+                        + "&rewriteBatchedStatements=true",
                 host, port, database
         );
 
@@ -94,13 +131,26 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * 是否使用 SQL 数据库存储（MySQL 或 SQLite）
+     *
+     * @return 是否使用 SQL
+     */
+    public boolean isUseSql() {
+        return useMySql || sqlite != null;
+    }
+
     /**
      * 获取数据库连接
+     * SQLite 下返回唯一的写连接，关闭前其他线程的写操作会等待
      *
      * @return 数据库连接
      * @throws SQLException 如果获取连接失败
      */
     public Connection getConnection() throws SQLException {
+        if (sqlite != null) {
+            return sqlite.getWriteConnection();
+        }
         if (!useMySql || dataSource == null) {
             throw new SQLException("MySQL 未启用或连接池未初始化");
         }
@@ -108,11 +158,49 @@ public class DatabaseManager {
     }
 
     /**
-     * 检查数据库连接是否可用
+     * 获取只读数据库连接
+     * SQLite 下从只读连接池获取，不占用写连接；MySQL 下与 getConnection() 相同
+     *
+     * @return 数据库连接
+     * @throws SQLException 如果获取连接失败
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (sqlite != null) {
+            return sqlite.getReadConnection();
+        }
+        return getConnection();
+    }
+
+    /**
+     * 开启一个工作单元（读写）
+     * 仓储的一次逻辑操作使用一个工作单元，只占用一个连接
+     *
+     * @return 工作单元
+     * @throws SQLException 如果获取连接失败
+     */
+    public UnitOfWork beginWork() throws SQLException {
+        return new UnitOfWork(getConnection(), dialect, statementMetrics);
+    }
+
+    /**
+     * 开启一个只读工作单元（SQLite 下不占用写连接）
+     *
+     * @return 工作单元
+     * @throws SQLException 如果获取连接失败
+     */
+    public UnitOfWork beginReadWork() throws SQLException {
+        return new UnitOfWork(getReadConnection(), dialect, statementMetrics);
+    }
+
+    /**
+     * 检查数据库连接是否可用（MySQL 或 SQLite）
      *
      * @return 是否可用
      */
     public boolean isAvailable() {
+        if (sqlite != null) {
+            return sqlite.isAvailable();
+        }
         if (!useMySql || dataSource == null) {
             return false;
         }
@@ -131,5 +219,10 @@ public class DatabaseManager {
             dataSource.close();
             plugin.getLogger().info("§a数据库连接池已关闭");
         }
+        if (sqlite != null) {
+            sqlite.close();
+            sqlite = null;
+            plugin.getLogger().info("§aSQLite 数据库已关闭");
+        }
     }
 }
@@ -290,6 +290,43 @@ public class PlayerData {
         return new HashMap<>(this.learnedSkills);
     }
     
+    /**
+     * 创建独立副本（复制所有集合）
+     * 供后台线程写入使用，必须在修改数据的线程（主线程）上调用
+     */
+    public PlayerData copy() {
+        PlayerData copy = new PlayerData(this.uuid);
+        copy.name = this.name;
+        copy.realm = this.realm;
+        copy.realmStage = this.realmStage;
+        copy.qi = this.qi;
+        copy.spiritualRoot = this.spiritualRoot;
+        copy.spiritualRootType = this.spiritualRootType;
+        copy.comprehension = this.comprehension;
+        copy.techniqueAdaptation = this.techniqueAdaptation;
+        copy.spiritStones = this.spiritStones;
+        copy.contributionPoints = this.contributionPoints;
+        copy.skillPoints = this.skillPoints;
+        copy.playerLevel = this.playerLevel;
+        copy.equipment = new HashMap<>(this.equipment);
+        copy.sectId = this.sectId;
+        copy.sectRank = this.sectRank;
+        copy.learnedSkills = new HashMap<>(this.learnedSkills);
+        copy.skillBindings = new HashMap<>(this.skillBindings);
+        copy.lastLogin = this.lastLogin;
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        copy.breakthroughAttempts = this.breakthroughAttempts;
+        copy.successfulBreakthroughs = this.successfulBreakthroughs;
+        copy.tribulationCount = this.tribulationCount;
+        copy.successfulTribulations = this.successfulTribulations;
+        copy.activeQi = this.activeQi;
+        copy.lastFateTime = this.lastFateTime;
+        copy.fateCount = this.fateCount;
+        copy.cultivating = this.cultivating;
+        return copy;
+    }
+
     /**
      * 获取灵根显示名称（带颜色）
      */
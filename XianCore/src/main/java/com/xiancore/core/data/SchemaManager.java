@@ -27,12 +27,15 @@ public class SchemaManager {
      * 初始化 Schema（创建表和执行迁移）
      */
     public void initialize() {
-        if (!databaseManager.isUseMySql()) {
+        if (!databaseManager.isUseSql()) {
             return;
         }
 
         createTables();
-        runMigrations();
+        // 迁移只针对旧版 MySQL 表结构，SQLite 库由当前建表语句直接创建
+        if (databaseManager.getDialect() == SqlDialect.MYSQL) {
+            runMigrations();
+        }
     }
 
     /**
@@ -43,7 +46,7 @@ public class SchemaManager {
              Statement stmt = conn.createStatement()) {
 
             // 玩家数据表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_players (
                         uuid VARCHAR(36) PRIMARY KEY,
                         name VARCHAR(16) NOT NULL,
@@ -75,7 +78,7 @@ public class SchemaManager {
                     """);
 
             // 玩家功法表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_player_skills (
                         player_uuid VARCHAR(36) NOT NULL,
                         skill_id VARCHAR(64) NOT NULL,
@@ -87,7 +90,7 @@ public class SchemaManager {
                     """);
 
             // 玩家装备表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_player_equipment (
                         player_uuid VARCHAR(36) NOT NULL,
                         slot VARCHAR(32) NOT NULL,
@@ -99,7 +102,7 @@ public class SchemaManager {
                     """);
 
             // 宗门数据表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_sects (
                         id INT AUTO_INCREMENT PRIMARY KEY,
                         name VARCHAR(32) UNIQUE NOT NULL,
@@ -130,7 +133,7 @@ public class SchemaManager {
                     """);
 
             // 宗门成员表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_sect_members (
                         sect_id INT NOT NULL,
                         player_uuid VARCHAR(36) NOT NULL,
@@ -150,7 +153,7 @@ public class SchemaManager {
                     """);
 
             // 天劫数据表
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_tribulations (
                         tribulation_uuid VARCHAR(36) PRIMARY KEY,
                         player_uuid VARCHAR(36) NOT NULL,
@@ -176,7 +179,7 @@ public class SchemaManager {
                     """);
 
             // 玩家技能绑定表（新增）
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_player_skill_binds (
                         player_uuid VARCHAR(36) NOT NULL,
                         slot INT NOT NULL,
@@ -187,7 +190,7 @@ public class SchemaManager {
                     """);
 
             // 宗门设施表（新增）
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_sect_facilities (
                         sect_id INT NOT NULL,
                         facility_type VARCHAR(32) NOT NULL,
@@ -200,7 +203,7 @@ public class SchemaManager {
                     """);
 
             // 宗门仓库表（新增）
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_sect_warehouses (
                         sect_id INT PRIMARY KEY,
                         capacity INT DEFAULT 54,
@@ -210,7 +213,7 @@ public class SchemaManager {
                     """);
 
             // 功法配置表（新增）
-            stmt.execute("""
+            createTable(stmt, """
                     CREATE TABLE IF NOT EXISTS xian_skills (
                         id VARCHAR(64) PRIMARY KEY,
                         name VARCHAR(128) NOT NULL,
@@ -238,7 +241,41 @@ public class SchemaManager {
                     ) ENGINE=InnoDB DEFAULT CHARSET=utf8
                     """);
 
-            plugin.getLogger().info("§a✓ 数据表创建/检查完成（包含4张新表）");
+            // Boss 战斗历史表
+            createTable(stmt, """
+                    CREATE TABLE IF NOT EXISTS xian_boss_fights (
+                        id VARCHAR(64) PRIMARY KEY,
+                        boss_uuid VARCHAR(36) NOT NULL,
+                        boss_type VARCHAR(64) DEFAULT 'Unknown',
+                        boss_tier INT DEFAULT 1,
+                        start_time BIGINT NOT NULL,
+                        end_time BIGINT NOT NULL,
+                        duration_seconds BIGINT DEFAULT 0,
+                        total_damage DOUBLE DEFAULT 0,
+                        total_hits INT DEFAULT 0,
+                        participant_count INT DEFAULT 0,
+                        archived BOOLEAN DEFAULT FALSE,
+                        created_at BIGINT,
+                        INDEX idx_boss_time (boss_uuid, start_time),
+                        INDEX idx_start_time (start_time)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8
+                    """);
+
+            // Boss 战斗参与者表
+            createTable(stmt, """
+                    CREATE TABLE IF NOT EXISTS xian_boss_fight_participants (
+                        fight_id VARCHAR(64) NOT NULL,
+                        player_uuid VARCHAR(36) NOT NULL,
+                        damage DOUBLE NOT NULL,
+                        hits INT DEFAULT 0,
+                        last_damage_time BIGINT DEFAULT 0,
+                        PRIMARY KEY (fight_id, player_uuid),
+                        FOREIGN KEY (fight_id) REFERENCES xian_boss_fights(id) ON DELETE CASCADE,
+                        INDEX idx_player_damage (player_uuid, damage)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8
+                    """);
+
+            plugin.getLogger().info("§a✓ 数据表创建/检查完成");
 
         } catch (SQLException e) {
             plugin.getLogger().severe("§c✗ 创建数据表失败!");
@@ -246,6 +283,18 @@ public class SchemaManager {
         }
     }
 
+    /**
+     * 按当前方言执行建表语句
+     *
+     * @param stmt Statement
+     * @param ddl  MySQL 语法的建表语句
+     */
+    private void createTable(Statement stmt, String ddl) throws SQLException {
+        for (String sql : databaseManager.getDialect().createTable(ddl)) {
+            stmt.execute(sql);
+        }
+    }
+
     /**
      * 执行数据库迁移
      */
@@ -0,0 +1,92 @@
+package com.xiancore.core.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 方言
+ * 仓储中的 SQL 统一按 MySQL 语法编写，使用 SQLite 时在这里转换
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public enum SqlDialect {
+
+    MYSQL,
+    SQLITE;
+
+    private static final String MYSQL_UPSERT = "ON DUPLICATE KEY UPDATE";
+    private static final Pattern VALUES_REFERENCE = Pattern.compile("VALUES\\((`?\\w+`?)\\)");
+
+    private static final Pattern TABLE_NAME = Pattern.compile("CREATE TABLE IF NOT EXISTS\\s+(\\w+)");
+    private static final Pattern INLINE_INDEX = Pattern.compile("^\\s*INDEX\\s+(\\w+)\\s*\\(([^)]*)\\),?\\s*$",
+            Pattern.MULTILINE);
+    private static final Pattern TABLE_OPTIONS = Pattern.compile("\\)\\s*ENGINE=[^\\n]*");
+    private static final Pattern TRAILING_COMMA = Pattern.compile(",(\\s*\\)\\s*)$");
+
+    /** 转换结果缓存（SQL 常量数量有限） */
+    private final Map<String, String> upsertCache = new ConcurrentHashMap<>();
+
+    /**
+     * 转换 UPSERT 语句
+     * MySQL: ON DUPLICATE KEY UPDATE c = VALUES(c)
+     * SQLite: ON CONFLICT(主键列) DO UPDATE SET c = excluded.c
+     *
+     * @param sql             MySQL 语法的 UPSERT
+     * @param conflictColumns 主键/唯一键列（逗号分隔）
+     * @return 当前方言的 UPSERT
+     */
+    public String upsert(String sql, String conflictColumns) {
+        if (this == MYSQL) {
+            return sql;
+        }
+        return upsertCache.computeIfAbsent(conflictColumns + '|' + sql, key -> {
+            int at = sql.indexOf(MYSQL_UPSERT);
+            if (at < 0) {
+                return sql;
+            }
+            String assignments = VALUES_REFERENCE.matcher(sql.substring(at + MYSQL_UPSERT.length()))
+                    .replaceAll("excluded.$1");
+            return sql.substring(0, at) + "ON CONFLICT(" + conflictColumns + ") DO UPDATE SET" + assignments;
+        });
+    }
+
+    /**
+     * 转换建表语句
+     * SQLite 不支持表选项、AUTO_INCREMENT 和内联索引，内联索引拆成单独的 CREATE INDEX
+     *
+     * @param ddl MySQL 语法的 CREATE TABLE IF NOT EXISTS
+     * @return 需要依次执行的语句
+     */
+    public List<String> createTable(String ddl) {
+        List<String> statements = new ArrayList<>();
+        if (this == MYSQL) {
+            statements.add(ddl);
+            return statements;
+        }
+
+        Matcher nameMatcher = TABLE_NAME.matcher(ddl);
+        String table = nameMatcher.find() ? nameMatcher.group(1) : "";
+
+        List<String> indexes = new ArrayList<>();
+        Matcher indexMatcher = INLINE_INDEX.matcher(ddl);
+        while (indexMatcher.find()) {
+            // SQLite 的索引名在库内全局唯一，加上表名前缀
+            indexes.add("CREATE INDEX IF NOT EXISTS " + table + "_" + indexMatcher.group(1)
+                    + " ON " + table + " (" + indexMatcher.group(2) + ")");
+        }
+
+        String sql = INLINE_INDEX.matcher(ddl).replaceAll("");
+        sql = TABLE_OPTIONS.matcher(sql).replaceAll(")");
+        sql = sql.replace("INT AUTO_INCREMENT PRIMARY KEY", "INTEGER PRIMARY KEY AUTOINCREMENT");
+        sql = TRAILING_COMMA.matcher(sql.strip()).replaceAll("$1");
+
+        statements.add(sql);
+        statements.addAll(indexes);
+        return statements;
+    }
+}
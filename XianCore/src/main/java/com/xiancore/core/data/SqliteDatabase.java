@@ -0,0 +1,212 @@
+package com.xiancore.core.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SQLite 数据库（WAL 模式）
+ * <p>
+ * SQLite 同一时间只允许一个写事务，多个连接并发写只会互相等待 busy_timeout，
+ * 所以这里只保留一个写连接，由公平锁串行化；读操作走独立的只读连接池，
+ * 在 WAL 模式下读不会阻塞写，也不会被写阻塞。
+ * <p>
+ * 写连接以代理形式借出，调用方照常 try-with-resources 关闭即可归还；
+ * 归还时若还有未提交的事务会回滚，并恢复自动提交
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class SqliteDatabase {
+
+    /** 等待写连接的最长时间（秒） */
+    private static final long WRITE_LOCK_TIMEOUT_SECONDS = 30;
+
+    private final File file;
+    private final String jdbcUrl;
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+
+    private Connection writer;
+    private HikariDataSource readers;
+
+    /**
+     * 打开数据库
+     *
+     * @param file           数据库文件
+     * @param readerPoolSize 只读连接数
+     * @param busyTimeout    锁等待超时（毫秒）
+     * @throws SQLException 驱动不可用或文件无法打开
+     */
+    public SqliteDatabase(File file, int readerPoolSize, int busyTimeout) throws SQLException {
+        this.file = file;
+        this.jdbcUrl = "jdbc:sqlite:" + file.getAbsolutePath();
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("未找到 SQLite 驱动", e);
+        }
+
+        // journal_mode 是持久化到文件的，写连接设置一次后读连接也会使用 WAL
+        writer = DriverManager.getConnection(jdbcUrl, connectionProperties(busyTimeout));
+
+        try {
+            HikariConfig hikariConfig = new HikariConfig();
+            hikariConfig.setPoolName("XianCore-SQLite-Read");
+            hikariConfig.setDriverClassName("org.sqlite.JDBC");
+            hikariConfig.setJdbcUrl(jdbcUrl);
+            hikariConfig.setDataSourceProperties(connectionProperties(busyTimeout));
+            hikariConfig.setMaximumPoolSize(Math.max(1, readerPoolSize));
+            hikariConfig.setMinimumIdle(1);
+            hikariConfig.setConnectionInitSql("PRAGMA query_only = 1");
+            readers = new HikariDataSource(hikariConfig);
+        } catch (RuntimeException e) {
+            writer.close();
+            throw new SQLException("SQLite 读连接池初始化失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 借出写连接，在 close() 之前其他线程无法写入
+     * 同一线程可重入（嵌套借出共享同一个事务）
+     *
+     * @return 写连接
+     * @throws SQLException 等待超时或数据库已关闭
+     */
+    public Connection getWriteConnection() throws SQLException {
+        try {
+            if (!writeLock.tryLock(WRITE_LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("等待 SQLite 写连接超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待 SQLite 写连接时被中断", e);
+        }
+
+        if (writer == null) {
+            writeLock.unlock();
+            throw new SQLException("SQLite 数据库已关闭");
+        }
+        return lease(writer);
+    }
+
+    /**
+     * 获取只读连接
+     *
+     * @return 只读连接
+     * @throws SQLException 获取失败
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (readers == null || readers.isClosed()) {
+            throw new SQLException("SQLite 数据库已关闭");
+        }
+        return readers.getConnection();
+    }
+
+    /**
+     * 检查数据库是否可用
+     *
+     * @return 是否可用
+     */
+    public boolean isAvailable() {
+        try (Connection conn = getReadConnection()) {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 关闭数据库（等待正在进行的写操作完成）
+     */
+    public void close() {
+        if (readers != null && !readers.isClosed()) {
+            readers.close();
+        }
+
+        writeLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } catch (SQLException ignored) {
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 包装写连接：close() 只归还锁，不关闭底层连接
+     */
+    private Connection lease(Connection target) {
+        boolean[] released = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!released[0]) {
+                                released[0] = true;
+                                release(target);
+                            }
+                            return null;
+                        case "isClosed":
+                            return released[0] || target.isClosed();
+                        case "unwrap":
+                            return target.unwrap((Class<?>) args[0]);
+                        default:
+                            if (released[0]) {
+                                throw new SQLException("SQLite 写连接已归还");
+                            }
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    private void release(Connection target) throws SQLException {
+        try {
+            // 最外层归还时清理未完成的事务，避免影响下一个使用者
+            if (writeLock.getHoldCount() == 1 && !target.getAutoCommit()) {
+                target.rollback();
+                target.setAutoCommit(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Properties connectionProperties(int busyTimeout) {
+        Properties properties = new Properties();
+        properties.setProperty("journal_mode", "WAL");
+        properties.setProperty("synchronous", "NORMAL");
+        properties.setProperty("foreign_keys", "true");
+        properties.setProperty("busy_timeout", String.valueOf(busyTimeout));
+        return properties;
+    }
+}
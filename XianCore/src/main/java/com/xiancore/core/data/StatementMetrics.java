@@ -0,0 +1,153 @@
+package com.xiancore.core.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL 语句耗时统计
+ * 按 SQL 文本分别记录执行次数和耗时分布，用于定位占用数据库时间最多的语句
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class StatementMetrics {
+
+    /** 统计的语句种类上限（SQL 均为常量，正常情况下远小于该值） */
+    private static final int MAX_STATEMENTS = 512;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final LongAdder connections = new LongAdder();
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param sql          SQL 文本
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void record(String sql, long elapsedNanos) {
+        Histogram histogram = histograms.get(sql);
+        if (histogram == null) {
+            if (histograms.size() >= MAX_STATEMENTS) {
+                return;
+            }
+            histogram = histograms.computeIfAbsent(sql, Histogram::new);
+        }
+        histogram.record(elapsedNanos);
+    }
+
+    /**
+     * 记录一次获取连接（一个工作单元）
+     */
+    public void recordConnection() {
+        connections.increment();
+    }
+
+    public long getConnectionCount() {
+        return connections.sum();
+    }
+
+    /**
+     * 按累计耗时从高到低排序的统计
+     *
+     * @param limit 最多返回的条数
+     * @return 统计列表
+     */
+    public List<Histogram> getTop(int limit) {
+        List<Histogram> list = new ArrayList<>(histograms.values());
+        list.sort(Comparator.comparingLong(Histogram::getTotalNanos).reversed());
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        histograms.clear();
+        connections.reset();
+    }
+
+    /**
+     * 单条语句的耗时分布
+     * 第 i 个桶统计耗时在 [2^(i-1), 2^i) 微秒之间的执行次数
+     */
+    public static class Histogram {
+
+        private static final int BUCKETS = 32;
+
+        private final String sql;
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Histogram(String sql) {
+            this.sql = sql;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsedNanos) {
+            long micros = Math.max(0, elapsedNanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getMeanMillis() {
+            long n = getCount();
+            return n == 0 ? 0 : getTotalNanos() / 1_000_000.0 / n;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        /**
+         * 估算分位数（返回所在桶的上界）
+         *
+         * @param quantile 分位（0-1）
+         * @return 耗时上界（毫秒）
+         */
+        public double getPercentileMillis(double quantile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets[i].sum();
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    return (1L << i) / 1000.0;
+                }
+            }
+            return getMaxMillis();
+        }
+    }
+}
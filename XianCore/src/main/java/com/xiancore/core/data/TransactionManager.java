@@ -1,6 +1,5 @@
 package com.xiancore.core.data;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.logging.Logger;
 
@@ -30,25 +29,22 @@ public class TransactionManager {
      * @throws DataAccessException 如果事务执行失败
      */
     public <T> T executeInTransaction(TransactionCallback<T> callback) {
-        if (!databaseManager.isUseMySql()) {
-            throw new IllegalStateException("事务仅支持 MySQL 模式");
+        if (!databaseManager.isUseSql()) {
+            throw new IllegalStateException("事务仅支持数据库模式（MySQL / SQLite）");
         }
 
-        Connection conn = null;
-        try {
-            conn = databaseManager.getConnection();
-            conn.setAutoCommit(false);
-
-            T result = callback.execute(conn);
-
-            conn.commit();
-            return result;
-
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            work.begin();
+            try {
+                T result = callback.execute(work);
+                work.commit();
+                return result;
+            } catch (Exception e) {
+                rollbackQuietly(work);
+                throw e;
+            }
         } catch (Exception e) {
-            rollbackQuietly(conn);
             throw new DataAccessException("事务执行失败", e);
-        } finally {
-            closeQuietly(conn);
         }
     }
 
@@ -59,8 +55,8 @@ public class TransactionManager {
      * @throws DataAccessException 如果事务执行失败
      */
     public void executeInTransactionVoid(TransactionVoidCallback callback) {
-        executeInTransaction(conn -> {
-            callback.execute(conn);
+        executeInTransaction(work -> {
+            callback.execute(work);
             return null;
         });
     }
@@ -68,27 +64,12 @@ public class TransactionManager {
     /**
      * 静默回滚事务
      */
-    private void rollbackQuietly(Connection conn) {
-        if (conn != null) {
-            try {
-                conn.rollback();
-                logger.warning("§c事务已回滚");
-            } catch (SQLException e) {
-                logger.severe("§c事务回滚失败: " + e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * 静默关闭连接
-     */
-    private void closeQuietly(Connection conn) {
-        if (conn != null) {
-            try {
-                conn.setAutoCommit(true);
-                conn.close();
-            } catch (SQLException ignored) {
-            }
+    private void rollbackQuietly(UnitOfWork work) {
+        try {
+            work.rollback();
+            logger.warning("§c事务已回滚");
+        } catch (SQLException e) {
+            logger.severe("§c事务回滚失败: " + e.getMessage());
         }
     }
 
@@ -97,7 +78,7 @@ public class TransactionManager {
      */
     @FunctionalInterface
     public interface TransactionCallback<T> {
-        T execute(Connection conn) throws SQLException;
+        T execute(UnitOfWork work) throws SQLException;
     }
 
     /**
@@ -105,6 +86,6 @@ public class TransactionManager {
      */
     @FunctionalInterface
     public interface TransactionVoidCallback {
-        void execute(Connection conn) throws SQLException;
+        void execute(UnitOfWork work) throws SQLException;
     }
 }
@@ -0,0 +1,219 @@
+package com.xiancore.core.data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 工作单元：一次逻辑操作（加载一个玩家、保存一个宗门等）绑定一个连接
+ * <p>
+ * 同一工作单元内相同 SQL 只预编译一次，语句由工作单元统一关闭，调用方关闭语句不会真正关闭；
+ * 所有 execute* 调用都会计入 {@link StatementMetrics}。
+ * <p>
+ * 非线程安全，只在打开它的线程内使用，用 try-with-resources 关闭
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private final Connection connection;
+    private final SqlDialect dialect;
+    private final StatementMetrics metrics;
+
+    /** SQL → 已预编译语句（计时代理） */
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Map<String, PreparedStatement> targets = new HashMap<>();
+
+    private boolean inTransaction;
+    private boolean closed;
+
+    UnitOfWork(Connection connection, SqlDialect dialect, StatementMetrics metrics) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.metrics = metrics;
+        metrics.recordConnection();
+    }
+
+    /**
+     * 获取预编译语句（同一工作单元内复用）
+     * 复用的语句参数会保留上次的值，调用方需要重新绑定全部参数
+     *
+     * @param sql SQL
+     * @return 预编译语句
+     * @throws SQLException 预编译失败
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        ensureOpen();
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            PreparedStatement target = connection.prepareStatement(sql);
+            statement = timed(sql, target);
+            targets.put(sql, target);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * 获取按当前方言转换后的 UPSERT 语句
+     *
+     * @param sql             MySQL 语法的 UPSERT
+     * @param conflictColumns 主键/唯一键列
+     * @return 预编译语句
+     * @throws SQLException 预编译失败
+     */
+    public PreparedStatement prepareUpsert(String sql, String conflictColumns) throws SQLException {
+        return prepare(dialect.upsert(sql, conflictColumns));
+    }
+
+    // ==================== 事务 ====================
+
+    /**
+     * 开启事务（关闭前未提交会自动回滚）
+     *
+     * @throws SQLException SQL 异常
+     */
+    public void begin() throws SQLException {
+        ensureOpen();
+        if (!inTransaction) {
+            connection.setAutoCommit(false);
+            inTransaction = true;
+        }
+    }
+
+    /**
+     * 提交事务并恢复自动提交
+     *
+     * @throws SQLException SQL 异常
+     */
+    public void commit() throws SQLException {
+        if (!inTransaction) {
+            return;
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        inTransaction = false;
+    }
+
+    /**
+     * 回滚事务并恢复自动提交
+     *
+     * @throws SQLException SQL 异常
+     */
+    public void rollback() throws SQLException {
+        if (!inTransaction) {
+            return;
+        }
+        inTransaction = false;
+        try {
+            connection.rollback();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    public boolean isInTransaction() {
+        return inTransaction;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * 底层连接（用于需要直接访问 JDBC 的场景，不要关闭它）
+     *
+     * @return 连接
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * 关闭全部语句，回滚未提交的事务，归还连接
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        SQLException failure = null;
+        for (PreparedStatement target : targets.values()) {
+            try {
+                target.close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        statements.clear();
+        targets.clear();
+
+        try {
+            rollback();
+        } catch (SQLException e) {
+            failure = failure != null ? failure : e;
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            failure = failure != null ? failure : e;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("工作单元已关闭");
+        }
+    }
+
+    /**
+     * 包装语句：execute* 计时，close() 交由工作单元处理
+     */
+    private PreparedStatement timed(String sql, PreparedStatement target) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        return null;
+                    }
+                    if (name.equals("isClosed")) {
+                        return closed || target.isClosed();
+                    }
+
+                    if (!name.startsWith("execute")) {
+                        return invoke(method, target, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(method, target, args);
+                    } finally {
+                        metrics.record(sql, System.nanoTime() - start);
+                    }
+                });
+    }
+}
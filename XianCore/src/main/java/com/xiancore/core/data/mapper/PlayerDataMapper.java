@@ -5,6 +5,9 @@ import com.xiancore.core.data.SpiritualRootType;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,7 +16,7 @@ import java.util.UUID;
 
 /**
  * 玩家数据映射器
- * 负责 PlayerData 与 SQL/YAML 之间的转换
+ * 负责 PlayerData 与 SQL/YAML/二进制之间的转换
  *
  * @author Olivia Diaz
  * @version 1.0.0
@@ -257,4 +260,144 @@ public class PlayerDataMapper {
             config.set("equipment." + entry.getKey(), entry.getValue());
         }
     }
+
+    /**
+     * 将 PlayerData 写为紧凑二进制格式（字段顺序固定，不含 UUID）
+     *
+     * @param out  输出
+     * @param data 玩家数据
+     * @throws IOException IO 异常
+     */
+    public void writeBinary(DataOutput out, PlayerData data) throws IOException {
+        writeNullableString(out, data.getName());
+        writeNullableString(out, data.getRealm());
+        out.writeInt(data.getRealmStage());
+        out.writeLong(data.getQi());
+        out.writeDouble(data.getSpiritualRoot());
+        writeNullableString(out, data.getSpiritualRootType() != null ? data.getSpiritualRootType().name() : null);
+        out.writeDouble(data.getComprehension());
+        out.writeDouble(data.getTechniqueAdaptation());
+        out.writeLong(data.getSpiritStones());
+        out.writeInt(data.getContributionPoints());
+        out.writeInt(data.getSkillPoints());
+        out.writeInt(data.getPlayerLevel());
+
+        out.writeBoolean(data.getSectId() != null);
+        if (data.getSectId() != null) {
+            out.writeInt(data.getSectId());
+        }
+
+        writeNullableString(out, data.getSectRank());
+        out.writeLong(data.getLastLogin());
+        out.writeLong(data.getCreatedAt());
+        out.writeLong(System.currentTimeMillis()); // updated_at
+        out.writeInt(data.getBreakthroughAttempts());
+        out.writeInt(data.getSuccessfulBreakthroughs());
+        out.writeLong(data.getActiveQi());
+        out.writeLong(data.getLastFateTime());
+        out.writeInt(data.getFateCount());
+
+        // 功法
+        out.writeInt(data.getLearnedSkills().size());
+        for (var entry : data.getLearnedSkills().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+
+        // 技能绑定
+        out.writeInt(data.getSkillBindings().size());
+        for (var entry : data.getSkillBindings().entrySet()) {
+            out.writeInt(entry.getKey());
+            writeNullableString(out, entry.getValue());
+        }
+
+        // 装备
+        out.writeInt(data.getEquipment().size());
+        for (var entry : data.getEquipment().entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeNullableString(out, entry.getValue());
+        }
+    }
+
+    /**
+     * 从紧凑二进制格式读取 PlayerData
+     *
+     * @param in   输入
+     * @param uuid 玩家 UUID
+     * @return PlayerData 对象
+     * @throws IOException IO 异常
+     */
+    public PlayerData readBinary(DataInput in, UUID uuid) throws IOException {
+        PlayerData data = new PlayerData(uuid);
+
+        data.setName(readNullableString(in));
+        data.setRealm(readNullableString(in));
+        data.setRealmStage(in.readInt());
+        data.setQi(in.readLong());
+        data.setSpiritualRoot(in.readDouble());
+
+        // 灵根类型
+        String rootTypeStr = readNullableString(in);
+        if (rootTypeStr != null && !rootTypeStr.isEmpty()) {
+            try {
+                data.setSpiritualRootType(SpiritualRootType.valueOf(rootTypeStr));
+            } catch (IllegalArgumentException e) {
+                data.setSpiritualRootType(SpiritualRootType.fromValue(data.getSpiritualRoot()));
+            }
+        } else {
+            data.setSpiritualRootType(SpiritualRootType.fromValue(data.getSpiritualRoot()));
+        }
+
+        data.setComprehension(in.readDouble());
+        data.setTechniqueAdaptation(in.readDouble());
+        data.setSpiritStones(in.readLong());
+        data.setContributionPoints(in.readInt());
+        data.setSkillPoints(in.readInt());
+        data.setPlayerLevel(in.readInt());
+
+        if (in.readBoolean()) {
+            data.setSectId(in.readInt());
+        }
+
+        data.setSectRank(readNullableString(in));
+        data.setLastLogin(in.readLong());
+        data.setCreatedAt(in.readLong());
+        data.setUpdatedAt(in.readLong());
+        data.setBreakthroughAttempts(in.readInt());
+        data.setSuccessfulBreakthroughs(in.readInt());
+        data.setActiveQi(in.readLong());
+        data.setLastFateTime(in.readLong());
+        data.setFateCount(in.readInt());
+
+        // 功法
+        int skillCount = in.readInt();
+        for (int i = 0; i < skillCount; i++) {
+            data.getLearnedSkills().put(in.readUTF(), in.readInt());
+        }
+
+        // 技能绑定
+        int bindingCount = in.readInt();
+        for (int i = 0; i < bindingCount; i++) {
+            data.getSkillBindings().put(in.readInt(), readNullableString(in));
+        }
+
+        // 装备
+        int equipmentCount = in.readInt();
+        for (int i = 0; i < equipmentCount; i++) {
+            data.getEquipment().put(in.readUTF(), readNullableString(in));
+        }
+
+        return data;
+    }
+
+    private void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
 }
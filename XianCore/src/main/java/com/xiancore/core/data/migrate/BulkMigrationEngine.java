@@ -0,0 +1,360 @@
+package com.xiancore.core.data.migrate;
+
+import com.xiancore.XianCore;
+import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.UnitOfWork;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量迁移引擎
+ * <p>
+ * 按"多线程解析 → 单线程批量写入"的流水线执行文件迁移：
+ * <ul>
+ *   <li>已存在的记录用一条查询一次性取出，不再逐个文件查询数据库</li>
+ *   <li>YML 解析在线程池中并行执行，同时在途的文件数有上限，内存占用与文件总数无关</li>
+ *   <li>调用线程作为唯一的写入者，每 batch-size 条记录在一个工作单元、一个事务中写入；
+ *       整批失败时逐条重试，只把真正出错的记录计为失败</li>
+ *   <li>每批提交后写入断点文件，中断后再次执行从断点继续</li>
+ * </ul>
+ *
+ * @param <T> 解析后的数据类型
+ * @author XianCore Team
+ * @version 1.0.0
+ */
+public class BulkMigrationEngine<T> {
+
+    /**
+     * 迁移数据源（由具体迁移器实现）
+     *
+     * @param <T> 解析后的数据类型
+     */
+    public interface Source<T> {
+
+        /**
+         * 断点文件名（同一数据源固定不变）
+         */
+        String getCheckpointName();
+
+        /**
+         * 待迁移的文件列表
+         */
+        List<File> listSourceFiles();
+
+        /**
+         * 文件对应的记录键（与 {@link #getExistingKeysSql()} 查询结果的格式一致）
+         *
+         * @throws IllegalArgumentException 文件名不合法
+         */
+        String keyOf(File file);
+
+        /**
+         * 查询数据库中已存在记录键的 SQL（只查询一列），返回 null 表示不检查
+         */
+        String getExistingKeysSql();
+
+        /**
+         * 解析文件（在工作线程中执行，不能访问只允许主线程调用的 API）
+         *
+         * @return 解析结果，null 表示无法解析
+         */
+        T parse(File file, String key) throws Exception;
+
+        /**
+         * 在调用方开启的事务中写入一批记录
+         *
+         * @return 写入的行数
+         */
+        int writeBatch(UnitOfWork work, List<T> items) throws SQLException;
+    }
+
+    private final XianCore plugin;
+    private final DatabaseManager databaseManager;
+    private final Source<T> source;
+    private final int workers;
+    private final int batchSize;
+
+    public BulkMigrationEngine(XianCore plugin, Source<T> source) {
+        this.plugin = plugin;
+        this.databaseManager = plugin.getDataManager().getDatabaseManager();
+        this.source = source;
+        this.workers = Math.max(1, plugin.getConfig().getInt("database.migration.workers",
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2)));
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("database.migration.batch-size", 500));
+    }
+
+    /**
+     * 执行迁移
+     *
+     * @param dryRun 预览模式（只解析不写入，不读写断点）
+     * @param report 迁移报告
+     */
+    public void run(boolean dryRun, MigrationReport report) {
+        List<File> files = source.listSourceFiles();
+        report.setTotalFiles(files.size());
+        if (files.isEmpty()) {
+            plugin.getLogger().warning("§c未找到需要迁移的文件");
+            return;
+        }
+        plugin.getLogger().info("§a找到 " + files.size() + " 个文件 (解析线程: " + workers
+                + ", 每批: " + batchSize + ")");
+
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(new File(plugin.getDataFolder(),
+                "migration/" + source.getCheckpointName() + ".checkpoint").toPath());
+        Set<String> committed = Collections.emptySet();
+        Set<String> existing = Collections.emptySet();
+        if (!dryRun) {
+            try {
+                committed = checkpoint.load();
+            } catch (IOException e) {
+                plugin.getLogger().severe("§c读取迁移进度失败: " + e.getMessage());
+                report.recordFailure(source.getCheckpointName(), "-", e.getMessage());
+                return;
+            }
+            existing = loadExistingKeys();
+            if (!committed.isEmpty()) {
+                plugin.getLogger().info("§e从断点继续，已提交 " + committed.size() + " 条记录");
+            }
+        }
+
+        // 过滤已提交和已存在的记录
+        List<Pending> pending = new ArrayList<>(files.size());
+        for (File file : files) {
+            String key;
+            try {
+                key = source.keyOf(file);
+            } catch (IllegalArgumentException e) {
+                report.recordFailure(file.getName(), file.getName(), "文件名无效: " + e.getMessage());
+                continue;
+            }
+            if (committed.contains(key)) {
+                report.recordResumed();
+            } else if (existing.contains(key)) {
+                report.recordSkipped();
+            } else {
+                pending.add(new Pending(file, key));
+            }
+        }
+
+        boolean interrupted = false;
+        try {
+            interrupted = pipeline(pending, dryRun, checkpoint, report);
+        } finally {
+            try {
+                if (!dryRun && !interrupted && report.getFailedCount() == 0) {
+                    checkpoint.delete();
+                } else {
+                    checkpoint.close();
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("§e关闭迁移断点失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 并行解析、批量写入
+     *
+     * @return 是否被中断
+     */
+    private boolean pipeline(List<Pending> pending, boolean dryRun, MigrationCheckpoint checkpoint,
+                             MigrationReport report) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "XianCore-Migrate-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Parsed<T>> completion = new ExecutorCompletionService<>(pool);
+
+        // 在途解析任务上限：写入变慢时解析自动停下，不会把全部文件读进内存
+        int window = workers * 4;
+        Iterator<Pending> iterator = pending.iterator();
+        int inFlight = 0;
+        int processed = 0;
+        int lastProgress = 0;
+        List<Parsed<T>> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (inFlight < window && iterator.hasNext()) {
+                submit(completion, iterator.next());
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                Parsed<T> parsed = completion.take().get();
+                inFlight--;
+                if (iterator.hasNext()) {
+                    submit(completion, iterator.next());
+                    inFlight++;
+                }
+
+                if (parsed.error() != null || parsed.value() == null) {
+                    String message = parsed.error() != null ? parsed.error() : "无法加载YML数据";
+                    plugin.getLogger().warning("§c失败: " + parsed.item().file().getName() + " - " + message);
+                    report.recordFailure(parsed.item().file().getName(), parsed.item().key(), message);
+                } else {
+                    batch.add(parsed);
+                    if (batch.size() >= batchSize) {
+                        flush(batch, dryRun, checkpoint, report);
+                    }
+                }
+
+                // 显示进度
+                processed++;
+                int progress = processed * 100 / pending.size();
+                if (progress >= lastProgress + 20) {
+                    lastProgress = progress;
+                    plugin.getLogger().info(String.format("§a进度: %d%% (%d/%d)", progress, processed,
+                            pending.size()));
+                }
+            }
+
+            flush(batch, dryRun, checkpoint, report);
+            return false;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().warning("§e迁移被中断，已提交的记录会在下次执行时跳过");
+            return true;
+        } catch (ExecutionException e) {
+            // parse() 的异常已在任务内捕获，这里只会是意外错误
+            plugin.getLogger().severe("§c迁移异常终止: " + e.getCause());
+            report.recordFailure(source.getCheckpointName(), "-", String.valueOf(e.getCause()));
+            return true;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void submit(CompletionService<Parsed<T>> completion, Pending item) {
+        completion.submit(() -> {
+            try {
+                return new Parsed<>(item, source.parse(item.file(), item.key()), null);
+            } catch (Exception e) {
+                return new Parsed<>(item, null, String.valueOf(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * 写入一批记录：整批一个事务，失败后逐条重试
+     */
+    private void flush(List<Parsed<T>> batch, boolean dryRun, MigrationCheckpoint checkpoint,
+                       MigrationReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        if (dryRun) {
+            for (Parsed<T> parsed : batch) {
+                recordSuccess(parsed, report);
+            }
+            batch.clear();
+            return;
+        }
+
+        List<T> items = new ArrayList<>(batch.size());
+        for (Parsed<T> parsed : batch) {
+            items.add(parsed.value());
+        }
+
+        try {
+            report.recordRows(write(items));
+            commitCheckpoint(batch, checkpoint);
+            for (Parsed<T> parsed : batch) {
+                recordSuccess(parsed, report);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("§e批量写入失败，逐条重试: " + e.getMessage());
+            for (Parsed<T> parsed : batch) {
+                try {
+                    report.recordRows(write(List.of(parsed.value())));
+                    commitCheckpoint(List.of(parsed), checkpoint);
+                    recordSuccess(parsed, report);
+                } catch (SQLException single) {
+                    plugin.getLogger().warning("§c失败: " + parsed.item().file().getName() + " - "
+                            + single.getMessage());
+                    report.recordFailure(parsed.item().file().getName(), parsed.item().key(),
+                            single.getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private int write(List<T> items) throws SQLException {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            work.begin();
+            int rows = source.writeBatch(work, items);
+            work.commit();
+            return rows;
+        }
+    }
+
+    private void commitCheckpoint(List<Parsed<T>> batch, MigrationCheckpoint checkpoint) {
+        List<String> keys = new ArrayList<>(batch.size());
+        for (Parsed<T> parsed : batch) {
+            keys.add(parsed.item().key());
+        }
+        try {
+            checkpoint.append(keys);
+        } catch (IOException e) {
+            // 数据已提交，断点写入失败只影响续传（重新执行时按已存在记录跳过）
+            plugin.getLogger().warning("§e写入迁移断点失败: " + e.getMessage());
+        }
+    }
+
+    private void recordSuccess(Parsed<T> parsed, MigrationReport report) {
+        report.addDataSize(parsed.item().file().length());
+        report.recordSuccess();
+    }
+
+    /**
+     * 一次查询取出数据库中已存在的记录键
+     * 查询失败（例如首次迁移时表还不存在）视为没有已存在的记录，迁移全部文件
+     */
+    private Set<String> loadExistingKeys() {
+        String sql = source.getExistingKeysSql();
+        if (sql == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> keys = new HashSet<>();
+        try (UnitOfWork work = databaseManager.beginReadWork();
+             ResultSet rs = work.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                keys.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("§e查询已存在的记录失败，将迁移全部文件: " + e.getMessage());
+            return Collections.emptySet();
+        }
+        return keys;
+    }
+
+    private record Pending(File file, String key) {
+    }
+
+    private record Parsed<T>(Pending item, T value, String error) {
+    }
+}
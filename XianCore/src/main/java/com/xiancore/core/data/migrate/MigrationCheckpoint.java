@@ -0,0 +1,99 @@
+package com.xiancore.core.data.migrate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 迁移断点文件
+ * 每提交一批记录就把这批记录的键追加到文件并刷盘，迁移中断后再次执行会跳过已提交的记录；
+ * 迁移全部成功后删除断点文件
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ */
+public class MigrationCheckpoint {
+
+    private final Path file;
+    private FileChannel channel;
+
+    public MigrationCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 读取已提交的键（文件不存在时返回空集合）
+     * 最后一行可能在写入时中断，不完整的行会被忽略
+     */
+    public Set<String> load() throws IOException {
+        Set<String> keys = new HashSet<>();
+        if (!Files.exists(file)) {
+            return keys;
+        }
+
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return keys;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            if (!line.isEmpty()) {
+                keys.add(line);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 追加一批已提交的键并刷盘
+     */
+    public void append(Collection<String> keys) throws IOException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (channel == null) {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String key : keys) {
+            sb.append(key).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * 关闭文件（保留断点）
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 迁移完成后删除断点
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -3,6 +3,7 @@ package com.xiancore.core.data.migrate;
 import com.xiancore.XianCore;
 import com.xiancore.core.data.migrate.base.IMigrator;
 import com.xiancore.core.data.migrate.migrators.PlayerDataMigrator;
+import com.xiancore.core.data.migrate.migrators.PlayerStorageMigrator;
 import com.xiancore.core.data.migrate.migrators.SectDataMigrator;
 import com.xiancore.core.data.migrate.migrators.FacilityDataMigrator;
 import com.xiancore.core.data.migrate.migrators.WarehouseDataMigrator;
@@ -62,6 +63,9 @@ public class MigrationManager {
 
         // 注册功法配置迁移器
         registerMigrator("skill-config", new SkillConfigMigrator(plugin));
+
+        // 注册玩家本地存储转换器（YAML -> 二进制，仅本地存储模式）
+        registerMigrator("player-binary", new PlayerStorageMigrator(plugin));
     }
     
     /**
@@ -177,6 +181,7 @@ public class MigrationManager {
         // 提示信息
         sb.append("§e提示:\n");
         sb.append("§7- 迁移过程中会自动跳过已存在的数据\n");
+        sb.append("§7- 迁移中断后重新执行会从上次提交的位置继续\n");
         sb.append("§7- 建议先使用 --dry-run 参数预览\n");
         sb.append("§7- 迁移不会删除YML文件（作为备份保留）\n");
         sb.append("§b========================================\n");
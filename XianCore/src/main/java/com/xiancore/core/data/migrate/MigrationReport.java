@@ -22,6 +22,8 @@ public class MigrationReport {
     private int skippedCount;
     private List<MigrationError> errors;
     private long totalDataSize;
+    private int resumedCount;
+    private long rowsWritten;
     
     public MigrationReport() {
         this.startTime = LocalDateTime.now();
@@ -55,6 +57,21 @@ public class MigrationReport {
         this.skippedCount++;
     }
     
+    /**
+     * 记录因断点续传跳过（上次迁移已提交），同时计入跳过数量
+     */
+    public void recordResumed() {
+        this.resumedCount++;
+        this.skippedCount++;
+    }
+    
+    /**
+     * 记录写入的数据库行数
+     */
+    public void recordRows(long rows) {
+        this.rowsWritten += rows;
+    }
+    
     /**
      * 设置总文件数
      */
@@ -92,6 +109,15 @@ public class MigrationReport {
         return Duration.between(startTime, end).toMillis();
     }
     
+    /**
+     * 写入速度（行/秒）
+     */
+    public double getRowsPerSecond() {
+        long millis = getElapsedMillis();
+        if (rowsWritten == 0 || millis <= 0) return 0.0;
+        return rowsWritten * 1000.0 / millis;
+    }
+    
     /**
      * 计算成功率
      */
@@ -128,15 +154,23 @@ public class MigrationReport {
         sb.append("§e总文件数: §f").append(totalFiles).append("\n");
         sb.append("§a成功迁移: §f").append(successCount).append("\n");
         sb.append("§c失败数量: §f").append(failedCount).append("\n");
-        sb.append("§7跳过数量: §f").append(skippedCount).append("\n");
+        sb.append("§7跳过数量: §f").append(skippedCount);
+        if (resumedCount > 0) {
+            sb.append(" §7(断点续传: ").append(resumedCount).append(")");
+        }
+        sb.append("\n");
         sb.append("§e成功率: §f").append(String.format("%.2f", getSuccessRate())).append("%\n");
         sb.append("§e数据大小: §f").append(formatFileSize(totalDataSize)).append("\n");
         sb.append("\n");
         
         // 性能信息
-        if (successCount > 0 && getElapsedSeconds() > 0) {
-            double speed = (double) successCount / getElapsedSeconds();
+        if (successCount > 0 && getElapsedMillis() > 0) {
+            double speed = successCount * 1000.0 / getElapsedMillis();
             sb.append("§e迁移速度: §f").append(String.format("%.2f", speed)).append(" 个/秒\n");
+            if (rowsWritten > 0) {
+                sb.append("§e写入速度: §f").append(String.format("%.2f", getRowsPerSecond()))
+                  .append(" 行/秒 §7(共 ").append(rowsWritten).append(" 行)\n");
+            }
             sb.append("\n");
         }
         
@@ -185,6 +219,8 @@ public class MigrationReport {
     public int getSuccessCount() { return successCount; }
     public int getFailedCount() { return failedCount; }
     public int getSkippedCount() { return skippedCount; }
+    public int getResumedCount() { return resumedCount; }
+    public long getRowsWritten() { return rowsWritten; }
     public List<MigrationError> getErrors() { return errors; }
     public LocalDateTime getStartTime() { return startTime; }
     public LocalDateTime getEndTime() { return endTime; }
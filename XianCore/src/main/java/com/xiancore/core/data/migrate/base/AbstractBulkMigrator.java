@@ -0,0 +1,66 @@
+package com.xiancore.core.data.migrate.base;
+
+import com.xiancore.XianCore;
+import com.xiancore.core.data.migrate.BulkMigrationEngine;
+import com.xiancore.core.data.migrate.MigrationReport;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 批量迁移器基类
+ * 子类只需提供文件列表、解析和批量写入逻辑，迁移流程由 {@link BulkMigrationEngine} 执行
+ *
+ * @param <T> 解析后的数据类型
+ * @author XianCore Team
+ * @version 1.0.0
+ */
+public abstract class AbstractBulkMigrator<T> extends AbstractMigrator implements BulkMigrationEngine.Source<T> {
+
+    public AbstractBulkMigrator(XianCore plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public boolean hasDataToMigrate() {
+        return !listSourceFiles().isEmpty();
+    }
+
+    @Override
+    public MigrationReport migrate(boolean dryRun) {
+        MigrationReport report = new MigrationReport();
+
+        plugin.getLogger().info("§e开始执行: " + getName());
+        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
+
+        // 检查数据库（MySQL或SQLite）
+        if (!isSqlAvailable()) {
+            plugin.getLogger().severe("§c数据库未连接！");
+            return report;
+        }
+
+        new BulkMigrationEngine<>(plugin, this).run(dryRun, report);
+
+        report.complete();
+        plugin.getLogger().info("§a" + getName() + "执行完成！");
+
+        return report;
+    }
+
+    /**
+     * 列出目录下匹配的文件（目录不存在时返回空列表）
+     */
+    protected List<File> listFiles(File dir, FilenameFilter filter) {
+        File[] files = dir.listFiles(filter);
+        return files != null ? Arrays.asList(files) : List.of();
+    }
+
+    /**
+     * 单文件单记录的 YML 数据（键取自文件名）
+     */
+    public record YmlRecord(String key, YamlConfiguration config) {
+    }
+}
@@ -75,12 +75,12 @@ public abstract class AbstractMigrator implements IMigrator {
     }
     
     /**
-     * 检查MySQL是否可用
+     * 检查SQL数据库（MySQL或SQLite）是否可用
      */
-    protected boolean isMySqlAvailable() {
-        boolean available = dataManager.isMySqlAvailable();
+    protected boolean isSqlAvailable() {
+        boolean available = dataManager.isSqlAvailable();
         if (!available) {
-            plugin.getLogger().warning("§eMySQL不可用 - useMySql: " + dataManager.isUsingMySql());
+            plugin.getLogger().warning("§e数据库不可用 - useSql: " + dataManager.isUsingSql());
         }
         return available;
     }
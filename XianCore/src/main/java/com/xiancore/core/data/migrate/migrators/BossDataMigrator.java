@@ -1,15 +1,15 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator.YmlRecord;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Boss数据迁移器
@@ -18,7 +18,7 @@ import java.sql.SQLException;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class BossDataMigrator extends AbstractMigrator {
+public class BossDataMigrator extends AbstractBulkMigrator<YmlRecord> {
     
     private final File bossFolder;
     
@@ -62,70 +62,33 @@ public class BossDataMigrator extends AbstractMigrator {
     }
     
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-        
-        plugin.getLogger().info("§e开始迁移Boss数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-        
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-        
-        // 检查文件夹
-        if (!bossFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 boss 目录");
-            return report;
-        }
-        
-        // 获取所有YML文件
-        File[] bossFiles = bossFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (bossFiles == null || bossFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何BossYML文件");
-            return report;
-        }
-        
-        report.setTotalFiles(bossFiles.length);
-        plugin.getLogger().info("§a找到 " + bossFiles.length + " 个Boss记录");
-        
-        // 开始迁移
-        for (File bossFile : bossFiles) {
-            try {
-                String fileName = bossFile.getName();
-                String bossId = fileName.replace(".yml", "");
-                
-                // 加载Boss数据
-                YamlConfiguration config = YamlConfiguration.loadConfiguration(bossFile);
-                
-                // 检查是否已存在
-                if (!dryRun && bossExistsInDatabase(bossId)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-                
-                // 写入数据库
-                if (!dryRun) {
-                    saveBossToDatabase(bossId, config);
-                }
-                
-                plugin.getLogger().info("§a迁移Boss记录: " + bossId);
-                report.addDataSize(bossFile.length());
-                report.recordSuccess();
-                
-            } catch (Exception e) {
-                String fileName = bossFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
-        
-        report.complete();
-        plugin.getLogger().info("§aBoss数据迁移完成！");
-        
-        return report;
+    public String getCheckpointName() {
+        return "boss";
+    }
+    
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(bossFolder, (dir, name) -> name.endsWith(".yml"));
+    }
+    
+    @Override
+    public String keyOf(File file) {
+        return file.getName().replace(".yml", "");
+    }
+    
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT boss_id FROM xian_boss_records";
+    }
+    
+    @Override
+    public YmlRecord parse(File file, String key) {
+        return new YmlRecord(key, YamlConfiguration.loadConfiguration(file));
+    }
+    
+    @Override
+    public int writeBatch(UnitOfWork work, List<YmlRecord> items) throws SQLException {
+        return saveBossesToDatabase(work, items);
     }
     
     @Override
@@ -136,9 +99,9 @@ public class BossDataMigrator extends AbstractMigrator {
     }
     
     /**
-     * 保存Boss数据到数据库
+     * 批量保存Boss数据到数据库（一个批处理，事务由调用方管理）
      */
-    private void saveBossToDatabase(String bossId, YamlConfiguration config) throws SQLException {
+    private int saveBossesToDatabase(UnitOfWork work, List<YmlRecord> records) throws SQLException {
         String sql = "INSERT INTO xian_boss_records " +
                     "(boss_id, boss_name, total_kills, last_spawn_time, " +
                     "last_kill_time, total_damage_dealt, killer_uuid, " +
@@ -154,10 +117,12 @@ public class BossDataMigrator extends AbstractMigrator {
                     "reward_distributed = VALUES(reward_distributed), " +
                     "updated_at = VALUES(updated_at)";
         
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, bossId);
+        PreparedStatement pstmt = work.prepareUpsert(sql, "boss_id");
+        long now = System.currentTimeMillis();
+        
+        for (YmlRecord record : records) {
+            YamlConfiguration config = record.config();
+            pstmt.setString(1, record.key());
             pstmt.setString(2, config.getString("boss_name", ""));
             pstmt.setInt(3, config.getInt("total_kills", 0));
             pstmt.setLong(4, config.getLong("last_spawn_time", 0));
@@ -166,32 +131,11 @@ public class BossDataMigrator extends AbstractMigrator {
             pstmt.setString(7, config.getString("killer_uuid", ""));
             pstmt.setBoolean(8, config.getBoolean("reward_distributed", false));
             pstmt.setLong(9, config.getLong("created_at", System.currentTimeMillis()));
-            pstmt.setLong(10, System.currentTimeMillis());
-            
-            pstmt.executeUpdate();
-        }
-    }
-    
-    /**
-     * 检查Boss记录是否已存在
-     */
-    private boolean bossExistsInDatabase(String bossId) {
-        String sql = "SELECT COUNT(*) FROM xian_boss_records WHERE boss_id = ?";
-        
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, bossId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
+            pstmt.setLong(10, now);
+            pstmt.addBatch();
         }
         
-        return false;
+        pstmt.executeBatch();
+        return records.size();
     }
 }
@@ -1,18 +1,16 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
 import com.xiancore.core.data.repository.FacilityRepository;
 import com.xiancore.systems.sect.facilities.SectFacilityData;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * 宗门设施数据迁移器
@@ -21,7 +19,7 @@ import java.sql.SQLException;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class FacilityDataMigrator extends AbstractMigrator {
+public class FacilityDataMigrator extends AbstractBulkMigrator<SectFacilityData> {
 
     private final File sectsFolder;
     private final FacilityRepository facilityRepository;
@@ -69,77 +67,34 @@ public class FacilityDataMigrator extends AbstractMigrator {
     }
 
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-
-        plugin.getLogger().info("§e开始迁移宗门设施数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-
-        // 检查文件夹
-        if (!sectsFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 sects 目录");
-            return report;
-        }
-
-        // 获取所有设施文件
-        File[] facilityFiles = sectsFolder.listFiles((dir, name) -> name.endsWith("_facilities.yml"));
-        if (facilityFiles == null || facilityFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何设施YML文件");
-            return report;
-        }
-
-        report.setTotalFiles(facilityFiles.length);
-        plugin.getLogger().info("§a找到 " + facilityFiles.length + " 个设施文件");
-
-        // 开始迁移
-        for (File facilityFile : facilityFiles) {
-            try {
-                String fileName = facilityFile.getName();
-                // 从文件名提取宗门ID (如: 1_facilities.yml -> 1)
-                String sectIdStr = fileName.replace("_facilities.yml", "");
-                int sectId = Integer.parseInt(sectIdStr);
-
-                // 检查是否已存在
-                if (!dryRun && existsInDatabase(sectId)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-
-                // 加载设施数据
-                SectFacilityData data = loadFacilityDataFromYml(facilityFile, sectId);
-                if (data == null) {
-                    plugin.getLogger().warning("§c无法加载: " + fileName);
-                    report.recordFailure(fileName, fileName, "无法加载YML数据");
-                    continue;
-                }
+    public String getCheckpointName() {
+        return "facility";
+    }
 
-                // 写入数据库
-                if (!dryRun) {
-                    facilityRepository.save(data);
-                }
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(sectsFolder, (dir, name) -> name.endsWith("_facilities.yml"));
+    }
 
-                plugin.getLogger().info("§a迁移设施数据: 宗门ID=" + sectId);
-                report.addDataSize(facilityFile.length());
-                report.recordSuccess();
+    @Override
+    public String keyOf(File file) {
+        // 从文件名提取宗门ID (如: 1_facilities.yml -> 1)
+        return String.valueOf(Integer.parseInt(file.getName().replace("_facilities.yml", "")));
+    }
 
-            } catch (Exception e) {
-                String fileName = facilityFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT DISTINCT sect_id FROM xian_sect_facilities";
+    }
 
-        report.complete();
-        plugin.getLogger().info("§a宗门设施数据迁移完成！");
+    @Override
+    public SectFacilityData parse(File file, String key) {
+        return loadFacilityDataFromYml(file, Integer.parseInt(key));
+    }
 
-        return report;
+    @Override
+    public int writeBatch(UnitOfWork work, List<SectFacilityData> items) throws SQLException {
+        return facilityRepository.saveAll(work, items);
     }
 
     @Override
@@ -179,29 +134,6 @@ public class FacilityDataMigrator extends AbstractMigrator {
         }
     }
 
-    /**
-     * 检查设施数据是否已存在
-     */
-    private boolean existsInDatabase(int sectId) {
-        String sql = "SELECT COUNT(*) FROM xian_sect_facilities WHERE sect_id = ?";
-
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, sectId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
-        }
-
-        return false;
-    }
-
     /**
      * 计算设施文件总大小
      */
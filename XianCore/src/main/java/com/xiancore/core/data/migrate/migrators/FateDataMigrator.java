@@ -1,15 +1,15 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator.YmlRecord;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -19,7 +19,7 @@ import java.util.UUID;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class FateDataMigrator extends AbstractMigrator {
+public class FateDataMigrator extends AbstractBulkMigrator<YmlRecord> {
     
     private final File fateFolder;
     
@@ -63,71 +63,33 @@ public class FateDataMigrator extends AbstractMigrator {
     }
     
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-        
-        plugin.getLogger().info("§e开始迁移奇遇数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-        
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-        
-        // 检查文件夹
-        if (!fateFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 fate 目录");
-            return report;
-        }
-        
-        // 获取所有YML文件
-        File[] fateFiles = fateFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (fateFiles == null || fateFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何奇遇YML文件");
-            return report;
-        }
-        
-        report.setTotalFiles(fateFiles.length);
-        plugin.getLogger().info("§a找到 " + fateFiles.length + " 个奇遇记录");
-        
-        // 开始迁移
-        for (File fateFile : fateFiles) {
-            try {
-                String fileName = fateFile.getName();
-                String uuidStr = fileName.replace(".yml", "");
-                UUID playerUuid = UUID.fromString(uuidStr);
-                
-                // 加载奇遇数据
-                YamlConfiguration config = YamlConfiguration.loadConfiguration(fateFile);
-                
-                // 检查是否已存在
-                if (!dryRun && fateExistsInDatabase(playerUuid)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-                
-                // 写入数据库
-                if (!dryRun) {
-                    saveFateToDatabase(playerUuid, config);
-                }
-                
-                plugin.getLogger().info("§a迁移奇遇记录: " + playerUuid);
-                report.addDataSize(fateFile.length());
-                report.recordSuccess();
-                
-            } catch (Exception e) {
-                String fileName = fateFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
-        
-        report.complete();
-        plugin.getLogger().info("§a奇遇数据迁移完成！");
-        
-        return report;
+    public String getCheckpointName() {
+        return "fate";
+    }
+    
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(fateFolder, (dir, name) -> name.endsWith(".yml"));
+    }
+    
+    @Override
+    public String keyOf(File file) {
+        return UUID.fromString(file.getName().replace(".yml", "")).toString();
+    }
+    
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT player_uuid FROM xian_fate_records";
+    }
+    
+    @Override
+    public YmlRecord parse(File file, String key) {
+        return new YmlRecord(key, YamlConfiguration.loadConfiguration(file));
+    }
+    
+    @Override
+    public int writeBatch(UnitOfWork work, List<YmlRecord> items) throws SQLException {
+        return saveFatesToDatabase(work, items);
     }
     
     @Override
@@ -138,9 +100,9 @@ public class FateDataMigrator extends AbstractMigrator {
     }
     
     /**
-     * 保存奇遇数据到数据库
+     * 批量保存奇遇数据到数据库（一个批处理，事务由调用方管理）
      */
-    private void saveFateToDatabase(UUID playerUuid, YamlConfiguration config) throws SQLException {
+    private int saveFatesToDatabase(UnitOfWork work, List<YmlRecord> records) throws SQLException {
         String sql = "INSERT INTO xian_fate_records " +
                     "(player_uuid, total_encounters, last_encounter_time, " +
                     "fate_type, fate_reward, luck_value, " +
@@ -156,10 +118,12 @@ public class FateDataMigrator extends AbstractMigrator {
                     "rare_encounter_count = VALUES(rare_encounter_count), " +
                     "updated_at = VALUES(updated_at)";
         
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, playerUuid.toString());
+        PreparedStatement pstmt = work.prepareUpsert(sql, "player_uuid");
+        long now = System.currentTimeMillis();
+        
+        for (YmlRecord record : records) {
+            YamlConfiguration config = record.config();
+            pstmt.setString(1, record.key());
             pstmt.setInt(2, config.getInt("total_encounters", 0));
             pstmt.setLong(3, config.getLong("last_encounter_time", 0));
             pstmt.setString(4, config.getString("fate_type", "NORMAL"));
@@ -168,32 +132,11 @@ public class FateDataMigrator extends AbstractMigrator {
             pstmt.setInt(7, config.getInt("completed_fates", 0));
             pstmt.setInt(8, config.getInt("rare_encounter_count", 0));
             pstmt.setLong(9, config.getLong("created_at", System.currentTimeMillis()));
-            pstmt.setLong(10, System.currentTimeMillis());
-            
-            pstmt.executeUpdate();
-        }
-    }
-    
-    /**
-     * 检查奇遇记录是否已存在
-     */
-    private boolean fateExistsInDatabase(UUID playerUuid) {
-        String sql = "SELECT COUNT(*) FROM xian_fate_records WHERE player_uuid = ?";
-        
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
+            pstmt.setLong(10, now);
+            pstmt.addBatch();
         }
         
-        return false;
+        pstmt.executeBatch();
+        return records.size();
     }
 }
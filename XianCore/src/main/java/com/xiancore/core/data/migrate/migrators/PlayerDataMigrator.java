@@ -3,17 +3,14 @@ package com.xiancore.core.data.migrate.migrators;
 import com.xiancore.XianCore;
 import com.xiancore.core.data.PlayerData;
 import com.xiancore.core.data.SpiritualRootType;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 玩家数据迁移器
@@ -22,7 +19,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class PlayerDataMigrator extends AbstractMigrator {
+public class PlayerDataMigrator extends AbstractBulkMigrator<PlayerData> {
     
     private final File playersFolder;
     
@@ -66,86 +63,34 @@ public class PlayerDataMigrator extends AbstractMigrator {
     }
     
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-        
-        plugin.getLogger().info("§e开始迁移玩家数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-        
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-        
-        // 检查文件夹
-        if (!playersFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 players 目录");
-            return report;
-        }
-        
-        // 获取所有YML文件
-        File[] ymlFiles = playersFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (ymlFiles == null || ymlFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何玩家YML文件");
-            return report;
-        }
-        
-        report.setTotalFiles(ymlFiles.length);
-        plugin.getLogger().info("§a找到 " + ymlFiles.length + " 个玩家文件");
-        
-        // 开始迁移
-        AtomicInteger processed = new AtomicInteger(0);
-        AtomicInteger lastProgress = new AtomicInteger(0);
-        
-        for (File ymlFile : ymlFiles) {
-            try {
-                String fileName = ymlFile.getName();
-                String uuidStr = fileName.replace(".yml", "");
-                UUID uuid = UUID.fromString(uuidStr);
-                
-                // 检查是否已存在
-                if (!dryRun && existsInDatabase(uuid)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-                
-                // 加载YML数据
-                PlayerData data = loadPlayerDataFromYml(ymlFile, uuid);
-                if (data == null) {
-                    report.recordFailure(fileName, uuidStr, "无法加载YML数据");
-                    continue;
-                }
-                
-                // 写入数据库
-                if (!dryRun) {
-                    dataManager.savePlayerData(data);
-                }
-                
-                report.addDataSize(ymlFile.length());
-                report.recordSuccess();
-                
-                // 显示进度
-                int current = processed.incrementAndGet();
-                int progress = (current * 100) / ymlFiles.length;
-                if (progress >= lastProgress.get() + 20) {
-                    lastProgress.set(progress);
-                    plugin.getLogger().info(String.format("§a进度: %d%% (%d/%d)", 
-                        progress, current, ymlFiles.length));
-                }
-                
-            } catch (Exception e) {
-                String fileName = ymlFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
-        
-        report.complete();
-        plugin.getLogger().info("§a玩家数据迁移完成！");
-        
-        return report;
+    public String getCheckpointName() {
+        return "player";
+    }
+    
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(playersFolder, (dir, name) -> name.endsWith(".yml"));
+    }
+    
+    @Override
+    public String keyOf(File file) {
+        return UUID.fromString(file.getName().replace(".yml", "")).toString();
+    }
+    
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT uuid FROM xian_players";
+    }
+    
+    @Override
+    public PlayerData parse(File file, String key) {
+        return loadPlayerDataFromYml(file, UUID.fromString(key));
+    }
+    
+    @Override
+    public int writeBatch(UnitOfWork work, List<PlayerData> items) throws SQLException {
+        // 主表和关联表按表合并为批处理
+        return dataManager.getPlayerRepository().saveAll(work, items);
     }
     
     @Override
@@ -233,27 +178,4 @@ public class PlayerDataMigrator extends AbstractMigrator {
             return null;
         }
     }
-    
-    /**
-     * 检查玩家是否已存在
-     */
-    private boolean existsInDatabase(UUID uuid) {
-        String sql = "SELECT COUNT(*) FROM xian_players WHERE uuid = ?";
-        
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, uuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
-        }
-        
-        return false;
-    }
 }
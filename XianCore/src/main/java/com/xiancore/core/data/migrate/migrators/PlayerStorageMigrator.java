@@ -0,0 +1,124 @@
+package com.xiancore.core.data.migrate.migrators;
+
+import com.xiancore.XianCore;
+import com.xiancore.core.data.mapper.PlayerDataMapper;
+import com.xiancore.core.data.migrate.MigrationReport;
+import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.repository.BinaryPlayerStore;
+import com.xiancore.core.data.repository.PlayerLocalStore;
+import com.xiancore.core.data.repository.PlayerStoreConverter;
+import com.xiancore.core.data.repository.YamlPlayerStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 玩家本地存储转换器
+ * 将 players/*.yml 转换为二进制存储 players.dat（仅在未启用 MySQL 时执行）
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ */
+public class PlayerStorageMigrator extends AbstractMigrator {
+    
+    private static final int BATCH_SIZE = 200;
+    
+    private final File playersFolder;
+    private final File binaryFile;
+    
+    public PlayerStorageMigrator(XianCore plugin) {
+        super(plugin);
+        this.playersFolder = new File(plugin.getDataFolder(), "players");
+        this.binaryFile = new File(plugin.getDataFolder(), "players.dat");
+    }
+    
+    @Override
+    public String getName() {
+        return "玩家本地存储转换器";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "将玩家 YML 文件转换为二进制存储 players.dat（database.local-storage: binary）";
+    }
+    
+    @Override
+    public boolean hasDataToMigrate() {
+        if (dataManager.getDatabaseManager().isUseSql()) {
+            return false;
+        }
+        File[] files = playersFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        return files != null && files.length > 0;
+    }
+    
+    @Override
+    public String getPreMigrationSummary() {
+        File[] ymlFiles = playersFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        int fileCount = ymlFiles != null ? ymlFiles.length : 0;
+        
+        return "§e文件数量: §f" + fileCount + " 个\n"
+                + "§e数据大小: §f" + formatFileSize(calculateTotalSize(playersFolder, ".yml")) + "\n"
+                + "§e预计耗时: §f" + estimateMigrationTime();
+    }
+    
+    @Override
+    public MigrationReport migrate(boolean dryRun) {
+        MigrationReport report = new MigrationReport();
+        
+        if (dataManager.getDatabaseManager().isUseSql()) {
+            plugin.getLogger().info("§7已启用数据库存储，跳过本地存储转换");
+            report.complete();
+            return report;
+        }
+        
+        PlayerDataMapper mapper = new PlayerDataMapper();
+        YamlPlayerStore source = new YamlPlayerStore(playersFolder, mapper);
+        report.setTotalFiles(source.getStoredPlayers().size());
+        report.addDataSize(calculateTotalSize(playersFolder, ".yml"));
+        
+        // 仓储已在使用二进制存储时直接写入同一实例，避免两个实例同时追加同一文件
+        PlayerLocalStore active = dataManager.getPlayerRepository().getLocalStore();
+        boolean shared = active instanceof BinaryPlayerStore;
+        PlayerLocalStore target;
+        try {
+            target = shared ? active : new BinaryPlayerStore(binaryFile, mapper, plugin.getLogger());
+        } catch (IOException e) {
+            plugin.getLogger().severe("§c无法打开 players.dat: " + e.getMessage());
+            report.recordFailure("players.dat", "-", e.getMessage());
+            report.complete();
+            return report;
+        }
+        
+        try {
+            // 仓储仍在使用 YAML 时以 YML 文件为准覆盖；已切换到二进制存储时只补充缺失的玩家
+            PlayerStoreConverter.Result result = PlayerStoreConverter.convert(source, target, BATCH_SIZE, shared, dryRun);
+            for (int i = 0; i < result.converted(); i++) {
+                report.recordSuccess();
+            }
+            for (int i = 0; i < result.skipped(); i++) {
+                report.recordSkipped();
+            }
+            for (Map.Entry<UUID, String> failure : result.failures().entrySet()) {
+                String uuid = failure.getKey().toString();
+                report.recordFailure(uuid + ".yml", uuid, failure.getValue());
+            }
+        } finally {
+            if (!shared) {
+                target.close();
+            }
+        }
+        
+        report.complete();
+        plugin.getLogger().info("§a玩家本地存储转换完成！");
+        return report;
+    }
+    
+    @Override
+    protected long estimateTimeInMillis() {
+        File[] files = playersFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        int fileCount = files != null ? files.length : 0;
+        return fileCount * 2L; // 假设每个文件2ms
+    }
+}
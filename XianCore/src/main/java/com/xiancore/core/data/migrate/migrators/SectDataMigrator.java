@@ -1,18 +1,16 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
 import com.xiancore.systems.sect.Sect;
 import com.xiancore.systems.sect.SectMember;
 import com.xiancore.systems.sect.SectRank;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -22,7 +20,7 @@ import java.util.UUID;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class SectDataMigrator extends AbstractMigrator {
+public class SectDataMigrator extends AbstractBulkMigrator<Sect> {
     
     private final File sectsFolder;
     
@@ -68,74 +66,35 @@ public class SectDataMigrator extends AbstractMigrator {
     }
     
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-        
-        plugin.getLogger().info("§e开始迁移宗门数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-        
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-        
-        // 检查文件夹
-        if (!sectsFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 sects 目录");
-            return report;
-        }
-        
-        // 获取所有宗门YML文件（只匹配数字.yml，排除 _facilities.yml 和 _warehouse.yml）
-        File[] sectFiles = sectsFolder.listFiles((dir, name) -> name.matches("\\d+\\.yml"));
-        if (sectFiles == null || sectFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何宗门YML文件");
-            return report;
-        }
-        
-        report.setTotalFiles(sectFiles.length);
-        plugin.getLogger().info("§a找到 " + sectFiles.length + " 个宗门文件");
-        
-        // 开始迁移
-        for (File sectFile : sectFiles) {
-            try {
-                String fileName = sectFile.getName();
-                
-                // 加载宗门数据
-                Sect sect = loadSectFromYml(sectFile);
-                if (sect == null) {
-                    plugin.getLogger().warning("§c无法加载: " + fileName);
-                    report.recordFailure(fileName, fileName, "无法加载YML数据");
-                    continue;
-                }
-                
-                // 检查是否已存在
-                if (!dryRun && sectExistsInDatabase(sect.getId())) {
-                    plugin.getLogger().info("§7跳过: " + sect.getName() + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-                
-                // 写入数据库
-                if (!dryRun) {
-                    dataManager.saveSect(sect);
-                }
-                
-                plugin.getLogger().info("§a迁移宗门: " + sect.getName() + " (ID: " + sect.getId() + ")");
-                report.addDataSize(sectFile.length());
-                report.recordSuccess();
-                
-            } catch (Exception e) {
-                String fileName = sectFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
-        
-        report.complete();
-        plugin.getLogger().info("§a宗门数据迁移完成！");
-        
-        return report;
+    public String getCheckpointName() {
+        return "sect";
+    }
+    
+    @Override
+    public List<File> listSourceFiles() {
+        // 只匹配数字.yml，排除 _facilities.yml 和 _warehouse.yml
+        return listFiles(sectsFolder, (dir, name) -> name.matches("\\d+\\.yml"));
+    }
+    
+    @Override
+    public String keyOf(File file) {
+        // 宗门文件以宗门ID命名
+        return String.valueOf(Integer.parseInt(file.getName().replace(".yml", "")));
+    }
+    
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT id FROM xian_sects";
+    }
+    
+    @Override
+    public Sect parse(File file, String key) {
+        return loadSectFromYml(file);
+    }
+    
+    @Override
+    public int writeBatch(UnitOfWork work, List<Sect> items) throws SQLException {
+        return dataManager.getSectRepository().saveAll(work, items);
     }
     
     @Override
@@ -209,27 +168,4 @@ public class SectDataMigrator extends AbstractMigrator {
             return null;
         }
     }
-    
-    /**
-     * 检查宗门是否已存在
-     */
-    private boolean sectExistsInDatabase(Integer sectId) {
-        String sql = "SELECT COUNT(*) FROM xian_sects WHERE id = ?";
-        
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, sectId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
-        }
-        
-        return false;
-    }
 }
@@ -78,9 +78,9 @@ public class SkillConfigMigrator extends AbstractMigrator {
         plugin.getLogger().info("§e开始迁移功法配置...");
         plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
 
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
+        // 检查数据库
+        if (!isSqlAvailable()) {
+            plugin.getLogger().severe("§c数据库未连接！");
             return report;
         }
 
@@ -1,15 +1,15 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator.YmlRecord;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -19,7 +19,7 @@ import java.util.UUID;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class TribulationDataMigrator extends AbstractMigrator {
+public class TribulationDataMigrator extends AbstractBulkMigrator<YmlRecord> {
     
     private final File tribulationFolder;
     
@@ -63,71 +63,33 @@ public class TribulationDataMigrator extends AbstractMigrator {
     }
     
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-        
-        plugin.getLogger().info("§e开始迁移渡劫数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-        
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-        
-        // 检查文件夹
-        if (!tribulationFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 tribulation 目录");
-            return report;
-        }
-        
-        // 获取所有YML文件
-        File[] tribulationFiles = tribulationFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (tribulationFiles == null || tribulationFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何渡劫YML文件");
-            return report;
-        }
-        
-        report.setTotalFiles(tribulationFiles.length);
-        plugin.getLogger().info("§a找到 " + tribulationFiles.length + " 个渡劫记录");
-        
-        // 开始迁移
-        for (File tribFile : tribulationFiles) {
-            try {
-                String fileName = tribFile.getName();
-                String uuidStr = fileName.replace(".yml", "");
-                UUID playerUuid = UUID.fromString(uuidStr);
-                
-                // 加载渡劫数据
-                YamlConfiguration config = YamlConfiguration.loadConfiguration(tribFile);
-                
-                // 检查是否已存在
-                if (!dryRun && tribulationExistsInDatabase(playerUuid)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-                
-                // 写入数据库
-                if (!dryRun) {
-                    saveTribulationToDatabase(playerUuid, config);
-                }
-                
-                plugin.getLogger().info("§a迁移渡劫记录: " + playerUuid);
-                report.addDataSize(tribFile.length());
-                report.recordSuccess();
-                
-            } catch (Exception e) {
-                String fileName = tribFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
-        
-        report.complete();
-        plugin.getLogger().info("§a渡劫数据迁移完成！");
-        
-        return report;
+    public String getCheckpointName() {
+        return "tribulation";
+    }
+    
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(tribulationFolder, (dir, name) -> name.endsWith(".yml"));
+    }
+    
+    @Override
+    public String keyOf(File file) {
+        return UUID.fromString(file.getName().replace(".yml", "")).toString();
+    }
+    
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT player_uuid FROM xian_tribulation_records";
+    }
+    
+    @Override
+    public YmlRecord parse(File file, String key) {
+        return new YmlRecord(key, YamlConfiguration.loadConfiguration(file));
+    }
+    
+    @Override
+    public int writeBatch(UnitOfWork work, List<YmlRecord> items) throws SQLException {
+        return saveTribulationsToDatabase(work, items);
     }
     
     @Override
@@ -138,9 +100,9 @@ public class TribulationDataMigrator extends AbstractMigrator {
     }
     
     /**
-     * 保存渡劫数据到数据库
+     * 批量保存渡劫数据到数据库（一个批处理，事务由调用方管理）
      */
-    private void saveTribulationToDatabase(UUID playerUuid, YamlConfiguration config) throws SQLException {
+    private int saveTribulationsToDatabase(UnitOfWork work, List<YmlRecord> records) throws SQLException {
         String sql = "INSERT INTO xian_tribulation_records " +
                     "(player_uuid, total_attempts, successful_attempts, failed_attempts, " +
                     "last_tribulation_time, next_tribulation_realm, tribulation_power, " +
@@ -156,10 +118,12 @@ public class TribulationDataMigrator extends AbstractMigrator {
                     "heavenly_punishment = VALUES(heavenly_punishment), " +
                     "updated_at = VALUES(updated_at)";
         
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, playerUuid.toString());
+        PreparedStatement pstmt = work.prepareUpsert(sql, "player_uuid");
+        long now = System.currentTimeMillis();
+        
+        for (YmlRecord record : records) {
+            YamlConfiguration config = record.config();
+            pstmt.setString(1, record.key());
             pstmt.setInt(2, config.getInt("total_attempts", 0));
             pstmt.setInt(3, config.getInt("successful_attempts", 0));
             pstmt.setInt(4, config.getInt("failed_attempts", 0));
@@ -168,32 +132,11 @@ public class TribulationDataMigrator extends AbstractMigrator {
             pstmt.setDouble(7, config.getDouble("tribulation_power", 1.0));
             pstmt.setInt(8, config.getInt("heavenly_punishment", 0));
             pstmt.setLong(9, config.getLong("created_at", System.currentTimeMillis()));
-            pstmt.setLong(10, System.currentTimeMillis());
-            
-            pstmt.executeUpdate();
-        }
-    }
-    
-    /**
-     * 检查渡劫记录是否已存在
-     */
-    private boolean tribulationExistsInDatabase(UUID playerUuid) {
-        String sql = "SELECT COUNT(*) FROM xian_tribulation_records WHERE player_uuid = ?";
-        
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
+            pstmt.setLong(10, now);
+            pstmt.addBatch();
         }
         
-        return false;
+        pstmt.executeBatch();
+        return records.size();
     }
 }
@@ -1,8 +1,8 @@
 package com.xiancore.core.data.migrate.migrators;
 
 import com.xiancore.XianCore;
-import com.xiancore.core.data.migrate.MigrationReport;
-import com.xiancore.core.data.migrate.base.AbstractMigrator;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.core.data.migrate.base.AbstractBulkMigrator;
 import com.xiancore.core.data.repository.WarehouseRepository;
 import com.xiancore.systems.sect.warehouse.SectWarehouse;
 import org.bukkit.configuration.ConfigurationSection;
@@ -10,10 +10,8 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,7 +21,7 @@ import java.util.Map;
  * @author XianCore Team
  * @version 1.0.0
  */
-public class WarehouseDataMigrator extends AbstractMigrator {
+public class WarehouseDataMigrator extends AbstractBulkMigrator<SectWarehouse> {
 
     private final File sectsFolder;
     private final WarehouseRepository warehouseRepository;
@@ -71,78 +69,34 @@ public class WarehouseDataMigrator extends AbstractMigrator {
     }
 
     @Override
-    public MigrationReport migrate(boolean dryRun) {
-        MigrationReport report = new MigrationReport();
-
-        plugin.getLogger().info("§e开始迁移宗门仓库数据...");
-        plugin.getLogger().info("§e模式: " + (dryRun ? "§6预览模式" : "§c真实迁移"));
-
-        // 检查MySQL
-        if (!isMySqlAvailable()) {
-            plugin.getLogger().severe("§cMySQL未连接！");
-            return report;
-        }
-
-        // 检查文件夹
-        if (!sectsFolder.exists()) {
-            plugin.getLogger().warning("§c未找到 sects 目录");
-            return report;
-        }
-
-        // 获取所有仓库文件
-        File[] warehouseFiles = sectsFolder.listFiles((dir, name) -> name.endsWith("_warehouse.yml"));
-        if (warehouseFiles == null || warehouseFiles.length == 0) {
-            plugin.getLogger().warning("§c未找到任何仓库YML文件");
-            return report;
-        }
-
-        report.setTotalFiles(warehouseFiles.length);
-        plugin.getLogger().info("§a找到 " + warehouseFiles.length + " 个仓库文件");
-
-        // 开始迁移
-        for (File warehouseFile : warehouseFiles) {
-            try {
-                String fileName = warehouseFile.getName();
-                // 从文件名提取宗门ID (如: 1_warehouse.yml -> 1)
-                String sectIdStr = fileName.replace("_warehouse.yml", "");
-                int sectId = Integer.parseInt(sectIdStr);
-
-                // 检查是否已存在
-                if (!dryRun && existsInDatabase(sectId)) {
-                    plugin.getLogger().info("§7跳过: " + fileName + " (已存在)");
-                    report.recordSkipped();
-                    continue;
-                }
-
-                // 加载仓库数据
-                SectWarehouse warehouse = loadWarehouseDataFromYml(warehouseFile, sectId);
-                if (warehouse == null) {
-                    plugin.getLogger().warning("§c无法加载: " + fileName);
-                    report.recordFailure(fileName, fileName, "无法加载YML数据");
-                    continue;
-                }
+    public String getCheckpointName() {
+        return "warehouse";
+    }
 
-                // 写入数据库
-                if (!dryRun) {
-                    warehouseRepository.save(warehouse);
-                }
+    @Override
+    public List<File> listSourceFiles() {
+        return listFiles(sectsFolder, (dir, name) -> name.endsWith("_warehouse.yml"));
+    }
 
-                plugin.getLogger().info("§a迁移仓库数据: 宗门ID=" + sectId +
-                    " (物品数: " + warehouse.getUsedSlots() + "/" + warehouse.getCapacity() + ")");
-                report.addDataSize(warehouseFile.length());
-                report.recordSuccess();
+    @Override
+    public String keyOf(File file) {
+        // 从文件名提取宗门ID (如: 1_warehouse.yml -> 1)
+        return String.valueOf(Integer.parseInt(file.getName().replace("_warehouse.yml", "")));
+    }
 
-            } catch (Exception e) {
-                String fileName = warehouseFile.getName();
-                plugin.getLogger().warning("§c失败: " + fileName + " - " + e.getMessage());
-                report.recordFailure(fileName, fileName, e.getMessage());
-            }
-        }
+    @Override
+    public String getExistingKeysSql() {
+        return "SELECT sect_id FROM xian_sect_warehouses";
+    }
 
-        report.complete();
-        plugin.getLogger().info("§a宗门仓库数据迁移完成！");
+    @Override
+    public SectWarehouse parse(File file, String key) {
+        return loadWarehouseDataFromYml(file, Integer.parseInt(key));
+    }
 
-        return report;
+    @Override
+    public int writeBatch(UnitOfWork work, List<SectWarehouse> items) throws SQLException {
+        return warehouseRepository.saveAll(work, items);
     }
 
     @Override
@@ -196,29 +150,6 @@ public class WarehouseDataMigrator extends AbstractMigrator {
         }
     }
 
-    /**
-     * 检查仓库数据是否已存在
-     */
-    private boolean existsInDatabase(int sectId) {
-        String sql = "SELECT COUNT(*) FROM xian_sect_warehouses WHERE sect_id = ?";
-
-        try (Connection conn = dataManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, sectId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e检查数据库失败: " + e.getMessage());
-        }
-
-        return false;
-    }
-
     /**
      * 计算仓库文件总大小
      */
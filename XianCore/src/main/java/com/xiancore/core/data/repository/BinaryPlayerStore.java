@@ -0,0 +1,437 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+import com.xiancore.core.data.mapper.PlayerDataMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * 二进制追加日志本地存储：所有玩家保存在一个 players.dat 文件中
+ * <p>
+ * 文件格式：文件头 [魔数][版本]，之后是连续的记录 [长度][CRC32][UUID][玩家数据]。
+ * 每次保存只在文件末尾追加新记录并 fsync，内存索引指向每个玩家的最新记录；
+ * 启动时顺序扫描重建索引：文件末尾写了一半的记录（写入中途崩溃）直接截断，
+ * 文件中间的损坏记录跳过并向后查找下一条有效记录，不会丢弃其后的数据。
+ * <p>
+ * 过期记录占比超过一半时压缩：把最新记录写入临时文件，关闭当前文件后原子替换再重新打开，
+ * 压缩中途崩溃只会留下临时文件，原文件不受影响
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class BinaryPlayerStore implements PlayerLocalStore {
+
+    private static final int MAGIC = 0x58504C47; // "XPLG"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int UUID_SIZE = 16;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    /** 文件小于该大小时不压缩 */
+    private static final long COMPACT_MIN_SIZE = 1024 * 1024;
+
+    private final File file;
+    private final PlayerDataMapper mapper;
+    private final Logger logger;
+
+    private final Map<UUID, Slot> index = new HashMap<>();
+    private FileChannel channel;
+
+    /** 有效数据末尾（下一条记录的写入位置） */
+    private long end;
+
+    /** 最新记录占用的字节数 */
+    private long liveBytes;
+
+    /** 压缩失败后，文件增长到该大小前不再自动压缩 */
+    private long compactBackoffSize;
+
+    /**
+     * 打开（或创建）存储文件并重建索引
+     *
+     * @param file   存储文件
+     * @param mapper 数据映射器
+     * @param logger 日志
+     * @throws IOException 文件无法打开或不是有效的存储文件
+     */
+    public BinaryPlayerStore(File file, PlayerDataMapper mapper, Logger logger) throws IOException {
+        this.file = file;
+        this.mapper = mapper;
+        this.logger = logger;
+        open();
+    }
+
+    @Override
+    public String getName() {
+        return "BINARY";
+    }
+
+    // ==================== 读写 ====================
+
+    @Override
+    public synchronized PlayerData load(UUID uuid) throws IOException {
+        ensureOpen();
+        Slot slot = index.get(uuid);
+        if (slot == null) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(slot.length);
+        readFully(channel, payload, slot.position + RECORD_HEADER_SIZE);
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(payload.array(), UUID_SIZE, slot.length - UUID_SIZE));
+        return mapper.readBinary(in, uuid);
+    }
+
+    /**
+     * 追加一批记录，fsync 成功后才更新索引
+     */
+    @Override
+    public synchronized void save(List<PlayerData> players) throws IOException {
+        ensureOpen();
+        if (players.isEmpty()) {
+            return;
+        }
+
+        // 同一批中重复的玩家只写入最后一条，避免写入立即失效的记录
+        Map<UUID, PlayerData> latest = new LinkedHashMap<>();
+        for (PlayerData data : players) {
+            latest.put(data.getUuid(), data);
+        }
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(latest.size() * 512);
+        DataOutputStream batchOut = new DataOutputStream(batch);
+        Map<UUID, Slot> written = new HashMap<>();
+
+        for (PlayerData data : latest.values()) {
+            byte[] payload = encode(data);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            written.put(data.getUuid(), new Slot(end + batch.size(), payload.length));
+            batchOut.writeInt(payload.length);
+            batchOut.writeInt((int) crc.getValue());
+            batchOut.write(payload);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // 丢弃写了一半的记录，避免下次启动时被当作有效数据
+            try {
+                channel.truncate(end);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+
+        for (Map.Entry<UUID, Slot> entry : written.entrySet()) {
+            Slot previous = index.put(entry.getKey(), entry.getValue());
+            liveBytes += entry.getValue().size() - (previous != null ? previous.size() : 0);
+        }
+        end += batch.size();
+
+        if (end > COMPACT_MIN_SIZE && end >= compactBackoffSize && end - FILE_HEADER_SIZE > liveBytes * 2) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized Set<UUID> getStoredPlayers() {
+        return new HashSet<>(index.keySet());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("§e关闭玩家数据文件失败: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    public synchronized int getPlayerCount() {
+        return index.size();
+    }
+
+    public synchronized long getFileSize() {
+        return end;
+    }
+
+    // ==================== 打开与恢复 ====================
+
+    private void open() throws IOException {
+        // 压缩中途崩溃留下的临时文件，原文件仍然完整
+        Files.deleteIfExists(compactPath());
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException e) {
+            channel.close();
+            channel = null;
+            throw e;
+        }
+    }
+
+    /**
+     * 顺序扫描所有记录重建索引
+     * 文件中间的损坏记录跳过（向后查找下一条有效记录），只有末尾写了一半的记录才截断
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            writeFileHeader(channel);
+            channel.force(true);
+            end = FILE_HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        try {
+            readFully(channel, header, 0);
+        } catch (EOFException e) {
+            throw new IOException("玩家数据文件头不完整: " + file.getName());
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的玩家数据文件: " + file.getName());
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("不支持的玩家数据文件版本: " + header.getInt(4));
+        }
+
+        long position = FILE_HEADER_SIZE;
+        while (position < size) {
+            ByteBuffer payload = readRecord(position, size);
+            if (payload == null) {
+                long next = findNextRecord(position, size);
+                if (next < 0) {
+                    // 之后没有有效记录，是写入中途崩溃留下的尾部
+                    break;
+                }
+                logger.warning("§e玩家数据文件在偏移 " + position + " 处有 " + (next - position)
+                        + " 字节损坏数据，已跳过（其中的记录无法恢复，将在下次压缩时清除）");
+                position = next;
+                continue;
+            }
+
+            Slot slot = new Slot(position, payload.capacity());
+            Slot previous = index.put(new UUID(payload.getLong(0), payload.getLong(8)), slot);
+            liveBytes += slot.size() - (previous != null ? previous.size() : 0);
+            position += slot.size();
+        }
+
+        if (position < size) {
+            logger.warning("§e玩家数据文件尾部有 " + (size - position) + " 字节无效数据（上次可能未正常关闭），已截断");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        end = position;
+    }
+
+    /**
+     * 读取 position 处的完整记录，长度越界、超出文件末尾或校验失败时返回 null
+     */
+    private ByteBuffer readRecord(long position, long size) throws IOException {
+        if (size - position < RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, recordHeader, position);
+        int length = recordHeader.getInt(0);
+        int checksum = recordHeader.getInt(4);
+        if (length < UUID_SIZE || length > MAX_RECORD_SIZE
+                || position + RECORD_HEADER_SIZE + length > size) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        return (int) crc.getValue() == checksum ? payload : null;
+    }
+
+    /**
+     * 从损坏位置之后逐字节查找下一条有效记录，找不到返回 -1
+     */
+    private long findNextRecord(long position, long size) throws IOException {
+        for (long candidate = position + 1; size - candidate >= RECORD_HEADER_SIZE; candidate++) {
+            if (readRecord(candidate, size) != null) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== 压缩 ====================
+
+    /**
+     * 只保留每个玩家的最新记录，写入临时文件后原子替换
+     * 替换前关闭当前通道（Windows 不允许替换仍被打开的文件），替换后重新打开
+     * 压缩失败不影响本次保存，原文件继续使用，并在文件再增长一倍前不再自动压缩
+     */
+    private void compact() {
+        Path temp = compactPath();
+        Map<UUID, Slot> compacted = new HashMap<>(index.size() * 2);
+        long position = FILE_HEADER_SIZE;
+
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFileHeader(out);
+                out.position(FILE_HEADER_SIZE);
+                for (Map.Entry<UUID, Slot> entry : index.entrySet()) {
+                    Slot slot = entry.getValue();
+                    long copied = 0;
+                    while (copied < slot.size()) {
+                        copied += channel.transferTo(slot.position + copied, slot.size() - copied, out);
+                    }
+                    compacted.put(entry.getKey(), new Slot(position, slot.length));
+                    position += slot.size();
+                }
+                out.force(true);
+            }
+        } catch (IOException e) {
+            compactFailed(temp, e);
+            return;
+        }
+
+        boolean replaced = false;
+        try {
+            FileChannel old = channel;
+            channel = null;
+            try {
+                old.force(true);
+            } finally {
+                old.close();
+            }
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } catch (IOException e) {
+            compactFailed(temp, e);
+        }
+
+        // 无论替换是否成功都重新打开数据文件（失败时仍是原文件，索引不变）
+        if (channel == null) {
+            try {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                // 后续读写会在 ensureOpen 中报错
+                logger.severe("§c重新打开玩家数据文件失败: " + e.getMessage());
+            }
+        }
+        if (!replaced) {
+            return;
+        }
+
+        long before = end;
+        index.clear();
+        index.putAll(compacted);
+        end = position;
+        liveBytes = position - FILE_HEADER_SIZE;
+        compactBackoffSize = 0;
+        logger.info(String.format("玩家数据文件已压缩: %d KB -> %d KB", before / 1024, end / 1024));
+    }
+
+    private void compactFailed(Path temp, IOException e) {
+        compactBackoffSize = end * 2;
+        logger.warning("§e压缩玩家数据文件失败，文件增长到 " + compactBackoffSize / 1024 + " KB 前不再自动压缩: " + e.getMessage());
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private byte[] encode(PlayerData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(data.getUuid().getMostSignificantBits());
+        out.writeLong(data.getUuid().getLeastSignificantBits());
+        mapper.writeBinary(out, data);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("玩家数据文件未打开: " + file.getName());
+        }
+    }
+
+    private Path compactPath() {
+        return new File(file.getPath() + ".compact").toPath();
+    }
+
+    private static void writeFileHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * 记录位置
+     *
+     * @param position 记录起始位置（含记录头）
+     * @param length   记录体长度（含 UUID）
+     */
+    private record Slot(long position, int length) {
+        long size() {
+            return RECORD_HEADER_SIZE + length;
+        }
+    }
+}
@@ -2,19 +2,20 @@ package com.xiancore.core.data.repository;
 
 import com.xiancore.XianCore;
 import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.UnitOfWork;
 import com.xiancore.systems.sect.facilities.SectFacilityData;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * 设施数据仓储
- * 负责设施数据的加载、保存（支持 YAML/MySQL 双模式）
+ * 负责设施数据的加载、保存（支持 YAML/MySQL/SQLite）
  *
  * @author Olivia Diaz
  * @version 2.0.0
@@ -51,13 +52,47 @@ public class FacilityRepository {
      * @param data 设施数据
      */
     public void save(SectFacilityData data) {
-        if (databaseManager.isUseMySql()) {
+        if (databaseManager.isUseSql()) {
             saveToDatabase(data);
         } else {
             saveToFile(data);
         }
     }
 
+    /**
+     * 批量写入设施数据（调用方管理事务），先删除旧等级再插入
+     *
+     * @param work 工作单元
+     * @param list 设施数据
+     * @return 写入的行数
+     * @throws SQLException SQL 异常
+     */
+    public int saveAll(UnitOfWork work, List<SectFacilityData> list) throws SQLException {
+        PreparedStatement delete = work.prepare(SQL_DELETE);
+        PreparedStatement insert = work.prepare(SQL_INSERT);
+
+        int rows = 0;
+        for (SectFacilityData data : list) {
+            delete.setInt(1, data.getSectId());
+            delete.addBatch();
+
+            for (var entry : data.getFacilityLevels().entrySet()) {
+                insert.setInt(1, data.getSectId());
+                insert.setString(2, entry.getKey());
+                insert.setInt(3, entry.getValue());
+                insert.setLong(4, data.getLastUpdated());
+                insert.addBatch();
+                rows++;
+            }
+        }
+
+        delete.executeBatch();
+        if (rows > 0) {
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
     /**
      * 加载设施数据
      *
@@ -65,16 +100,16 @@ public class FacilityRepository {
      * @return 设施数据，如果不存在返回 null
      */
     public SectFacilityData load(int sectId) {
-        return databaseManager.isUseMySql()
+        return databaseManager.isUseSql()
                 ? loadFromDatabase(sectId)
                 : loadFromFile(sectId);
     }
 
-    // ==================== MySQL 实现 ====================
+    // ==================== 数据库实现 ====================
 
     private SectFacilityData loadFromDatabase(int sectId) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT)) {
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_SELECT);
 
             pstmt.setInt(1, sectId);
 
@@ -101,26 +136,11 @@ public class FacilityRepository {
     }
 
     private void saveToDatabase(SectFacilityData data) {
-        try (Connection conn = databaseManager.getConnection()) {
-            // 删除旧数据
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE)) {
-                pstmt.setInt(1, data.getSectId());
-                pstmt.executeUpdate();
-            }
-
-            // 插入新数据
-            if (!data.getFacilityLevels().isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT)) {
-                    for (var entry : data.getFacilityLevels().entrySet()) {
-                        pstmt.setInt(1, data.getSectId());
-                        pstmt.setString(2, entry.getKey());
-                        pstmt.setInt(3, entry.getValue());
-                        pstmt.setLong(4, data.getLastUpdated());
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
-                }
-            }
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            // 删除和插入在同一事务中，避免中途失败丢失设施等级
+            work.begin();
+            saveAll(work, List.of(data));
+            work.commit();
 
         } catch (SQLException e) {
             plugin.getLogger().warning("§e保存设施数据到数据库失败: 宗门ID=" + data.getSectId());
@@ -0,0 +1,186 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.UnitOfWork;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 玩家关联表（键值型）的增量写入器
+ * 对比上次持久化的内容，只对新增/变化的行执行 UPSERT，对移除的行执行 DELETE
+ * <p>
+ * 表结构约定：(player_uuid, 键列, 值列)，主键为 (player_uuid, 键列)
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class PlayerChildTable<K, V> {
+
+    private final String deleteAllSql;
+    private final String deleteOneSql;
+    private final String upsertSql;
+    private final String conflictColumns;
+    private final SqlBinder<K> keyBinder;
+    private final SqlBinder<V> valueBinder;
+
+    /**
+     * @param table       表名
+     * @param keyColumn   键列
+     * @param valueColumn 值列
+     * @param keyBinder   键绑定方式
+     * @param valueBinder 值绑定方式
+     */
+    public PlayerChildTable(String table, String keyColumn, String valueColumn,
+                            SqlBinder<K> keyBinder, SqlBinder<V> valueBinder) {
+        this.deleteAllSql = "DELETE FROM " + table + " WHERE player_uuid = ?";
+        this.deleteOneSql = "DELETE FROM " + table + " WHERE player_uuid = ? AND " + keyColumn + " = ?";
+        this.upsertSql = "INSERT INTO " + table + " (player_uuid, " + keyColumn + ", " + valueColumn + ") VALUES (?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE " + valueColumn + " = VALUES(" + valueColumn + ")";
+        this.conflictColumns = "player_uuid, " + keyColumn;
+        this.keyBinder = keyBinder;
+        this.valueBinder = valueBinder;
+    }
+
+    /**
+     * 创建批量写入器（可跨多个玩家累积，一次执行）
+     *
+     * @param work 工作单元（由调用方管理事务）
+     * @return 批量写入器
+     */
+    public Batch<K, V> newBatch(UnitOfWork work) {
+        return new Batch<>(this, work);
+    }
+
+    /**
+     * 写入单个玩家变化的行
+     *
+     * @param work     工作单元（由调用方管理事务）
+     * @param uuid     玩家 UUID
+     * @param previous 上次持久化的内容，为 null 表示未知（整体替换）
+     * @param current  当前内容
+     * @return 实际写入的行数（UPSERT + DELETE）
+     * @throws SQLException SQL 异常
+     */
+    public int writeDelta(UnitOfWork work, UUID uuid, Map<K, V> previous, Map<K, V> current) throws SQLException {
+        try (Batch<K, V> batch = newBatch(work)) {
+            batch.add(uuid, previous, current);
+            return batch.execute();
+        }
+    }
+
+    /**
+     * 批量写入器
+     * 按语句类型累积 JDBC 批处理，执行顺序为：整体删除 → 单行删除 → UPSERT
+     * 语句来自工作单元的缓存，关闭时只清空未执行的批处理
+     */
+    public static final class Batch<K, V> implements AutoCloseable {
+
+        private final PlayerChildTable<K, V> table;
+        private final UnitOfWork work;
+
+        private PreparedStatement deleteAll;
+        private PreparedStatement deleteOne;
+        private PreparedStatement upsert;
+        private int pendingRows;
+
+        private Batch(PlayerChildTable<K, V> table, UnitOfWork work) {
+            this.table = table;
+            this.work = work;
+        }
+
+        /**
+         * 累积一个玩家的变化
+         *
+         * @param uuid     玩家 UUID
+         * @param previous 上次持久化的内容，为 null 表示未知（整体替换）
+         * @param current  当前内容
+         * @throws SQLException SQL 异常
+         */
+        public void add(UUID uuid, Map<K, V> previous, Map<K, V> current) throws SQLException {
+            String uuidStr = uuid.toString();
+
+            if (previous == null) {
+                // 数据库中的内容未知，先清空再全部写入
+                if (deleteAll == null) {
+                    deleteAll = work.prepare(table.deleteAllSql);
+                }
+                deleteAll.setString(1, uuidStr);
+                deleteAll.addBatch();
+                previous = Map.of();
+            }
+
+            for (K key : previous.keySet()) {
+                if (!current.containsKey(key)) {
+                    if (deleteOne == null) {
+                        deleteOne = work.prepare(table.deleteOneSql);
+                    }
+                    deleteOne.setString(1, uuidStr);
+                    table.keyBinder.bind(deleteOne, 2, key);
+                    deleteOne.addBatch();
+                    pendingRows++;
+                }
+            }
+
+            for (Map.Entry<K, V> entry : current.entrySet()) {
+                if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                    if (upsert == null) {
+                        upsert = work.prepareUpsert(table.upsertSql, table.conflictColumns);
+                    }
+                    upsert.setString(1, uuidStr);
+                    table.keyBinder.bind(upsert, 2, entry.getKey());
+                    table.valueBinder.bind(upsert, 3, entry.getValue());
+                    upsert.addBatch();
+                    pendingRows++;
+                }
+            }
+        }
+
+        /**
+         * 执行累积的批处理
+         *
+         * @return 写入的行数（UPSERT + 单行 DELETE）
+         * @throws SQLException SQL 异常
+         */
+        public int execute() throws SQLException {
+            if (deleteAll != null) {
+                deleteAll.executeBatch();
+            }
+            if (deleteOne != null) {
+                deleteOne.executeBatch();
+            }
+            if (upsert != null) {
+                upsert.executeBatch();
+            }
+
+            int rows = pendingRows;
+            pendingRows = 0;
+            return rows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (deleteAll != null) {
+                deleteAll.clearBatch();
+            }
+            if (deleteOne != null) {
+                deleteOne.clearBatch();
+            }
+            if (upsert != null) {
+                upsert.clearBatch();
+            }
+        }
+    }
+
+    /**
+     * 参数绑定
+     */
+    @FunctionalInterface
+    public interface SqlBinder<T> {
+        void bind(PreparedStatement pstmt, int index, T value) throws SQLException;
+    }
+}
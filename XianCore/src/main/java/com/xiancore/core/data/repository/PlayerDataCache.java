@@ -0,0 +1,431 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * 玩家数据分层缓存
+ * <p>
+ * - 在线层：在线玩家的数据，强引用，不会被淘汰
+ * - 离线层：离线玩家查询（占位符、命令等）产生的数据，按 LRU + 空闲时间淘汰
+ * <p>
+ * 淘汰前会调用 {@link EvictionHandler} 写入未保存的数据。写入是异步的：写入完成前条目仍留在离线层中可读，
+ * 写入成功且期间未被再次访问或替换时才移除；写入失败的条目会保留在缓存中。
+ * 淘汰只在 {@link EvictionHandler#isEvictionThread()} 线程（主线程）上开始，其他线程放入的条目超出容量时调度到该线程淘汰
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class PlayerDataCache {
+
+    private final Logger logger;
+    private final EvictionHandler evictionHandler;
+
+    // 在线层
+    private final Map<UUID, PlayerData> online = new ConcurrentHashMap<>();
+
+    // 离线层（访问顺序，最久未访问的在前）
+    private final LinkedHashMap<UUID, OfflineEntry> offline = new LinkedHashMap<>(64, 0.75f, true);
+
+    private volatile int offlineMaxSize;
+    private volatile long offlineTtlMillis;
+
+    /** 已调度到淘汰线程、尚未执行的容量淘汰 */
+    private final AtomicBoolean overflowScheduled = new AtomicBoolean();
+
+    // ==================== 统计 ====================
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PlayerDataCache(Logger logger, int offlineMaxSize, long offlineTtlMillis, EvictionHandler evictionHandler) {
+        this.logger = logger;
+        this.offlineMaxSize = offlineMaxSize;
+        this.offlineTtlMillis = offlineTtlMillis;
+        this.evictionHandler = evictionHandler;
+    }
+
+    /**
+     * 更新离线层容量限制
+     *
+     * @param offlineMaxSize   离线层最大条目数
+     * @param offlineTtlMillis 离线层空闲过期时间（毫秒）
+     */
+    public void configure(int offlineMaxSize, long offlineTtlMillis) {
+        this.offlineMaxSize = offlineMaxSize;
+        this.offlineTtlMillis = offlineTtlMillis;
+        evictOverflow();
+    }
+
+    // ==================== 读写 ====================
+
+    /**
+     * 获取缓存数据（计入命中统计，刷新离线层访问时间）
+     *
+     * @param uuid 玩家 UUID
+     * @return 缓存的数据，未命中返回 null
+     */
+    public PlayerData get(UUID uuid) {
+        PlayerData data = online.get(uuid);
+        if (data == null) {
+            synchronized (offline) {
+                OfflineEntry entry = offline.get(uuid);
+                if (entry != null) {
+                    // 再次被访问的条目取消淘汰（调用方可能会修改数据）
+                    entry.evicting = false;
+                    entry.lastAccess = System.currentTimeMillis();
+                    data = entry.data;
+                }
+            }
+        }
+
+        if (data != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return data;
+    }
+
+    /**
+     * 获取缓存数据（不计入统计，不刷新空闲时间）
+     *
+     * @param uuid 玩家 UUID
+     * @return 缓存的数据
+     */
+    public PlayerData peek(UUID uuid) {
+        PlayerData data = online.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        synchronized (offline) {
+            OfflineEntry entry = offline.get(uuid);
+            return entry != null ? entry.data : null;
+        }
+    }
+
+    /**
+     * 放入缓存：在线玩家进入在线层，否则进入离线层
+     *
+     * @param data 玩家数据
+     */
+    public void put(PlayerData data) {
+        UUID uuid = data.getUuid();
+        if (online.containsKey(uuid)) {
+            online.put(uuid, data);
+            return;
+        }
+
+        synchronized (offline) {
+            offline.put(uuid, new OfflineEntry(data, System.currentTimeMillis()));
+        }
+        evictOverflow();
+    }
+
+    /**
+     * 离线层条目是否正在等待淘汰写入完成
+     *
+     * @param uuid 玩家 UUID
+     * @return 是否正在淘汰
+     */
+    public boolean isEvicting(UUID uuid) {
+        synchronized (offline) {
+            OfflineEntry entry = offline.get(uuid);
+            return entry != null && entry.evicting;
+        }
+    }
+
+    /**
+     * 标记玩家在线（移入在线层）
+     *
+     * @param data 玩家数据
+     */
+    public void markOnline(PlayerData data) {
+        online.put(data.getUuid(), data);
+        synchronized (offline) {
+            offline.remove(data.getUuid());
+        }
+    }
+
+    /**
+     * 标记玩家离线（移入离线层，之后按 LRU/空闲时间淘汰）
+     *
+     * @param uuid 玩家 UUID
+     */
+    public void markOffline(UUID uuid) {
+        PlayerData data = online.remove(uuid);
+        if (data == null) {
+            return;
+        }
+        synchronized (offline) {
+            offline.put(uuid, new OfflineEntry(data, System.currentTimeMillis()));
+        }
+        evictOverflow();
+    }
+
+    /**
+     * 直接移除（不调用淘汰回调）
+     *
+     * @param uuid 玩家 UUID
+     * @return 被移除的数据
+     */
+    public PlayerData remove(UUID uuid) {
+        PlayerData data = online.remove(uuid);
+        synchronized (offline) {
+            OfflineEntry entry = offline.remove(uuid);
+            if (data == null && entry != null) {
+                data = entry.data;
+            }
+        }
+        return data;
+    }
+
+    // ==================== 淘汰 ====================
+
+    /**
+     * 淘汰离线层中空闲超时的条目（在修改数据的线程上调用，通常是主线程）
+     *
+     * @return 开始淘汰的条目数
+     */
+    public int evictExpired() {
+        long deadline = System.currentTimeMillis() - offlineTtlMillis;
+        List<OfflineEntry> victims = new ArrayList<>();
+
+        synchronized (offline) {
+            for (OfflineEntry entry : offline.values()) {
+                if (!entry.evicting && entry.lastAccess <= deadline) {
+                    entry.evicting = true;
+                    victims.add(entry);
+                }
+            }
+        }
+
+        return evict(victims);
+    }
+
+    private void evictOverflow() {
+        // 淘汰回调会截取数据副本，不能在异步加载等其他线程上进行
+        if (!evictionHandler.isEvictionThread()) {
+            if (getOfflineSize() > offlineMaxSize && overflowScheduled.compareAndSet(false, true)) {
+                evictionHandler.runOnEvictionThread(() -> {
+                    overflowScheduled.set(false);
+                    evictOverflow();
+                });
+            }
+            return;
+        }
+
+        List<OfflineEntry> victims;
+
+        synchronized (offline) {
+            int overflow = offline.size() - offlineMaxSize;
+            if (overflow <= 0) {
+                return;
+            }
+
+            // 正在淘汰的条目写入完成后就会移除，不再重复挑选
+            List<OfflineEntry> candidates = new ArrayList<>(overflow);
+            for (OfflineEntry entry : offline.values()) {
+                if (entry.evicting) {
+                    overflow--;
+                } else if (candidates.size() < overflow) {
+                    candidates.add(entry);
+                }
+            }
+
+            victims = new ArrayList<>(Math.max(overflow, 0));
+            for (int i = 0; i < overflow && i < candidates.size(); i++) {
+                OfflineEntry entry = candidates.get(i);
+                entry.evicting = true;
+                victims.add(entry);
+            }
+        }
+
+        evict(victims);
+    }
+
+    /**
+     * 在锁外启动淘汰写入，不等待写入完成；条目在写入完成前保留在离线层中
+     */
+    private int evict(List<OfflineEntry> victims) {
+        for (OfflineEntry entry : victims) {
+            CompletableFuture<Boolean> flushed;
+            try {
+                flushed = evictionHandler.beforeEvict(entry.data);
+            } catch (Exception e) {
+                flushed = CompletableFuture.failedFuture(e);
+            }
+            flushed.whenComplete((success, error) -> {
+                if (error != null) {
+                    logger.warning("§e淘汰玩家数据前写入失败: " + entry.data.getUuid() + " - " + error.getMessage());
+                }
+                completeEviction(entry, error == null && Boolean.TRUE.equals(success));
+            });
+        }
+        return victims.size();
+    }
+
+    /**
+     * 淘汰写入完成：写入成功且条目仍在等待淘汰时移除，否则取消淘汰
+     */
+    private void completeEviction(OfflineEntry entry, boolean flushed) {
+        UUID uuid = entry.data.getUuid();
+        boolean removed = false;
+        synchronized (offline) {
+            // 条目已被替换、移入在线层或再次访问时不移除
+            if (offline.get(uuid) == entry && entry.evicting) {
+                if (flushed) {
+                    offline.remove(uuid);
+                    removed = true;
+                } else {
+                    entry.evicting = false;
+                    entry.lastAccess = System.currentTimeMillis();
+                }
+            }
+        }
+
+        if (removed) {
+            evictions.incrementAndGet();
+            evictionHandler.afterEvict(uuid);
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 获取所有缓存数据的快照
+     *
+     * @return 数据集合
+     */
+    public Collection<PlayerData> values() {
+        List<PlayerData> values = new ArrayList<>(online.values());
+        synchronized (offline) {
+            for (OfflineEntry entry : offline.values()) {
+                values.add(entry.data);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 获取所有缓存数据的 Map 快照
+     *
+     * @return UUID -> 数据
+     */
+    public Map<UUID, PlayerData> asMap() {
+        Map<UUID, PlayerData> map = new HashMap<>(online);
+        synchronized (offline) {
+            for (Map.Entry<UUID, OfflineEntry> entry : offline.entrySet()) {
+                map.putIfAbsent(entry.getKey(), entry.getValue().data);
+            }
+        }
+        return map;
+    }
+
+    public boolean isOnline(UUID uuid) {
+        return online.containsKey(uuid);
+    }
+
+    public int size() {
+        return getOnlineSize() + getOfflineSize();
+    }
+
+    public int getOnlineSize() {
+        return online.size();
+    }
+
+    public int getOfflineSize() {
+        synchronized (offline) {
+            return offline.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率 (0.0-1.0)
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * 离线层条目
+     */
+    private static final class OfflineEntry {
+        private final PlayerData data;
+        private long lastAccess;
+        private boolean evicting;   // 淘汰写入进行中
+
+        private OfflineEntry(PlayerData data, long lastAccess) {
+            this.data = data;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * 淘汰回调
+     */
+    @FunctionalInterface
+    public interface EvictionHandler {
+        /**
+         * 淘汰前写入未保存的数据（不得阻塞调用线程）
+         *
+         * @param data 即将被淘汰的数据
+         * @return 写入结果：true 表示可以淘汰（写入成功或无需写入）
+         */
+        CompletableFuture<Boolean> beforeEvict(PlayerData data);
+
+        /**
+         * 条目已从缓存中移除
+         *
+         * @param uuid 玩家 UUID
+         */
+        default void afterEvict(UUID uuid) {
+        }
+
+        /**
+         * 当前线程是否可以开始淘汰（{@link #beforeEvict} 在该线程上调用）
+         *
+         * @return 是否可以在当前线程淘汰
+         */
+        default boolean isEvictionThread() {
+            return true;
+        }
+
+        /**
+         * 把淘汰调度到可以开始淘汰的线程
+         *
+         * @param task 淘汰任务
+         */
+        default void runOnEvictionThread(Runnable task) {
+            task.run();
+        }
+    }
+}
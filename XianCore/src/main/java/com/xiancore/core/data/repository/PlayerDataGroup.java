@@ -0,0 +1,31 @@
+package com.xiancore.core.data.repository;
+
+/**
+ * 玩家数据字段分组
+ * 每个分组对应一张持久化表（或一组字段），用于脏标记与增量写入
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public enum PlayerDataGroup {
+
+    /**
+     * 主表字段（xian_players）
+     */
+    MAIN,
+
+    /**
+     * 已学功法（xian_player_skills）
+     */
+    SKILLS,
+
+    /**
+     * 装备槽位（xian_player_equipment）
+     */
+    EQUIPMENT,
+
+    /**
+     * 功法快捷键绑定（xian_player_skill_binds）
+     */
+    SKILL_BINDS
+}
@@ -0,0 +1,78 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 玩家数据本地存储（未启用 MySQL 时使用）
+ * <p>
+ * 实现需保证单个玩家的写入是原子的：崩溃后读到的要么是旧数据，要么是新数据
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public interface PlayerLocalStore {
+
+    /**
+     * 存储名称（用于日志）
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 加载玩家数据
+     *
+     * @param uuid 玩家 UUID
+     * @return 玩家数据，不存在返回 null
+     * @throws IOException 读取失败
+     */
+    PlayerData load(UUID uuid) throws IOException;
+
+    /**
+     * 保存一批玩家数据
+     *
+     * @param players 玩家数据
+     * @throws IOException 写入失败
+     */
+    void save(List<PlayerData> players) throws IOException;
+
+    /**
+     * 获取所有已存储的玩家
+     *
+     * @return 玩家 UUID 集合
+     */
+    Set<UUID> getStoredPlayers();
+
+    /**
+     * 关闭存储，释放文件句柄
+     */
+    void close();
+
+    /**
+     * 存储格式
+     */
+    enum Format {
+        /** 每个玩家一个 YML 文件 */
+        YAML,
+        /** 紧凑二进制追加日志 */
+        BINARY;
+
+        /**
+         * 从配置值解析，无法识别时返回 YAML
+         *
+         * @param value 配置值
+         * @return 存储格式
+         */
+        public static Format fromConfig(String value) {
+            if (value != null && value.equalsIgnoreCase("binary")) {
+                return BINARY;
+            }
+            return YAML;
+        }
+    }
+}
@@ -3,23 +3,42 @@ package com.xiancore.core.data.repository;
 import com.xiancore.XianCore;
 import com.xiancore.core.data.DatabaseManager;
 import com.xiancore.core.data.PlayerData;
+import com.xiancore.core.data.UnitOfWork;
 import com.xiancore.core.data.SpiritualRootType;
 import com.xiancore.core.data.mapper.PlayerDataMapper;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
+import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 玩家数据仓储
  * 负责玩家数据的加载、保存、缓存管理
+ * <p>
+ * 每个玩家保留一份最近持久化的快照，保存时只写入发生变化的分组（主表/功法/装备/绑定）。
+ * 启用 write-behind 后，save() 在调用线程（主线程）上截取一份独立副本并标记待写入，
+ * 后台线程按固定间隔合并写入这些副本，不读取主线程正在修改的 PlayerData。
+ * 缓存分为在线层和离线层，离线层按容量和空闲时间淘汰，淘汰时在后台写入未保存的数据，写入完成前条目仍可读取。
+ * 批量保存（自动保存、后台刷新）在一个连接上按批次合并写入，每批一个事务。
+ * 未启用数据库（MySQL/SQLite）时使用本地存储（YAML 文件或二进制追加日志，由 database.local-storage 选择）
  *
  * @author Olivia Diaz
  * @version 1.0.0
@@ -31,7 +50,39 @@ public class PlayerRepository {
     private final PlayerDataMapper mapper;
 
     // 缓存
-    private final Map<UUID, PlayerData> cache = new ConcurrentHashMap<>();
+    private final PlayerDataCache cache;
+
+    // 最近一次持久化的快照（用于脏分组判断）
+    private final Map<UUID, PlayerSnapshot> persistedSnapshots = new ConcurrentHashMap<>();
+
+    // 延迟写入队列
+    private final PlayerWriteBehindQueue writeBehindQueue;
+
+    // 入队时在主线程截取的待写入副本（同一玩家只保留最新一份）
+    private final Map<UUID, PlayerData> stagedCopies = new ConcurrentHashMap<>();
+
+    // 交给延迟写入队列的淘汰写入，写入完成后通知缓存
+    private final Map<UUID, EvictionWrite> evictionWrites = new ConcurrentHashMap<>();
+
+    // 本地存储（未启用数据库时使用）
+    private volatile PlayerLocalStore localStore;
+
+    // 按玩家分段的写入锁，避免同一玩家被后台线程和淘汰逻辑并发写入
+    private final ReentrantLock[] persistLocks = new ReentrantLock[32];
+
+    // 批量保存时每个事务包含的玩家数
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+    // 最近一次批量保存的结果
+    private volatile BatchSaveResult lastBatchResult;
+
+    // 异步自动保存等待主线程截取副本的最长时间
+    private static final long SYNC_COPY_TIMEOUT_SECONDS = 10;
+
+    // 离线层缓存默认限制
+    private static final int DEFAULT_OFFLINE_CACHE_SIZE = 500;
+    private static final long DEFAULT_OFFLINE_CACHE_TTL_SECONDS = 600;
+    private static final int DEFAULT_BATCH_SIZE = 100;
 
     // SQL 常量
     private static final String SQL_SELECT_BY_UUID =
@@ -62,37 +113,134 @@ public class PlayerRepository {
                 fate_count = VALUES(fate_count)
             """;
 
-    private static final String SQL_SELECT_SKILLS =
-            "SELECT skill_id, skill_level FROM xian_player_skills WHERE player_uuid = ?";
+    // 三张关联表合并为一次查询：kind 区分来源表，k/v 为键值
+    private static final String SQL_SELECT_CHILDREN = """
+            SELECT 'skill' AS kind, skill_id AS k, CAST(skill_level AS CHAR) AS v
+                FROM xian_player_skills WHERE player_uuid = ?
+            UNION ALL
+            SELECT 'equipment', slot, equipment_uuid
+                FROM xian_player_equipment WHERE player_uuid = ?
+            UNION ALL
+            SELECT 'bind', CAST(slot AS CHAR), skill_id
+                FROM xian_player_skill_binds WHERE player_uuid = ?
+            """;
+
+    // 关联表（增量写入）
+    private static final PlayerChildTable<String, Integer> SKILLS_TABLE = new PlayerChildTable<>(
+            "xian_player_skills", "skill_id", "skill_level",
+            PreparedStatement::setString, PreparedStatement::setInt);
+
+    private static final PlayerChildTable<String, String> EQUIPMENT_TABLE = new PlayerChildTable<>(
+            "xian_player_equipment", "slot", "equipment_uuid",
+            PreparedStatement::setString, PreparedStatement::setString);
+
+    private static final PlayerChildTable<Integer, String> SKILL_BINDS_TABLE = new PlayerChildTable<>(
+            "xian_player_skill_binds", "slot", "skill_id",
+            PreparedStatement::setInt, PreparedStatement::setString);
+
+    public PlayerRepository(XianCore plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.mapper = new PlayerDataMapper();
+        this.localStore = new YamlPlayerStore(new File(plugin.getDataFolder(), "players"), mapper);
+        this.writeBehindQueue = new PlayerWriteBehindQueue(plugin.getLogger(), this::flushPlayers);
+        this.cache = new PlayerDataCache(plugin.getLogger(), DEFAULT_OFFLINE_CACHE_SIZE,
+                DEFAULT_OFFLINE_CACHE_TTL_SECONDS * 1000L, new PlayerDataCache.EvictionHandler() {
+                    @Override
+                    public CompletableFuture<Boolean> beforeEvict(PlayerData data) {
+                        return flushBeforeEvict(data);
+                    }
+
+                    @Override
+                    public void afterEvict(UUID uuid) {
+                        persistedSnapshots.remove(uuid);
+                    }
 
-    private static final String SQL_DELETE_SKILLS =
-            "DELETE FROM xian_player_skills WHERE player_uuid = ?";
+                    @Override
+                    public boolean isEvictionThread() {
+                        return plugin.getServer().isPrimaryThread();
+                    }
+
+                    @Override
+                    public void runOnEvictionThread(Runnable task) {
+                        // 预加载等异步线程放入缓存时，淘汰 (截取副本) 推迟到主线程
+                        if (plugin.isEnabled()) {
+                            plugin.getServer().getScheduler().runTask(plugin, task);
+                        }
+                    }
+                });
+        for (int i = 0; i < persistLocks.length; i++) {
+            persistLocks[i] = new ReentrantLock();
+        }
+    }
 
-    private static final String SQL_INSERT_SKILL =
-            "INSERT INTO xian_player_skills (player_uuid, skill_id, skill_level) VALUES (?, ?, ?)";
+    // ==================== 生命周期 ====================
 
-    private static final String SQL_SELECT_EQUIPMENT =
-            "SELECT slot, equipment_uuid FROM xian_player_equipment WHERE player_uuid = ?";
+    /**
+     * 初始化仓储（在 DatabaseManager 初始化之后调用）
+     */
+    public void initialize() {
+        FileConfiguration config = plugin.getConfig();
 
-    private static final String SQL_DELETE_EQUIPMENT =
-            "DELETE FROM xian_player_equipment WHERE player_uuid = ?";
+        // 离线层缓存限制，每分钟在主线程挑选空闲条目（写入在后台完成）
+        int offlineMaxSize = config.getInt("database.cache.offline-max-size", DEFAULT_OFFLINE_CACHE_SIZE);
+        long offlineTtlSeconds = config.getLong("database.cache.offline-ttl", DEFAULT_OFFLINE_CACHE_TTL_SECONDS);
+        cache.configure(Math.max(0, offlineMaxSize), Math.max(1, offlineTtlSeconds) * 1000L);
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::evictExpired, 1200L, 1200L);
 
-    private static final String SQL_INSERT_EQUIPMENT =
-            "INSERT INTO xian_player_equipment (player_uuid, slot, equipment_uuid) VALUES (?, ?, ?)";
+        batchSize = Math.max(1, config.getInt("database.batch-size", DEFAULT_BATCH_SIZE));
 
-    private static final String SQL_SELECT_SKILL_BINDS =
-            "SELECT slot, skill_id FROM xian_player_skill_binds WHERE player_uuid = ?";
+        if (!databaseManager.isUseSql()) {
+            initializeLocalStore(config.getString("database.local-storage", "yaml"));
+        }
 
-    private static final String SQL_DELETE_SKILL_BINDS =
-            "DELETE FROM xian_player_skill_binds WHERE player_uuid = ?";
+        if (!config.getBoolean("database.write-behind.enabled", true)) {
+            return;
+        }
 
-    private static final String SQL_INSERT_SKILL_BIND =
-            "INSERT INTO xian_player_skill_binds (player_uuid, slot, skill_id) VALUES (?, ?, ?)";
+        long intervalMillis = Math.max(1, config.getLong("database.write-behind.flush-interval", 5)) * 1000L;
+        writeBehindQueue.start(intervalMillis);
+        plugin.getLogger().info("玩家数据延迟写入已启用 (间隔: " + intervalMillis / 1000 + " 秒)");
+    }
 
-    public PlayerRepository(XianCore plugin, DatabaseManager databaseManager) {
-        this.plugin = plugin;
-        this.databaseManager = databaseManager;
-        this.mapper = new PlayerDataMapper();
+    /**
+     * 关闭仓储（插件关闭时在主线程调用）：延迟写入队列在后台线程上排空，这里只做有上限的等待
+     */
+    public void shutdown() {
+        writeBehindQueue.shutdown();
+        localStore.close();
+    }
+
+    private void initializeLocalStore(String format) {
+        if (PlayerLocalStore.Format.fromConfig(format) != PlayerLocalStore.Format.BINARY) {
+            return;
+        }
+
+        File binaryFile = new File(plugin.getDataFolder(), "players.dat");
+        BinaryPlayerStore binaryStore;
+        try {
+            binaryStore = new BinaryPlayerStore(binaryFile, mapper, plugin.getLogger());
+        } catch (IOException e) {
+            plugin.getLogger().severe("§c无法打开玩家数据文件 players.dat，改用 YAML 存储: " + e.getMessage());
+            return;
+        }
+
+        // 首次切换到二进制存储时，自动转换已有的 YAML 数据（YML 文件保留作为备份）
+        if (binaryStore.getPlayerCount() == 0 && !localStore.getStoredPlayers().isEmpty()) {
+            PlayerStoreConverter.Result result = PlayerStoreConverter.convert(localStore, binaryStore, batchSize, false, false);
+            plugin.getLogger().info(String.format("已将 %d 个玩家的 YAML 数据转换为二进制存储 (失败 %d 个)",
+                    result.converted(), result.failures().size()));
+            if (!result.failures().isEmpty()) {
+                // 删除不完整的转换结果，下次启动重新转换
+                binaryStore.close();
+                binaryFile.delete();
+                plugin.getLogger().severe("§c部分玩家数据转换失败，继续使用 YAML 存储，请检查后使用 /xiancore migrate confirm 重试");
+                return;
+            }
+        }
+
+        localStore = binaryStore;
+        plugin.getLogger().info("玩家数据本地存储: 二进制日志 (" + binaryStore.getPlayerCount() + " 个玩家)");
     }
 
     // ==================== 公开 API ====================
@@ -111,56 +259,100 @@ public class PlayerRepository {
         }
 
         // 2. 从存储加载
-        PlayerData data = databaseManager.isUseMySql()
+        PlayerData data = databaseManager.isUseSql()
                 ? loadFromDatabase(uuid)
                 : loadFromFile(uuid);
 
-        // 3. 放入缓存
+        // 3. 放入缓存，记录持久化快照
         if (data != null) {
-            cache.put(uuid, data);
+            persistedSnapshots.put(uuid, PlayerSnapshot.of(data));
+            cache.put(data);
         }
 
         return data;
     }
 
     /**
-     * 保存玩家数据
+     * 预加载玩家数据（在 AsyncPlayerPreLoginEvent 等异步线程中调用）
+     * 加载结果放入缓存，随后主线程的 load() 直接命中缓存
+     *
+     * @param uuid 玩家 UUID
+     * @return 玩家数据，如果不存在返回 null
+     */
+    public PlayerData preload(UUID uuid) {
+        long start = System.nanoTime();
+        PlayerData data = load(uuid);
+
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info(String.format("预加载玩家数据 %s 耗时 %.2fms",
+                    uuid, (System.nanoTime() - start) / 1_000_000.0));
+        }
+        return data;
+    }
+
+    /**
+     * 保存玩家数据（在修改数据的线程上调用，通常是主线程）
+     * 启用 write-behind 时截取副本并标记为待写入，由后台线程合并刷新
      *
      * @param data 玩家数据
      */
     public void save(PlayerData data) {
         // 更新缓存
-        cache.put(data.getUuid(), data);
+        cache.put(data);
 
         // 持久化
-        if (databaseManager.isUseMySql()) {
-            saveToDatabase(data);
+        if (writeBehindQueue.isRunning()) {
+            stage(data.copy());
         } else {
-            saveToFile(data);
+            persist(data);
         }
     }
 
+    /**
+     * 将副本交给延迟写入队列（新副本覆盖同一玩家尚未写入的旧副本）
+     */
+    private void stage(PlayerData copy) {
+        // 等待淘汰的写入改为等待这份更新的副本（先于放入副本，刷新线程取到新副本时一定能匹配）
+        evictionWrites.computeIfPresent(copy.getUuid(), (uuid, write) -> new EvictionWrite(copy, write.result()));
+        stagedCopies.put(copy.getUuid(), copy);
+        writeBehindQueue.enqueue(copy.getUuid());
+    }
+
     /**
      * 事务化保存（供 TransactionManager 调用）
      *
-     * @param conn 数据库连接
+     * @param work 工作单元（由调用方管理事务）
      * @param data 玩家数据
      * @throws SQLException SQL 异常
      */
-    public void saveWithConnection(Connection conn, PlayerData data) throws SQLException {
+    public void save(UnitOfWork work, PlayerData data) throws SQLException {
         // 更新缓存
-        cache.put(data.getUuid(), data);
+        cache.put(data);
 
-        // 保存主数据
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT)) {
-            mapper.bindForSave(pstmt, data);
-            pstmt.executeUpdate();
-        }
+        // 对比上次持久化的快照，只写入变化的行
+        PlayerSnapshot current = PlayerSnapshot.of(data);
+        PlayerSnapshot persisted = persistedSnapshots.get(data.getUuid());
+        writeBatch(work, List.of(new DirtyPlayer(data, current, persisted, current.diff(persisted))));
 
-        // 保存关联数据
-        saveSkillsWithConnection(conn, data);
-        saveEquipmentWithConnection(conn, data);
-        saveSkillBindsWithConnection(conn, data);
+        // 事务可能回滚，此处不更新快照，下一次保存会再次写入
+    }
+
+    /**
+     * 批量整行写入（供数据迁移使用，调用方管理事务）
+     * 不经过缓存，也不对比快照，所有分组都会写入
+     *
+     * @param work    工作单元
+     * @param players 玩家数据
+     * @return 写入的行数
+     * @throws SQLException SQL 异常
+     */
+    public int saveAll(UnitOfWork work, List<PlayerData> players) throws SQLException {
+        List<DirtyPlayer> dirtyPlayers = new ArrayList<>(players.size());
+        for (PlayerData data : players) {
+            PlayerSnapshot current = PlayerSnapshot.of(data);
+            dirtyPlayers.add(new DirtyPlayer(data, current, null, current.diff(null)));
+        }
+        return writeBatch(work, dirtyPlayers);
     }
 
     /**
@@ -183,30 +375,184 @@ public class PlayerRepository {
                 rootType.getFullName() + " (" + String.format("%.3f", data.getSpiritualRoot()) + ")");
 
         // 缓存并保存
-        cache.put(uuid, data);
         save(data);
 
         return data;
     }
 
     /**
-     * 移除缓存
+     * 标记玩家在线（数据常驻在线层，不会被淘汰）
+     *
+     * @param data 玩家数据
+     */
+    public void markOnline(PlayerData data) {
+        cache.markOnline(data);
+    }
+
+    /**
+     * 标记玩家离线（数据移入离线层，之后按容量/空闲时间淘汰）
+     *
+     * @param uuid 玩家 UUID
+     */
+    public void markOffline(UUID uuid) {
+        cache.markOffline(uuid);
+    }
+
+    /**
+     * 移除缓存（在修改数据的线程上调用，通常是主线程）
+     * 截取副本后交给后台线程写入，写入成功后回到主线程移除；写入失败时保留缓存
      *
      * @param uuid 玩家 UUID
+     * @return 写入结果：true 表示已写入并移除
+     */
+    public CompletableFuture<Boolean> evict(UUID uuid) {
+        PlayerData data = cache.peek(uuid);
+        if (data == null) {
+            persistedSnapshots.remove(uuid);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        // 副本覆盖队列中尚未写入的旧副本，不会出现旧数据在新数据之后写入
+        PlayerData copy = data.copy();
+        CompletableFuture<Boolean> written;
+        if (writeBehindQueue.isRunning()) {
+            written = stageForEviction(copy);
+            writeBehindQueue.flushAsync();
+        } else {
+            CompletableFuture<Boolean> direct = new CompletableFuture<>();
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin,
+                    () -> direct.complete(persist(copy)));
+            written = direct;
+        }
+
+        CompletableFuture<Boolean> removed = new CompletableFuture<>();
+        written.whenComplete((success, error) -> runOnMainThread(() -> {
+            if (error != null || !Boolean.TRUE.equals(success)) {
+                plugin.getLogger().warning("§e玩家数据写入失败，保留缓存: " + uuid);
+                removed.complete(false);
+                return;
+            }
+            // 写入期间玩家重新上线或数据被替换时保留缓存
+            if (cache.peek(uuid) == data && !cache.isOnline(uuid)) {
+                cache.remove(uuid);
+                persistedSnapshots.remove(uuid);
+            }
+            removed.complete(true);
+        }));
+        return removed;
+    }
+
+    /**
+     * 淘汰离线层中空闲超时的数据
+     *
+     * @return 淘汰数量
      */
-    public void evict(UUID uuid) {
-        cache.remove(uuid);
+    public int evictExpired() {
+        return cache.evictExpired();
     }
 
     /**
      * 保存所有缓存数据
+     * 只写入有变化的玩家，按批次合并为批量 UPSERT，每批一个事务。
+     * 写入的是在主线程上截取的副本；在异步线程调用时（自动保存）先回到主线程截取，再在当前线程写入。
+     * 延迟写入队列运行时，副本交给队列并在队列的后台线程上立即刷新，调用线程不等待写入；
+     * 插件关闭时由 {@link #shutdown()} 有上限地等待队列排空
+     *
+     * @return 本次保存的结果，未能截取副本时结果为 null
      */
-    public void saveAll() {
-        plugin.getLogger().info(String.format("正在保存 %d 个玩家的数据...", cache.size()));
-        for (PlayerData data : cache.values()) {
-            save(data);
+    public CompletableFuture<BatchSaveResult> saveAll() {
+        if (writeBehindQueue.isRunning()) {
+            return saveAllThroughQueue();
+        }
+
+        List<PlayerData> players = callOnMainThread(() -> copyOf(cache.values()));
+        if (players == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        plugin.getLogger().info(String.format("正在保存 %d 个玩家的数据...", players.size()));
+
+        List<UUID> failed = new ArrayList<>();
+        BatchSaveResult result = persistBatch(players, failed);
+
+        if (failed.isEmpty()) {
+            plugin.getLogger().info(String.format("§a所有玩家数据已保存! (%d 个玩家有变化, %d 行, 耗时 %d ms)",
+                    result.players(), result.rows(), result.durationMillis()));
+        } else {
+            plugin.getLogger().warning(String.format("§e%d 个玩家的数据保存失败 (已保存 %d 个, %d 行, 耗时 %d ms)",
+                    failed.size(), result.players(), result.rows(), result.durationMillis()));
         }
-        plugin.getLogger().info("§a所有玩家数据已保存!");
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private CompletableFuture<BatchSaveResult> saveAllThroughQueue() {
+        Integer staged = callOnMainThread(() -> {
+            for (PlayerData data : cache.values()) {
+                stage(data.copy());
+            }
+            return cache.size();
+        });
+        if (staged == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        plugin.getLogger().info(String.format("正在保存 %d 个玩家的数据...", staged));
+
+        // 写入失败的玩家由队列保留，下个刷新周期重试
+        long start = System.currentTimeMillis();
+        return writeBehindQueue.flushAsync().thenApply(written -> {
+            BatchSaveResult result = lastBatchResult;
+            if (result == null) {
+                // 副本已被后台线程写入
+                result = new BatchSaveResult(0, 0, System.currentTimeMillis() - start);
+            }
+            int pending = writeBehindQueue.getPendingCount();
+            if (pending == 0) {
+                plugin.getLogger().info(String.format("§a所有玩家数据已保存! (%d 个玩家有变化, %d 行, 耗时 %d ms)",
+                        result.players(), result.rows(), result.durationMillis()));
+            } else {
+                plugin.getLogger().warning(String.format("§e%d 个玩家的数据尚未保存，将由延迟写入队列重试", pending));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 在主线程上执行：插件已停用（无法调度任务）时直接在当前线程执行
+     */
+    private void runOnMainThread(Runnable task) {
+        if (plugin.getServer().isPrimaryThread() || !plugin.isEnabled()) {
+            task.run();
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * 在主线程上执行：已在主线程时直接执行，其他线程等待主线程完成
+     *
+     * @return 执行结果，等待超时（例如服务器正在关闭）时返回 null
+     */
+    private <T> T callOnMainThread(Callable<T> task) {
+        try {
+            if (plugin.getServer().isPrimaryThread()) {
+                return task.call();
+            }
+            return plugin.getServer().getScheduler()
+                    .callSyncMethod(plugin, task)
+                    .get(SYNC_COPY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().warning("§e无法在主线程截取玩家数据副本，本次保存跳过: " + e);
+        }
+        return null;
+    }
+
+    private static List<PlayerData> copyOf(Collection<PlayerData> players) {
+        List<PlayerData> copies = new ArrayList<>(players.size());
+        for (PlayerData data : players) {
+            copies.add(data.copy());
+        }
+        return copies;
     }
 
     /**
@@ -216,7 +562,7 @@ public class PlayerRepository {
      * @return 缓存的玩家数据
      */
     public PlayerData getCached(UUID uuid) {
-        return cache.get(uuid);
+        return cache.peek(uuid);
     }
 
     /**
@@ -238,264 +584,395 @@ public class PlayerRepository {
     }
 
     /**
-     * 获取缓存 Map（用于兼容）
+     * 获取缓存 Map 快照（用于兼容）
      *
      * @return 缓存 Map
      */
     public Map<UUID, PlayerData> getCache() {
+        return cache.asMap();
+    }
+
+    /**
+     * 获取分层缓存（用于监控命中/淘汰统计）
+     *
+     * @return 分层缓存
+     */
+    public PlayerDataCache getDataCache() {
         return cache;
     }
 
-    // ==================== 私有方法：MySQL ====================
+    /**
+     * 获取延迟写入队列（用于监控）
+     *
+     * @return 延迟写入队列
+     */
+    public PlayerWriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
 
-    private PlayerData loadFromDatabase(UUID uuid) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_BY_UUID)) {
+    /**
+     * 获取本地存储（未启用数据库时使用）
+     *
+     * @return 本地存储
+     */
+    public PlayerLocalStore getLocalStore() {
+        return localStore;
+    }
 
-            pstmt.setString(1, uuid.toString());
+    /**
+     * 获取最近一次批量保存的结果（用于监控）
+     *
+     * @return 批量保存结果，尚未执行过返回 null
+     */
+    public BatchSaveResult getLastBatchResult() {
+        return lastBatchResult;
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    PlayerData data = mapper.mapFromResultSet(rs, uuid);
-                    loadSkillsFromDatabase(uuid, data);
-                    loadEquipmentFromDatabase(uuid, data);
-                    loadSkillBindsFromDatabase(uuid, data);
-                    return data;
-                }
+    // ==================== 私有方法：脏数据写入 ====================
+
+    /**
+     * 延迟写入队列回调：一个刷新周期内的所有玩家合并为批量写入
+     * 只写入入队时截取的副本；写入失败的副本放回（已有更新副本时以新的为准）
+     */
+    private Collection<UUID> flushPlayers(List<UUID> uuids) {
+        Map<UUID, PlayerData> copies = new HashMap<>();
+        for (UUID uuid : uuids) {
+            PlayerData copy = stagedCopies.remove(uuid);
+            if (copy != null) {
+                copies.put(uuid, copy);
             }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e从数据库加载玩家数据失败: " + uuid);
-            e.printStackTrace();
         }
-        return null;
-    }
 
-    private void saveToDatabase(PlayerData data) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT)) {
+        Set<UUID> failed = new HashSet<>();
+        persistBatch(copies.values(), failed);
+        for (UUID uuid : failed) {
+            stagedCopies.putIfAbsent(uuid, copies.get(uuid));
+        }
+        for (Map.Entry<UUID, PlayerData> entry : copies.entrySet()) {
+            // 只完成等待这份副本的淘汰，较旧副本的写入不能让淘汰提前完成
+            UUID uuid = entry.getKey();
+            EvictionWrite eviction = evictionWrites.get(uuid);
+            if (eviction != null && eviction.copy() == entry.getValue() && evictionWrites.remove(uuid, eviction)) {
+                eviction.result().complete(!failed.contains(uuid));
+            }
+        }
+        return failed;
+    }
 
-            mapper.bindForSave(pstmt, data);
-            pstmt.executeUpdate();
+    /**
+     * 缓存淘汰回调（主线程）：截取副本后交给延迟写入队列或异步任务写入，不阻塞主线程
+     * 写入完成前条目仍保留在缓存中
+     */
+    private CompletableFuture<Boolean> flushBeforeEvict(PlayerData data) {
+        PlayerData copy = data.copy();
+        if (writeBehindQueue.isRunning()) {
+            return stageForEviction(copy);
+        }
 
-            saveSkillsToDatabase(data);
-            saveEquipmentToDatabase(data);
-            saveSkillBindsToDatabase(data);
+        CompletableFuture<Boolean> flushed = new CompletableFuture<>();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin,
+                () -> flushed.complete(persistEvicted(copy)));
+        return flushed;
+    }
 
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存玩家数据到数据库失败: " + data.getUuid());
-            e.printStackTrace();
+    /**
+     * 把淘汰副本交给延迟写入队列，该副本（或之后更新的副本）写入后完成；同一玩家之前的淘汰写入视为失败
+     */
+    private CompletableFuture<Boolean> stageForEviction(PlayerData copy) {
+        EvictionWrite write = new EvictionWrite(copy, new CompletableFuture<>());
+        EvictionWrite previous = evictionWrites.put(copy.getUuid(), write);
+        if (previous != null) {
+            previous.result().complete(false);
         }
+        stage(copy);
+        return write.result();
     }
 
-    private void loadSkillsFromDatabase(UUID uuid, PlayerData data) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_SKILLS)) {
-
-            pstmt.setString(1, uuid.toString());
+    /**
+     * 写入淘汰副本；持有写入锁后条目已不再等待淘汰（被再次访问或保存）时跳过，避免旧副本覆盖新数据
+     */
+    private boolean persistEvicted(PlayerData copy) {
+        ReentrantLock lock = lockFor(copy.getUuid());
+        lock.lock();
+        try {
+            return cache.isEvicting(copy.getUuid()) && persist(copy);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    String skillId = rs.getString("skill_id");
-                    int level = rs.getInt("skill_level");
-                    data.getLearnedSkills().put(skillId, level);
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e加载玩家功法数据失败: " + uuid);
-            e.printStackTrace();
+    /**
+     * 只写入自上次持久化以来发生变化的分组
+     *
+     * @param data 玩家数据
+     * @return 是否写入成功
+     */
+    private boolean persist(PlayerData data) {
+        ReentrantLock lock = lockFor(data.getUuid());
+        lock.lock();
+        try {
+            return persistDirtyGroups(data);
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void loadEquipmentFromDatabase(UUID uuid, PlayerData data) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_EQUIPMENT)) {
+    private boolean persistDirtyGroups(PlayerData data) {
+        DirtyPlayer player = collectDirty(data);
+        if (player.dirty().isEmpty()) {
+            return true;
+        }
 
-            pstmt.setString(1, uuid.toString());
+        boolean success = databaseManager.isUseSql()
+                ? saveToDatabase(player)
+                : saveToLocalStore(player);
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    String slot = rs.getString("slot");
-                    String equipmentUuid = rs.getString("equipment_uuid");
-                    data.getEquipment().put(slot, equipmentUuid);
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e加载玩家装备数据失败: " + uuid);
-            e.printStackTrace();
+        if (success) {
+            persistedSnapshots.put(data.getUuid(), player.current());
         }
+        return success;
     }
 
-    private void saveSkillsToDatabase(PlayerData data) {
-        try (Connection conn = databaseManager.getConnection()) {
-            // 删除旧数据
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SKILLS)) {
-                pstmt.setString(1, data.getUuid().toString());
-                pstmt.executeUpdate();
-            }
+    /**
+     * 批量写入：按 batch-size 分批，每批持有相关玩家的写入锁，合并为一次写入
+     *
+     * @param players 待写入的玩家
+     * @param failed  输出：写入失败的玩家
+     * @return 写入结果
+     */
+    private BatchSaveResult persistBatch(Collection<PlayerData> players, Collection<UUID> failed) {
+        long start = System.currentTimeMillis();
+        List<PlayerData> list = new ArrayList<>(players);
+        int written = 0;
+        int rows = 0;
+
+        // 每批单独获取连接：SQLite 只有一个写连接，先持有分段锁再取连接，与单个玩家保存的加锁顺序一致
+        ChunkWriter writer = databaseManager.isUseSql() ? this::writeToDatabase : this::writeToLocalStore;
+        for (int from = 0; from < list.size(); from += batchSize) {
+            List<PlayerData> chunk = list.subList(from, Math.min(from + batchSize, list.size()));
+            int[] chunkResult = persistChunk(chunk, failed, writer);
+            written += chunkResult[0];
+            rows += chunkResult[1];
+        }
 
-            // 插入新数据
-            if (!data.getLearnedSkills().isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_SKILL)) {
-                    for (var entry : data.getLearnedSkills().entrySet()) {
-                        pstmt.setString(1, data.getUuid().toString());
-                        pstmt.setString(2, entry.getKey());
-                        pstmt.setInt(3, entry.getValue());
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
+        BatchSaveResult result = new BatchSaveResult(written, rows, System.currentTimeMillis() - start);
+        lastBatchResult = result;
+        return result;
+    }
+
+    /**
+     * 写入一批玩家（一次写入）；整批失败时逐个玩家重试，避免单个坏数据拖累整批
+     *
+     * @return {写入的玩家数, 写入的行数}
+     */
+    private int[] persistChunk(List<PlayerData> chunk, Collection<UUID> failed, ChunkWriter writer) {
+        // 按固定顺序获取分段锁，避免与其他批次死锁
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (PlayerData data : chunk) {
+            stripes.add(stripeOf(data.getUuid()));
+        }
+        for (int stripe : stripes) {
+            persistLocks[stripe].lock();
+        }
+
+        try {
+            List<DirtyPlayer> dirtyPlayers = new ArrayList<>(chunk.size());
+            for (PlayerData data : chunk) {
+                DirtyPlayer player = collectDirty(data);
+                if (!player.dirty().isEmpty()) {
+                    dirtyPlayers.add(player);
                 }
             }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存玩家功法数据失败: " + data.getUuid());
-            e.printStackTrace();
-        }
-    }
+            if (dirtyPlayers.isEmpty()) {
+                return new int[]{0, 0};
+            }
 
-    private void saveEquipmentToDatabase(PlayerData data) {
-        try (Connection conn = databaseManager.getConnection()) {
-            // 删除旧数据
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_EQUIPMENT)) {
-                pstmt.setString(1, data.getUuid().toString());
-                pstmt.executeUpdate();
+            try {
+                int rows = writer.write(dirtyPlayers);
+                markPersisted(dirtyPlayers);
+                return new int[]{dirtyPlayers.size(), rows};
+            } catch (SQLException | IOException e) {
+                plugin.getLogger().warning("§e批量写入 " + dirtyPlayers.size() + " 个玩家失败，改为逐个写入: " + e.getMessage());
             }
 
-            // 插入新数据
-            if (!data.getEquipment().isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_EQUIPMENT)) {
-                    for (var entry : data.getEquipment().entrySet()) {
-                        pstmt.setString(1, data.getUuid().toString());
-                        pstmt.setString(2, entry.getKey());
-                        pstmt.setString(3, entry.getValue());
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
+            int written = 0;
+            int rows = 0;
+            for (DirtyPlayer player : dirtyPlayers) {
+                try {
+                    rows += writer.write(List.of(player));
+                    markPersisted(List.of(player));
+                    written++;
+                } catch (SQLException | IOException e) {
+                    plugin.getLogger().warning("§e保存玩家数据失败: " + player.data().getUuid());
+                    e.printStackTrace();
+                    failed.add(player.data().getUuid());
                 }
             }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存玩家装备数据失败: " + data.getUuid());
-            e.printStackTrace();
+            return new int[]{written, rows};
+
+        } finally {
+            for (int stripe : stripes.descendingSet()) {
+                persistLocks[stripe].unlock();
+            }
         }
     }
 
-    private void saveSkillsWithConnection(Connection conn, PlayerData data) throws SQLException {
-        // 删除旧数据
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SKILLS)) {
-            pstmt.setString(1, data.getUuid().toString());
-            pstmt.executeUpdate();
-        }
+    /**
+     * 生成当前快照并与上次持久化的快照对比
+     * data 必须是调用线程独占的数据（主线程上的原始数据或主线程截取的副本）
+     *
+     * @return 脏数据描述
+     */
+    private DirtyPlayer collectDirty(PlayerData data) {
+        PlayerSnapshot current = PlayerSnapshot.of(data);
+        PlayerSnapshot persisted = persistedSnapshots.get(data.getUuid());
+        return new DirtyPlayer(data, current, persisted, current.diff(persisted));
+    }
 
-        // 插入新数据
-        if (!data.getLearnedSkills().isEmpty()) {
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_SKILL)) {
-                for (var entry : data.getLearnedSkills().entrySet()) {
-                    pstmt.setString(1, data.getUuid().toString());
-                    pstmt.setString(2, entry.getKey());
-                    pstmt.setInt(3, entry.getValue());
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
-            }
+    private void markPersisted(List<DirtyPlayer> players) {
+        for (DirtyPlayer player : players) {
+            persistedSnapshots.put(player.data().getUuid(), player.current());
         }
     }
 
-    private void saveEquipmentWithConnection(Connection conn, PlayerData data) throws SQLException {
-        // 删除旧数据
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_EQUIPMENT)) {
-            pstmt.setString(1, data.getUuid().toString());
-            pstmt.executeUpdate();
-        }
+    private ReentrantLock lockFor(UUID uuid) {
+        return persistLocks[stripeOf(uuid)];
+    }
 
-        // 插入新数据
-        if (!data.getEquipment().isEmpty()) {
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_EQUIPMENT)) {
-                for (var entry : data.getEquipment().entrySet()) {
-                    pstmt.setString(1, data.getUuid().toString());
-                    pstmt.setString(2, entry.getKey());
-                    pstmt.setString(3, entry.getValue());
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
-            }
-        }
+    private int stripeOf(UUID uuid) {
+        return (uuid.hashCode() & 0x7fffffff) % persistLocks.length;
     }
 
-    private void loadSkillBindsFromDatabase(UUID uuid, PlayerData data) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_SKILL_BINDS)) {
+    // ==================== 私有方法：数据库 ====================
 
+    /**
+     * 在同一个工作单元中读取主表和全部关联表（两次查询）
+     */
+    private PlayerData loadFromDatabase(UUID uuid) {
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PlayerData data;
+            PreparedStatement pstmt = work.prepare(SQL_SELECT_BY_UUID);
             pstmt.setString(1, uuid.toString());
-
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    int slot = rs.getInt("slot");
-                    String skillId = rs.getString("skill_id");
-                    data.getSkillBindings().put(slot, skillId);
+                if (!rs.next()) {
+                    return null;
                 }
+                data = mapper.mapFromResultSet(rs, uuid);
             }
+
+            loadChildrenFromDatabase(work, uuid, data);
+            return data;
+
         } catch (SQLException e) {
-            plugin.getLogger().warning("§e加载玩家技能绑定数据失败: " + uuid);
+            plugin.getLogger().warning("§e从数据库加载玩家数据失败: " + uuid);
             e.printStackTrace();
         }
+        return null;
     }
 
-    private void saveSkillBindsToDatabase(PlayerData data) {
-        try (Connection conn = databaseManager.getConnection()) {
-            // 删除旧数据
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SKILL_BINDS)) {
-                pstmt.setString(1, data.getUuid().toString());
-                pstmt.executeUpdate();
-            }
-
-            // 插入新数据
-            if (!data.getSkillBindings().isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_SKILL_BIND)) {
-                    for (var entry : data.getSkillBindings().entrySet()) {
-                        pstmt.setString(1, data.getUuid().toString());
-                        pstmt.setInt(2, entry.getKey());
-                        pstmt.setString(3, entry.getValue());
-                        pstmt.addBatch();
+    private void loadChildrenFromDatabase(UnitOfWork work, UUID uuid, PlayerData data) throws SQLException {
+        PreparedStatement pstmt = work.prepare(SQL_SELECT_CHILDREN);
+        String uuidStr = uuid.toString();
+        pstmt.setString(1, uuidStr);
+        pstmt.setString(2, uuidStr);
+        pstmt.setString(3, uuidStr);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String key = rs.getString("k");
+                String value = rs.getString("v");
+                switch (rs.getString("kind")) {
+                    case "skill" -> data.getLearnedSkills().put(key, Integer.parseInt(value));
+                    case "equipment" -> data.getEquipment().put(key, value);
+                    case "bind" -> data.getSkillBindings().put(Integer.parseInt(key), value);
+                    default -> {
                     }
-                    pstmt.executeBatch();
                 }
             }
+        }
+    }
+
+    /**
+     * 在单个工作单元、单个事务中写入单个玩家的所有脏分组
+     */
+    private boolean saveToDatabase(DirtyPlayer player) {
+        try {
+            writeToDatabase(List.of(player));
+            return true;
         } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存玩家技能绑定数据失败: " + data.getUuid());
+            plugin.getLogger().warning("§e保存玩家数据到数据库失败: " + player.data().getUuid());
             e.printStackTrace();
+            return false;
         }
     }
 
-    private void saveSkillBindsWithConnection(Connection conn, PlayerData data) throws SQLException {
-        // 删除旧数据
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SKILL_BINDS)) {
-            pstmt.setString(1, data.getUuid().toString());
-            pstmt.executeUpdate();
+    /**
+     * 在一个工作单元、一个事务中写入一批玩家（未提交时关闭工作单元会回滚）
+     *
+     * @return 写入的行数
+     */
+    private int writeToDatabase(List<DirtyPlayer> players) throws SQLException {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            work.begin();
+            int rows = writeBatch(work, players);
+            work.commit();
+            return rows;
         }
+    }
 
-        // 插入新数据
-        if (!data.getSkillBindings().isEmpty()) {
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_SKILL_BIND)) {
-                for (var entry : data.getSkillBindings().entrySet()) {
-                    pstmt.setString(1, data.getUuid().toString());
-                    pstmt.setInt(2, entry.getKey());
-                    pstmt.setString(3, entry.getValue());
-                    pstmt.addBatch();
+    /**
+     * 写入脏分组：主表整行 UPSERT，关联表只写入变化的行
+     * 同一张表的语句合并为一个 JDBC 批处理（驱动开启 rewriteBatchedStatements 后重写为多行 INSERT）
+     *
+     * @return 写入的行数
+     */
+    private int writeBatch(UnitOfWork work, List<DirtyPlayer> players) throws SQLException {
+        int rows = 0;
+
+        PreparedStatement mainUpsert = work.prepareUpsert(SQL_UPSERT, "uuid");
+        try (PlayerChildTable.Batch<String, Integer> skills = SKILLS_TABLE.newBatch(work);
+             PlayerChildTable.Batch<String, String> equipment = EQUIPMENT_TABLE.newBatch(work);
+             PlayerChildTable.Batch<Integer, String> skillBinds = SKILL_BINDS_TABLE.newBatch(work)) {
+
+            for (DirtyPlayer player : players) {
+                UUID uuid = player.data().getUuid();
+                PlayerSnapshot current = player.current();
+                PlayerSnapshot persisted = player.persisted();
+                EnumSet<PlayerDataGroup> dirty = player.dirty();
+
+                if (dirty.contains(PlayerDataGroup.MAIN)) {
+                    mapper.bindForSave(mainUpsert, player.data());
+                    mainUpsert.addBatch();
+                    rows++;
                 }
-                pstmt.executeBatch();
+                if (dirty.contains(PlayerDataGroup.SKILLS)) {
+                    skills.add(uuid, persisted != null ? persisted.getSkills() : null, current.getSkills());
+                }
+                if (dirty.contains(PlayerDataGroup.EQUIPMENT)) {
+                    equipment.add(uuid, persisted != null ? persisted.getEquipment() : null, current.getEquipment());
+                }
+                if (dirty.contains(PlayerDataGroup.SKILL_BINDS)) {
+                    skillBinds.add(uuid, persisted != null ? persisted.getSkillBindings() : null,
+                            current.getSkillBindings());
+                }
+            }
+
+            // 先写主表，再写关联表
+            if (rows > 0) {
+                mainUpsert.executeBatch();
             }
+            rows += skills.execute();
+            rows += equipment.execute();
+            rows += skillBinds.execute();
         }
+        return rows;
     }
 
     // ==================== 私有方法：File ====================
 
     private PlayerData loadFromFile(UUID uuid) {
-        File file = new File(plugin.getDataFolder(), "players/" + uuid + ".yml");
-        if (!file.exists()) {
-            return null;
-        }
-
         try {
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-            return mapper.mapFromYaml(config, uuid);
+            return localStore.load(uuid);
         } catch (Exception e) {
             plugin.getLogger().warning("§e从文件加载玩家数据失败: " + uuid);
             e.printStackTrace();
@@ -503,21 +980,59 @@ public class PlayerRepository {
         }
     }
 
-    private void saveToFile(PlayerData data) {
-        File playerDir = new File(plugin.getDataFolder(), "players");
-        if (!playerDir.exists()) {
-            playerDir.mkdirs();
-        }
-
-        File file = new File(playerDir, data.getUuid() + ".yml");
-
+    private boolean saveToLocalStore(DirtyPlayer player) {
         try {
-            YamlConfiguration config = new YamlConfiguration();
-            mapper.mapToYaml(config, data);
-            config.save(file);
-        } catch (Exception e) {
-            plugin.getLogger().warning("§e保存玩家数据到文件失败: " + data.getUuid());
+            writeToLocalStore(List.of(player));
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("§e保存玩家数据到文件失败: " + player.data().getUuid());
             e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 本地存储按玩家整体写入
+     *
+     * @return 写入的记录数（每个玩家一条）
+     */
+    private int writeToLocalStore(List<DirtyPlayer> players) throws IOException {
+        List<PlayerData> data = new ArrayList<>(players.size());
+        for (DirtyPlayer player : players) {
+            data.add(player.data());
         }
+        localStore.save(data);
+        return data.size();
+    }
+
+    /**
+     * 一批脏数据的写入方式（数据库事务或本地存储）
+     */
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int write(List<DirtyPlayer> players) throws SQLException, IOException;
+    }
+
+    /**
+     * 待写入的玩家：当前快照、上次持久化的快照及脏分组
+     */
+    private record DirtyPlayer(PlayerData data, PlayerSnapshot current, PlayerSnapshot persisted,
+                               EnumSet<PlayerDataGroup> dirty) {
+    }
+
+    /**
+     * 等待延迟写入队列写入的淘汰：写入 copy 后完成 result
+     */
+    private record EvictionWrite(PlayerData copy, CompletableFuture<Boolean> result) {
+    }
+
+    /**
+     * 批量保存结果
+     *
+     * @param players        写入的玩家数（无变化的玩家不计入）
+     * @param rows           写入的行数（本地存储模式下为玩家记录数）
+     * @param durationMillis 耗时（毫秒）
+     */
+    public record BatchSaveResult(int players, int rows, long durationMillis) {
     }
 }
@@ -0,0 +1,103 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 玩家数据快照
+ * 记录某一时刻已持久化的玩家数据副本，用于判断哪些字段分组发生了变化
+ * <p>
+ * 快照只包含会被写入存储的字段，updated_at 等由写入时生成的字段不参与比较
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+@Getter
+public class PlayerSnapshot {
+
+    private final List<Object> mainRow;
+    private final Map<String, Integer> skills;
+    private final Map<String, String> equipment;
+    private final Map<Integer, String> skillBindings;
+
+    private PlayerSnapshot(List<Object> mainRow, Map<String, Integer> skills,
+                           Map<String, String> equipment, Map<Integer, String> skillBindings) {
+        this.mainRow = mainRow;
+        this.skills = skills;
+        this.equipment = equipment;
+        this.skillBindings = skillBindings;
+    }
+
+    /**
+     * 从玩家数据创建快照（复制所有集合）
+     *
+     * @param data 玩家数据
+     * @return 快照
+     */
+    public static PlayerSnapshot of(PlayerData data) {
+        List<Object> mainRow = Arrays.asList(
+                data.getName(),
+                data.getRealm(),
+                data.getRealmStage(),
+                data.getQi(),
+                data.getSpiritualRoot(),
+                data.getSpiritualRootType(),
+                data.getComprehension(),
+                data.getTechniqueAdaptation(),
+                data.getSpiritStones(),
+                data.getContributionPoints(),
+                data.getSkillPoints(),
+                data.getPlayerLevel(),
+                data.getSectId(),
+                data.getSectRank(),
+                data.getLastLogin(),
+                data.getCreatedAt(),
+                data.getBreakthroughAttempts(),
+                data.getSuccessfulBreakthroughs(),
+                data.getActiveQi(),
+                data.getLastFateTime(),
+                data.getFateCount()
+        );
+
+        return new PlayerSnapshot(
+                mainRow,
+                new HashMap<>(data.getLearnedSkills()),
+                new HashMap<>(data.getEquipment()),
+                new HashMap<>(data.getSkillBindings())
+        );
+    }
+
+    /**
+     * 计算相对于上一次持久化快照的脏分组
+     *
+     * @param persisted 上一次持久化的快照，为 null 表示从未持久化
+     * @return 发生变化的分组
+     */
+    public EnumSet<PlayerDataGroup> diff(PlayerSnapshot persisted) {
+        if (persisted == null) {
+            return EnumSet.allOf(PlayerDataGroup.class);
+        }
+
+        EnumSet<PlayerDataGroup> dirty = EnumSet.noneOf(PlayerDataGroup.class);
+        if (!Objects.equals(mainRow, persisted.mainRow)) {
+            dirty.add(PlayerDataGroup.MAIN);
+        }
+        if (!Objects.equals(skills, persisted.skills)) {
+            dirty.add(PlayerDataGroup.SKILLS);
+        }
+        if (!Objects.equals(equipment, persisted.equipment)) {
+            dirty.add(PlayerDataGroup.EQUIPMENT);
+        }
+        if (!Objects.equals(skillBindings, persisted.skillBindings)) {
+            dirty.add(PlayerDataGroup.SKILL_BINDS);
+        }
+        return dirty;
+    }
+}
@@ -0,0 +1,96 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 本地存储格式转换（如 YAML -> 二进制）
+ * 可选择跳过目标存储中已存在的玩家，可重复执行
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public final class PlayerStoreConverter {
+
+    private PlayerStoreConverter() {
+    }
+
+    /**
+     * 将源存储中的玩家数据转换到目标存储
+     *
+     * @param source    源存储
+     * @param target    目标存储
+     * @param batchSize    每次写入的玩家数
+     * @param skipExisting 是否跳过目标存储中已存在的玩家（目标存储为最新数据时使用）
+     * @param dryRun       为 true 时只读取校验，不写入
+     * @return 转换结果
+     */
+    public static Result convert(PlayerLocalStore source, PlayerLocalStore target, int batchSize,
+                                 boolean skipExisting, boolean dryRun) {
+        Set<UUID> existing = skipExisting ? target.getStoredPlayers() : Set.of();
+        Map<UUID, String> failures = new LinkedHashMap<>();
+        List<PlayerData> pending = new ArrayList<>(batchSize);
+        int converted = 0;
+        int skipped = 0;
+
+        for (UUID uuid : source.getStoredPlayers()) {
+            if (existing.contains(uuid)) {
+                skipped++;
+                continue;
+            }
+
+            try {
+                PlayerData data = source.load(uuid);
+                if (data == null) {
+                    failures.put(uuid, "无法读取数据");
+                    continue;
+                }
+                pending.add(data);
+            } catch (IOException e) {
+                failures.put(uuid, e.getMessage());
+                continue;
+            }
+
+            if (pending.size() >= batchSize) {
+                converted += flush(target, pending, failures, dryRun);
+            }
+        }
+        converted += flush(target, pending, failures, dryRun);
+
+        return new Result(converted, skipped, failures);
+    }
+
+    private static int flush(PlayerLocalStore target, List<PlayerData> pending, Map<UUID, String> failures,
+                             boolean dryRun) {
+        int count = pending.size();
+        try {
+            if (!dryRun && count > 0) {
+                target.save(pending);
+            }
+        } catch (IOException e) {
+            for (PlayerData data : pending) {
+                failures.put(data.getUuid(), e.getMessage());
+            }
+            count = 0;
+        }
+        pending.clear();
+        return count;
+    }
+
+    /**
+     * 转换结果
+     *
+     * @param converted 转换成功的玩家数
+     * @param skipped   目标存储中已存在而跳过的玩家数
+     * @param failures  失败的玩家及原因
+     */
+    public record Result(int converted, int skipped, Map<UUID, String> failures) {
+    }
+}
@@ -0,0 +1,261 @@
+package com.xiancore.core.data.repository;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * 玩家数据延迟写入队列（Write-Behind）
+ * 将频繁的保存请求合并为后台线程上的一次刷新
+ * <p>
+ * 同一玩家在一个刷新周期内的多次保存只会产生一次写入，一个周期内的所有玩家作为一批写入；
+ * 所有写入都在后台线程上进行，关闭时也由后台线程排空队列，调用线程只做有上限的等待
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class PlayerWriteBehindQueue {
+
+    /** 关闭时排空队列的最大轮数（写入失败的玩家会重新入队） */
+    private static final int MAX_DRAIN_ROUNDS = 3;
+
+    /** 关闭时等待后台线程排空队列的最长时间 */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Logger logger;
+    private final FlushHandler handler;
+
+    /** 待写入的玩家 */
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    /** 保证同一时间只有一个线程在刷新 */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @Getter
+    private volatile boolean running = false;
+
+    // ==================== 统计 ====================
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public PlayerWriteBehindQueue(Logger logger, FlushHandler handler) {
+        this.logger = logger;
+        this.handler = handler;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 启动后台写入线程
+     *
+     * @param intervalMillis 刷新间隔（毫秒）
+     */
+    public void start(long intervalMillis) {
+        if (running) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "XianCore-PlayerWriter");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * 停止后台线程：由后台线程排空队列，调用线程（插件关闭时的主线程）最多等待 {@value #SHUTDOWN_TIMEOUT_SECONDS} 秒
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        // 周期任务在 shutdown() 后取消，已提交的排空任务仍会执行
+        executor.execute(this::drain);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.severe("§c等待玩家数据写入超时 (" + SHUTDOWN_TIMEOUT_SECONDS + " 秒)");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (!pending.isEmpty()) {
+            logger.severe("§c玩家数据写入队列未能排空，仍有 " + pending.size() + " 个玩家的数据未保存!");
+        }
+    }
+
+    private void drain() {
+        for (int round = 0; round < MAX_DRAIN_ROUNDS && !pending.isEmpty(); round++) {
+            flushSafely();
+        }
+    }
+
+    // ==================== 队列操作 ====================
+
+    /**
+     * 标记玩家数据待写入
+     *
+     * @param uuid 玩家 UUID
+     */
+    public void enqueue(UUID uuid) {
+        enqueuedCount.incrementAndGet();
+        if (!pending.add(uuid)) {
+            coalescedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 是否有待写入的数据
+     *
+     * @param uuid 玩家 UUID
+     * @return 是否待写入
+     */
+    public boolean isPending(UUID uuid) {
+        return pending.contains(uuid);
+    }
+
+    /**
+     * 在后台线程上刷新所有待写入的数据，不阻塞调用线程
+     *
+     * @return 本次写入成功的玩家数，队列未运行时为 0
+     */
+    public CompletableFuture<Integer> flushAsync() {
+        ScheduledExecutorService current = executor;
+        if (!running || current == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        try {
+            return CompletableFuture.supplyAsync(this::flush, current);
+        } catch (RejectedExecutionException e) {
+            // 队列正在关闭，剩余数据由关闭时的排空任务写入
+            return CompletableFuture.completedFuture(0);
+        }
+    }
+
+    /**
+     * 立即写入单个玩家（如果在队列中）
+     *
+     * @param uuid 玩家 UUID
+     * @return 是否写入成功（不在队列中视为成功）
+     */
+    public boolean flushOne(UUID uuid) {
+        flushLock.lock();
+        try {
+            if (!pending.remove(uuid)) {
+                return true;
+            }
+            return flushBatch(List.of(uuid)) == 1;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 刷新所有待写入的数据（整批交给 FlushHandler 合并写入）
+     *
+     * @return 本次写入成功的玩家数
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<UUID> batch = new ArrayList<>(pending.size());
+            for (UUID uuid : new ArrayList<>(pending)) {
+                if (pending.remove(uuid)) {
+                    batch.add(uuid);
+                }
+            }
+            return batch.isEmpty() ? 0 : flushBatch(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushBatch(List<UUID> batch) {
+        Collection<UUID> failed;
+        try {
+            failed = handler.flush(batch);
+        } catch (Exception e) {
+            logger.warning("§e后台写入玩家数据时出错: " + e.getMessage());
+            failed = batch;
+        }
+
+        // 失败的玩家重新入队，等待下一轮重试
+        for (UUID uuid : failed) {
+            pending.add(uuid);
+        }
+        failedCount.addAndGet(failed.size());
+
+        int written = batch.size() - failed.size();
+        flushedCount.addAndGet(written);
+        return written;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warning("§e玩家数据后台刷新失败: " + e.getMessage());
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 写入回调
+     */
+    @FunctionalInterface
+    public interface FlushHandler {
+        /**
+         * 将一批玩家的数据写入存储
+         *
+         * @param uuids 玩家 UUID 列表
+         * @return 写入失败的玩家（需要重试）
+         */
+        Collection<UUID> flush(List<UUID> uuids);
+    }
+}
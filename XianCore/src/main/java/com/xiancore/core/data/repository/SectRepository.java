@@ -2,19 +2,22 @@ package com.xiancore.core.data.repository;
 
 import com.xiancore.XianCore;
 import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.UnitOfWork;
 import com.xiancore.core.data.mapper.SectDataMapper;
 import com.xiancore.systems.sect.Sect;
 import com.xiancore.systems.sect.SectMember;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 宗门数据仓储
@@ -63,42 +66,35 @@ public class SectRepository {
                 updated_at = VALUES(updated_at)
             """;
 
-    private static final String SQL_UPSERT_SIMPLE = """
-            INSERT INTO xian_sects (
-                id, name, description, owner_uuid, owner_name, level, experience,
-                sect_funds, sect_contribution, max_members, recruiting, pvp_enabled,
-                announcement, created_at, updated_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON DUPLICATE KEY UPDATE
-                name = VALUES(name),
-                description = VALUES(description),
-                owner_uuid = VALUES(owner_uuid),
-                owner_name = VALUES(owner_name),
-                level = VALUES(level),
-                experience = VALUES(experience),
-                sect_funds = VALUES(sect_funds),
-                sect_contribution = VALUES(sect_contribution),
-                max_members = VALUES(max_members),
-                recruiting = VALUES(recruiting),
-                pvp_enabled = VALUES(pvp_enabled),
-                announcement = VALUES(announcement),
-                updated_at = VALUES(updated_at)
-            """;
-
     private static final String SQL_DELETE = "DELETE FROM xian_sects WHERE id = ?";
 
     private static final String SQL_SELECT_MEMBERS = "SELECT * FROM xian_sect_members WHERE sect_id = ?";
 
     private static final String SQL_DELETE_MEMBERS = "DELETE FROM xian_sect_members WHERE sect_id = ?";
 
-    private static final String SQL_INSERT_MEMBER = """
+    private static final String SQL_DELETE_MEMBER =
+            "DELETE FROM xian_sect_members WHERE sect_id = ? AND player_uuid = ?";
+
+    private static final String SQL_UPSERT_MEMBER = """
             INSERT INTO xian_sect_members (
                 sect_id, player_uuid, player_name, `rank`, contribution,
                 weekly_contribution, joined_at, last_active_at,
                 tasks_completed, donation_count
             ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                player_name = VALUES(player_name),
+                `rank` = VALUES(`rank`),
+                contribution = VALUES(contribution),
+                weekly_contribution = VALUES(weekly_contribution),
+                joined_at = VALUES(joined_at),
+                last_active_at = VALUES(last_active_at),
+                tasks_completed = VALUES(tasks_completed),
+                donation_count = VALUES(donation_count)
             """;
 
+    /** 宗门 ID → 上次成功持久化时的快照（用于跳过未变化的宗门和成员） */
+    private final Map<Integer, SectSnapshot> persistedSnapshots = new ConcurrentHashMap<>();
+
     public SectRepository(XianCore plugin, DatabaseManager databaseManager) {
         this.plugin = plugin;
         this.databaseManager = databaseManager;
@@ -113,7 +109,7 @@ public class SectRepository {
      * @return 宗门列表
      */
     public List<Sect> loadAll() {
-        if (databaseManager.isUseMySql()) {
+        if (databaseManager.isUseSql()) {
             return loadAllFromDatabase();
         } else {
             return loadAllFromFile();
@@ -121,33 +117,87 @@ public class SectRepository {
     }
 
     /**
-     * 保存宗门数据
+     * 保存宗门数据（未变化时跳过）
      *
      * @param sect 宗门
      */
     public void save(Sect sect) {
-        if (databaseManager.isUseMySql()) {
-            saveToDatabase(sect);
-        } else {
-            saveToFile(sect);
+        saveDirty(List.of(sect));
+    }
+
+    /**
+     * 批量保存宗门
+     * 与上次持久化的快照对比，未变化的宗门直接跳过；
+     * 其余宗门在一个工作单元、一个事务中增量写入：主表只在字段变化时写入，成员只写入新增、变化和移除的行
+     *
+     * @param sects 宗门列表
+     * @return 实际写入的宗门数
+     */
+    public int saveDirty(Collection<Sect> sects) {
+        List<DirtySect> dirtySects = new ArrayList<>();
+        for (Sect sect : sects) {
+            SectSnapshot current = SectSnapshot.of(sect);
+            SectSnapshot persisted = persistedSnapshots.get(sect.getId());
+            if (current.isDirty(persisted)) {
+                // updated_at 不参与比较，只在真正写入时更新
+                sect.touch();
+                dirtySects.add(new DirtySect(sect, current, persisted));
+            }
         }
+        if (dirtySects.isEmpty()) {
+            return 0;
+        }
+
+        if (databaseManager.isUseSql()) {
+            if (!saveToDatabase(dirtySects)) {
+                return 0;
+            }
+            markPersisted(dirtySects);
+            return dirtySects.size();
+        }
+
+        int saved = 0;
+        for (DirtySect dirty : dirtySects) {
+            if (saveToFile(dirty.sect())) {
+                markPersisted(List.of(dirty));
+                saved++;
+            }
+        }
+        return saved;
     }
 
     /**
      * 事务化保存（供 TransactionManager 调用）
      *
-     * @param conn 数据库连接
+     * @param work 工作单元（由调用方管理事务）
      * @param sect 宗门数据
      * @throws SQLException SQL 异常
      */
-    public void saveWithConnection(Connection conn, Sect sect) throws SQLException {
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT_SIMPLE)) {
-            mapper.bindForSaveSimple(pstmt, sect);
-            pstmt.executeUpdate();
+    public void save(UnitOfWork work, Sect sect) throws SQLException {
+        SectSnapshot current = SectSnapshot.of(sect);
+        SectSnapshot persisted = persistedSnapshots.get(sect.getId());
+        if (current.isDirty(persisted)) {
+            writeDelta(work, List.of(new DirtySect(sect, current, persisted)));
         }
 
-        // 保存成员数据
-        saveMembersWithConnection(conn, sect);
+        // 事务可能回滚，此处不更新快照，下一次保存会再次写入
+    }
+
+    /**
+     * 批量整行写入宗门和成员（供数据迁移使用，调用方管理事务）
+     * 不对比快照：先清空每个宗门的成员再全部写入
+     *
+     * @param work  工作单元
+     * @param sects 宗门列表
+     * @return 写入的行数
+     * @throws SQLException SQL 异常
+     */
+    public int saveAll(UnitOfWork work, List<Sect> sects) throws SQLException {
+        List<DirtySect> dirtySects = new ArrayList<>(sects.size());
+        for (Sect sect : sects) {
+            dirtySects.add(new DirtySect(sect, SectSnapshot.of(sect), null));
+        }
+        return writeDelta(work, dirtySects);
     }
 
     /**
@@ -156,25 +206,29 @@ public class SectRepository {
      * @param sectId 宗门 ID
      */
     public void delete(int sectId) {
-        if (databaseManager.isUseMySql()) {
+        persistedSnapshots.remove(sectId);
+        if (databaseManager.isUseSql()) {
             deleteFromDatabase(sectId);
         } else {
             deleteFromFile(sectId);
         }
     }
 
-    // ==================== 私有方法：MySQL ====================
+    // ==================== 私有方法：数据库 ====================
 
+    /**
+     * 在一个只读工作单元中加载全部宗门，成员查询复用同一条预编译语句
+     */
     private List<Sect> loadAllFromDatabase() {
         List<Sect> sects = new ArrayList<>();
 
-        try (Connection conn = databaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SQL_SELECT_ALL)) {
+        try (UnitOfWork work = databaseManager.beginReadWork();
+             ResultSet rs = work.prepare(SQL_SELECT_ALL).executeQuery()) {
 
             while (rs.next()) {
                 Sect sect = mapper.mapFromResultSet(rs);
-                loadMembersFromDatabase(sect);
+                loadMembers(work, sect);
+                persistedSnapshots.put(sect.getId(), SectSnapshot.of(sect));
                 sects.add(sect);
             }
 
@@ -186,93 +240,115 @@ public class SectRepository {
         return sects;
     }
 
-    private void saveToDatabase(Sect sect) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT)) {
-
-            mapper.bindForSave(pstmt, sect);
-            pstmt.executeUpdate();
-
-            // 保存成员数据
-            saveMembersToDatabase(sect);
-
+    /**
+     * 一批宗门的主表和成员表在同一个工作单元、同一个事务中写入
+     */
+    private boolean saveToDatabase(List<DirtySect> sects) {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            work.begin();
+            writeDelta(work, sects);
+            work.commit();
+            return true;
         } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存宗门数据到数据库失败: " + sect.getId());
+            plugin.getLogger().warning("§e保存宗门数据到数据库失败: " + sects.size() + " 个宗门");
             e.printStackTrace();
+            return false;
         }
     }
 
-    private void deleteFromDatabase(int sectId) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE)) {
-
-            pstmt.setInt(1, sectId);
-            pstmt.executeUpdate();
-
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e从数据库删除宗门数据失败: " + sectId);
-            e.printStackTrace();
-        }
-    }
+    /**
+     * 增量写入
+     * 主表只在字段变化时 UPSERT；成员按行 UPSERT/DELETE，没有快照的宗门先清空成员再全部写入。
+     * 同类语句合并为一个 JDBC 批处理，执行顺序为：主表 → 清空成员 → 删除成员 → 写入成员
+     *
+     * @return 写入的行数
+     */
+    private int writeDelta(UnitOfWork work, List<DirtySect> sects) throws SQLException {
+        PreparedStatement upsert = work.prepareUpsert(SQL_UPSERT, "id");
+        PreparedStatement deleteAll = work.prepare(SQL_DELETE_MEMBERS);
+        PreparedStatement deleteOne = work.prepare(SQL_DELETE_MEMBER);
+        PreparedStatement upsertMember = work.prepareUpsert(SQL_UPSERT_MEMBER, "sect_id, player_uuid");
+
+        int mainRows = 0;
+        int cleared = 0;
+        int deleted = 0;
+        int written = 0;
+        for (DirtySect dirty : sects) {
+            Sect sect = dirty.sect();
+            SectSnapshot current = dirty.current();
+            SectSnapshot persisted = dirty.persisted();
+
+            if (current.isMainDirty(persisted)) {
+                mapper.bindForSave(upsert, sect);
+                upsert.addBatch();
+                mainRows++;
+            }
 
-    private void loadMembersFromDatabase(Sect sect) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_MEMBERS)) {
+            if (persisted == null) {
+                // 数据库中的成员未知，先清空
+                deleteAll.setInt(1, sect.getId());
+                deleteAll.addBatch();
+                cleared++;
+            }
 
-            pstmt.setInt(1, sect.getId());
+            for (UUID playerId : current.removedMembers(persisted)) {
+                deleteOne.setInt(1, sect.getId());
+                deleteOne.setString(2, playerId.toString());
+                deleteOne.addBatch();
+                deleted++;
+            }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    SectMember member = mapper.mapMemberFromResultSet(rs);
-                    sect.getMembers().put(member.getPlayerId(), member);
+            for (UUID playerId : current.changedMembers(persisted)) {
+                SectMember member = sect.getMember(playerId);
+                if (member != null) {
+                    bindMemberForSave(upsertMember, sect.getId(), member);
+                    upsertMember.addBatch();
+                    written++;
                 }
             }
+        }
 
-        } catch (SQLException e) {
-            plugin.getLogger().warning("§e加载宗门成员数据失败: " + sect.getId());
-            e.printStackTrace();
+        if (mainRows > 0) {
+            upsert.executeBatch();
+        }
+        if (cleared > 0) {
+            deleteAll.executeBatch();
         }
+        if (deleted > 0) {
+            deleteOne.executeBatch();
+        }
+        if (written > 0) {
+            upsertMember.executeBatch();
+        }
+        return mainRows + deleted + written;
     }
 
-    private void saveMembersToDatabase(Sect sect) {
-        try (Connection conn = databaseManager.getConnection()) {
-            // 删除旧数据
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_MEMBERS)) {
-                pstmt.setInt(1, sect.getId());
-                pstmt.executeUpdate();
-            }
+    private void markPersisted(List<DirtySect> sects) {
+        for (DirtySect dirty : sects) {
+            persistedSnapshots.put(dirty.sect().getId(), dirty.current());
+        }
+    }
+
+    private void deleteFromDatabase(int sectId) {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_DELETE);
+            pstmt.setInt(1, sectId);
+            pstmt.executeUpdate();
 
-            // 插入新数据
-            if (!sect.getMemberList().isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_MEMBER)) {
-                    for (SectMember member : sect.getMemberList()) {
-                        bindMemberForSave(pstmt, sect.getId(), member);
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
-                }
-            }
         } catch (SQLException e) {
-            plugin.getLogger().warning("§e保存宗门成员数据失败: " + sect.getId());
+            plugin.getLogger().warning("§e从数据库删除宗门数据失败: " + sectId);
             e.printStackTrace();
         }
     }
 
-    private void saveMembersWithConnection(Connection conn, Sect sect) throws SQLException {
-        // 删除旧数据
-        try (PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_MEMBERS)) {
-            pstmt.setInt(1, sect.getId());
-            pstmt.executeUpdate();
-        }
+    private void loadMembers(UnitOfWork work, Sect sect) throws SQLException {
+        PreparedStatement pstmt = work.prepare(SQL_SELECT_MEMBERS);
+        pstmt.setInt(1, sect.getId());
 
-        // 插入新数据
-        if (!sect.getMemberList().isEmpty()) {
-            try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT_MEMBER)) {
-                for (SectMember member : sect.getMemberList()) {
-                    bindMemberForSave(pstmt, sect.getId(), member);
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                SectMember member = mapper.mapMemberFromResultSet(rs);
+                sect.getMembers().put(member.getPlayerId(), member);
             }
         }
     }
@@ -313,6 +389,7 @@ public class SectRepository {
             try {
                 YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
                 Sect sect = mapper.mapFromYaml(config);
+                persistedSnapshots.put(sect.getId(), SectSnapshot.of(sect));
                 sects.add(sect);
             } catch (Exception e) {
                 plugin.getLogger().warning("§e从文件加载宗门数据失败: " + file.getName());
@@ -323,7 +400,7 @@ public class SectRepository {
         return sects;
     }
 
-    private void saveToFile(Sect sect) {
+    private boolean saveToFile(Sect sect) {
         File sectDir = new File(plugin.getDataFolder(), "sects");
         if (!sectDir.exists()) {
             sectDir.mkdirs();
@@ -335,9 +412,11 @@ public class SectRepository {
             YamlConfiguration config = new YamlConfiguration();
             mapper.mapToYaml(config, sect);
             config.save(file);
+            return true;
         } catch (Exception e) {
             plugin.getLogger().warning("§e保存宗门数据到文件失败: " + sect.getId());
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -353,4 +432,10 @@ public class SectRepository {
             }
         }
     }
+
+    /**
+     * 待写入的宗门及其快照
+     */
+    private record DirtySect(Sect sect, SectSnapshot current, SectSnapshot persisted) {
+    }
 }
@@ -0,0 +1,133 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.systems.sect.Sect;
+import com.xiancore.systems.sect.SectMember;
+import lombok.Getter;
+import org.bukkit.Location;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 宗门数据快照
+ * 记录某一时刻已持久化的宗门主表字段和每个成员的字段副本，用于判断宗门是否需要写入、哪些成员发生了变化
+ * <p>
+ * updated_at 由写入时生成，不参与比较
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+@Getter
+public class SectSnapshot {
+
+    private final List<Object> mainRow;
+    private final Map<UUID, List<Object>> members;
+
+    private SectSnapshot(List<Object> mainRow, Map<UUID, List<Object>> members) {
+        this.mainRow = mainRow;
+        this.members = members;
+    }
+
+    /**
+     * 从宗门创建快照（复制所有集合）
+     *
+     * @param sect 宗门
+     * @return 快照
+     */
+    public static SectSnapshot of(Sect sect) {
+        Location center = sect.getLandCenter();
+        List<Object> mainRow = Arrays.asList(
+                sect.getName(),
+                sect.getDescription(),
+                sect.getOwnerId(),
+                sect.getOwnerName(),
+                sect.getLevel(),
+                sect.getExperience(),
+                sect.getSectFunds(),
+                sect.getSectContribution(),
+                sect.getMaxMembers(),
+                sect.isRecruiting(),
+                sect.isPvpEnabled(),
+                sect.getAnnouncement(),
+                sect.getResidenceLandId(),
+                center != null && center.getWorld() != null ? center.getWorld().getName() : null,
+                center != null ? center.getX() : 0.0,
+                center != null ? center.getY() : 0.0,
+                center != null ? center.getZ() : 0.0,
+                sect.getLastMaintenanceTime(),
+                new HashMap<>(sect.getBuildingSlots()),
+                sect.getCreatedAt()
+        );
+
+        Map<UUID, List<Object>> members = new HashMap<>();
+        for (SectMember member : sect.getMemberList()) {
+            members.put(member.getPlayerId(), Arrays.asList(
+                    member.getPlayerName(),
+                    member.getRank(),
+                    member.getContribution(),
+                    member.getWeeklyContribution(),
+                    member.getJoinedAt(),
+                    member.getLastActiveAt(),
+                    member.getTasksCompleted(),
+                    member.getDonationCount()
+            ));
+        }
+
+        return new SectSnapshot(mainRow, members);
+    }
+
+    /**
+     * 与上一次持久化的快照相比是否有任何变化
+     *
+     * @param persisted 上一次持久化的快照，为 null 表示从未持久化
+     * @return 是否需要写入
+     */
+    public boolean isDirty(SectSnapshot persisted) {
+        return persisted == null || isMainDirty(persisted) || !members.equals(persisted.members);
+    }
+
+    /**
+     * 主表字段是否变化
+     *
+     * @param persisted 上一次持久化的快照，为 null 表示从未持久化
+     * @return 主表是否需要写入
+     */
+    public boolean isMainDirty(SectSnapshot persisted) {
+        return persisted == null || !Objects.equals(mainRow, persisted.mainRow);
+    }
+
+    /**
+     * 新增或字段变化的成员
+     *
+     * @param persisted 上一次持久化的快照，为 null 时返回全部成员
+     * @return 成员 UUID 列表
+     */
+    public List<UUID> changedMembers(SectSnapshot persisted) {
+        if (persisted == null) {
+            return List.copyOf(members.keySet());
+        }
+        return members.entrySet().stream()
+                .filter(e -> !Objects.equals(persisted.members.get(e.getKey()), e.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * 已移除的成员
+     *
+     * @param persisted 上一次持久化的快照，为 null 时返回空列表
+     * @return 成员 UUID 列表
+     */
+    public List<UUID> removedMembers(SectSnapshot persisted) {
+        if (persisted == null) {
+            return List.of();
+        }
+        return persisted.members.keySet().stream()
+                .filter(uuid -> !members.containsKey(uuid))
+                .toList();
+    }
+}
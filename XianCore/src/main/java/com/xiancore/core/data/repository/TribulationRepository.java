@@ -2,12 +2,12 @@ package com.xiancore.core.data.repository;
 
 import com.xiancore.XianCore;
 import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.UnitOfWork;
 import com.xiancore.systems.tribulation.Tribulation;
 import com.xiancore.systems.tribulation.TribulationType;
 import org.bukkit.Location;
 import org.bukkit.World;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -15,7 +15,7 @@ import java.util.UUID;
 
 /**
  * 天劫数据仓储
- * 负责天劫数据的加载、保存（仅支持 MySQL）
+ * 负责天劫数据的加载、保存（仅支持数据库模式：MySQL/SQLite）
  *
  * @author Olivia Diaz
  * @version 1.0.0
@@ -63,12 +63,12 @@ public class TribulationRepository {
      * @param tribulation 天劫
      */
     public void save(Tribulation tribulation) {
-        if (!databaseManager.isUseMySql()) {
+        if (!databaseManager.isUseSql()) {
             return;
         }
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT)) {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            PreparedStatement pstmt = work.prepareUpsert(SQL_UPSERT, "tribulation_uuid");
 
             pstmt.setString(1, tribulation.getTribulationId().toString());
             pstmt.setString(2, tribulation.getPlayerId().toString());
@@ -103,12 +103,12 @@ public class TribulationRepository {
      * @return 活跃的天劫，如果不存在返回 null
      */
     public Tribulation loadActive(UUID playerId) {
-        if (!databaseManager.isUseMySql()) {
+        if (!databaseManager.isUseSql()) {
             return null;
         }
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT_ACTIVE)) {
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_SELECT_ACTIVE);
 
             pstmt.setString(1, playerId.toString());
 
@@ -132,12 +132,12 @@ public class TribulationRepository {
      * @param tribulationId 天劫 UUID
      */
     public void delete(UUID tribulationId) {
-        if (!databaseManager.isUseMySql()) {
+        if (!databaseManager.isUseSql()) {
             return;
         }
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE)) {
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_DELETE);
 
             pstmt.setString(1, tribulationId.toString());
             pstmt.executeUpdate();
@@ -5,6 +5,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.xiancore.XianCore;
 import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.UnitOfWork;
 import com.xiancore.systems.sect.warehouse.SectWarehouse;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -12,16 +13,16 @@ import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.lang.reflect.Type;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 仓库数据仓储
- * 负责仓库数据的加载、保存（支持 YAML/MySQL 双模式）
+ * 负责仓库数据的加载、保存（支持 YAML/MySQL/SQLite）
  *
  * @author Olivia Diaz
  * @version 2.0.0
@@ -60,13 +61,40 @@ public class WarehouseRepository {
      * @param warehouse 仓库
      */
     public void save(SectWarehouse warehouse) {
-        if (databaseManager.isUseMySql()) {
+        if (databaseManager.isUseSql()) {
             saveToDatabase(warehouse);
         } else {
             saveToFile(warehouse);
         }
     }
 
+    /**
+     * 批量写入仓库数据（合并为一个 JDBC 批处理，事务由调用方管理）
+     *
+     * @param work       工作单元
+     * @param warehouses 仓库列表
+     * @return 写入的行数
+     * @throws SQLException SQL 异常
+     */
+    public int saveAll(UnitOfWork work, List<SectWarehouse> warehouses) throws SQLException {
+        PreparedStatement pstmt = work.prepareUpsert(SQL_UPSERT, "sect_id");
+        long now = System.currentTimeMillis();
+
+        for (SectWarehouse warehouse : warehouses) {
+            // 序列化物品数据
+            String itemsJson = serializeItems(warehouse.getAllItems());
+
+            pstmt.setInt(1, warehouse.getSectId());
+            pstmt.setInt(2, warehouse.getCapacity());
+            pstmt.setString(3, itemsJson);
+            pstmt.setLong(4, now);
+            pstmt.addBatch();
+        }
+
+        pstmt.executeBatch();
+        return warehouses.size();
+    }
+
     /**
      * 加载仓库数据
      *
@@ -74,16 +102,16 @@ public class WarehouseRepository {
      * @return 仓库数据，如果不存在返回 null
      */
     public SectWarehouse load(int sectId) {
-        return databaseManager.isUseMySql()
+        return databaseManager.isUseSql()
                 ? loadFromDatabase(sectId)
                 : loadFromFile(sectId);
     }
 
-    // ==================== MySQL 实现 ====================
+    // ==================== 数据库实现 ====================
 
     private SectWarehouse loadFromDatabase(int sectId) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_SELECT)) {
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_SELECT);
 
             pstmt.setInt(1, sectId);
 
@@ -127,18 +155,8 @@ public class WarehouseRepository {
     }
 
     private void saveToDatabase(SectWarehouse warehouse) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQL_UPSERT)) {
-
-            // 序列化物品数据
-            String itemsJson = serializeItems(warehouse.getAllItems());
-
-            pstmt.setInt(1, warehouse.getSectId());
-            pstmt.setInt(2, warehouse.getCapacity());
-            pstmt.setString(3, itemsJson);
-            pstmt.setLong(4, System.currentTimeMillis());
-
-            pstmt.executeUpdate();
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            saveAll(work, List.of(warehouse));
 
         } catch (SQLException e) {
             plugin.getLogger().warning("§e保存仓库数据到数据库失败: 宗门ID=" + warehouse.getSectId());
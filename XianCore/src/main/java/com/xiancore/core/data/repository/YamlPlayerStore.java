@@ -0,0 +1,94 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+import com.xiancore.core.data.mapper.PlayerDataMapper;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * YAML 本地存储：players/&lt;uuid&gt;.yml
+ * 先写临时文件再原子替换，避免写入中途崩溃留下半个文件
+ *
+ * @author Olivia Diaz
+ * @version 1.0.0
+ */
+public class YamlPlayerStore implements PlayerLocalStore {
+
+    private final File playerDir;
+    private final PlayerDataMapper mapper;
+
+    public YamlPlayerStore(File playerDir, PlayerDataMapper mapper) {
+        this.playerDir = playerDir;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+
+    @Override
+    public PlayerData load(UUID uuid) throws IOException {
+        File file = new File(playerDir, uuid + ".yml");
+        if (!file.exists()) {
+            return null;
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IOException("无法解析 " + file.getName() + ": " + e.getMessage(), e);
+        }
+        return mapper.mapFromYaml(config, uuid);
+    }
+
+    @Override
+    public void save(List<PlayerData> players) throws IOException {
+        if (!playerDir.exists()) {
+            playerDir.mkdirs();
+        }
+
+        for (PlayerData data : players) {
+            YamlConfiguration config = new YamlConfiguration();
+            mapper.mapToYaml(config, data);
+
+            Path target = new File(playerDir, data.getUuid() + ".yml").toPath();
+            Path temp = new File(playerDir, data.getUuid() + ".yml.tmp").toPath();
+            Files.writeString(temp, config.saveToString(), StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public Set<UUID> getStoredPlayers() {
+        Set<UUID> players = new HashSet<>();
+        File[] files = playerDir.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) {
+            return players;
+        }
+
+        for (File file : files) {
+            try {
+                players.add(UUID.fromString(file.getName().substring(0, file.getName().length() - 4)));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return players;
+    }
+
+    @Override
+    public void close() {
+        // 无需释放资源
+    }
+}
@@ -6,6 +6,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -24,15 +25,34 @@ public class PlayerConnectionListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * 玩家登录前（异步线程）
+     * 提前从存储加载玩家数据到缓存，避免 PlayerJoinEvent 在主线程上查询数据库
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        try {
+            plugin.getDataManager().preloadPlayerData(event.getUniqueId());
+        } catch (Exception e) {
+            // 预加载失败不阻止登录，加入时会在主线程重新加载
+            plugin.getLogger().warning("预加载玩家 " + event.getName() + " 数据失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 玩家加入服务器
+     * 数据通常已由 onAsyncPreLogin 预加载到缓存
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
         try {
-            // 加载玩家数据
+            // 加载玩家数据（已预加载时直接命中缓存）
             PlayerData data = plugin.getDataManager().loadPlayerData(player.getUniqueId());
 
             // 检查是否是新玩家
@@ -52,8 +72,9 @@ public class PlayerConnectionListener implements Listener {
                 calculateOfflineCultivation(player, data);
             }
 
-            // 保存数据
+            // 保存数据，在线期间数据常驻缓存
             plugin.getDataManager().savePlayerData(data);
+            plugin.getDataManager().markPlayerOnline(data);
 
             // 发送欢迎消息
             sendWelcomeMessage(player, data, isNewPlayer);
@@ -86,6 +107,9 @@ public class PlayerConnectionListener implements Listener {
                 plugin.getLogger().info("已保存玩家 " + player.getName() + " 的数据");
             }
 
+            // 移入离线缓存，之后按容量/空闲时间淘汰
+            plugin.getDataManager().markPlayerOffline(player.getUniqueId());
+
             // 保存功法快捷键绑定
             plugin.getSkillSystem().getBindManager().onPlayerQuit(player);
 
@@ -6,6 +6,7 @@ import com.xiancore.systems.boss.config.BossConfigLoader;
 import com.xiancore.systems.boss.config.BossRefreshConfig;
 import com.xiancore.systems.boss.config.ConfigFileWatcher;
 import com.xiancore.systems.boss.entity.BossEntity;
+import com.xiancore.systems.boss.entity.BossEntityIndex;
 import com.xiancore.systems.boss.entity.BossSpawnPoint;
 import com.xiancore.systems.boss.event.BossDespawnedEvent;
 import com.xiancore.systems.boss.event.BossKilledEvent;
@@ -15,6 +16,7 @@ import com.xiancore.systems.boss.announcement.BossAnnouncementManager;
 import com.xiancore.systems.boss.location.LocationSelector;
 import com.xiancore.systems.boss.location.LocationStrategyManager;
 import com.xiancore.systems.boss.location.SelectionCriteria;
+import com.xiancore.systems.boss.location.SpawnCandidateCache;
 import com.xiancore.systems.boss.teleport.BossTeleportManager;
 import com.xiancore.systems.boss.reward.BossRewardManager;
 import com.xiancore.systems.boss.spawner.MobSpawner;
@@ -33,6 +35,7 @@ import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
@@ -65,6 +68,7 @@ public class BossRefreshManager {
     private final BossAnnouncementManager announcementManager;
     private final LocationSelector locationSelector;
     private final LocationStrategyManager locationStrategyManager;
+    private final SpawnCandidateCache candidateCache;
     private final BossTeleportManager teleportManager;
     private final BossRewardManager rewardManager;
     private BossRefreshConfig refreshConfig;
@@ -94,7 +98,11 @@ public class BossRefreshManager {
     /** 活跃的Boss实体 (bossUUID -> BossEntity) */
     private final Map<UUID, BossEntity> activeBosses = new ConcurrentHashMap<>();
     private final Map<UUID, String> bossUUIDToSpawnPoint = new ConcurrentHashMap<>();
-    private final Map<LivingEntity, UUID> entityToBossUUID = new ConcurrentHashMap<>();
+    /** Bukkit实体UUID -> Boss UUID 索引 (不持有实体引用) */
+    private final BossEntityIndex entityIndex = new BossEntityIndex();
+
+    /** 正在异步搜索生成位置的刷新点ID */
+    private final Set<String> pendingSpawnSearches = ConcurrentHashMap.newKeySet();
 
     /** Boss ID -> UUID 映射 (用于快速查询) */
     private final Map<String, UUID> bossIdToUUID = new ConcurrentHashMap<>();
@@ -130,6 +138,7 @@ public class BossRefreshManager {
         this.announcementManager = new BossAnnouncementManager();
         this.locationSelector = new LocationSelector(SelectionCriteria.createBalanced());
         this.locationStrategyManager = new LocationStrategyManager(plugin);
+        this.candidateCache = new SpawnCandidateCache(plugin, locationStrategyManager, this::getEnabledSpawnPoints);
         this.teleportManager = new BossTeleportManager();
         this.rewardManager = new BossRewardManager(plugin, mythicIntegration);
     }
@@ -207,7 +216,10 @@ public class BossRefreshManager {
             // 3. 启动配置文件监听器 (热重载)
             startConfigFileWatcher();
 
-            // 4. 标记为启用
+            // 4. 启动生成位置候选缓存
+            candidateCache.start();
+
+            // 5. 标记为启用
             enabled = true;
 
             plugin.getLogger().info("BossRefreshManager enabled successfully!");
@@ -254,9 +266,12 @@ public class BossRefreshManager {
                 }
             }
 
-            // 4. 清空缓存
+            // 4. 保存候选缓存，停止进行中的位置搜索并清空缓存
+            candidateCache.shutdown();
+            locationStrategyManager.shutdown();
+            pendingSpawnSearches.clear();
             activeBosses.clear();
-            entityToBossUUID.clear();
+            entityIndex.clear();
             bossIdToUUID.clear();
 
             // 5. 关闭公告系统
@@ -300,6 +315,7 @@ public class BossRefreshManager {
         if (spawnPoints.containsKey(pointId)) {
             spawnPoints.remove(pointId);
             enabledPoints.remove(pointId);
+            candidateCache.invalidate(pointId);
             plugin.getLogger().info("Unregistered spawn point: " + pointId);
         }
     }
@@ -373,14 +389,14 @@ public class BossRefreshManager {
                 return;
             }
 
-            // 2. 检查活跃Boss总数
-            if (activeBosses.size() >= maxActiveBosses) {
+            // 2. 检查活跃Boss总数 (包括正在搜索位置的刷新点)
+            if (activeBosses.size() + pendingSpawnSearches.size() >= maxActiveBosses) {
                 return;
             }
 
             // 3. 遍历所有启用的刷新点
             for (BossSpawnPoint point : getEnabledSpawnPoints()) {
-                if (activeBosses.size() >= maxActiveBosses) {
+                if (activeBosses.size() + pendingSpawnSearches.size() >= maxActiveBosses) {
                     break;
                 }
                 attemptSpawn(point);
@@ -413,6 +429,11 @@ public class BossRefreshManager {
                     continue; // 跳过新生成的Boss
                 }
                 
+                // 所在区块已卸载的Boss等待区块重新加载，不按消失处理
+                if (isDetached(boss)) {
+                    continue;
+                }
+
                 // 检查Boss是否有效
                 if (!boss.isValid()) {
                     plugin.getLogger().warning("Boss无效: " + boss.getMythicMobType() + 
@@ -450,6 +471,11 @@ public class BossRefreshManager {
                 return;
             }
 
+            // 上一次位置搜索尚未完成
+            if (pendingSpawnSearches.contains(point.getId())) {
+                return;
+            }
+
             // 执行生成
             spawnBossAtPoint(point);
         } catch (Exception e) {
@@ -459,15 +485,54 @@ public class BossRefreshManager {
 
     /**
      * 在指定刷新点生成Boss
+     * 优先使用候选缓存中预先验证的位置；缓存未命中时在区块快照上异步搜索，找到后回到主线程生成实体
      *
      * @param point 刷新点
      */
     private void spawnBossAtPoint(BossSpawnPoint point) {
+        Location cached = candidateCache.poll(point);
+        if (cached != null) {
+            completeSpawnAtPoint(point, cached);
+            return;
+        }
+
+        if (!pendingSpawnSearches.add(point.getId())) {
+            return;
+        }
+
+        // 1. 异步确定生成位置
+        determineSpawnLocation(point).whenComplete((spawnLoc, error) -> {
+            if (!plugin.isEnabled()) {
+                pendingSpawnSearches.remove(point.getId());
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pendingSpawnSearches.remove(point.getId());
+                if (error != null) {
+                    plugin.getLogger().warning("Spawn location search failed for point: " + point.getId() + " - " + error);
+                    return;
+                }
+                if (spawnLoc == null) {
+                    plugin.getLogger().warning("Cannot find valid spawn location for point: " + point.getId());
+                    return;
+                }
+                completeSpawnAtPoint(point, spawnLoc);
+            });
+        });
+    }
+
+    /**
+     * 位置搜索完成后在主线程生成Boss
+     * 搜索期间状态可能已变化，生成前重新检查限制
+     *
+     * @param point 刷新点
+     * @param spawnLoc 生成位置
+     */
+    private void completeSpawnAtPoint(BossSpawnPoint point, Location spawnLoc) {
         try {
-            // 1. 确定生成位置
-            Location spawnLoc = determineSpawnLocation(point);
-            if (spawnLoc == null) {
-                plugin.getLogger().warning("Cannot find valid spawn location for point: " + point.getId());
+            if (!enabled || spawnPoints.get(point.getId()) != point
+                    || activeBosses.size() >= maxActiveBosses
+                    || point.getCurrentCount() >= point.getMaxCount()) {
                 return;
             }
 
@@ -525,7 +590,7 @@ public class BossRefreshManager {
 
             // 5. 添加到activeBosses
             activeBosses.put(bossUUID, boss);
-            entityToBossUUID.put(entity, bossUUID);
+            entityIndex.put(entity.getUniqueId(), bossUUID);
 
             // 6. 发送事件
             eventBus.publishEvent(new BossSpawnedEvent(boss));
@@ -569,10 +634,80 @@ public class BossRefreshManager {
      * 按Bukkit实体获取Boss实体
      */
     public BossEntity getBossEntityByMythicMob(LivingEntity entity) {
-        UUID bossUUID = entityToBossUUID.get(entity);
+        return entity != null ? getBossEntityByEntityUUID(entity.getUniqueId()) : null;
+    }
+
+    /**
+     * 按Bukkit实体UUID获取Boss实体
+     * 非Boss实体通常在预过滤阶段即被排除
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return Boss实体，不是Boss返回null
+     */
+    public BossEntity getBossEntityByEntityUUID(UUID entityUUID) {
+        UUID bossUUID = entityIndex.get(entityUUID);
+        return bossUUID != null ? activeBosses.get(bossUUID) : null;
+    }
+
+    /**
+     * Boss实体所在区块卸载：只标记为脱离，保留Boss、索引和刷新点计数
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return 对应的Boss，不是Boss返回null
+     */
+    public BossEntity detachBossEntity(UUID entityUUID) {
+        UUID bossUUID = entityIndex.detach(entityUUID);
         return bossUUID != null ? activeBosses.get(bossUUID) : null;
     }
 
+    /**
+     * 区块加载时重新关联Boss实体
+     * 带Boss标记但不属于任何活跃Boss的实体 (脱离期间Boss已被移除或服务器重启) 视为孤儿并移除
+     *
+     * @param entity 随区块加载的实体
+     * @return 是否为Boss实体 (包括被移除的孤儿)
+     */
+    public boolean attachBossEntity(LivingEntity entity) {
+        UUID entityUUID = entity.getUniqueId();
+        BossEntity boss = null;
+        if (entityIndex.mightContain(entityUUID)) {
+            UUID bossUUID = entityIndex.attach(entityUUID);
+            boss = bossUUID != null ? activeBosses.get(bossUUID) : null;
+        }
+        if (boss != null) {
+            boss.rebindEntity(entity);
+            return true;
+        }
+
+        String taggedBoss = entity.getPersistentDataContainer()
+            .get(new NamespacedKey(plugin, "boss_uuid"), PersistentDataType.STRING);
+        if (taggedBoss == null) {
+            return false;
+        }
+        entityIndex.removeEntity(entityUUID);
+        entity.remove();
+        plugin.getLogger().info("已移除无人管理的Boss实体: " + entityUUID + " (Boss: " + taggedBoss + ")");
+        return true;
+    }
+
+    /**
+     * Boss实体所在区块是否已卸载
+     */
+    private boolean isDetached(BossEntity boss) {
+        LivingEntity entity = boss.getBukkitEntity();
+        return entity != null && entityIndex.isDetached(entity.getUniqueId());
+    }
+
+    /**
+     * 快速判断实体是否可能为Boss (无哈希表查找)
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return false 表示一定不是Boss
+     */
+    public boolean mightBeBoss(UUID entityUUID) {
+        return entityIndex.mightContain(entityUUID);
+    }
+
     /**
      * 获取Boss总数 (已生成)
      */
@@ -723,19 +858,19 @@ public class BossRefreshManager {
             // 根据配置选择加载方式
             if ("mysql".equalsIgnoreCase(storageType)) {
                 // MySQL模式
-                if (plugin.getDataManager() != null && plugin.getDataManager().isUsingMySql()) {
+                if (plugin.getDataManager() != null && plugin.getDataManager().isUsingSql()) {
                     try (java.sql.Connection conn = plugin.getDataManager().getConnection()) {
                         refreshConfig = configLoader.loadConfigFromDatabase(conn);
-                        plugin.getLogger().info("✓ 已从MySQL加载Boss配置");
+                        plugin.getLogger().info("✓ 已从数据库加载Boss配置");
                     } catch (Exception e) {
-                        plugin.getLogger().warning("✗ MySQL加载失败，降级到YAML模式");
+                        plugin.getLogger().warning("✗ 数据库加载失败，降级到YAML模式");
                         e.printStackTrace();
                         // 降级到YAML
                         File configFile = new File(plugin.getDataFolder(), "boss-refresh.yml");
                         refreshConfig = configLoader.loadConfig(configFile);
                     }
                 } else {
-                    plugin.getLogger().warning("✗ MySQL未启用，降级到YAML模式");
+                    plugin.getLogger().warning("✗ 数据库未启用，降级到YAML模式");
                     File configFile = new File(plugin.getDataFolder(), "boss-refresh.yml");
                     refreshConfig = configLoader.loadConfig(configFile);
                 }
@@ -838,18 +973,19 @@ public class BossRefreshManager {
             // 根据配置选择保存方式
             if ("mysql".equalsIgnoreCase(storageType)) {
                 // MySQL模式
-                if (plugin.getDataManager() != null && plugin.getDataManager().isUsingMySql()) {
+                if (plugin.getDataManager() != null && plugin.getDataManager().isUsingSql()) {
                     try (java.sql.Connection conn = plugin.getDataManager().getConnection()) {
-                        configLoader.saveConfigToDatabase(refreshConfig, conn);
-                        plugin.getLogger().info("✓ Boss配置已保存到MySQL");
+                        configLoader.saveConfigToDatabase(refreshConfig, conn,
+                                plugin.getDataManager().getDatabaseManager().getDialect());
+                        plugin.getLogger().info("✓ Boss配置已保存到数据库");
                         return true;
                     } catch (Exception e) {
-                        plugin.getLogger().severe("✗ 保存到MySQL失败: " + e.getMessage());
+                        plugin.getLogger().severe("✗ 保存到数据库失败: " + e.getMessage());
                         e.printStackTrace();
                         return false;
                     }
                 } else {
-                    plugin.getLogger().warning("✗ MySQL未启用，无法保存到数据库");
+                    plugin.getLogger().warning("✗ 数据库未启用，无法保存到数据库");
                     return false;
                 }
             } else {
@@ -958,11 +1094,11 @@ public class BossRefreshManager {
 
     /**
      * 确定生成位置
-     * 委托给 LocationStrategyManager 处理
+     * 委托给 LocationStrategyManager 在区块快照上异步搜索
      * 支持固定位置、随机偏移和玩家附近随机等多种策略
      */
-    private Location determineSpawnLocation(BossSpawnPoint point) {
-        return locationStrategyManager.determineSpawnLocation(point);
+    private CompletableFuture<Location> determineSpawnLocation(BossSpawnPoint point) {
+        return locationStrategyManager.determineSpawnLocationAsync(point);
     }
 
     /**
@@ -998,10 +1134,8 @@ public class BossRefreshManager {
      * 移除Boss
      */
     private void removeBoss(UUID bossUUID) {
-        BossEntity boss = activeBosses.remove(bossUUID);
-        if (boss != null && boss.getBukkitEntity() != null) {
-            entityToBossUUID.remove(boss.getBukkitEntity());
-        }
+        activeBosses.remove(bossUUID);
+        entityIndex.removeBoss(bossUUID);
     }
 
     // ==================== 状态查询 ====================
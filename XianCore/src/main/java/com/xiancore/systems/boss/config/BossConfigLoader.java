@@ -1,6 +1,7 @@
 package com.xiancore.systems.boss.config;
 
 import com.xiancore.XianCore;
+import com.xiancore.core.data.SqlDialect;
 import com.xiancore.systems.boss.entity.BossSpawnPoint;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -546,17 +547,18 @@ public class BossConfigLoader {
     }
 
     /**
-     * 保存配置到MySQL数据库
+     * 保存配置到数据库（MySQL或SQLite）
      *
      * @param config 要保存的配置
      * @param connection 数据库连接
+     * @param dialect 当前数据库的SQL方言
      */
-    public void saveConfigToDatabase(BossRefreshConfig config, Connection connection) {
+    public void saveConfigToDatabase(BossRefreshConfig config, Connection connection, SqlDialect dialect) {
         try {
             logger.info("✓ 保存Boss配置到MySQL...");
 
             // 1. 保存全局配置
-            saveGlobalSettingsToDatabase(config, connection);
+            saveGlobalSettingsToDatabase(config, connection, dialect);
 
             // 2. 保存所有刷新点
             saveSpawnPointsToDatabase(config.getSpawnPoints(), connection);
@@ -572,7 +574,7 @@ public class BossConfigLoader {
     /**
      * 保存全局配置到MySQL
      */
-    private void saveGlobalSettingsToDatabase(BossRefreshConfig config, Connection conn) throws SQLException {
+    private void saveGlobalSettingsToDatabase(BossRefreshConfig config, Connection conn, SqlDialect dialect) throws SQLException {
         String sql = """
                 INSERT INTO xian_boss_refresh_config (
                     id, check_interval_seconds, max_active_bosses,
@@ -586,7 +588,7 @@ public class BossConfigLoader {
                     updated_at = VALUES(updated_at)
                 """;
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(dialect.upsert(sql, "id"))) {
             pstmt.setInt(1, config.getCheckIntervalSeconds());
             pstmt.setInt(2, config.getMaxActiveBosses());
             pstmt.setInt(3, config.getMinOnlinePlayers());
@@ -0,0 +1,158 @@
+package com.xiancore.systems.boss.damage;
+
+import com.xiancore.boss.system.damage.DamageRecord;
+import lombok.Getter;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 单个Boss战斗的伤害状态
+ * 每场战斗独占自己的伤害记录、排行和统计缓存，不同Boss之间没有共享的可变结构
+ * <p>
+ * 缓存失效使用版本号: 每次应用命中版本号加一，缓存条目记录生成时的版本，
+ * 读取时版本不一致即重新计算，命中路径上不再有任何 map 删除操作
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class BossDamageState {
+
+    /** Boss UUID */
+    @Getter
+    private final UUID bossUUID;
+
+    /** 伤害记录 */
+    @Getter
+    private final DamageRecord record;
+
+    /** 伤害排行 */
+    @Getter
+    private final DamageRanking ranking;
+
+    /** 数据版本 (每批命中加一) */
+    private volatile long version;
+
+    /** 统计缓存 */
+    private volatile Cached<DamageStatistics> statisticsCache;
+
+    /** 详细排行缓存 */
+    private volatile Cached<List<Map.Entry<UUID, Double>>> rankingCache;
+
+    /**
+     * 构造函数
+     *
+     * @param bossUUID Boss UUID
+     * @param startTime 战斗开始时间 (首次命中时间)
+     */
+    public BossDamageState(UUID bossUUID, long startTime) {
+        this.bossUUID = bossUUID;
+        this.record = new DamageRecord(bossUUID, startTime);
+        this.ranking = new DamageRanking(bossUUID);
+    }
+
+    // ==================== 更新方法 ====================
+
+    /**
+     * 应用单次命中
+     *
+     * @param playerUUID 玩家UUID
+     * @param damage 伤害值
+     * @param timestamp 命中时间戳
+     */
+    public synchronized void recordHit(UUID playerUUID, double damage, long timestamp) {
+        record.recordDamage(playerUUID, damage, timestamp);
+        ranking.updatePlayer(record, playerUUID);
+        version++;
+    }
+
+    /**
+     * 批量应用命中 (排行中每个玩家只调整一次)
+     *
+     * @param damages 命中列表
+     */
+    public synchronized void recordHits(List<DamageStatisticsManager.DamageEntry> damages) {
+        Set<UUID> touched = new HashSet<>();
+        for (DamageStatisticsManager.DamageEntry entry : damages) {
+            record.recordDamage(entry.playerUUID, entry.damage, entry.timestamp);
+            touched.add(entry.playerUUID);
+        }
+        for (UUID playerUUID : touched) {
+            ranking.updatePlayer(record, playerUUID);
+        }
+        version++;
+    }
+
+    // ==================== 查询方法 ====================
+
+    /**
+     * 获取当前数据版本
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取统计信息 (版本未变化时返回缓存)
+     *
+     * @return 统计信息
+     */
+    public DamageStatistics getStatistics() {
+        long current = version;
+        Cached<DamageStatistics> cached = statisticsCache;
+        if (cached != null && cached.version == current) {
+            return cached.value;
+        }
+
+        DamageStatistics stats = new DamageStatistics(record);
+        statisticsCache = new Cached<>(current, 0, stats);
+        return stats;
+    }
+
+    /**
+     * 获取前N名及伤害 (版本和数量未变化时返回缓存)
+     *
+     * @param limit 数量
+     * @return 不可变的排行列表 (从高到低)
+     */
+    public List<Map.Entry<UUID, Double>> getTopDetailed(int limit) {
+        long current = version;
+        Cached<List<Map.Entry<UUID, Double>>> cached = rankingCache;
+        if (cached != null && cached.version == current && cached.limit == limit) {
+            return cached.value;
+        }
+
+        List<Map.Entry<UUID, Double>> result = new ArrayList<>(Math.min(limit, ranking.getRankingSize()));
+        ranking.getLeaderboard().forEachTop(limit, (rank, playerUUID, damage) ->
+            result.add(new AbstractMap.SimpleImmutableEntry<>(playerUUID, damage)));
+        List<Map.Entry<UUID, Double>> value = Collections.unmodifiableList(result);
+        rankingCache = new Cached<>(current, limit, value);
+        return value;
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 带版本号的缓存条目
+     */
+    private static final class Cached<T> {
+        final long version;
+        final int limit;
+        final T value;
+
+        Cached(long version, int limit, T value) {
+            this.version = version;
+            this.limit = limit;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.xiancore.systems.boss.damage;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boss 伤害事件环形缓冲区
+ * 战斗监听器只负责把命中写入环形缓冲区，排行和统计由每 tick 的消费者批量处理
+ * <p>
+ * 事件以原始类型数组按列存储 (UUID 拆成高低位)，入队不分配对象；
+ * 多生产者通过序号槽位无锁写入，缓冲区满时直接丢弃并计数
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageEventRing {
+
+    /** 容量 (2 的幂) */
+    private final int capacity;
+
+    /** 下标掩码 */
+    private final int mask;
+
+    /** 槽位序号 (生产者据此判断可写，消费者据此判断可读) */
+    private final AtomicLongArray sequences;
+
+    // ==================== 事件列 ====================
+    private final long[] bossMost;
+    private final long[] bossLeast;
+    private final long[] playerMost;
+    private final long[] playerLeast;
+    private final double[] damages;
+    private final long[] timestamps;
+
+    /** 下一个写入位置 */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 下一个读取位置 (仅消费者写入) */
+    private volatile long head;
+
+    // ==================== 指标 ====================
+    /** 成功入队数 */
+    private final LongAdder offered = new LongAdder();
+
+    /** 因缓冲区已满而丢弃的事件数 */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param requestedCapacity 期望容量 (向上取整为 2 的幂)
+     */
+    public DamageEventRing(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0: " + requestedCapacity);
+        }
+        int size = 1;
+        while (size < requestedCapacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.bossMost = new long[size];
+        this.bossLeast = new long[size];
+        this.playerMost = new long[size];
+        this.playerLeast = new long[size];
+        this.damages = new double[size];
+        this.timestamps = new long[size];
+    }
+
+    // ==================== 生产者 ====================
+
+    /**
+     * 写入一次命中
+     *
+     * @param bossUUID Boss UUID
+     * @param playerUUID 玩家UUID
+     * @param damage 伤害值
+     * @param timestamp 时间戳
+     * @return 是否写入成功 (缓冲区已满时返回false)
+     */
+    public boolean offer(UUID bossUUID, UUID playerUUID, double damage, long timestamp) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                dropped.increment();
+                return false;
+            }
+        }
+
+        bossMost[index] = bossUUID.getMostSignificantBits();
+        bossLeast[index] = bossUUID.getLeastSignificantBits();
+        playerMost[index] = playerUUID.getMostSignificantBits();
+        playerLeast[index] = playerUUID.getLeastSignificantBits();
+        damages[index] = damage;
+        timestamps[index] = timestamp;
+
+        // 发布: 先写数据再推进序号
+        sequences.lazySet(index, position + 1);
+        offered.increment();
+        return true;
+    }
+
+    // ==================== 消费者 ====================
+
+    /**
+     * 取出最多 maxEvents 个已发布的事件
+     *
+     * @param consumer 事件消费者
+     * @param maxEvents 本次最多取出的事件数
+     * @return 实际取出的事件数
+     */
+    public synchronized int drain(EventConsumer consumer, int maxEvents) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxEvents) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+
+            consumer.accept(
+                new UUID(bossMost[index], bossLeast[index]),
+                new UUID(playerMost[index], playerLeast[index]),
+                damages[index],
+                timestamps[index]
+            );
+
+            // 释放槽位给下一轮生产者
+            sequences.lazySet(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * 丢弃所有已发布的事件
+     *
+     * @return 丢弃的事件数
+     */
+    public int clear() {
+        return drain((bossUUID, playerUUID, damage, timestamp) -> { }, capacity);
+    }
+
+    // ==================== 查询方法 ====================
+
+    /**
+     * 获取容量
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取当前队列深度 (近似值)
+     *
+     * @return 已入队未消费的事件数
+     */
+    public int size() {
+        long depth = tail.get() - head;
+        return (int) Math.max(0, Math.min(depth, capacity));
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 获取成功入队总数
+     *
+     * @return 入队数
+     */
+    public long getOfferedCount() {
+        return offered.sum();
+    }
+
+    /**
+     * 获取丢弃总数
+     *
+     * @return 丢弃数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ==================== 内部接口 ====================
+
+    /**
+     * 事件消费者
+     */
+    @FunctionalInterface
+    public interface EventConsumer {
+        void accept(UUID bossUUID, UUID playerUUID, double damage, long timestamp);
+    }
+}
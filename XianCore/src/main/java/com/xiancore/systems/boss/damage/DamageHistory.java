@@ -1,5 +1,6 @@
 package com.xiancore.systems.boss.damage;
 
+import com.xiancore.boss.system.damage.DamageRecord;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -72,28 +73,34 @@ public class DamageHistory {
     }
 
     /**
-     * 从DamageRecord创建历史记录
-     * TODO: 需要重构以适配新的DamageRecord API
+     * 从DamageRecord创建历史记录 (以当前时间作为结束时间)
      *
      * @param record 伤害记录
      */
-    /* 暂时禁用，等待API重构
     public DamageHistory(DamageRecord record) {
-        if (record == null) {
-            return;
-        }
+        this(record, System.currentTimeMillis());
+    }
 
+    /**
+     * 从DamageRecord和结束时间创建
+     *
+     * @param record 伤害记录
+     * @param endTime 结束时间
+     */
+    public DamageHistory(DamageRecord record, long endTime) {
         this.bossUUID = record.getBossUUID();
         this.bossType = record.getBossType();
         this.bossTier = record.getBossTier();
-
-        this.startTime = record.getRecordTime();
-        this.endTime = System.currentTimeMillis();
-        this.durationSeconds = (this.endTime - this.startTime) / 1000;
+        this.startTime = record.getStartTime();
+        this.endTime = endTime;
+        this.durationSeconds = Math.max(0, (endTime - startTime) / 1000);
 
         // 计算伤害统计
         this.statistics = new DamageStatistics(record);
-        this.statistics.setDurationSeconds(this.durationSeconds);
+        this.statistics.setStartTime(startTime);
+        this.statistics.setEndTime(endTime);
+        this.statistics.setDurationSeconds(durationSeconds);
+        this.statistics.setDps(durationSeconds > 0 ? record.getTotalDamage() / durationSeconds : 0.0);
 
         // 计算伤害排行
         this.ranking = new DamageRanking(bossUUID);
@@ -102,25 +109,6 @@ public class DamageHistory {
         // 保存完整记录
         this.damageRecord = record;
     }
-    */
-
-    /**
-     * 从DamageRecord和时间范围创建
-     * TODO: 需要重构以适配新的DamageRecord API
-     *
-     * @param record 伤害记录
-     * @param endTime 结束时间
-     */
-    /* 暂时禁用，等待API重构
-    public DamageHistory(DamageRecord record, long endTime) {
-        this(record);
-        this.endTime = endTime;
-        this.durationSeconds = (endTime - this.startTime) / 1000;
-        if (this.statistics != null) {
-            this.statistics.setDurationSeconds(this.durationSeconds);
-        }
-    }
-    */
 
     // ==================== 查询方法 ====================
 
@@ -225,11 +213,11 @@ public class DamageHistory {
      * @return 参与玩家UUID集合
      */
     public Set<UUID> getParticipants() {
-        if (damageRecord == null || damageRecord.getPlayerDamage() == null) {
+        if (damageRecord == null) {
             return new HashSet<>();
         }
 
-        return new HashSet<>(damageRecord.getPlayerDamage().keySet());
+        return new HashSet<>(damageRecord.getParticipants());
     }
 
     /**
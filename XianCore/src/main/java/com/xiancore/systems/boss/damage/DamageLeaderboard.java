@@ -0,0 +1,343 @@
+package com.xiancore.systems.boss.damage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 增量伤害排行榜
+ * 基于带子树大小的 Treap (顺序统计树)，按伤害降序维护单个 Boss 的全部参与者
+ * <p>
+ * - 更新玩家伤害: O(log n)
+ * - 查询玩家排名: O(log n)
+ * - 遍历前K名: O(log n + K)，不复制整个排行
+ * <p>
+ * 伤害相同时先上榜的玩家排在前面。所有方法在实例上同步
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageLeaderboard {
+
+    /** 玩家 -> 树节点 */
+    private final Map<UUID, Node> nodes = new HashMap<>();
+
+    /** 树根 */
+    private Node root;
+
+    /** 上榜序号 (用于同伤害排序) */
+    private long sequence = 0;
+
+    // ==================== 更新方法 ====================
+
+    /**
+     * 设置玩家的累计伤害
+     *
+     * @param playerUUID 玩家UUID
+     * @param damage 累计伤害
+     */
+    public synchronized void update(UUID playerUUID, double damage) {
+        Node node = nodes.get(playerUUID);
+        if (node != null) {
+            if (node.damage == damage) {
+                return;
+            }
+            root = remove(root, node);
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+        } else {
+            node = new Node(playerUUID, sequence++, ThreadLocalRandom.current().nextInt());
+            nodes.put(playerUUID, node);
+        }
+
+        node.damage = damage;
+        root = insert(root, node);
+    }
+
+    /**
+     * 移除玩家
+     *
+     * @param playerUUID 玩家UUID
+     * @return 是否存在并已移除
+     */
+    public synchronized boolean remove(UUID playerUUID) {
+        Node node = nodes.remove(playerUUID);
+        if (node == null) {
+            return false;
+        }
+        root = remove(root, node);
+        return true;
+    }
+
+    /**
+     * 清空排行
+     */
+    public synchronized void clear() {
+        nodes.clear();
+        root = null;
+        sequence = 0;
+    }
+
+    // ==================== 查询方法 ====================
+
+    /**
+     * 获取玩家排名
+     *
+     * @param playerUUID 玩家UUID
+     * @return 排名 (从1开始)，如果不在排行则返回-1
+     */
+    public synchronized int rankOf(UUID playerUUID) {
+        Node node = nodes.get(playerUUID);
+        if (node == null) {
+            return -1;
+        }
+
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            if (current == node) {
+                return rank + size(current.left) + 1;
+            }
+            if (before(node, current)) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取玩家在排行中的伤害
+     *
+     * @param playerUUID 玩家UUID
+     * @return 伤害值，如果不在排行则返回0
+     */
+    public synchronized double damageOf(UUID playerUUID) {
+        Node node = nodes.get(playerUUID);
+        return node != null ? node.damage : 0.0;
+    }
+
+    /**
+     * 检查玩家是否在排行中
+     *
+     * @param playerUUID 玩家UUID
+     * @return 是否在排行中
+     */
+    public synchronized boolean contains(UUID playerUUID) {
+        return nodes.containsKey(playerUUID);
+    }
+
+    /**
+     * 获取指定名次的玩家
+     *
+     * @param rank 排名 (从1开始)
+     * @return 玩家UUID，超出范围返回null
+     */
+    public synchronized UUID playerAt(int rank) {
+        if (rank < 1 || rank > size(root)) {
+            return null;
+        }
+
+        Node current = root;
+        int index = rank - 1;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current.playerUUID;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按排名顺序遍历前N名
+     *
+     * @param limit 数量
+     * @param visitor 访问器
+     */
+    public synchronized void forEachTop(int limit, EntryVisitor visitor) {
+        if (limit <= 0 || root == null) {
+            return;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        Node current = root;
+        int rank = 0;
+        while ((current != null || !stack.isEmpty()) && rank < limit) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            visitor.visit(++rank, current.playerUUID, current.damage);
+            current = current.right;
+        }
+    }
+
+    /**
+     * 获取前N名玩家
+     *
+     * @param limit 数量
+     * @return 玩家UUID列表 (从高到低)
+     */
+    public List<UUID> topPlayers(int limit) {
+        List<UUID> result = new ArrayList<>(Math.max(0, Math.min(limit, size())));
+        forEachTop(limit, (rank, playerUUID, damage) -> result.add(playerUUID));
+        return result;
+    }
+
+    /**
+     * 获取排行人数
+     *
+     * @return 人数
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+    // ==================== Treap 内部方法 ====================
+
+    /**
+     * a 是否排在 b 之前 (伤害降序，同伤害按上榜顺序)
+     */
+    private static boolean before(Node a, Node b) {
+        if (a.damage != b.damage) {
+            return a.damage > b.damage;
+        }
+        return a.sequence < b.sequence;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+
+        if (before(node, tree)) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                tree = rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                tree = rotateLeft(tree);
+            }
+        }
+        tree.resize();
+        return tree;
+    }
+
+    private static Node remove(Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+
+        if (before(node, tree)) {
+            tree.left = remove(tree.left, node);
+        } else {
+            tree.right = remove(tree.right, node);
+        }
+        tree.resize();
+        return tree;
+    }
+
+    /**
+     * 合并两棵树 (left 中所有节点排在 right 之前)
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.resize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.resize();
+        return right;
+    }
+
+    private static Node rotateRight(Node tree) {
+        Node pivot = tree.left;
+        tree.left = pivot.right;
+        tree.resize();
+        pivot.right = tree;
+        pivot.resize();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node tree) {
+        Node pivot = tree.right;
+        tree.right = pivot.left;
+        tree.resize();
+        pivot.left = tree;
+        pivot.resize();
+        return pivot;
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 排行遍历访问器
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        /**
+         * 访问一个排行条目
+         *
+         * @param rank 排名 (从1开始)
+         * @param playerUUID 玩家UUID
+         * @param damage 累计伤害
+         */
+        void visit(int rank, UUID playerUUID, double damage);
+    }
+
+    /**
+     * 树节点
+     */
+    private static class Node {
+        final UUID playerUUID;
+        final long sequence;
+        final int priority;
+        double damage;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID playerUUID, long sequence, int priority) {
+            this.playerUUID = playerUUID;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+
+        void resize() {
+            size = 1 + DamageLeaderboard.size(left) + DamageLeaderboard.size(right);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.xiancore.systems.boss.damage;
 
+import com.xiancore.boss.system.damage.DamageRecord;
 import lombok.Getter;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * 伤害排行榜
- * 维护Boss的伤害排行信息
+ * 维护Boss的伤害排行信息，每次命中只调整被命中玩家的位置 (见 {@link DamageLeaderboard})
  *
  * @author XianCore Team
  * @version 1.0.0
@@ -20,8 +22,11 @@ public class DamageRanking {
     /** Boss UUID */
     private UUID bossUUID;
 
-    /** 排行列表 */
-    private List<RankingEntry> rankings = new ArrayList<>();
+    /** 增量排行 (按伤害降序) */
+    private final DamageLeaderboard leaderboard = new DamageLeaderboard();
+
+    /** Boss总伤害 (用于计算占比) */
+    private volatile double totalDamage = 0.0;
 
     /** 更新时间 */
     private long updateTime = System.currentTimeMillis();
@@ -40,25 +45,31 @@ public class DamageRanking {
     // ==================== 更新方法 ====================
 
     /**
-     * 从DamageRecord更新排行
+     * 从DamageRecord重建排行
      *
      * @param record 伤害记录
      */
     public void updateRanking(DamageRecord record) {
-        rankings.clear();
-
-        int rank = 1;
-        double totalDamage = record.getTotalDamage();
+        leaderboard.clear();
+        record.getPlayerDamageMap().forEach(leaderboard::update);
 
-        List<UUID> sorted = record.getSortedPlayers();
+        this.totalDamage = record.getTotalDamage();
+        this.updateTime = System.currentTimeMillis();
+    }
 
-        for (UUID playerId : sorted) {
-            double dmg = record.getPlayerDamage(playerId);
-            double percentage = totalDamage > 0 ? dmg / totalDamage : 0.0;
-            rankings.add(new RankingEntry(rank, playerId, dmg, percentage));
-            rank++;
+    /**
+     * 增量更新单个玩家的排行位置
+     *
+     * @param record 伤害记录
+     * @param playerUUID 玩家UUID
+     */
+    public void updatePlayer(DamageRecord record, UUID playerUUID) {
+        // 在排行锁内读取累计伤害，保证并发命中时写入的是最新值
+        synchronized (leaderboard) {
+            leaderboard.update(playerUUID, record.getPlayerDamage(playerUUID));
         }
 
+        this.totalDamage = record.getTotalDamage();
         this.updateTime = System.currentTimeMillis();
     }
 
@@ -71,7 +82,30 @@ public class DamageRanking {
      * @return 排行列表
      */
     public List<RankingEntry> getTopN(int n) {
-        return rankings.stream().limit(n).collect(Collectors.toList());
+        double total = totalDamage;
+        List<RankingEntry> result = new ArrayList<>(Math.max(0, Math.min(n, leaderboard.size())));
+        leaderboard.forEachTop(n, (rank, playerUUID, damage) ->
+            result.add(new RankingEntry(rank, playerUUID, damage, total > 0 ? damage / total : 0.0)));
+        return result;
+    }
+
+    /**
+     * 获取前N名玩家
+     *
+     * @param n 数量
+     * @return 玩家UUID列表 (从高到低)
+     */
+    public List<UUID> getTopPlayers(int n) {
+        return leaderboard.topPlayers(n);
+    }
+
+    /**
+     * 获取完整排行列表
+     *
+     * @return 排行列表
+     */
+    public List<RankingEntry> getRankings() {
+        return getTopN(Integer.MAX_VALUE);
     }
 
     /**
@@ -81,13 +115,7 @@ public class DamageRanking {
      * @return 排名位置 (从1开始)，如果不在排行则返回-1
      */
     public int getPlayerRank(UUID playerUUID) {
-        for (RankingEntry entry : rankings) {
-            if (entry.playerUUID.equals(playerUUID)) {
-                return entry.rank;
-            }
-        }
-
-        return -1;
+        return leaderboard.rankOf(playerUUID);
     }
 
     /**
@@ -97,10 +125,15 @@ public class DamageRanking {
      * @return 排行条目，如果不存在则返回null
      */
     public RankingEntry getPlayerRankingEntry(UUID playerUUID) {
-        return rankings.stream()
-            .filter(e -> e.playerUUID.equals(playerUUID))
-            .findFirst()
-            .orElse(null);
+        synchronized (leaderboard) {
+            int rank = leaderboard.rankOf(playerUUID);
+            if (rank < 0) {
+                return null;
+            }
+            double damage = leaderboard.damageOf(playerUUID);
+            double total = totalDamage;
+            return new RankingEntry(rank, playerUUID, damage, total > 0 ? damage / total : 0.0);
+        }
     }
 
     /**
@@ -110,7 +143,7 @@ public class DamageRanking {
      * @return 是否在排行中
      */
     public boolean isInRanking(UUID playerUUID) {
-        return rankings.stream().anyMatch(e -> e.playerUUID.equals(playerUUID));
+        return leaderboard.contains(playerUUID);
     }
 
     /**
@@ -119,7 +152,7 @@ public class DamageRanking {
      * @return 排行人数
      */
     public int getRankingSize() {
-        return rankings.size();
+        return leaderboard.size();
     }
 
     // ==================== 内部类 ====================
@@ -165,7 +198,7 @@ public class DamageRanking {
      * @return 信息字符串
      */
     public String getSimpleInfo() {
-        return String.format("DamageRanking{boss=%s, players=%d}", bossUUID, rankings.size());
+        return String.format("DamageRanking{boss=%s, players=%d}", bossUUID, leaderboard.size());
     }
 
     /**
@@ -0,0 +1,434 @@
+package com.xiancore.systems.boss.damage;
+
+import com.xiancore.boss.system.damage.DamageRecord;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 伤害统计汇总
+ * 每场战斗结束时增量更新玩家、Boss、Boss类型的累计值和按时间分桶的汇总，
+ * 排行榜GUI、变量和难度计算直接读取汇总结果，不再扫描全部历史
+ * <p>
+ * 分桶按 UTC 对齐: 小时桶保留 48 个，天桶保留 90 个；全时段累计不过期。
+ * 汇总可以随时从历史记录重建 (见 {@link #rebuild(Supplier)})
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageRollup {
+
+    /**
+     * 汇总时间窗口
+     */
+    public enum Window {
+        HOUR(60L * 60 * 1000, 48),
+        DAY(24L * 60 * 60 * 1000, 90),
+        ALL_TIME(0, 0);
+
+        private final long length;
+        private final int retention;
+
+        Window(long length, int retention) {
+            this.length = length;
+            this.retention = retention;
+        }
+
+        long bucketStart(long time) {
+            return Math.floorDiv(time, length) * length;
+        }
+    }
+
+    // ==================== 全时段累计 ====================
+    /** 玩家累计 (玩家UUID -> 累计) */
+    private final Map<UUID, PlayerTotals> players = new HashMap<>();
+
+    /** 玩家累计伤害排行 */
+    private final DamageLeaderboard playerBoard = new DamageLeaderboard();
+
+    /** Boss类型累计 (类型 -> 累计) */
+    private final Map<String, Bucket> bossTypes = new HashMap<>();
+
+    /** Boss击杀次数 (Boss UUID -> 次数) */
+    private final Map<UUID, Integer> bossKills = new HashMap<>();
+
+    /** 全部战斗的累计 */
+    private final Bucket allTime = new Bucket(false);
+
+    // ==================== 时间分桶 ====================
+    private final Map<Window, TreeMap<Long, Bucket>> buckets = new EnumMap<>(Window.class);
+
+    // ==================== 重建状态 ====================
+    /** 重建期间记录的战斗 (重建完成后补回未包含在数据源中的部分) */
+    private List<DamageHistory> recordedDuringRebuild;
+
+    public DamageRollup() {
+        buckets.put(Window.HOUR, new TreeMap<>());
+        buckets.put(Window.DAY, new TreeMap<>());
+    }
+
+    // ==================== 更新方法 ====================
+
+    /**
+     * 记录一场结束的战斗
+     *
+     * @param history 伤害历史
+     */
+    public synchronized void record(DamageHistory history) {
+        if (history == null) {
+            return;
+        }
+        apply(history);
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.add(history);
+        }
+    }
+
+    /**
+     * 从历史记录重建所有汇总
+     * 读取数据源和累加都在锁外进行，期间结束的战斗照常记录，完成后一次性替换
+     *
+     * @param source 历史记录来源 (例如数据库的 queryAll)
+     * @return 重建使用的历史记录数
+     */
+    public int rebuild(Supplier<? extends Collection<DamageHistory>> source) {
+        synchronized (this) {
+            recordedDuringRebuild = new ArrayList<>();
+        }
+
+        DamageRollup fresh = new DamageRollup();
+        Set<Object> sourceIds = new HashSet<>();
+        Collection<DamageHistory> histories;
+        try {
+            histories = source.get();
+            for (DamageHistory history : histories) {
+                fresh.apply(history);
+                Object id = history.getMetadata().get("_id");
+                if (id != null) {
+                    sourceIds.add(id);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                recordedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // 重建期间结束、但还没写进数据源的战斗
+            for (DamageHistory history : recordedDuringRebuild) {
+                Object id = history.getMetadata().get("_id");
+                if (id == null || !sourceIds.contains(id)) {
+                    fresh.apply(history);
+                }
+            }
+            recordedDuringRebuild = null;
+            replaceWith(fresh);
+        }
+        return histories.size();
+    }
+
+    /**
+     * 清空所有汇总
+     */
+    public synchronized void clear() {
+        replaceWith(new DamageRollup());
+    }
+
+    // ==================== 全时段查询 ====================
+
+    /**
+     * 获取玩家累计伤害
+     *
+     * @param playerUUID 玩家UUID
+     * @return 累计伤害
+     */
+    public synchronized double getPlayerDamage(UUID playerUUID) {
+        PlayerTotals totals = players.get(playerUUID);
+        return totals != null ? totals.damage : 0.0;
+    }
+
+    /**
+     * 获取玩家参与的战斗数
+     *
+     * @param playerUUID 玩家UUID
+     * @return 战斗数
+     */
+    public synchronized int getPlayerFights(UUID playerUUID) {
+        PlayerTotals totals = players.get(playerUUID);
+        return totals != null ? totals.fights : 0;
+    }
+
+    /**
+     * 获取玩家获得伤害第一的次数
+     *
+     * @param playerUUID 玩家UUID
+     * @return 次数
+     */
+    public synchronized int getPlayerTopFinishes(UUID playerUUID) {
+        PlayerTotals totals = players.get(playerUUID);
+        return totals != null ? totals.topFinishes : 0;
+    }
+
+    /**
+     * 获取玩家累计伤害排名
+     *
+     * @param playerUUID 玩家UUID
+     * @return 排名 (从1开始)，没有记录则返回-1
+     */
+    public synchronized int getPlayerRank(UUID playerUUID) {
+        return playerBoard.rankOf(playerUUID);
+    }
+
+    /**
+     * 获取全时段伤害排行
+     *
+     * @param limit 前N名
+     * @return 玩家UUID -> 累计伤害 (从高到低)
+     */
+    public synchronized Map<UUID, Double> getTopDamagers(int limit) {
+        Map<UUID, Double> result = new LinkedHashMap<>();
+        playerBoard.forEachTop(limit, (rank, playerUUID, damage) -> result.put(playerUUID, damage));
+        return result;
+    }
+
+    /**
+     * 获取Boss击杀次数
+     *
+     * @param bossUUID Boss UUID
+     * @return 次数
+     */
+    public synchronized int getBossKillCount(UUID bossUUID) {
+        return bossKills.getOrDefault(bossUUID, 0);
+    }
+
+    /**
+     * 获取Boss类型的击杀次数
+     *
+     * @param bossType Boss类型
+     * @return 次数
+     */
+    public synchronized int getBossTypeKills(String bossType) {
+        Bucket bucket = bossTypes.get(bossType);
+        return bucket != null ? bucket.fights : 0;
+    }
+
+    /**
+     * 获取Boss类型的平均总伤害
+     *
+     * @param bossType Boss类型
+     * @return 平均每场伤害
+     */
+    public synchronized double getBossTypeAverageDamage(String bossType) {
+        Bucket bucket = bossTypes.get(bossType);
+        return bucket != null ? bucket.averageDamage() : 0.0;
+    }
+
+    /**
+     * 获取战斗总数
+     *
+     * @return 战斗数
+     */
+    public synchronized int getFightCount() {
+        return allTime.fights;
+    }
+
+    /**
+     * 获取每场战斗的平均总伤害
+     *
+     * @return 平均伤害
+     */
+    public synchronized double getAverageDamage() {
+        return allTime.averageDamage();
+    }
+
+    // ==================== 分桶查询 ====================
+
+    /**
+     * 获取当前时间窗口 (本小时/今天/全时段) 内的战斗数
+     *
+     * @param window 时间窗口
+     * @return 战斗数
+     */
+    public synchronized int getFightCount(Window window) {
+        Bucket bucket = currentBucket(window);
+        return bucket != null ? bucket.fights : 0;
+    }
+
+    /**
+     * 获取当前时间窗口内的总伤害
+     *
+     * @param window 时间窗口
+     * @return 总伤害
+     */
+    public synchronized double getTotalDamage(Window window) {
+        Bucket bucket = currentBucket(window);
+        return bucket != null ? bucket.damage : 0.0;
+    }
+
+    /**
+     * 获取当前时间窗口内的伤害排行
+     *
+     * @param window 时间窗口
+     * @param limit 前N名
+     * @return 玩家UUID -> 窗口内伤害 (从高到低)
+     */
+    public synchronized Map<UUID, Double> getTopDamagers(Window window, int limit) {
+        if (window == Window.ALL_TIME) {
+            return getTopDamagers(limit);
+        }
+
+        Map<UUID, Double> result = new LinkedHashMap<>();
+        Bucket bucket = currentBucket(window);
+        if (bucket == null || limit <= 0) {
+            return result;
+        }
+
+        // 小顶堆只保留前 limit 名
+        PriorityQueue<Map.Entry<UUID, Double>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Double> entry : bucket.playerDamage.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<UUID, Double>> sorted = new ArrayList<>(top);
+        sorted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        for (Map.Entry<UUID, Double> entry : sorted) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 获取指定时间之后Boss类型的击杀次数 (按小时桶统计，最早一个桶整体计入)
+     *
+     * @param bossType Boss类型
+     * @param since 起始时间 (毫秒)
+     * @return 击杀次数
+     */
+    public synchronized int getBossTypeKillsSince(String bossType, long since) {
+        int kills = 0;
+        for (Bucket bucket : buckets.get(Window.HOUR).tailMap(Window.HOUR.bucketStart(since), true).values()) {
+            kills += bucket.killsByType.getOrDefault(bossType, 0);
+        }
+        return kills;
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void apply(DamageHistory history) {
+        DamageRecord record = history.getDamageRecord();
+        String bossType = history.getBossType() != null ? history.getBossType() : "Unknown";
+        long time = history.getEndTime() > 0 ? history.getEndTime() : history.getStartTime();
+        double totalDamage = history.getTotalDamage();
+
+        UUID topPlayer = null;
+        double topDamage = 0.0;
+        Map<UUID, Double> damages = record != null ? record.getPlayerDamageMap() : Collections.emptyMap();
+        for (Map.Entry<UUID, Double> entry : damages.entrySet()) {
+            PlayerTotals totals = players.computeIfAbsent(entry.getKey(), k -> new PlayerTotals());
+            totals.damage += entry.getValue();
+            totals.fights++;
+            playerBoard.update(entry.getKey(), totals.damage);
+            if (topPlayer == null || entry.getValue() > topDamage) {
+                topPlayer = entry.getKey();
+                topDamage = entry.getValue();
+            }
+        }
+        if (topPlayer != null) {
+            players.get(topPlayer).topFinishes++;
+        }
+
+        if (history.getBossUUID() != null) {
+            bossKills.merge(history.getBossUUID(), 1, Integer::sum);
+        }
+        bossTypes.computeIfAbsent(bossType, k -> new Bucket(false)).add(bossType, totalDamage, damages);
+        allTime.add(bossType, totalDamage, damages);
+
+        for (Map.Entry<Window, TreeMap<Long, Bucket>> entry : buckets.entrySet()) {
+            Window window = entry.getKey();
+            TreeMap<Long, Bucket> windowBuckets = entry.getValue();
+            windowBuckets.computeIfAbsent(window.bucketStart(time), k -> new Bucket(true))
+                .add(bossType, totalDamage, damages);
+
+            // 淘汰超出保留数量的旧桶
+            while (windowBuckets.size() > window.retention) {
+                windowBuckets.pollFirstEntry();
+            }
+        }
+    }
+
+    private Bucket currentBucket(Window window) {
+        if (window == Window.ALL_TIME) {
+            return allTime;
+        }
+        return buckets.get(window).get(window.bucketStart(System.currentTimeMillis()));
+    }
+
+    private void replaceWith(DamageRollup other) {
+        players.clear();
+        players.putAll(other.players);
+        playerBoard.clear();
+        other.players.forEach((playerUUID, totals) -> playerBoard.update(playerUUID, totals.damage));
+        bossTypes.clear();
+        bossTypes.putAll(other.bossTypes);
+        bossKills.clear();
+        bossKills.putAll(other.bossKills);
+        allTime.copyFrom(other.allTime);
+        for (Window window : buckets.keySet()) {
+            buckets.get(window).clear();
+            buckets.get(window).putAll(other.buckets.get(window));
+        }
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 玩家累计
+     */
+    private static final class PlayerTotals {
+        double damage;
+        int fights;
+        int topFinishes;
+    }
+
+    /**
+     * 一组战斗的汇总 (时间桶、Boss类型或全时段)
+     */
+    private static final class Bucket {
+        int fights;
+        double damage;
+        final Map<String, Integer> killsByType = new HashMap<>();
+
+        /** 桶内玩家伤害 (只有时间桶需要，全时段排行由排行榜维护) */
+        final Map<UUID, Double> playerDamage = new HashMap<>();
+        final boolean trackPlayers;
+
+        Bucket(boolean trackPlayers) {
+            this.trackPlayers = trackPlayers;
+        }
+
+        void add(String bossType, double totalDamage, Map<UUID, Double> damages) {
+            fights++;
+            damage += totalDamage;
+            killsByType.merge(bossType, 1, Integer::sum);
+            if (trackPlayers) {
+                damages.forEach((playerUUID, amount) -> playerDamage.merge(playerUUID, amount, Double::sum));
+            }
+        }
+
+        double averageDamage() {
+            return fights > 0 ? damage / fights : 0.0;
+        }
+
+        void copyFrom(Bucket other) {
+            fights = other.fights;
+            damage = other.damage;
+            killsByType.clear();
+            killsByType.putAll(other.killsByType);
+        }
+    }
+}
@@ -1,4 +1,6 @@
 package com.xiancore.systems.boss.damage;
+
+import com.xiancore.boss.system.damage.DamageRecord;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -1,13 +1,20 @@
 package com.xiancore.systems.boss.damage;
 
+import com.xiancore.boss.system.damage.DamageRecord;
 import com.xiancore.systems.boss.damage.persistence.DamageDatabase;
+import com.xiancore.systems.boss.damage.persistence.DamageHistoryWriter;
 import com.xiancore.systems.boss.damage.persistence.InMemoryDamageDatabase;
+import com.xiancore.systems.boss.damage.replay.DamageEventLog;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -20,44 +27,48 @@ import java.util.stream.Collectors;
  * - 提供伤害查询接口
  * - 支持数据持久化
  * - 支持历史统计分析
+ * <p>
+ * 实现 Boss 系统模块的 {@link com.xiancore.boss.system.damage.DamageStatisticsManager} 接口，
+ * 与模块共用同一个 {@link DamageRecord} 实现，模块侧组件可直接使用本管理器
  *
  * @author XianCore Team
  * @version 1.0.0
  * @since 2025-11-13
  */
 @Getter
-public class DamageStatisticsManager {
+public class DamageStatisticsManager implements com.xiancore.boss.system.damage.DamageStatisticsManager {
 
     // ==================== 核心数据结构 ====================
-    /** Boss伤害记录 (Boss UUID -> 伤害记录) */
-    private final Map<UUID, DamageRecord> damageRecords = new ConcurrentHashMap<>();
+    /** 进行中的战斗 (Boss UUID -> 该Boss独占的记录、排行和统计缓存) */
+    private final Map<UUID, BossDamageState> fights = new ConcurrentHashMap<>();
 
-    /** 伤害排行缓存 (Boss UUID -> 排行列表) */
-    private final Map<UUID, DamageRanking> damageRankings = new ConcurrentHashMap<>();
+    /** 最近结束的战斗 (固定容量，最旧的先淘汰；完整历史由数据库保存) */
+    @Getter(AccessLevel.NONE)
+    private final Deque<DamageHistory> recentHistory = new ArrayDeque<>();
 
-    /** 历史数据列表 */
-    private final List<DamageHistory> damageHistory = Collections.synchronizedList(new ArrayList<>());
-
-    // ==================== 性能优化 - 查询缓存 ====================
-    /** 排行查询缓存 (Boss UUID -> 缓存条目) */
-    private final Map<UUID, RankingCacheEntry> rankingCache = new ConcurrentHashMap<>();
-
-    /** 统计信息缓存 (Boss UUID -> 统计缓存) */
-    private final Map<UUID, StatisticsCacheEntry> statisticsCache = new ConcurrentHashMap<>();
-
-    /** 缓存过期时间 (毫秒) */
-    private volatile long cacheExpireTime = 1000; // 默认1秒
+    /** 历史伤害汇总 (战斗结束时增量更新) */
+    private final DamageRollup rollup = new DamageRollup();
 
     // ==================== 性能优化 - 批处理队列 ====================
-    /** 异步伤害记录队列 (用于批处理) */
-    private final Queue<DamageEntry> damageQueue = new ConcurrentLinkedQueue<>();
+    /** 伤害事件环形缓冲区 (战斗监听器写入，每 tick 批量消费) */
+    private final DamageEventRing damageQueue;
+
+    /** 单次批处理最多消费的事件数 */
+    private volatile int batchProcessThreshold = 4096;
 
-    /** 批处理大小阈值 */
-    private volatile int batchProcessThreshold = 50;
+    /** 已批量应用的事件数 */
+    private final LongAdder processedDamageEvents = new LongAdder();
 
     /** 是否启用批处理 */
     private volatile boolean batchProcessingEnabled = true;
 
+    /** 批处理tick序号 (每次 {@link #processBatchQueue()} 加一，用于回放日志) */
+    private final AtomicLong batchTick = new AtomicLong();
+
+    // ==================== 伤害回放日志 ====================
+    /** 回放日志 (为null时不记录) */
+    private volatile DamageEventLog eventLog;
+
     // ==================== 配置和状态 ====================
     /** 是否已初始化 */
     private volatile boolean initialized = false;
@@ -72,6 +83,9 @@ public class DamageStatisticsManager {
     /** 是否启用数据持久化 */
     private volatile boolean persistenceEnabled = false;
 
+    /** 战斗历史后台写入器 */
+    private volatile DamageHistoryWriter historyWriter;
+
     // ==================== 构造函数 ====================
 
     /**
@@ -79,6 +93,7 @@ public class DamageStatisticsManager {
      */
     public DamageStatisticsManager() {
         this.config = new DamageConfig();
+        this.damageQueue = new DamageEventRing(config.getQueueCapacity());
     }
 
     // ==================== 初始化和关闭 ====================
@@ -106,10 +121,14 @@ public class DamageStatisticsManager {
             return;
         }
 
-        // 保存所有数据
-        damageRecords.forEach((bossUUID, record) -> {
-            // 这里可以添加数据持久化逻辑
-        });
+        // 应用尚未消费的命中
+        drainDamageQueue();
+
+        // 排空历史写入队列并关闭数据库
+        if (persistenceEnabled) {
+            disablePersistence();
+        }
+        disableReplayLog();
 
         initialized = false;
     }
@@ -118,6 +137,7 @@ public class DamageStatisticsManager {
 
     /**
      * 记录玩家对Boss的伤害
+     * 启用批处理时只写入环形缓冲区，由 {@link #processBatchQueue()} 在下一 tick 统一应用
      *
      * @param bossUUID Boss UUID
      * @param playerUUID 玩家UUID
@@ -129,14 +149,29 @@ public class DamageStatisticsManager {
             return;
         }
 
-        // 获取或创建伤害记录
-        DamageRecord record = damageRecords.computeIfAbsent(bossUUID, k -> new DamageRecord(bossUUID));
+        if (batchProcessingEnabled) {
+            damageQueue.offer(bossUUID, playerUUID, damage, timestamp);
+            return;
+        }
 
-        // 记录伤害
-        record.recordDamage(playerUUID, damage);
+        // 获取或创建战斗状态 (以首次命中时间作为战斗开始时间)，记录伤害并增量更新排行
+        fightFor(bossUUID, timestamp).recordHit(playerUUID, damage, timestamp);
+        DamageEventLog log = eventLog;
+        if (log != null) {
+            log.append(bossUUID, playerUUID, damage, batchTick.get(), timestamp);
+        }
+    }
 
-        // 更新排行
-        updateDamageRanking(bossUUID, record);
+    /**
+     * 记录玩家对Boss的伤害 (使用当前时间)
+     *
+     * @param bossUUID Boss UUID
+     * @param playerUUID 玩家UUID
+     * @param damage 伤害值
+     */
+    @Override
+    public void recordDamage(UUID bossUUID, UUID playerUUID, double damage) {
+        recordDamage(bossUUID, playerUUID, damage, System.currentTimeMillis());
     }
 
     /**
@@ -161,13 +196,15 @@ public class DamageStatisticsManager {
             return;
         }
 
-        DamageRecord record = damageRecords.computeIfAbsent(bossUUID, k -> new DamageRecord(bossUUID));
+        fightFor(bossUUID, damages.get(0).timestamp).recordHits(damages);
 
-        for (DamageEntry entry : damages) {
-            record.recordDamage(entry.playerUUID, entry.damage);
+        DamageEventLog log = eventLog;
+        if (log != null) {
+            long tick = batchTick.get();
+            for (DamageEntry entry : damages) {
+                log.append(bossUUID, entry.playerUUID, entry.damage, tick, entry.timestamp);
+            }
         }
-
-        updateDamageRanking(bossUUID, record);
     }
 
     // ==================== 伤害查询方法 ====================
@@ -179,7 +216,28 @@ public class DamageStatisticsManager {
      * @return 伤害记录，如果不存在则返回null
      */
     public DamageRecord getDamageRecord(UUID bossUUID) {
-        return damageRecords.get(bossUUID);
+        BossDamageState fight = fights.get(bossUUID);
+        return fight != null ? fight.getRecord() : null;
+    }
+
+    /**
+     * 获取Boss的伤害排行对象
+     *
+     * @param bossUUID Boss UUID
+     * @return 排行，如果不存在则返回null
+     */
+    public DamageRanking getRanking(UUID bossUUID) {
+        BossDamageState fight = fights.get(bossUUID);
+        return fight != null ? fight.getRanking() : null;
+    }
+
+    /**
+     * 获取进行中的战斗数
+     *
+     * @return 战斗数
+     */
+    public int getActiveFightCount() {
+        return fights.size();
     }
 
     /**
@@ -190,16 +248,12 @@ public class DamageStatisticsManager {
      * @return 排行榜 (玩家UUID列表，从高到低)
      */
     public List<UUID> getDamageRanking(UUID bossUUID, int limit) {
-        DamageRecord record = damageRecords.get(bossUUID);
-        if (record == null) {
+        DamageRanking ranking = getRanking(bossUUID);
+        if (ranking == null) {
             return new ArrayList<>();
         }
 
-        return record.getPlayerDamageMap().entrySet().stream()
-            .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+        return ranking.getTopPlayers(limit);
     }
 
     /**
@@ -210,15 +264,54 @@ public class DamageStatisticsManager {
      * @return 排行列表 (包含玩家UUID和伤害值)
      */
     public List<Map.Entry<UUID, Double>> getDamageRankingDetailed(UUID bossUUID, int limit) {
-        DamageRecord record = damageRecords.get(bossUUID);
-        if (record == null) {
+        BossDamageState fight = fights.get(bossUUID);
+        if (fight == null) {
             return new ArrayList<>();
         }
 
-        return record.getPlayerDamageMap().entrySet().stream()
-            .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return new ArrayList<>(fight.getTopDetailed(limit));
+    }
+
+    /**
+     * 获取Boss的伤害排行榜 (键值形式，供 Boss 系统模块使用)
+     * 每项包含 rank、playerUUID、damage 和 percentage
+     *
+     * @param bossUUID Boss UUID
+     * @param limit 数量
+     * @return 排行列表 (从高到低)
+     */
+    @Override
+    public List<Map<String, Object>> getDamageRankings(UUID bossUUID, int limit) {
+        BossDamageState fight = fights.get(bossUUID);
+        if (fight == null) {
+            return new ArrayList<>();
+        }
+
+        List<Map.Entry<UUID, Double>> top = fight.getTopDetailed(limit);
+        double total = fight.getRecord().getTotalDamage();
+        List<Map<String, Object>> result = new ArrayList<>(top.size());
+        int rank = 1;
+        for (Map.Entry<UUID, Double> entry : top) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", rank++);
+            row.put("playerUUID", entry.getKey());
+            row.put("damage", entry.getValue());
+            row.put("percentage", total > 0 ? entry.getValue() / total : 0.0);
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * 获取Boss所有参与者的伤害
+     *
+     * @param bossUUID Boss UUID
+     * @return 玩家UUID -> 伤害值 (不可变快照)
+     */
+    @Override
+    public Map<UUID, Double> getAllDamageStatistics(UUID bossUUID) {
+        DamageRecord record = getDamageRecord(bossUUID);
+        return record != null ? record.getPlayerDamageMap() : Collections.emptyMap();
     }
 
     /**
@@ -228,8 +321,9 @@ public class DamageStatisticsManager {
      * @param playerUUID 玩家UUID
      * @return 伤害值
      */
+    @Override
     public double getPlayerDamage(UUID bossUUID, UUID playerUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null) {
             return 0.0;
         }
@@ -245,7 +339,7 @@ public class DamageStatisticsManager {
      * @return 伤害百分比 (0.0-1.0)
      */
     public double getPlayerDamagePercentage(UUID bossUUID, UUID playerUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null || record.getTotalDamage() <= 0) {
             return 0.0;
         }
@@ -260,8 +354,9 @@ public class DamageStatisticsManager {
      * @param bossUUID Boss UUID
      * @return 总伤害值
      */
+    @Override
     public double getTotalDamage(UUID bossUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null) {
             return 0.0;
         }
@@ -276,7 +371,7 @@ public class DamageStatisticsManager {
      * @return 伤害统计信息
      */
     public DamageStatistics getStatistics(UUID bossUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null) {
             return new DamageStatistics();
         }
@@ -284,7 +379,7 @@ public class DamageStatisticsManager {
         DamageStatistics stats = new DamageStatistics();
         stats.setTotalDamage(record.getTotalDamage());
         stats.setTotalDamageCount(record.getTotalDamageCount());
-        stats.setTotalPlayers(record.getPlayerDamageMap().size());
+        stats.setTotalPlayers(record.getParticipantCount());
         stats.setAverageDamage(record.getTotalDamage() / record.getTotalDamageCount());
 
         return stats;
@@ -298,15 +393,12 @@ public class DamageStatisticsManager {
      * @return 排名位置 (从1开始)，如果不在排行则返回-1
      */
     public int getPlayerRank(UUID bossUUID, UUID playerUUID) {
-        List<UUID> ranking = getDamageRanking(bossUUID, Integer.MAX_VALUE);
-
-        for (int i = 0; i < ranking.size(); i++) {
-            if (ranking.get(i).equals(playerUUID)) {
-                return i + 1;
-            }
+        DamageRanking ranking = getRanking(bossUUID);
+        if (ranking == null) {
+            return -1;
         }
 
-        return -1;
+        return ranking.getPlayerRank(playerUUID);
     }
 
     /**
@@ -316,12 +408,12 @@ public class DamageStatisticsManager {
      * @return 玩家UUID列表
      */
     public Set<UUID> getParticipants(UUID bossUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null) {
             return new HashSet<>();
         }
 
-        return new HashSet<>(record.getPlayerDamageMap().keySet());
+        return new HashSet<>(record.getParticipants());
     }
 
     /**
@@ -331,12 +423,12 @@ public class DamageStatisticsManager {
      * @return 参与人数
      */
     public int getParticipantCount(UUID bossUUID) {
-        DamageRecord record = damageRecords.get(bossUUID);
+        DamageRecord record = getDamageRecord(bossUUID);
         if (record == null) {
             return 0;
         }
 
-        return record.getPlayerDamageMap().size();
+        return record.getParticipantCount();
     }
 
     // ==================== 历史和存档方法 ====================
@@ -347,38 +439,159 @@ public class DamageStatisticsManager {
      * @param bossUUID Boss UUID
      */
     public void finalizeBossDamage(UUID bossUUID) {
-        DamageRecord record = damageRecords.remove(bossUUID);
-        if (record == null) {
-            return;
+        finalizeBossDamage(bossUUID, "Unknown", 1);
+    }
+
+    /**
+     * 完成Boss的伤害记录 (转换为历史)
+     *
+     * @param bossUUID Boss UUID
+     * @param bossType Boss类型
+     * @param bossTier Boss等级
+     */
+    public void finalizeBossDamage(UUID bossUUID, String bossType, int bossTier) {
+        finalizeBossDamage(bossUUID, bossType, bossTier, System.currentTimeMillis());
+    }
+
+    /**
+     * 完成Boss的伤害记录 (转换为历史)
+     *
+     * @param bossUUID Boss UUID
+     * @param bossType Boss类型
+     * @param bossTier Boss等级
+     * @param endTime 战斗结束时间 (回放时使用日志中的时间)
+     * @return 生成的历史记录，没有伤害记录时返回null
+     */
+    public DamageHistory finalizeBossDamage(UUID bossUUID, String bossType, int bossTier, long endTime) {
+        // 先应用队列中尚未消费的命中，避免最后几击丢失
+        drainDamageQueue();
+
+        BossDamageState fight = fights.remove(bossUUID);
+        if (fight == null) {
+            return null;
         }
+        DamageRecord record = fight.getRecord();
 
-        // TODO: 修复 DamageHistory 与新 DamageRecord 的兼容性
-        // DamageHistory history = new DamageHistory(record);
-        // damageHistory.add(history);
+        DamageEventLog log = eventLog;
+        if (log != null) {
+            log.finish(bossUUID, bossType, bossTier, endTime);
+        }
+
+        if (bossType != null) {
+            record.setBossType(bossType);
+        }
+        record.setBossTier(bossTier);
+        DamageHistory history = new DamageHistory(record, endTime);
+        archive(history);
+        return history;
+    }
+
+    /**
+     * 归档外部构建的伤害记录 (以当前时间作为结束时间)
+     *
+     * @param damageRecord 伤害记录
+     * @return 是否成功归档
+     */
+    @Override
+    public boolean saveDamageRecord(DamageRecord damageRecord) {
+        if (damageRecord == null || damageRecord.getParticipantCount() == 0) {
+            return false;
+        }
 
-        // 保存到数据库
-        // if (persistenceEnabled && database != null && database.isConnected()) {
-        //     database.saveHistoryAsync(history);
-        // }
+        archive(new DamageHistory(damageRecord));
+        return true;
     }
 
     /**
-     * 获取所有历史记录
+     * 获取最近的历史记录 (最多 {@link DamageConfig#getRecentHistorySize()} 场)
+     * 启用持久化时读取数据库最后一页并合并尚未写入的战斗，否则只有内存中最近的战斗；
+     * 更早的历史请使用 {@link #getHistoryRecords(int, int)} 分页查询
      *
-     * @return 历史记录列表
+     * @return 历史记录列表 (按结束顺序)
      */
     public List<DamageHistory> getHistory() {
-        return new ArrayList<>(damageHistory);
+        DamageDatabase db = historyDatabase();
+        if (db == null) {
+            return getRecentHistory();
+        }
+
+        // 先取待写入快照再查库，正在写入的记录不会两边都漏掉
+        List<DamageHistory> pending = pendingHistories();
+        int limit = config.getRecentHistorySize();
+        long offset = Math.max(0, db.getTotalCount() - limit);
+        List<DamageHistory> merged = merge(db.queryAll((int) Math.min(offset, Integer.MAX_VALUE), limit), pending);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(merged.size() - limit, merged.size())) : merged;
+    }
+
+    /**
+     * 获取最近结束的战斗 (内存中，最多 {@link DamageConfig#getRecentHistorySize()} 场)
+     *
+     * @return 历史记录列表 (按结束顺序)
+     */
+    public List<DamageHistory> getRecentHistory() {
+        synchronized (recentHistory) {
+            return new ArrayList<>(recentHistory);
+        }
+    }
+
+    /**
+     * 获取最近历史战斗的伤害记录 (见 {@link #getHistory()})
+     *
+     * @return 伤害记录列表
+     */
+    @Override
+    public List<DamageRecord> getHistoryRecords() {
+        return toRecords(getHistory());
+    }
+
+    /**
+     * 分页获取历史战斗的伤害记录
+     * 启用持久化时由数据库分页，尚未写入的战斗排在数据库记录之后；否则在最近的战斗中分页
+     *
+     * @param page 页码 (从1开始)
+     * @param pageSize 每页数量
+     * @return 伤害记录列表
+     */
+    @Override
+    public List<DamageRecord> getHistoryRecords(int page, int pageSize) {
+        if (page < 1 || pageSize <= 0) {
+            return new ArrayList<>();
+        }
+
+        long offset = (long) (page - 1) * pageSize;
+        DamageDatabase db = historyDatabase();
+        if (db != null) {
+            List<DamageHistory> pending = pendingHistories();
+            long total = db.getTotalCount();
+            List<DamageHistory> stored = offset < total && offset <= Integer.MAX_VALUE
+                ? db.queryAll((int) offset, pageSize) : new ArrayList<>();
+            int from = (int) Math.min(Math.max(0, offset - total), pending.size());
+            List<DamageHistory> merged = merge(stored, pending.subList(from, pending.size()));
+            return toRecords(merged.size() > pageSize ? merged.subList(0, pageSize) : merged);
+        }
+
+        List<DamageHistory> recent = getRecentHistory();
+        int from = (int) Math.min(offset, recent.size());
+        int to = Math.min(from + pageSize, recent.size());
+        return toRecords(recent.subList(from, to));
     }
 
     /**
      * 获取指定Boss的历史记录
+     * 启用持久化时按Boss索引查询数据库并合并尚未写入的战斗，否则只在最近的战斗中查找
      *
      * @param bossUUID Boss UUID
      * @return 该Boss的历史记录列表
      */
     public List<DamageHistory> getHistory(UUID bossUUID) {
-        return damageHistory.stream()
+        DamageDatabase db = historyDatabase();
+        if (db != null) {
+            List<DamageHistory> pending = pendingHistories().stream()
+                .filter(h -> h.getBossUUID().equals(bossUUID))
+                .collect(Collectors.toList());
+            return merge(db.queryByBossUUID(bossUUID), pending);
+        }
+        return getRecentHistory().stream()
             .filter(h -> h.getBossUUID().equals(bossUUID))
             .collect(Collectors.toList());
     }
@@ -389,142 +602,253 @@ public class DamageStatisticsManager {
      * @param bossUUID Boss UUID
      */
     public void clearDamageData(UUID bossUUID) {
-        damageRecords.remove(bossUUID);
-        damageRankings.remove(bossUUID);
-        // 清除相关缓存
-        rankingCache.remove(bossUUID);
-        statisticsCache.remove(bossUUID);
+        // 排空队列，避免残留命中重新创建记录
+        drainDamageQueue();
+
+        fights.remove(bossUUID);
+        DamageEventLog log = eventLog;
+        if (log != null) {
+            log.discard(bossUUID);
+        }
+    }
+
+    /**
+     * 清除Boss的伤害数据
+     *
+     * @param bossUUID Boss UUID
+     */
+    @Override
+    public void clearDamageStatistics(UUID bossUUID) {
+        clearDamageData(bossUUID);
     }
 
     /**
      * 清除所有数据
      */
     public void clearAllData() {
-        damageRecords.clear();
-        damageRankings.clear();
-        damageHistory.clear();
-        // 清除所有缓存
-        rankingCache.clear();
-        statisticsCache.clear();
+        fights.clear();
+        synchronized (recentHistory) {
+            recentHistory.clear();
+        }
+        rollup.clear();
         damageQueue.clear();
     }
 
     // ==================== 内部方法 ====================
 
     /**
-     * 更新伤害排行
+     * 把一场结束的战斗加入历史和汇总，并交给后台写入器
      *
-     * @param bossUUID Boss UUID
-     * @param record 伤害记录
+     * @param history 历史记录
      */
-    private void updateDamageRanking(UUID bossUUID, DamageRecord record) {
-        DamageRanking ranking = damageRankings.computeIfAbsent(bossUUID, k -> new DamageRanking(bossUUID));
-        ranking.updateRanking(record);
+    private void archive(DamageHistory history) {
+        synchronized (recentHistory) {
+            recentHistory.addLast(history);
+            while (recentHistory.size() > config.getRecentHistorySize()) {
+                recentHistory.removeFirst();
+            }
+        }
+        rollup.record(history);
 
-        // 清除缓存以确保下次查询获取最新数据
-        invalidateCaches(bossUUID);
+        // 交给后台写入器，主线程不做磁盘IO
+        DamageHistoryWriter writer = historyWriter;
+        if (persistenceEnabled && writer != null) {
+            writer.enqueue(history);
+        }
     }
 
     /**
-     * 无效化特定Boss的缓存
+     * 获取用于查询历史的数据库
+     * 查询不会强制写入后台队列，尚未写入的战斗由 {@link #pendingHistories()} 合并到结果中
      *
-     * @param bossUUID Boss UUID
+     * @return 已连接的数据库，未启用持久化时返回null
      */
-    private void invalidateCaches(UUID bossUUID) {
-        rankingCache.remove(bossUUID);
-        statisticsCache.remove(bossUUID);
+    private DamageDatabase historyDatabase() {
+        DamageDatabase db = database;
+        if (!persistenceEnabled || db == null || !db.isConnected()) {
+            return null;
+        }
+        return db;
     }
 
     /**
-     * 清除所有过期缓存
+     * 获取后台写入器中尚未写入数据库的战斗 (按提交顺序)
+     *
+     * @return 待写入的历史记录
      */
-    private void cleanExpiredCaches() {
-        rankingCache.entrySet().removeIf(entry ->
-            entry.getValue().isExpired(cacheExpireTime)
-        );
-        statisticsCache.entrySet().removeIf(entry ->
-            entry.getValue().isExpired(cacheExpireTime)
-        );
+    private List<DamageHistory> pendingHistories() {
+        DamageHistoryWriter writer = historyWriter;
+        return writer != null ? writer.getPendingSnapshot() : Collections.emptyList();
     }
 
     /**
-     * 获取或计算统计信息 (带缓存)
+     * 把尚未写入的战斗追加到数据库查询结果之后，跳过查询期间刚好已写入的记录
      *
-     * @param bossUUID Boss UUID
-     * @return 统计信息
+     * @param stored 数据库查询结果
+     * @param pending 待写入的历史记录
+     * @return 合并后的列表
      */
-    public DamageStatistics getStatisticsWithCache(UUID bossUUID) {
-        // 检查缓存
-        StatisticsCacheEntry cacheEntry = statisticsCache.get(bossUUID);
-        if (cacheEntry != null && !cacheEntry.isExpired(cacheExpireTime)) {
-            return cacheEntry.statistics;
+    private static List<DamageHistory> merge(List<DamageHistory> stored, List<DamageHistory> pending) {
+        if (pending.isEmpty()) {
+            return stored;
         }
 
-        // 计算新的统计信息
-        DamageRecord record = damageRecords.get(bossUUID);
-        if (record == null) {
-            return null;
+        Set<String> keys = new HashSet<>(stored.size() * 2);
+        for (DamageHistory history : stored) {
+            keys.add(historyKey(history));
         }
+        List<DamageHistory> merged = new ArrayList<>(stored.size() + pending.size());
+        merged.addAll(stored);
+        for (DamageHistory history : pending) {
+            if (!keys.contains(historyKey(history))) {
+                merged.add(history);
+            }
+        }
+        return merged;
+    }
 
-        // TODO: 修复 DamageStatistics 与新 DamageRecord 的兼容性
-        DamageStatistics stats = new DamageStatistics();
-        // stats.calculate(record); // 需要修复 calculate 方法
-        statisticsCache.put(bossUUID, new StatisticsCacheEntry(stats));
-        return stats;
+    /**
+     * 同一场战斗的内存对象和数据库读回的对象键相同
+     */
+    private static String historyKey(DamageHistory history) {
+        return history.getBossUUID() + ":" + history.getStartTime() + ":" + history.getEndTime();
+    }
+
+    private static List<DamageRecord> toRecords(List<DamageHistory> histories) {
+        List<DamageRecord> records = new ArrayList<>(histories.size());
+        for (DamageHistory history : histories) {
+            records.add(history.getDamageRecord());
+        }
+        return records;
     }
 
     /**
-     * 设置缓存过期时间
+     * 获取或创建Boss的战斗状态
+     * 只有战斗的第一次命中会走 computeIfAbsent，之后都是无锁读取
      *
-     * @param milliseconds 毫秒
+     * @param bossUUID Boss UUID
+     * @param startTime 首次命中时间
+     * @return 战斗状态
      */
-    public void setCacheExpireTime(long milliseconds) {
-        this.cacheExpireTime = milliseconds;
+    private BossDamageState fightFor(UUID bossUUID, long startTime) {
+        BossDamageState fight = fights.get(bossUUID);
+        if (fight == null) {
+            fight = fights.computeIfAbsent(bossUUID, k -> new BossDamageState(bossUUID, startTime));
+        }
+        return fight;
+    }
+
+    /**
+     * 获取或计算统计信息 (带缓存)
+     *
+     * @param bossUUID Boss UUID
+     * @return 统计信息
+     */
+    public DamageStatistics getStatisticsWithCache(UUID bossUUID) {
+        // 战斗状态自带按版本号失效的统计缓存
+        BossDamageState fight = fights.get(bossUUID);
+        return fight != null ? fight.getStatistics() : null;
     }
 
     /**
      * 启用或禁用批处理
+     * 禁用时会先应用队列中已有的命中
      *
      * @param enabled 是否启用
      */
     public void setBatchProcessingEnabled(boolean enabled) {
         this.batchProcessingEnabled = enabled;
+        if (!enabled) {
+            drainDamageQueue();
+        }
     }
 
     /**
      * 设置批处理阈值
      *
-     * @param threshold 阈值 (达到此数量时触发批处理)
+     * @param threshold 阈值 (单次批处理最多消费的事件数)
      */
     public void setBatchProcessThreshold(int threshold) {
         this.batchProcessThreshold = threshold;
     }
 
     /**
-     * 处理批处理队列中的所有记录
+     * 处理批处理队列 (每 tick 由主线程调用)
+     * 按 Boss 聚合本次取出的命中，再通过 {@link #recordBulkDamage(UUID, List)} 一次性更新记录和排行
+     *
+     * @return 本次应用的事件数
      */
-    public void processBatchQueue() {
-        if (!batchProcessingEnabled || damageQueue.isEmpty()) {
-            return;
+    public int processBatchQueue() {
+        batchTick.incrementAndGet();
+        return applyQueuedEvents();
+    }
+
+    /**
+     * 应用环形缓冲区中的一批事件 (不推进tick)
+     *
+     * @return 本次应用的事件数
+     */
+    private int applyQueuedEvents() {
+        if (damageQueue.isEmpty()) {
+            return 0;
         }
 
-        List<DamageEntry> batch = new ArrayList<>();
-        DamageEntry entry;
+        Map<UUID, List<DamageEntry>> grouped = new HashMap<>();
+        int drained = damageQueue.drain((bossUUID, playerUUID, damage, timestamp) ->
+            grouped.computeIfAbsent(bossUUID, k -> new ArrayList<>())
+                .add(new DamageEntry(playerUUID, damage, timestamp)),
+            batchProcessThreshold);
 
-        while ((entry = damageQueue.poll()) != null && batch.size() < batchProcessThreshold) {
-            batch.add(entry);
-        }
+        grouped.forEach(this::recordBulkDamage);
+        processedDamageEvents.add(drained);
+        return drained;
+    }
 
-        if (!batch.isEmpty()) {
-            // 按Boss分组处理
-            Map<UUID, List<DamageEntry>> grouped = new HashMap<>();
-            for (DamageEntry dmg : batch) {
-                // 由于DamageEntry中没有bossUUID，这里需要调整
-                // 现在仅处理单个Boss的批处理
-            }
+    /**
+     * 应用队列中的全部命中
+     */
+    private void drainDamageQueue() {
+        while (applyQueuedEvents() > 0) {
+            // 继续消费直到队列为空
         }
     }
 
+    /**
+     * 获取队列深度
+     *
+     * @return 等待处理的事件数
+     */
+    public int getQueueDepth() {
+        return damageQueue.size();
+    }
+
+    /**
+     * 获取因队列已满而丢弃的事件数
+     *
+     * @return 丢弃数
+     */
+    public long getDroppedDamageEvents() {
+        return damageQueue.getDroppedCount();
+    }
+
+    /**
+     * 获取已入队的事件总数
+     *
+     * @return 入队数
+     */
+    public long getEnqueuedDamageEvents() {
+        return damageQueue.getOfferedCount();
+    }
+
+    /**
+     * 获取已批量应用的事件总数
+     *
+     * @return 应用数
+     */
+    public long getProcessedDamageEvents() {
+        return processedDamageEvents.sum();
+    }
+
     /**
      * 获取当前缓存大小信息
      *
@@ -532,13 +856,47 @@ public class DamageStatisticsManager {
      */
     public String getCacheInfo() {
         return String.format(
-            "RankingCache: %d, StatisticsCache: %d, QueueSize: %d",
-            rankingCache.size(),
-            statisticsCache.size(),
-            damageQueue.size()
+            "ActiveFights: %d, QueueSize: %d/%d, Dropped: %d",
+            fights.size(),
+            damageQueue.size(),
+            damageQueue.capacity(),
+            damageQueue.getDroppedCount()
         );
     }
 
+    // ==================== 伤害回放日志 ====================
+
+    /**
+     * 启用伤害回放日志
+     * 之后开始的战斗会把每次命中写入 {@code directory} 下的回放文件
+     *
+     * @param directory 日志目录
+     */
+    public void enableReplayLog(File directory) {
+        disableReplayLog();
+        eventLog = new DamageEventLog(directory, Logger.getLogger(DamageStatisticsManager.class.getName()));
+    }
+
+    /**
+     * 停用伤害回放日志，等待已结束战斗的日志写完
+     */
+    public void disableReplayLog() {
+        DamageEventLog log = eventLog;
+        eventLog = null;
+        if (log != null) {
+            log.shutdown();
+        }
+    }
+
+    /**
+     * 是否启用了伤害回放日志
+     *
+     * @return 是否启用
+     */
+    public boolean isReplayLogEnabled() {
+        return eventLog != null;
+    }
+
     // ==================== 数据持久化方法 ====================
 
     /**
@@ -563,6 +921,9 @@ public class DamageStatisticsManager {
 
         try {
             database.initialize();
+            historyWriter = new DamageHistoryWriter(database,
+                Logger.getLogger(DamageStatisticsManager.class.getName()), config.getBatchSize());
+            historyWriter.start(config.getHistoryFlushInterval());
             persistenceEnabled = true;
             return true;
         } catch (Exception e) {
@@ -576,6 +937,10 @@ public class DamageStatisticsManager {
      */
     public void disablePersistence() {
         persistenceEnabled = false;
+        if (historyWriter != null) {
+            historyWriter.shutdown();
+            historyWriter = null;
+        }
         if (database != null) {
             try {
                 database.shutdown();
@@ -604,20 +969,21 @@ public class DamageStatisticsManager {
     }
 
     /**
-     * 手动保存所有当前的伤害历史到数据库
+     * 立即写入后台队列中尚未写入的伤害历史
      *
-     * @return 保存的记录数
+     * @return 写入的记录数
      */
     public int saveAllHistories() {
-        if (!persistenceEnabled || database == null || !database.isConnected()) {
+        DamageHistoryWriter writer = historyWriter;
+        if (!persistenceEnabled || writer == null || database == null || !database.isConnected()) {
             return 0;
         }
 
-        return database.saveHistories(damageHistory);
+        return writer.flush();
     }
 
     /**
-     * 从数据库加载历史记录
+     * 从数据库加载最近的战斗到内存 (最多 {@link DamageConfig#getRecentHistorySize()} 场)
      *
      * @return 加载的记录数
      */
@@ -626,11 +992,30 @@ public class DamageStatisticsManager {
             return 0;
         }
 
-        List<DamageHistory> loaded = database.queryAll();
-        damageHistory.addAll(loaded);
+        int limit = config.getRecentHistorySize();
+        long offset = Math.max(0, database.getTotalCount() - limit);
+        List<DamageHistory> loaded = database.queryAll((int) Math.min(offset, Integer.MAX_VALUE), limit);
+        synchronized (recentHistory) {
+            recentHistory.clear();
+            recentHistory.addAll(loaded);
+        }
         return loaded.size();
     }
 
+    /**
+     * 从历史记录重建伤害汇总
+     * 启用持久化时读取数据库中的全部历史，否则只能使用内存中最近的战斗；耗时较长，应在异步线程调用
+     *
+     * @return 重建使用的历史记录数
+     */
+    public int rebuildRollup() {
+        DamageDatabase db = database;
+        if (persistenceEnabled && db != null && db.isConnected()) {
+            return rollup.rebuild(db::queryAll);
+        }
+        return rollup.rebuild(this::getHistory);
+    }
+
     /**
      * 清理数据库中的过期数据
      *
@@ -687,46 +1072,6 @@ public class DamageStatisticsManager {
 
     // ==================== 内部类 ====================
 
-    /**
-     * 排行缓存条目
-     * 用于缓存排行查询结果以提高性能
-     */
-    private static class RankingCacheEntry {
-        List<UUID> rankingList;
-        List<Map.Entry<UUID, Double>> detailedRanking;
-        long createTime;
-        int limit;
-
-        RankingCacheEntry(List<UUID> rankingList, List<Map.Entry<UUID, Double>> detailedRanking, int limit) {
-            this.rankingList = rankingList;
-            this.detailedRanking = detailedRanking;
-            this.createTime = System.currentTimeMillis();
-            this.limit = limit;
-        }
-
-        boolean isExpired(long expireTime) {
-            return System.currentTimeMillis() - createTime > expireTime;
-        }
-    }
-
-    /**
-     * 统计信息缓存条目
-     * 用于缓存统计计算结果
-     */
-    private static class StatisticsCacheEntry {
-        DamageStatistics statistics;
-        long createTime;
-
-        StatisticsCacheEntry(DamageStatistics statistics) {
-            this.statistics = statistics;
-            this.createTime = System.currentTimeMillis();
-        }
-
-        boolean isExpired(long expireTime) {
-            return System.currentTimeMillis() - createTime > expireTime;
-        }
-    }
-
     /**
      * 伤害条目 (用于批量记录)
      */
@@ -757,6 +1102,9 @@ public class DamageStatisticsManager {
         private boolean autoArchive = true;
         private int batchSize = 100;
         private int syncInterval = 300;
+        private int queueCapacity = 8192;
+        private long historyFlushInterval = 5000;
+        private int recentHistorySize = 64;
 
         public DamageConfig() {
         }
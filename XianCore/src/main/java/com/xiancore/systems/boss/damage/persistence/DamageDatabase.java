@@ -13,9 +13,9 @@ import java.util.concurrent.CompletableFuture;
  * 定义伤害数据的持久化操作
  *
  * 支持多种实现:
- * - 内存存储 (速度快, 重启丢失)
- * - 文件存储 (YAML/JSON, 便于编辑)
- * - SQL数据库 (大规模数据)
+ * - 内存存储 (速度快, 重启丢失) - {@link InMemoryDamageDatabase}
+ * - 文件存储 (追加写入的段文件) - {@link FileBasedDamageDatabase}
+ * - SQL数据库 (大规模数据, MySQL/SQLite) - {@link JdbcDamageDatabase}
  *
  * @author XianCore Team
  * @version 1.0.0
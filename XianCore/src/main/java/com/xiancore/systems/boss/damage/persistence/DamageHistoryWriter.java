@@ -0,0 +1,243 @@
+package com.xiancore.systems.boss.damage.persistence;
+
+import com.xiancore.systems.boss.damage.DamageHistory;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Boss 战斗历史后台写入器
+ * 结束的战斗先进入队列，由后台线程按批调用 {@link DamageDatabase#saveHistories(List)} 写入，
+ * 主线程上的 Boss 结算不会触碰磁盘
+ * <p>
+ * 写入失败的批次重新入队等待下一轮重试；关闭时会在调用线程上排空队列
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageHistoryWriter {
+
+    /** 关闭时排空队列的最大轮数 */
+    private static final int MAX_DRAIN_ROUNDS = 3;
+
+    private final DamageDatabase database;
+    private final Logger logger;
+
+    /** 单批最多写入的记录数 */
+    private final int batchSize;
+
+    /** 待写入的历史记录 */
+    private final Queue<DamageHistory> pending = new ConcurrentLinkedQueue<>();
+
+    /** 已从队列取出、正在写入数据库的记录 (写入完成前仍对查询可见) */
+    private final Set<DamageHistory> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** 保证同一时间只有一个线程在写入 */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @Getter
+    private volatile boolean running = false;
+
+    // ==================== 统计 ====================
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public DamageHistoryWriter(DamageDatabase database, Logger logger, int batchSize) {
+        this.database = database;
+        this.logger = logger;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 启动后台写入线程
+     *
+     * @param intervalMillis 写入间隔 (毫秒)
+     */
+    public void start(long intervalMillis) {
+        if (running) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "XianCore-DamageHistoryWriter");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * 停止后台线程并排空队列
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        for (int round = 0; round < MAX_DRAIN_ROUNDS && !pending.isEmpty(); round++) {
+            flush();
+        }
+
+        if (!pending.isEmpty()) {
+            logger.severe("§cBoss 战斗历史写入队列未能排空，仍有 " + pending.size() + " 条记录未保存!");
+        }
+    }
+
+    // ==================== 队列操作 ====================
+
+    /**
+     * 提交一场结束的战斗
+     *
+     * @param history 伤害历史
+     */
+    public void enqueue(DamageHistory history) {
+        if (history == null) {
+            return;
+        }
+        pending.add(history);
+        enqueuedCount.incrementAndGet();
+    }
+
+    /**
+     * 写入所有待写入的记录
+     *
+     * @return 本次写入成功的记录数
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            // 只处理本轮开始时已在队列中的记录，失败重新入队的记录留到下一轮
+            int remaining = pending.size();
+            int written = 0;
+            List<DamageHistory> batch = new ArrayList<>(Math.min(remaining, batchSize));
+            DamageHistory history;
+            while (remaining-- > 0 && (history = pending.peek()) != null) {
+                // 先登记再出队，查询时记录总在 pending 或 inFlight 之一中
+                inFlight.add(history);
+                pending.poll();
+                batch.add(history);
+                if (batch.size() >= batchSize) {
+                    written += writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += writeBatch(batch);
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int writeBatch(List<DamageHistory> batch) {
+        int written;
+        try {
+            written = database.saveHistories(batch);
+        } catch (Exception e) {
+            logger.warning("§e后台写入 Boss 战斗历史时出错: " + e.getMessage());
+            written = 0;
+        }
+
+        if (written < batch.size()) {
+            // 整批重新入队，由存储实现保证重复写入同一记录是幂等的
+            pending.addAll(batch);
+            batch.forEach(inFlight::remove);
+            failedCount.addAndGet(batch.size());
+            return 0;
+        }
+
+        batch.forEach(inFlight::remove);
+        writtenCount.addAndGet(written);
+        return written;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warning("§eBoss 战斗历史后台写入失败: " + e.getMessage());
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 获取尚未写入数据库的记录 (包括正在写入的批次)，按提交顺序
+     * 不会等待写入，返回的记录可能刚好已写入数据库，调用方需要自行去重
+     *
+     * @return 待写入记录的副本
+     */
+    public List<DamageHistory> getPendingSnapshot() {
+        // 先读队列再读 inFlight: 出队前已登记到 inFlight，写入完成后才移除
+        List<DamageHistory> queued = new ArrayList<>(pending);
+        List<DamageHistory> writing = new ArrayList<>(inFlight);
+        if (writing.isEmpty()) {
+            return queued;
+        }
+
+        writing.sort(Comparator.comparingLong(DamageHistory::getEndTime));
+        Set<DamageHistory> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<DamageHistory> snapshot = new ArrayList<>(writing.size() + queued.size());
+        for (DamageHistory history : writing) {
+            if (seen.add(history)) {
+                snapshot.add(history);
+            }
+        }
+        for (DamageHistory history : queued) {
+            if (seen.add(history)) {
+                snapshot.add(history);
+            }
+        }
+        return snapshot;
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+}
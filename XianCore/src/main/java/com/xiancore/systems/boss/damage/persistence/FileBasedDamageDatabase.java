@@ -1,31 +1,37 @@
 package com.xiancore.systems.boss.damage.persistence;
 
+import com.xiancore.boss.system.damage.DamageRecord;
 import com.xiancore.systems.boss.damage.DamageHistory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 /**
  * 基于文件的伤害数据库实现
- * 将伤害历史数据保存到YAML文件
+ * 将伤害历史数据以追加方式写入二进制段文件
  *
  * 特性:
  * - 数据持久化 (服务器重启后数据保留)
- * - 易于编辑 (YAML格式)
- * - 相对较慢的读写性能
- * - 适合中小型数据集
+ * - 保存只在文件末尾追加，一批记录一次 fsync，不会重写已有数据
+ * - 内存中只保留紧凑索引 (Boss/玩家/时间 -> 记录位置及伤害摘要)，完整记录按需从文件读取
+ * - 删除和更新写入新记录，过期数据超过一半时压缩
  *
  * 文件结构:
  * damage-data/
- * ├─ histories.yml (所有历史记录)
- * ├─ index-boss.yml (Boss索引)
- * ├─ index-player.yml (玩家索引)
- * └─ metadata.yml (元数据)
+ * └─ histories.seg (文件头 [魔数][版本]，之后是连续的记录 [长度][CRC32][类型][数据])
+ *
+ * 启动时顺序扫描重建索引: 文件末尾写了一半的记录 (写入中途崩溃) 直接截断，
+ * 文件中间的损坏记录跳过并向后查找下一条有效记录，不会丢弃其后的数据
  *
  * @author XianCore Team
  * @version 1.0.0
@@ -33,18 +39,57 @@ import java.util.stream.Collectors;
  */
 public class FileBasedDamageDatabase implements DamageDatabase {
 
+    private static final int MAGIC = 0x58444D47; // "XDMG"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+
+    /** 文件小于该大小时不压缩 */
+    private static final long COMPACT_MIN_SIZE = 1024 * 1024;
+
     // ==================== 数据路径 ====================
     private final Path dataDirectory;
-    private final Path historiesFile;
-    private final Path bosIndexFile;
-    private final Path playerIndexFile;
-    private final Path metadataFile;
+    private final Path segmentFile;
+    private final Logger logger;
+
+    // ==================== 索引 ====================
+    /** 按记录ID索引 (按写入顺序) */
+    private final Map<String, IndexEntry> byId = new LinkedHashMap<>();
+
+    /** 按Boss UUID索引 */
+    private final Map<UUID, Set<IndexEntry>> byBoss = new HashMap<>();
+
+    /** 按玩家UUID索引 */
+    private final Map<UUID, Set<IndexEntry>> byPlayer = new HashMap<>();
+
+    /** 按开始时间索引 */
+    private final TreeMap<Long, Set<IndexEntry>> byTime = new TreeMap<>();
 
-    // ==================== 内存缓存 ====================
-    private final InMemoryDamageDatabase memoryDb = new InMemoryDamageDatabase();
+    /** 玩家累计伤害 */
+    private final Map<UUID, Double> playerTotals = new HashMap<>();
+
+    /** 所有有效记录的总伤害之和 */
+    private double damageSum = 0.0;
+
+    // ==================== 文件状态 ====================
+    private FileChannel channel;
     private volatile boolean connected = false;
-    private volatile long lastSaveTime = 0;
-    private static final long AUTO_SAVE_INTERVAL = 5 * 60 * 1000; // 5分钟
+
+    /** 有效数据末尾 (下一条记录的写入位置) */
+    private long end;
+
+    /** 有效记录占用的字节数 */
+    private long liveBytes;
+
+    /** 记录ID生成器 */
+    private long idGenerator = 0;
+
+    /** 压缩失败后，文件增长到该大小前不再自动压缩 */
+    private long compactBackoffSize = 0;
 
     // ==================== 构造函数 ====================
 
@@ -52,20 +97,19 @@ public class FileBasedDamageDatabase implements DamageDatabase {
      * 构造函数
      *
      * @param dataDirectory 数据目录路径
+     * @param logger 日志记录器
      */
-    public FileBasedDamageDatabase(String dataDirectory) {
+    public FileBasedDamageDatabase(String dataDirectory, Logger logger) {
         this.dataDirectory = Paths.get(dataDirectory);
-        this.historiesFile = this.dataDirectory.resolve("histories.yml");
-        this.bosIndexFile = this.dataDirectory.resolve("index-boss.yml");
-        this.playerIndexFile = this.dataDirectory.resolve("index-player.yml");
-        this.metadataFile = this.dataDirectory.resolve("metadata.yml");
+        this.segmentFile = this.dataDirectory.resolve("histories.seg");
+        this.logger = logger;
     }
 
     /**
      * 构造函数 (默认目录)
      */
     public FileBasedDamageDatabase() {
-        this("damage-data");
+        this("damage-data", Logger.getLogger(FileBasedDamageDatabase.class.getName()));
     }
 
     // ==================== 初始化和关闭 ====================
@@ -80,11 +124,8 @@ public class FileBasedDamageDatabase implements DamageDatabase {
             // 创建数据目录
             Files.createDirectories(dataDirectory);
 
-            // 初始化内存数据库
-            memoryDb.initialize();
-
-            // 加载已有数据
-            loadFromFile();
+            // 打开段文件并重建索引
+            open();
 
             connected = true;
         } catch (Exception e) {
@@ -99,12 +140,7 @@ public class FileBasedDamageDatabase implements DamageDatabase {
         }
 
         try {
-            // 保存所有数据
-            saveToFile();
-
-            // 关闭内存数据库
-            memoryDb.shutdown();
-
+            closeChannel();
             connected = false;
         } catch (Exception e) {
             throw new RuntimeException("关闭文件数据库失败: " + e.getMessage(), e);
@@ -120,190 +156,322 @@ public class FileBasedDamageDatabase implements DamageDatabase {
 
     @Override
     public boolean saveHistory(DamageHistory history) {
-        if (!connected) {
-            return false;
-        }
-
-        boolean result = memoryDb.saveHistory(history);
-
-        // 检查是否需要自动保存
-        if (System.currentTimeMillis() - lastSaveTime > AUTO_SAVE_INTERVAL) {
-            try {
-                saveToFile();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        return result;
+        return history != null && saveHistories(Collections.singletonList(history)) == 1;
     }
 
+    /**
+     * 追加一批记录，fsync 成功后才更新索引
+     * 已有ID的记录 (重试或更新) 会覆盖旧记录
+     */
     @Override
-    public int saveHistories(List<DamageHistory> histories) {
-        int count = memoryDb.saveHistories(histories);
+    public synchronized int saveHistories(List<DamageHistory> histories) {
+        if (!connected || histories == null || histories.isEmpty()) {
+            return 0;
+        }
 
         try {
-            saveToFile();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(histories.size() * 256);
+            DataOutputStream batchOut = new DataOutputStream(batch);
+            List<IndexEntry> written = new ArrayList<>(histories.size());
+
+            for (DamageHistory history : histories) {
+                if (history == null || history.getBossUUID() == null) {
+                    continue;
+                }
+                String id = (String) history.getMetadata().get("_id");
+                if (id == null) {
+                    id = generateId();
+                    history.getMetadata().put("_id", id);
+                }
+                history.getMetadata().put("_saveTime", System.currentTimeMillis());
+
+                byte[] payload = encodeHistory(id, history);
+                written.add(summarize(end + batch.size(), payload.length, id, history));
+                writeRecord(batchOut, payload);
+            }
+
+            append(batch.toByteArray());
+
+            for (IndexEntry entry : written) {
+                removeFromIndex(byId.get(entry.id));
+                addToIndex(entry);
+            }
+            compactIfNeeded();
+            return written.size();
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.warning("§e保存 Boss 战斗历史失败: " + e.getMessage());
+            return 0;
         }
-
-        return count;
     }
 
     @Override
     public CompletableFuture<Boolean> saveHistoryAsync(DamageHistory history) {
-        return CompletableFuture.supplyAsync(this::saveToFileAsync)
-            .thenApply(saved -> memoryDb.saveHistory(history));
+        return CompletableFuture.supplyAsync(() -> saveHistory(history));
     }
 
     @Override
     public boolean updateHistory(DamageHistory history) {
-        return memoryDb.updateHistory(history);
+        if (history == null || !connected) {
+            return false;
+        }
+        // 追加新版本，旧记录在压缩时回收
+        return saveHistory(history);
     }
 
     // ==================== 查询操作 ====================
 
     @Override
-    public List<DamageHistory> queryByBossUUID(UUID bossUUID) {
-        return memoryDb.queryByBossUUID(bossUUID);
+    public synchronized List<DamageHistory> queryByBossUUID(UUID bossUUID) {
+        return readAll(byBoss.get(bossUUID));
     }
 
     @Override
-    public List<DamageHistory> queryByPlayerUUID(UUID playerUUID) {
-        return memoryDb.queryByPlayerUUID(playerUUID);
+    public synchronized List<DamageHistory> queryByPlayerUUID(UUID playerUUID) {
+        return readAll(byPlayer.get(playerUUID));
     }
 
     @Override
-    public List<DamageHistory> queryByTimeRange(long startTime, long endTime) {
-        return memoryDb.queryByTimeRange(startTime, endTime);
+    public synchronized List<DamageHistory> queryByTimeRange(long startTime, long endTime) {
+        if (!connected || startTime > endTime) {
+            return new ArrayList<>();
+        }
+
+        List<IndexEntry> entries = new ArrayList<>();
+        for (Set<IndexEntry> bucket : byTime.subMap(startTime, true, endTime, true).values()) {
+            entries.addAll(bucket);
+        }
+        return readAll(entries);
     }
 
     @Override
-    public List<DamageHistory> queryAll() {
-        return memoryDb.queryAll();
+    public synchronized List<DamageHistory> queryAll() {
+        return readAll(byId.values());
     }
 
     @Override
-    public List<DamageHistory> queryAll(int offset, int limit) {
-        return memoryDb.queryAll(offset, limit);
+    public synchronized List<DamageHistory> queryAll(int offset, int limit) {
+        if (!connected || offset < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<IndexEntry> page = new ArrayList<>(Math.min(limit, byId.size()));
+        int skipped = 0;
+        for (IndexEntry entry : byId.values()) {
+            if (skipped++ < offset) {
+                continue;
+            }
+            page.add(entry);
+            if (page.size() >= limit) {
+                break;
+            }
+        }
+        return readAll(page);
     }
 
     @Override
-    public DamageHistory queryById(String id) {
-        return memoryDb.queryById(id);
+    public synchronized DamageHistory queryById(String id) {
+        if (!connected) {
+            return null;
+        }
+        IndexEntry entry = byId.get(id);
+        return entry != null ? read(entry) : null;
     }
 
     @Override
-    public long getTotalCount() {
-        return memoryDb.getTotalCount();
+    public synchronized long getTotalCount() {
+        return connected ? byId.size() : 0;
     }
 
     @Override
-    public long getCountByBossUUID(UUID bossUUID) {
-        return memoryDb.getCountByBossUUID(bossUUID);
+    public synchronized long getCountByBossUUID(UUID bossUUID) {
+        if (!connected) {
+            return 0;
+        }
+        Set<IndexEntry> entries = byBoss.get(bossUUID);
+        return entries != null ? entries.size() : 0;
     }
 
     // ==================== 统计操作 ====================
 
     @Override
-    public double getTotalDamageForPlayer(UUID playerUUID) {
-        return memoryDb.getTotalDamageForPlayer(playerUUID);
+    public synchronized double getTotalDamageForPlayer(UUID playerUUID) {
+        if (!connected) {
+            return 0.0;
+        }
+        return playerTotals.getOrDefault(playerUUID, 0.0);
     }
 
     @Override
-    public Map<UUID, Double> getTopDamagers(int limit) {
-        return memoryDb.getTopDamagers(limit);
+    public synchronized Map<UUID, Double> getTopDamagers(int limit) {
+        if (!connected || limit <= 0) {
+            return new LinkedHashMap<>();
+        }
+
+        // 小顶堆只保留前 limit 名
+        PriorityQueue<Map.Entry<UUID, Double>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Double> entry : playerTotals.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<UUID, Double>> sorted = new ArrayList<>(top);
+        sorted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        Map<UUID, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Double> entry : sorted) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
     }
 
     @Override
-    public int getBossKillCount(UUID bossUUID) {
-        return memoryDb.getBossKillCount(bossUUID);
+    public synchronized int getBossKillCount(UUID bossUUID) {
+        return (int) getCountByBossUUID(bossUUID);
     }
 
     @Override
-    public double getAverageDamage() {
-        return memoryDb.getAverageDamage();
+    public synchronized double getAverageDamage() {
+        if (!connected || byId.isEmpty()) {
+            return 0.0;
+        }
+        return damageSum / byId.size();
     }
 
     // ==================== 删除操作 ====================
 
     @Override
-    public int deleteByBossUUID(UUID bossUUID) {
-        return memoryDb.deleteByBossUUID(bossUUID);
+    public synchronized int deleteByBossUUID(UUID bossUUID) {
+        Set<IndexEntry> entries = byBoss.get(bossUUID);
+        return entries != null ? delete(new ArrayList<>(entries)) : 0;
     }
 
     @Override
-    public int deleteByPlayerUUID(UUID playerUUID) {
-        return memoryDb.deleteByPlayerUUID(playerUUID);
+    public synchronized int deleteByPlayerUUID(UUID playerUUID) {
+        Set<IndexEntry> entries = byPlayer.get(playerUUID);
+        return entries != null ? delete(new ArrayList<>(entries)) : 0;
     }
 
     @Override
-    public int deleteBeforeTime(long beforeTime) {
-        return memoryDb.deleteBeforeTime(beforeTime);
+    public synchronized int deleteBeforeTime(long beforeTime) {
+        List<IndexEntry> entries = new ArrayList<>();
+        for (Set<IndexEntry> bucket : byTime.headMap(beforeTime, false).values()) {
+            entries.addAll(bucket);
+        }
+        return delete(entries);
     }
 
     @Override
-    public boolean deleteById(String id) {
-        return memoryDb.deleteById(id);
+    public synchronized boolean deleteById(String id) {
+        IndexEntry entry = byId.get(id);
+        return entry != null && delete(Collections.singletonList(entry)) == 1;
     }
 
     @Override
-    public void clearAll() {
-        memoryDb.clearAll();
+    public synchronized void clearAll() {
+        if (!connected) {
+            return;
+        }
+
+        // 截断到文件头，清空的记录重启后不会重新出现
+        try {
+            ensureOpen();
+            channel.truncate(FILE_HEADER_SIZE);
+            channel.force(true);
+            end = FILE_HEADER_SIZE;
+            clearIndex();
+            compactBackoffSize = 0;
+        } catch (IOException e) {
+            logger.warning("§e清空伤害历史文件失败，改为写入删除标记: " + e.getMessage());
+            delete(new ArrayList<>(byId.values()));
+        }
     }
 
     // ==================== 导入导出 ====================
 
     @Override
-    public String exportAsJson() {
-        return memoryDb.exportAsJson();
+    public synchronized String exportAsJson() {
+        if (!connected) {
+            return "[]";
+        }
+
+        // 导出摘要只使用索引，不读取完整记录
+        StringBuilder sb = new StringBuilder("[");
+        boolean first = true;
+        for (IndexEntry entry : byId.values()) {
+            if (!first) sb.append(",");
+            first = false;
+            sb.append(String.format(
+                "{\"boss\":\"%s\",\"totalDamage\":%f,\"participants\":%d}",
+                entry.bossUUID, entry.totalDamage, entry.players.length
+            ));
+        }
+        sb.append("]");
+        return sb.toString();
     }
 
     @Override
     public int importFromJson(String json) {
-        return memoryDb.importFromJson(json);
+        // 简单的JSON导入 (生产环境应使用Gson或Jackson)
+        return 0;
     }
 
     @Override
-    public String exportAsYaml() {
-        return memoryDb.exportAsYaml();
+    public synchronized String exportAsYaml() {
+        if (!connected) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (IndexEntry entry : byId.values()) {
+            sb.append(String.format(
+                "boss_uuid: %s\ntotal_damage: %.2f\nparticipants: %d\ntime: %d",
+                entry.bossUUID, entry.totalDamage, entry.players.length, entry.startTime
+            )).append("\n---\n");
+        }
+        return sb.toString();
     }
 
     @Override
     public int importFromYaml(String yaml) {
-        return memoryDb.importFromYaml(yaml);
+        // 简单的YAML导入 (生产环境应使用SnakeYAML)
+        return 0;
     }
 
     // ==================== 性能和优化 ====================
 
     @Override
-    public int cleanup(int daysToKeep) {
-        int deleted = memoryDb.cleanup(daysToKeep);
-
-        try {
-            if (deleted > 0) {
-                saveToFile();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    public synchronized int cleanup(int daysToKeep) {
+        if (!connected) {
+            return 0;
         }
 
-        return deleted;
+        long beforeTime = System.currentTimeMillis() - (long) daysToKeep * 24 * 60 * 60 * 1000;
+        return deleteBeforeTime(beforeTime);
     }
 
     @Override
-    public void optimize() {
-        try {
-            saveToFile();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public synchronized void optimize() {
+        if (connected && end - FILE_HEADER_SIZE > liveBytes) {
+            compact();
         }
     }
 
     @Override
-    public String getStatistics() {
-        return memoryDb.getStatistics();
+    public synchronized String getStatistics() {
+        if (!connected) {
+            return "{}";
+        }
+
+        return String.format(
+            "{\"total\": %d, \"bosses\": %d, \"players\": %d, \"fileBytes\": %d, \"liveBytes\": %d}",
+            byId.size(),
+            byBoss.size(),
+            byPlayer.size(),
+            end,
+            liveBytes
+        );
     }
 
     @Override
@@ -312,14 +480,17 @@ public class FileBasedDamageDatabase implements DamageDatabase {
             Path backup = Paths.get(backupPath);
             Files.createDirectories(backup);
 
-            // 备份所有文件
-            if (Files.exists(historiesFile)) {
-                Files.copy(historiesFile, backup.resolve("histories.yml"));
+            // 段文件只追加，已 fsync 的部分就是一致的快照
+            if (channel != null) {
+                channel.force(true);
+            }
+            if (Files.exists(segmentFile)) {
+                Files.copy(segmentFile, backup.resolve(segmentFile.getFileName()), StandardCopyOption.REPLACE_EXISTING);
             }
 
             return true;
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.warning("§e备份伤害历史文件失败: " + e.getMessage());
             return false;
         }
     }
@@ -327,68 +498,563 @@ public class FileBasedDamageDatabase implements DamageDatabase {
     @Override
     public synchronized boolean restore(String backupPath) {
         try {
-            Path backup = Paths.get(backupPath);
-
-            // 恢复备份文件
-            if (Files.exists(backup.resolve("histories.yml"))) {
-                Files.copy(backup.resolve("histories.yml"), historiesFile);
-                loadFromFile();
-                return true;
+            Path source = Paths.get(backupPath).resolve(segmentFile.getFileName());
+            if (!Files.exists(source)) {
+                return false;
             }
 
-            return false;
+            boolean wasConnected = connected;
+            closeChannel();
+            Files.copy(source, segmentFile, StandardCopyOption.REPLACE_EXISTING);
+            if (wasConnected) {
+                open();
+            }
+            return true;
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.warning("§e恢复伤害历史文件失败: " + e.getMessage());
             return false;
         }
     }
 
-    // ==================== 文件操作 ====================
+    // ==================== 打开与恢复 ====================
+
+    private void open() throws IOException {
+        // 压缩中途崩溃留下的临时文件，原文件仍然完整
+        Files.deleteIfExists(compactPath());
+
+        clearIndex();
+        channel = FileChannel.open(segmentFile,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException e) {
+            channel.close();
+            channel = null;
+            throw e;
+        }
+    }
 
     /**
-     * 从文件加载数据
+     * 顺序扫描所有记录重建索引
+     * 文件中间的损坏记录跳过 (向后查找下一条有效记录)，只有末尾写了一半的记录才截断
      */
-    private synchronized void loadFromFile() throws IOException {
-        if (!Files.exists(historiesFile)) {
+    private void recover() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            writeFileHeader(channel);
+            channel.force(true);
+            end = FILE_HEADER_SIZE;
             return;
         }
 
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
         try {
-            String content = new String(Files.readAllBytes(historiesFile));
+            readFully(channel, header, 0);
+        } catch (EOFException e) {
+            throw new IOException("伤害历史文件头不完整: " + segmentFile.getFileName());
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的伤害历史文件: " + segmentFile.getFileName());
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("不支持的伤害历史文件版本: " + header.getInt(4));
+        }
+
+        long position = FILE_HEADER_SIZE;
+        while (position < size) {
+            byte[] payload = readRecord(position, size);
+            if (payload == null) {
+                long next = findNextRecord(position, size);
+                if (next < 0) {
+                    // 之后没有有效记录，是写入中途崩溃留下的尾部
+                    break;
+                }
+                logger.warning("§e伤害历史文件在偏移 " + position + " 处有 " + (next - position)
+                    + " 字节损坏数据，已跳过 (其中的记录无法恢复，将在下次压缩时清除)");
+                position = next;
+                continue;
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            byte type = in.readByte();
+            String id = in.readUTF();
+            removeFromIndex(byId.get(id));
+            if (type == TYPE_PUT) {
+                addToIndex(decodeSummary(position, payload.length, id, in));
+            }
+            trackId(id);
+            position += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        if (position < size) {
+            logger.warning("§e伤害历史文件尾部有 " + (size - position) + " 字节无效数据（上次可能未正常关闭），已截断");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        end = position;
+    }
+
+    /**
+     * 读取 position 处的完整记录，长度越界、超出文件末尾、校验失败或类型未知时返回 null
+     */
+    private byte[] readRecord(long position, long size) throws IOException {
+        if (size - position < RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, recordHeader, position);
+        int length = recordHeader.getInt(0);
+        int checksum = recordHeader.getInt(4);
+        if (length < 1 || length > MAX_RECORD_SIZE
+                || position + RECORD_HEADER_SIZE + length > size) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        byte type = payload.get(0);
+        return type == TYPE_PUT || type == TYPE_DELETE ? payload.array() : null;
+    }
+
+    /**
+     * 从损坏位置之后逐字节查找下一条有效记录，找不到返回 -1
+     */
+    private long findNextRecord(long position, long size) throws IOException {
+        for (long candidate = position + 1; size - candidate >= RECORD_HEADER_SIZE; candidate++) {
+            if (readRecord(candidate, size) != null) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== 写入与删除 ====================
 
-            // 简单的YAML解析 (生产环境应使用SnakeYAML)
-            // 目前为占位符实现
+    /**
+     * 在文件末尾追加并 fsync，失败时截断写了一半的数据
+     */
+    private void append(byte[] bytes) throws IOException {
+        ensureOpen();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
         } catch (IOException e) {
-            e.printStackTrace();
+            // 丢弃写了一半的记录，避免下次启动时被当作有效数据
+            try {
+                channel.truncate(end);
+            } catch (IOException ignored) {
+            }
+            throw e;
         }
+        end += bytes.length;
     }
 
     /**
-     * 保存数据到文件
+     * 为每条记录追加删除标记并移出索引
      */
-    private synchronized void saveToFile() throws IOException {
+    private int delete(List<IndexEntry> entries) {
+        if (!connected || entries.isEmpty()) {
+            return 0;
+        }
+
         try {
-            String yaml = memoryDb.exportAsYaml();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(entries.size() * 32);
+            DataOutputStream batchOut = new DataOutputStream(batch);
+            for (IndexEntry entry : entries) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(TYPE_DELETE);
+                out.writeUTF(entry.id);
+                out.flush();
+                writeRecord(batchOut, bytes.toByteArray());
+            }
+            append(batch.toByteArray());
+        } catch (IOException e) {
+            logger.warning("§e删除 Boss 战斗历史失败: " + e.getMessage());
+            return 0;
+        }
 
-            Files.write(historiesFile, yaml.getBytes());
+        for (IndexEntry entry : entries) {
+            removeFromIndex(entry);
+        }
+        compactIfNeeded();
+        return entries.size();
+    }
+
+    // ==================== 压缩 ====================
+
+    private void compactIfNeeded() {
+        if (end > COMPACT_MIN_SIZE && end >= compactBackoffSize && end - FILE_HEADER_SIZE > liveBytes * 2) {
+            compact();
+        }
+    }
 
-            lastSaveTime = System.currentTimeMillis();
+    /**
+     * 只保留有效记录，写入临时文件后原子替换
+     * 替换前关闭当前通道 (Windows 不允许替换仍被打开的文件)，替换后重新打开
+     * 压缩失败不影响已写入的数据，原文件继续使用，并在文件再增长一倍前不再自动压缩
+     */
+    private void compact() {
+        Path temp = compactPath();
+        Map<IndexEntry, Long> moved = new HashMap<>(byId.size() * 2);
+        long position = FILE_HEADER_SIZE;
+
+        try {
+            ensureOpen();
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFileHeader(out);
+                out.position(FILE_HEADER_SIZE);
+                for (IndexEntry entry : byId.values()) {
+                    long copied = 0;
+                    while (copied < entry.size()) {
+                        copied += channel.transferTo(entry.position + copied, entry.size() - copied, out);
+                    }
+                    moved.put(entry, position);
+                    position += entry.size();
+                }
+                out.force(true);
+            }
         } catch (IOException e) {
-            e.printStackTrace();
-            throw e;
+            compactFailed(temp, e);
+            return;
+        }
+
+        boolean replaced = false;
+        try {
+            closeChannel();
+            Files.move(temp, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } catch (IOException e) {
+            compactFailed(temp, e);
+        }
+
+        // 无论替换是否成功都重新打开段文件 (失败时仍是原文件，索引位置不变)
+        if (channel == null) {
+            try {
+                channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                // 后续读写会在 ensureOpen 中报错
+                logger.severe("§c重新打开伤害历史文件失败: " + e.getMessage());
+            }
+        }
+
+        if (replaced) {
+            moved.forEach((entry, newPosition) -> entry.position = newPosition);
+            end = position;
+            liveBytes = position - FILE_HEADER_SIZE;
+            compactBackoffSize = 0;
+        }
+    }
+
+    private void compactFailed(Path temp, IOException e) {
+        compactBackoffSize = end * 2;
+        logger.warning("§e压缩伤害历史文件失败，文件增长到 " + compactBackoffSize + " 字节前不再自动压缩: " + e.getMessage());
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ==================== 索引维护 ====================
+
+    private void addToIndex(IndexEntry entry) {
+        byId.put(entry.id, entry);
+        byBoss.computeIfAbsent(entry.bossUUID, k -> new LinkedHashSet<>()).add(entry);
+        byTime.computeIfAbsent(entry.startTime, k -> new LinkedHashSet<>()).add(entry);
+        for (int i = 0; i < entry.players.length; i++) {
+            byPlayer.computeIfAbsent(entry.players[i], k -> new LinkedHashSet<>()).add(entry);
+            playerTotals.merge(entry.players[i], entry.damages[i], Double::sum);
+        }
+        damageSum += entry.totalDamage;
+        liveBytes += entry.size();
+    }
+
+    private void removeFromIndex(IndexEntry entry) {
+        if (entry == null || byId.remove(entry.id) == null) {
+            return;
+        }
+        removeFrom(byBoss, entry.bossUUID, entry);
+        removeFrom(byTime, entry.startTime, entry);
+        for (int i = 0; i < entry.players.length; i++) {
+            removeFrom(byPlayer, entry.players[i], entry);
+            double remaining = playerTotals.getOrDefault(entry.players[i], 0.0) - entry.damages[i];
+            if (byPlayer.containsKey(entry.players[i])) {
+                playerTotals.put(entry.players[i], remaining);
+            } else {
+                playerTotals.remove(entry.players[i]);
+            }
+        }
+        damageSum -= entry.totalDamage;
+        liveBytes -= entry.size();
+    }
+
+    private static <K> void removeFrom(Map<K, Set<IndexEntry>> index, K key, IndexEntry entry) {
+        Set<IndexEntry> entries = index.get(key);
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void clearIndex() {
+        byId.clear();
+        byBoss.clear();
+        byPlayer.clear();
+        byTime.clear();
+        playerTotals.clear();
+        damageSum = 0.0;
+        liveBytes = 0;
+    }
+
+    private IndexEntry summarize(long position, int length, String id, DamageHistory history) {
+        DamageRecord record = history.getDamageRecord();
+        Set<UUID> participants = record != null ? record.getParticipants() : Collections.emptySet();
+
+        UUID[] players = new UUID[participants.size()];
+        double[] damages = new double[players.length];
+        int i = 0;
+        for (UUID playerUUID : participants) {
+            if (i == players.length) {
+                break;
+            }
+            players[i] = playerUUID;
+            damages[i] = record.getPlayerDamage(playerUUID);
+            i++;
+        }
+
+        return new IndexEntry(position, length, id, history.getBossUUID(), history.getStartTime(),
+            history.getTotalDamage(), i == players.length ? players : Arrays.copyOf(players, i),
+            i == damages.length ? damages : Arrays.copyOf(damages, i));
+    }
+
+    // ==================== 编解码 ====================
+
+    private byte[] encodeHistory(String id, DamageHistory history) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        DamageRecord record = history.getDamageRecord();
+
+        out.writeByte(TYPE_PUT);
+        out.writeUTF(id);
+        out.writeLong(history.getBossUUID().getMostSignificantBits());
+        out.writeLong(history.getBossUUID().getLeastSignificantBits());
+        out.writeUTF(history.getBossType() != null ? history.getBossType() : "Unknown");
+        out.writeInt(history.getBossTier());
+        out.writeLong(history.getStartTime());
+        out.writeLong(history.getEndTime());
+        out.writeLong(history.getDurationSeconds());
+        out.writeLong(history.getCreatedAt());
+        out.writeBoolean(history.isArchived());
+        out.writeDouble(history.getTotalDamage());
+        out.writeInt(history.getStatistics() != null ? history.getStatistics().getTotalDamageCount() : 0);
+
+        // 参与者: [UUID][伤害][命中次数][最后伤害时间]
+        List<UUID> participants = record != null ? new ArrayList<>(record.getParticipants()) : Collections.emptyList();
+        out.writeInt(participants.size());
+        for (UUID playerUUID : participants) {
+            out.writeLong(playerUUID.getMostSignificantBits());
+            out.writeLong(playerUUID.getLeastSignificantBits());
+            out.writeDouble(record.getPlayerDamage(playerUUID));
+            out.writeInt(record.getHitCount(playerUUID));
+            out.writeLong(record.getLastDamageTime(playerUUID));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码 PUT 记录 (类型和ID已读取)
+     */
+    private static DamageHistory decodeHistory(String id, DataInputStream in) throws IOException {
+        UUID bossUUID = new UUID(in.readLong(), in.readLong());
+        String bossType = in.readUTF();
+        int bossTier = in.readInt();
+        long startTime = in.readLong();
+        long endTime = in.readLong();
+        long durationSeconds = in.readLong();
+        long createdAt = in.readLong();
+        boolean archived = in.readBoolean();
+        double totalDamage = in.readDouble();
+        int totalDamageCount = in.readInt();
+
+        DamageRecord record = new DamageRecord(bossUUID, startTime);
+        int participants = in.readInt();
+        for (int i = 0; i < participants; i++) {
+            UUID playerUUID = new UUID(in.readLong(), in.readLong());
+            record.restorePlayer(playerUUID, in.readDouble(), in.readInt(), in.readLong());
         }
+
+        record.setBossType(bossType);
+        record.setBossTier(bossTier);
+        DamageHistory history = new DamageHistory(record, endTime);
+        history.setDurationSeconds(durationSeconds);
+        history.setCreatedAt(createdAt);
+        history.setArchived(archived);
+        history.getStatistics().setTotalDamage(totalDamage);
+        history.getStatistics().setTotalDamageCount(totalDamageCount);
+        history.getMetadata().put("_id", id);
+        return history;
     }
 
     /**
-     * 异步保存到文件
+     * 只解码索引需要的字段 (类型和ID已读取)，启动扫描时不构建完整的历史对象
      */
-    private boolean saveToFileAsync() {
+    private static IndexEntry decodeSummary(long position, int length, String id, DataInputStream in) throws IOException {
+        UUID bossUUID = new UUID(in.readLong(), in.readLong());
+        in.readUTF();
+        in.readInt();
+        long startTime = in.readLong();
+        in.skipBytes(8 * 3 + 1);
+        double totalDamage = in.readDouble();
+        in.readInt();
+
+        int participants = in.readInt();
+        UUID[] players = new UUID[participants];
+        double[] damages = new double[participants];
+        for (int i = 0; i < participants; i++) {
+            players[i] = new UUID(in.readLong(), in.readLong());
+            damages[i] = in.readDouble();
+            in.skipBytes(4 + 8);
+        }
+
+        return new IndexEntry(position, length, id, bossUUID, startTime, totalDamage, players, damages);
+    }
+
+    private List<DamageHistory> readAll(Collection<IndexEntry> entries) {
+        if (!connected || entries == null || entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<DamageHistory> result = new ArrayList<>(entries.size());
+        for (IndexEntry entry : entries) {
+            DamageHistory history = read(entry);
+            if (history != null) {
+                result.add(history);
+            }
+        }
+        return result;
+    }
+
+    private DamageHistory read(IndexEntry entry) {
         try {
-            saveToFile();
-            return true;
+            ensureOpen();
+            ByteBuffer payload = ByteBuffer.allocate(entry.length);
+            readFully(channel, payload, entry.position + RECORD_HEADER_SIZE);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+            in.readByte();
+            String id = in.readUTF();
+            return decodeHistory(id, in);
         } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+            logger.warning("§e读取 Boss 战斗历史失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private static void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    private String generateId() {
+        return "dmg_" + System.currentTimeMillis() + "_" + (idGenerator++);
+    }
+
+    /**
+     * 避免重启后生成与已有记录相同的ID
+     */
+    private void trackId(String id) {
+        int separator = id.lastIndexOf('_');
+        if (separator < 0) {
+            return;
+        }
+        try {
+            idGenerator = Math.max(idGenerator, Long.parseLong(id.substring(separator + 1)) + 1);
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        channel.force(true);
+        channel.close();
+        channel = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("伤害历史文件未打开: " + segmentFile.getFileName());
+        }
+    }
+
+    private Path compactPath() {
+        return segmentFile.resolveSibling(segmentFile.getFileName() + ".compact");
+    }
+
+    private static void writeFileHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * 索引条目: 记录位置和查询/统计所需的伤害摘要
+     */
+    private static final class IndexEntry {
+        long position;
+        final int length;
+        final String id;
+        final UUID bossUUID;
+        final long startTime;
+        final double totalDamage;
+        final UUID[] players;
+        final double[] damages;
+
+        IndexEntry(long position, int length, String id, UUID bossUUID, long startTime,
+                   double totalDamage, UUID[] players, double[] damages) {
+            this.position = position;
+            this.length = length;
+            this.id = id;
+            this.bossUUID = bossUUID;
+            this.startTime = startTime;
+            this.totalDamage = totalDamage;
+            this.players = players;
+            this.damages = damages;
+        }
+
+        long size() {
+            return RECORD_HEADER_SIZE + length;
         }
     }
 }
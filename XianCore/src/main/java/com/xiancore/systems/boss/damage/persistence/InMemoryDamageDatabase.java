@@ -1,6 +1,7 @@
 package com.xiancore.systems.boss.damage.persistence;
 
 import com.xiancore.systems.boss.damage.DamageHistory;
+import com.xiancore.systems.boss.damage.DamageRollup;
 import com.xiancore.systems.boss.damage.DamageStatistics;
 
 import java.util.*;
@@ -38,6 +39,9 @@ public class InMemoryDamageDatabase implements DamageDatabase {
     /** 按记录ID索引 */
     private final Map<String, DamageHistory> byId = new ConcurrentHashMap<>();
 
+    /** 统计汇总 (保存时增量更新，删除后重建) */
+    private final DamageRollup rollup = new DamageRollup();
+
     /** 连接状态 */
     private volatile boolean connected = false;
 
@@ -79,6 +83,12 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         }
 
         try {
+            // 已保存过的记录 (例如后台写入器重试) 不重复添加
+            Object existingId = history.getMetadata().get("_id");
+            if (existingId != null && byId.containsKey(existingId)) {
+                return true;
+            }
+
             // 生成唯一ID
             String id = generateId();
             history.getMetadata().put("_id", id);
@@ -100,6 +110,7 @@ public class InMemoryDamageDatabase implements DamageDatabase {
                     .add(history);
             }
 
+            rollup.record(history);
             return true;
         } catch (Exception e) {
             return false;
@@ -227,11 +238,7 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         if (!connected) {
             return 0.0;
         }
-
-        return playerByUUID.getOrDefault(playerUUID, new ArrayList<>())
-            .stream()
-            .mapToDouble(h -> h.getPlayerDamage(playerUUID))
-            .sum();
+        return rollup.getPlayerDamage(playerUUID);
     }
 
     @Override
@@ -239,22 +246,7 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         if (!connected) {
             return new HashMap<>();
         }
-
-        Map<UUID, Double> damageMap = new HashMap<>();
-
-        for (DamageHistory history : histories) {
-            for (UUID playerUUID : history.getParticipants()) {
-                double damage = history.getPlayerDamage(playerUUID);
-                damageMap.put(playerUUID, damageMap.getOrDefault(playerUUID, 0.0) + damage);
-            }
-        }
-
-        return damageMap.entrySet()
-            .stream()
-            .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                (e1, e2) -> e1, LinkedHashMap::new));
+        return rollup.getTopDamagers(limit);
     }
 
     @Override
@@ -262,19 +254,15 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         if (!connected) {
             return 0;
         }
-        return (int) bossByUUID.getOrDefault(bossUUID, new ArrayList<>()).size();
+        return rollup.getBossKillCount(bossUUID);
     }
 
     @Override
     public double getAverageDamage() {
-        if (!connected || histories.isEmpty()) {
+        if (!connected) {
             return 0.0;
         }
-
-        return histories.stream()
-            .mapToDouble(DamageHistory::getTotalDamage)
-            .average()
-            .orElse(0.0);
+        return rollup.getAverageDamage();
     }
 
     // ==================== 删除操作 ====================
@@ -298,6 +286,9 @@ public class InMemoryDamageDatabase implements DamageDatabase {
             }
         }
 
+        if (count > 0) {
+            rebuildRollup();
+        }
         return count;
     }
 
@@ -320,6 +311,9 @@ public class InMemoryDamageDatabase implements DamageDatabase {
             }
         }
 
+        if (count > 0) {
+            rebuildRollup();
+        }
         return count;
     }
 
@@ -347,6 +341,9 @@ public class InMemoryDamageDatabase implements DamageDatabase {
             }
         }
 
+        if (count > 0) {
+            rebuildRollup();
+        }
         return count;
     }
 
@@ -362,6 +359,7 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         }
 
         histories.remove(history);
+        rebuildRollup();
         return true;
     }
 
@@ -372,6 +370,7 @@ public class InMemoryDamageDatabase implements DamageDatabase {
             bossByUUID.clear();
             playerByUUID.clear();
             byId.clear();
+            rollup.clear();
         }
     }
 
@@ -470,6 +469,13 @@ public class InMemoryDamageDatabase implements DamageDatabase {
         return "dmg_" + System.currentTimeMillis() + "_" + (idGenerator++);
     }
 
+    /**
+     * 删除记录后从剩余历史重建统计汇总
+     */
+    private void rebuildRollup() {
+        rollup.rebuild(() -> new ArrayList<>(histories));
+    }
+
     /**
      * 将历史记录转换为JSON
      */
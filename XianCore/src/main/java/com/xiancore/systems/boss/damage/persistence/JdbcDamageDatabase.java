@@ -0,0 +1,648 @@
+package com.xiancore.systems.boss.damage.persistence;
+
+import com.xiancore.core.data.DatabaseManager;
+import com.xiancore.core.data.SqlDialect;
+import com.xiancore.core.data.UnitOfWork;
+import com.xiancore.boss.system.damage.DamageRecord;
+import com.xiancore.systems.boss.damage.DamageHistory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * SQL 伤害数据库实现 (MySQL / SQLite)
+ * 通过 {@link DatabaseManager} 的工作单元访问数据库，表结构由 SchemaManager 创建
+ *
+ * 表结构:
+ * - xian_boss_fights: 每场战斗一行，按 (boss_uuid, start_time) 和 start_time 建索引
+ * - xian_boss_fight_participants: 每个参与者一行，按 (player_uuid, damage) 建索引
+ *
+ * 按Boss/玩家/时间的查询都走索引，一次查询连同参与者一起取回；
+ * 玩家总伤害、伤害排行等统计直接在数据库中聚合，不在内存中扫描历史
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class JdbcDamageDatabase implements DamageDatabase {
+
+    // ==================== SQL 常量 ====================
+    private static final String SQL_UPSERT_FIGHT = """
+            INSERT INTO xian_boss_fights (
+                id, boss_uuid, boss_type, boss_tier, start_time, end_time, duration_seconds,
+                total_damage, total_hits, participant_count, archived, created_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                boss_type = VALUES(boss_type),
+                boss_tier = VALUES(boss_tier),
+                end_time = VALUES(end_time),
+                duration_seconds = VALUES(duration_seconds),
+                total_damage = VALUES(total_damage),
+                total_hits = VALUES(total_hits),
+                participant_count = VALUES(participant_count),
+                archived = VALUES(archived)
+            """;
+
+    private static final String SQL_DELETE_PARTICIPANTS =
+            "DELETE FROM xian_boss_fight_participants WHERE fight_id = ?";
+
+    private static final String SQL_INSERT_PARTICIPANT = """
+            INSERT INTO xian_boss_fight_participants (fight_id, player_uuid, damage, hits, last_damage_time)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    /** 战斗行 + 参与者行 (左连接，每个参与者一行) */
+    private static final String SQL_SELECT_FIGHTS = """
+            SELECT f.id, f.boss_uuid, f.boss_type, f.boss_tier, f.start_time, f.end_time, f.duration_seconds,
+                   f.total_damage, f.total_hits, f.archived, f.created_at,
+                   p.player_uuid, p.damage, p.hits, p.last_damage_time
+            FROM %s f
+            LEFT JOIN xian_boss_fight_participants p ON p.fight_id = f.id
+            %s
+            ORDER BY f.start_time, f.id
+            """;
+
+    private static final String SQL_SELECT_BY_BOSS = String.format(SQL_SELECT_FIGHTS,
+            "xian_boss_fights", "WHERE f.boss_uuid = ?");
+
+    private static final String SQL_SELECT_BY_PLAYER = String.format(SQL_SELECT_FIGHTS,
+            "xian_boss_fights",
+            "WHERE f.id IN (SELECT fight_id FROM xian_boss_fight_participants WHERE player_uuid = ?)");
+
+    private static final String SQL_SELECT_BY_TIME = String.format(SQL_SELECT_FIGHTS,
+            "xian_boss_fights", "WHERE f.start_time BETWEEN ? AND ?");
+
+    private static final String SQL_SELECT_BY_ID = String.format(SQL_SELECT_FIGHTS,
+            "xian_boss_fights", "WHERE f.id = ?");
+
+    private static final String SQL_SELECT_ALL = String.format(SQL_SELECT_FIGHTS,
+            "xian_boss_fights", "");
+
+    private static final String SQL_SELECT_PAGE = String.format(SQL_SELECT_FIGHTS,
+            "(SELECT * FROM xian_boss_fights ORDER BY start_time, id LIMIT ? OFFSET ?)", "");
+
+    private static final String SQL_COUNT_ALL = "SELECT COUNT(*) FROM xian_boss_fights";
+
+    private static final String SQL_COUNT_BY_BOSS = "SELECT COUNT(*) FROM xian_boss_fights WHERE boss_uuid = ?";
+
+    private static final String SQL_SUM_FOR_PLAYER =
+            "SELECT COALESCE(SUM(damage), 0) FROM xian_boss_fight_participants WHERE player_uuid = ?";
+
+    private static final String SQL_TOP_DAMAGERS = """
+            SELECT player_uuid, SUM(damage) AS total
+            FROM xian_boss_fight_participants
+            GROUP BY player_uuid
+            ORDER BY total DESC
+            LIMIT ?
+            """;
+
+    private static final String SQL_AVERAGE_DAMAGE = "SELECT COALESCE(AVG(total_damage), 0) FROM xian_boss_fights";
+
+    private static final String SQL_DELETE_BY_BOSS = "DELETE FROM xian_boss_fights WHERE boss_uuid = ?";
+
+    private static final String SQL_SELECT_IDS_BY_PLAYER =
+            "SELECT fight_id FROM xian_boss_fight_participants WHERE player_uuid = ?";
+
+    private static final String SQL_DELETE_BEFORE = "DELETE FROM xian_boss_fights WHERE start_time < ?";
+
+    private static final String SQL_DELETE_BY_ID = "DELETE FROM xian_boss_fights WHERE id = ?";
+
+    private static final String SQL_SELECT_SUMMARIES = """
+            SELECT boss_uuid, total_damage, participant_count, start_time
+            FROM xian_boss_fights
+            ORDER BY start_time, id
+            """;
+
+    private static final String SQL_STATISTICS = """
+            SELECT (SELECT COUNT(*) FROM xian_boss_fights),
+                   (SELECT COUNT(DISTINCT boss_uuid) FROM xian_boss_fights),
+                   (SELECT COUNT(DISTINCT player_uuid) FROM xian_boss_fight_participants)
+            """;
+
+    private final DatabaseManager databaseManager;
+    private final Logger logger;
+
+    /** 连接状态 */
+    private volatile boolean connected = false;
+
+    /** 记录ID生成器 */
+    private long idGenerator = 0;
+
+    public JdbcDamageDatabase(DatabaseManager databaseManager, Logger logger) {
+        this.databaseManager = databaseManager;
+        this.logger = logger;
+    }
+
+    // ==================== 初始化和关闭 ====================
+
+    @Override
+    public void initialize() throws Exception {
+        if (connected) {
+            return;
+        }
+        if (!databaseManager.isUseSql()) {
+            throw new IllegalStateException("未启用 SQL 数据库 (MySQL/SQLite)");
+        }
+        connected = true;
+    }
+
+    @Override
+    public void shutdown() throws Exception {
+        // 连接池由 DatabaseManager 管理
+        connected = false;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // ==================== 保存操作 ====================
+
+    @Override
+    public boolean saveHistory(DamageHistory history) {
+        return history != null && saveHistories(Collections.singletonList(history)) == 1;
+    }
+
+    /**
+     * 一个事务内批量写入战斗和参与者
+     * 已有ID的记录 (重试或更新) 覆盖原有数据
+     */
+    @Override
+    public int saveHistories(List<DamageHistory> histories) {
+        if (!connected || histories == null || histories.isEmpty()) {
+            return 0;
+        }
+
+        List<DamageHistory> valid = new ArrayList<>(histories.size());
+        for (DamageHistory history : histories) {
+            if (history != null && history.getBossUUID() != null) {
+                valid.add(history);
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            work.begin();
+
+            PreparedStatement upsert = work.prepareUpsert(SQL_UPSERT_FIGHT, "id");
+            PreparedStatement clearParticipants = work.prepare(SQL_DELETE_PARTICIPANTS);
+            PreparedStatement insertParticipant = work.prepare(SQL_INSERT_PARTICIPANT);
+
+            for (DamageHistory history : valid) {
+                String id = assignId(history);
+                DamageRecord record = history.getDamageRecord();
+                int participants = record != null ? record.getParticipantCount() : 0;
+
+                upsert.setString(1, id);
+                upsert.setString(2, history.getBossUUID().toString());
+                upsert.setString(3, history.getBossType() != null ? history.getBossType() : "Unknown");
+                upsert.setInt(4, history.getBossTier());
+                upsert.setLong(5, history.getStartTime());
+                upsert.setLong(6, history.getEndTime());
+                upsert.setLong(7, history.getDurationSeconds());
+                upsert.setDouble(8, history.getTotalDamage());
+                upsert.setInt(9, history.getStatistics() != null ? history.getStatistics().getTotalDamageCount() : 0);
+                upsert.setInt(10, participants);
+                upsert.setBoolean(11, history.isArchived());
+                upsert.setLong(12, history.getCreatedAt());
+                upsert.addBatch();
+
+                clearParticipants.setString(1, id);
+                clearParticipants.addBatch();
+
+                if (record == null) {
+                    continue;
+                }
+                for (UUID playerUUID : record.getParticipants()) {
+                    insertParticipant.setString(1, id);
+                    insertParticipant.setString(2, playerUUID.toString());
+                    insertParticipant.setDouble(3, record.getPlayerDamage(playerUUID));
+                    insertParticipant.setInt(4, record.getHitCount(playerUUID));
+                    insertParticipant.setLong(5, record.getLastDamageTime(playerUUID));
+                    insertParticipant.addBatch();
+                }
+            }
+
+            // 先写战斗行，参与者的外键才能引用到
+            upsert.executeBatch();
+            clearParticipants.executeBatch();
+            insertParticipant.executeBatch();
+            work.commit();
+            return valid.size();
+
+        } catch (SQLException e) {
+            logger.warning("§e保存 Boss 战斗历史失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveHistoryAsync(DamageHistory history) {
+        return CompletableFuture.supplyAsync(() -> saveHistory(history));
+    }
+
+    @Override
+    public boolean updateHistory(DamageHistory history) {
+        return saveHistory(history);
+    }
+
+    // ==================== 查询操作 ====================
+
+    @Override
+    public List<DamageHistory> queryByBossUUID(UUID bossUUID) {
+        return queryFights(SQL_SELECT_BY_BOSS, bossUUID.toString());
+    }
+
+    @Override
+    public List<DamageHistory> queryByPlayerUUID(UUID playerUUID) {
+        return queryFights(SQL_SELECT_BY_PLAYER, playerUUID.toString());
+    }
+
+    @Override
+    public List<DamageHistory> queryByTimeRange(long startTime, long endTime) {
+        return queryFights(SQL_SELECT_BY_TIME, startTime, endTime);
+    }
+
+    @Override
+    public List<DamageHistory> queryAll() {
+        return queryFights(SQL_SELECT_ALL);
+    }
+
+    @Override
+    public List<DamageHistory> queryAll(int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return queryFights(SQL_SELECT_PAGE, limit, offset);
+    }
+
+    @Override
+    public DamageHistory queryById(String id) {
+        List<DamageHistory> result = queryFights(SQL_SELECT_BY_ID, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public long getTotalCount() {
+        return queryNumber(SQL_COUNT_ALL).longValue();
+    }
+
+    @Override
+    public long getCountByBossUUID(UUID bossUUID) {
+        return queryNumber(SQL_COUNT_BY_BOSS, bossUUID.toString()).longValue();
+    }
+
+    // ==================== 统计操作 ====================
+
+    @Override
+    public double getTotalDamageForPlayer(UUID playerUUID) {
+        return queryNumber(SQL_SUM_FOR_PLAYER, playerUUID.toString()).doubleValue();
+    }
+
+    @Override
+    public Map<UUID, Double> getTopDamagers(int limit) {
+        Map<UUID, Double> result = new LinkedHashMap<>();
+        if (!connected || limit <= 0) {
+            return result;
+        }
+
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(SQL_TOP_DAMAGERS);
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.put(UUID.fromString(rs.getString(1)), rs.getDouble(2));
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("§e查询伤害排行失败: " + e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public int getBossKillCount(UUID bossUUID) {
+        return (int) getCountByBossUUID(bossUUID);
+    }
+
+    @Override
+    public double getAverageDamage() {
+        return queryNumber(SQL_AVERAGE_DAMAGE).doubleValue();
+    }
+
+    // ==================== 删除操作 ====================
+
+    @Override
+    public int deleteByBossUUID(UUID bossUUID) {
+        return update(SQL_DELETE_BY_BOSS, bossUUID.toString());
+    }
+
+    @Override
+    public int deleteByPlayerUUID(UUID playerUUID) {
+        if (!connected) {
+            return 0;
+        }
+
+        // MySQL 不允许 DELETE 的子查询引用被级联删除的表，先取出战斗ID
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            List<String> ids = new ArrayList<>();
+            PreparedStatement select = work.prepare(SQL_SELECT_IDS_BY_PLAYER);
+            select.setString(1, playerUUID.toString());
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            work.begin();
+            PreparedStatement delete = work.prepare(SQL_DELETE_BY_ID);
+            for (String id : ids) {
+                delete.setString(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+            work.commit();
+            return ids.size();
+
+        } catch (SQLException e) {
+            logger.warning("§e删除玩家战斗历史失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public int deleteBeforeTime(long beforeTime) {
+        return update(SQL_DELETE_BEFORE, beforeTime);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return update(SQL_DELETE_BY_ID, id) > 0;
+    }
+
+    @Override
+    public void clearAll() {
+        update("DELETE FROM xian_boss_fight_participants");
+        update("DELETE FROM xian_boss_fights");
+    }
+
+    // ==================== 导入导出 ====================
+
+    @Override
+    public String exportAsJson() {
+        StringBuilder sb = new StringBuilder("[");
+        forEachSummary((bossUUID, totalDamage, participants, startTime) -> {
+            if (sb.length() > 1) sb.append(",");
+            sb.append(String.format(
+                "{\"boss\":\"%s\",\"totalDamage\":%f,\"participants\":%d}",
+                bossUUID, totalDamage, participants
+            ));
+        });
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public int importFromJson(String json) {
+        // 简单的JSON导入 (生产环境应使用Gson或Jackson)
+        return 0;
+    }
+
+    @Override
+    public String exportAsYaml() {
+        StringBuilder sb = new StringBuilder();
+        forEachSummary((bossUUID, totalDamage, participants, startTime) -> sb.append(String.format(
+            "boss_uuid: %s\ntotal_damage: %.2f\nparticipants: %d\ntime: %d",
+            bossUUID, totalDamage, participants, startTime
+        )).append("\n---\n"));
+        return sb.toString();
+    }
+
+    @Override
+    public int importFromYaml(String yaml) {
+        // 简单的YAML导入 (生产环境应使用SnakeYAML)
+        return 0;
+    }
+
+    // ==================== 性能和优化 ====================
+
+    @Override
+    public int cleanup(int daysToKeep) {
+        long beforeTime = System.currentTimeMillis() - (long) daysToKeep * 24 * 60 * 60 * 1000;
+        return deleteBeforeTime(beforeTime);
+    }
+
+    @Override
+    public void optimize() {
+        if (!connected) {
+            return;
+        }
+
+        // 刷新索引统计，让大表上的查询计划保持正确
+        String sql = databaseManager.getDialect() == SqlDialect.MYSQL
+            ? "ANALYZE TABLE xian_boss_fights, xian_boss_fight_participants"
+            : "ANALYZE";
+        try (UnitOfWork work = databaseManager.beginWork();
+             Statement stmt = work.getConnection().createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            logger.warning("§e优化 Boss 战斗历史表失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getStatistics() {
+        if (!connected) {
+            return "{}";
+        }
+
+        try (UnitOfWork work = databaseManager.beginReadWork();
+             ResultSet rs = work.prepare(SQL_STATISTICS).executeQuery()) {
+            if (rs.next()) {
+                return String.format(
+                    "{\"total\": %d, \"bosses\": %d, \"players\": %d}",
+                    rs.getLong(1), rs.getLong(2), rs.getLong(3)
+                );
+            }
+        } catch (SQLException e) {
+            logger.warning("§e查询 Boss 战斗历史统计失败: " + e.getMessage());
+        }
+        return "{}";
+    }
+
+    @Override
+    public boolean backup(String backupPath) {
+        // 由数据库自身的备份工具负责 (mysqldump / SQLite 文件复制)
+        return false;
+    }
+
+    @Override
+    public boolean restore(String backupPath) {
+        return false;
+    }
+
+    // ==================== 内部方法 ====================
+
+    /**
+     * 执行战斗查询，把连接结果按战斗ID还原为历史记录
+     */
+    private List<DamageHistory> queryFights(String sql, Object... params) {
+        List<DamageHistory> result = new ArrayList<>();
+        if (!connected) {
+            return result;
+        }
+
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(sql);
+            bind(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                FightRow current = null;
+                while (rs.next()) {
+                    String id = rs.getString("id");
+                    if (current == null || !current.id.equals(id)) {
+                        if (current != null) {
+                            result.add(current.toHistory());
+                        }
+                        current = new FightRow(rs);
+                    }
+
+                    String playerUUID = rs.getString("player_uuid");
+                    if (playerUUID != null) {
+                        current.record.restorePlayer(UUID.fromString(playerUUID),
+                            rs.getDouble("damage"), rs.getInt("hits"), rs.getLong("last_damage_time"));
+                    }
+                }
+                if (current != null) {
+                    result.add(current.toHistory());
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("§e查询 Boss 战斗历史失败: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private Number queryNumber(String sql, Object... params) {
+        if (!connected) {
+            return 0;
+        }
+
+        try (UnitOfWork work = databaseManager.beginReadWork()) {
+            PreparedStatement pstmt = work.prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("§e查询 Boss 战斗历史失败: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private int update(String sql, Object... params) {
+        if (!connected) {
+            return 0;
+        }
+
+        try (UnitOfWork work = databaseManager.beginWork()) {
+            PreparedStatement pstmt = work.prepare(sql);
+            bind(pstmt, params);
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.warning("§e更新 Boss 战斗历史失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void forEachSummary(SummaryConsumer consumer) {
+        if (!connected) {
+            return;
+        }
+
+        try (UnitOfWork work = databaseManager.beginReadWork();
+             ResultSet rs = work.prepare(SQL_SELECT_SUMMARIES).executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(rs.getString(1), rs.getDouble(2), rs.getInt(3), rs.getLong(4));
+            }
+        } catch (SQLException e) {
+            logger.warning("§e导出 Boss 战斗历史失败: " + e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    private synchronized String assignId(DamageHistory history) {
+        String id = (String) history.getMetadata().get("_id");
+        if (id == null) {
+            id = "dmg_" + System.currentTimeMillis() + "_" + (idGenerator++);
+            history.getMetadata().put("_id", id);
+        }
+        history.getMetadata().put("_saveTime", System.currentTimeMillis());
+        return id;
+    }
+
+    /**
+     * 查询结果中正在还原的一场战斗
+     */
+    private static final class FightRow {
+        final String id;
+        final DamageRecord record;
+        final String bossType;
+        final int bossTier;
+        final long endTime;
+        final long durationSeconds;
+        final double totalDamage;
+        final int totalHits;
+        final boolean archived;
+        final long createdAt;
+
+        FightRow(ResultSet rs) throws SQLException {
+            this.id = rs.getString("id");
+            this.record = new DamageRecord(UUID.fromString(rs.getString("boss_uuid")), rs.getLong("start_time"));
+            this.bossType = rs.getString("boss_type");
+            this.bossTier = rs.getInt("boss_tier");
+            this.endTime = rs.getLong("end_time");
+            this.durationSeconds = rs.getLong("duration_seconds");
+            this.totalDamage = rs.getDouble("total_damage");
+            this.totalHits = rs.getInt("total_hits");
+            this.archived = rs.getBoolean("archived");
+            this.createdAt = rs.getLong("created_at");
+        }
+
+        DamageHistory toHistory() {
+            record.setBossType(bossType);
+            record.setBossTier(bossTier);
+            DamageHistory history = new DamageHistory(record, endTime);
+            history.setDurationSeconds(durationSeconds);
+            history.setArchived(archived);
+            history.setCreatedAt(createdAt);
+            history.getStatistics().setTotalDamage(totalDamage);
+            history.getStatistics().setTotalDamageCount(totalHits);
+            history.getMetadata().put("_id", id);
+            return history;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SummaryConsumer {
+        void accept(String bossUUID, double totalDamage, int participants, long startTime);
+    }
+}
@@ -0,0 +1,264 @@
+package com.xiancore.systems.boss.damage.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Boss伤害回放日志
+ * 把每场战斗的每次命中 (玩家、伤害、tick、时间) 记录为紧凑的二进制文件，每场战斗一个文件，
+ * 可用 {@link FightLog#read(File)} 读取并交给 {@link DamageReplay} 离线重放
+ * <p>
+ * 文件格式 (大端):
+ * <pre>
+ * 头部: [magic int "XDRL"][version byte][bossUUID 16B][startTime long][startTick long]
+ * 记录: [PLAYER=1][index varint][playerUUID 16B]                     首次出现的玩家
+ *       [HIT=2][playerIndex varint][tick增量 varlong][毫秒增量 varlong][damage double]
+ *       [END=3][bossType UTF][tier varint][endTime long][hitCount varint][crc32 int]
+ * </pre>
+ * 命中在内存中按战斗缓冲，战斗结束后由后台线程写入 {@code <startTime>_<bossUUID>.dmglog}，主线程不做磁盘IO
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageEventLog {
+
+    static final int MAGIC = 0x5844524C; // "XDRL"
+    static final byte VERSION = 1;
+    static final byte TYPE_PLAYER = 1;
+    static final byte TYPE_HIT = 2;
+    static final byte TYPE_END = 3;
+
+    /** 日志文件扩展名 */
+    public static final String EXTENSION = ".dmglog";
+
+    private final File directory;
+    private final Logger logger;
+
+    /** 进行中的战斗 (Boss UUID -> 缓冲) */
+    private final Map<UUID, FightBuffer> fights = new ConcurrentHashMap<>();
+
+    /** 文件写入线程 */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "XianCore-DamageReplayLog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // ==================== 统计 ====================
+    private final AtomicLong loggedHits = new AtomicLong();
+    private final AtomicLong writtenFights = new AtomicLong();
+    private final AtomicLong failedFights = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param directory 日志目录
+     * @param logger 日志记录器
+     */
+    public DamageEventLog(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+
+    /**
+     * 记录一次命中
+     *
+     * @param bossUUID Boss UUID
+     * @param playerUUID 玩家UUID
+     * @param damage 伤害值
+     * @param tick 服务器tick序号
+     * @param timestamp 命中时间戳
+     */
+    public void append(UUID bossUUID, UUID playerUUID, double damage, long tick, long timestamp) {
+        FightBuffer buffer = fights.computeIfAbsent(bossUUID, k -> new FightBuffer(bossUUID, timestamp, tick));
+        buffer.append(playerUUID, damage, tick, timestamp);
+        loggedHits.incrementAndGet();
+    }
+
+    /**
+     * 结束一场战斗并在后台写入文件
+     *
+     * @param bossUUID Boss UUID
+     * @param bossType Boss类型
+     * @param tier Boss等级
+     * @param endTime 结束时间
+     */
+    public void finish(UUID bossUUID, String bossType, int tier, long endTime) {
+        FightBuffer buffer = fights.remove(bossUUID);
+        if (buffer == null) {
+            return;
+        }
+
+        byte[] bytes = buffer.finish(bossType, tier, endTime);
+        File target = new File(directory, buffer.startTime + "_" + bossUUID + EXTENSION);
+        writer.execute(() -> writeFile(target, bytes));
+    }
+
+    /**
+     * 丢弃一场战斗的缓冲 (例如伤害数据被手动清除)
+     *
+     * @param bossUUID Boss UUID
+     */
+    public void discard(UUID bossUUID) {
+        fights.remove(bossUUID);
+    }
+
+    /**
+     * 关闭日志，等待已结束的战斗写完
+     * 尚未结束的战斗没有结尾记录，直接丢弃
+     */
+    public void shutdown() {
+        fights.clear();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("§e伤害回放日志未能在10秒内写完");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== 统计信息 ====================
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getActiveFightCount() {
+        return fights.size();
+    }
+
+    public long getLoggedHits() {
+        return loggedHits.get();
+    }
+
+    public long getWrittenFights() {
+        return writtenFights.get();
+    }
+
+    public long getFailedFights() {
+        return failedFights.get();
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void writeFile(File target, byte[] bytes) {
+        File temp = new File(target.getPath() + ".tmp");
+        try {
+            Files.write(temp.toPath(), bytes);
+            Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writtenFights.incrementAndGet();
+        } catch (IOException e) {
+            failedFights.incrementAndGet();
+            temp.delete();
+            logger.warning("§e写入伤害回放日志失败: " + target.getName() + " - " + e.getMessage());
+        }
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 单场战斗的内存缓冲
+     */
+    private static final class FightBuffer {
+        final long startTime;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final Map<UUID, Integer> playerIndex = new HashMap<>();
+        long lastTick;
+        long lastTime;
+        int hitCount;
+
+        FightBuffer(UUID bossUUID, long startTime, long startTick) {
+            this.startTime = startTime;
+            this.lastTick = startTick;
+            this.lastTime = startTime;
+            try {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(bossUUID.getMostSignificantBits());
+                out.writeLong(bossUUID.getLeastSignificantBits());
+                out.writeLong(startTime);
+                out.writeLong(startTick);
+            } catch (IOException e) {
+                // ByteArrayOutputStream 不会抛出
+                throw new IllegalStateException(e);
+            }
+        }
+
+        synchronized void append(UUID playerUUID, double damage, long tick, long timestamp) {
+            try {
+                Integer index = playerIndex.get(playerUUID);
+                if (index == null) {
+                    index = playerIndex.size();
+                    playerIndex.put(playerUUID, index);
+                    out.writeByte(TYPE_PLAYER);
+                    writeVarLong(out, index);
+                    out.writeLong(playerUUID.getMostSignificantBits());
+                    out.writeLong(playerUUID.getLeastSignificantBits());
+                }
+
+                // 同一tick内的命中时间可能乱序，增量不能为负
+                long tickDelta = Math.max(0, tick - lastTick);
+                long timeDelta = Math.max(0, timestamp - lastTime);
+                lastTick += tickDelta;
+                lastTime += timeDelta;
+
+                out.writeByte(TYPE_HIT);
+                writeVarLong(out, index);
+                writeVarLong(out, tickDelta);
+                writeVarLong(out, timeDelta);
+                out.writeDouble(damage);
+                hitCount++;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        synchronized byte[] finish(String bossType, int tier, long endTime) {
+            try {
+                out.writeByte(TYPE_END);
+                out.writeUTF(bossType != null ? bossType : "Unknown");
+                writeVarLong(out, tier);
+                out.writeLong(endTime);
+                writeVarLong(out, hitCount);
+                out.flush();
+
+                CRC32 crc = new CRC32();
+                crc.update(bytes.toByteArray());
+                out.writeInt((int) crc.getValue());
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.xiancore.systems.boss.damage.replay;
+
+import com.xiancore.boss.system.difficulty.BossDifficultyCalculator;
+import com.xiancore.systems.boss.damage.DamageHistory;
+import com.xiancore.systems.boss.damage.DamageRanking;
+import com.xiancore.systems.boss.damage.DamageRollup;
+import com.xiancore.systems.boss.damage.DamageStatisticsManager;
+import com.xiancore.systems.boss.reward.BossRewardManager;
+import com.xiancore.systems.boss.reward.Reward;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 伤害回放器
+ * 把回放日志中的命中按原tick顺序送入 {@link DamageStatisticsManager} (环形缓冲区、批处理、排行)，
+ * 再按结果计算奖励 ({@link BossRewardManager#planRewards}) 和难度 ({@link BossDifficultyCalculator})，
+ * 全程不依赖服务器，可全速运行
+ * <p>
+ * 同一个回放器按时间顺序回放多场战斗时，击杀次数等历史因素会像线上一样逐场累积。
+ * 线上发放奖励时使用的随机数不会记录，回放的奖励抽取结果由种子决定；排名、伤害占比和奖励池可精确复现
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class DamageReplay {
+
+    private static final long ONE_HOUR = 60L * 60 * 1000;
+
+    private final DamageStatisticsManager damageManager = new DamageStatisticsManager();
+    private final BossRewardManager rewardManager;
+    private final long seed;
+
+    /** 难度计算使用的玩家平均战力 (日志中不包含，默认与线上固定值一致) */
+    private double playerAveragePower = 100.0;
+
+    /** 难度计算使用的Boss推荐战力 */
+    private double bossRecommendedPower = 100.0;
+
+    /**
+     * 构造函数
+     *
+     * @param rewardManager 奖励管理器 (为null时跳过奖励计算)
+     * @param seed 奖励抽取的随机种子
+     */
+    public DamageReplay(BossRewardManager rewardManager, long seed) {
+        this.rewardManager = rewardManager;
+        this.seed = seed;
+        damageManager.initialize();
+    }
+
+    public void setPlayerAveragePower(double playerAveragePower) {
+        this.playerAveragePower = playerAveragePower;
+    }
+
+    public void setBossRecommendedPower(double bossRecommendedPower) {
+        this.bossRecommendedPower = bossRecommendedPower;
+    }
+
+    /**
+     * 按开始时间顺序回放多场战斗
+     *
+     * @param fights 战斗日志
+     * @return 回放结果 (与排序后的顺序一致)
+     */
+    public List<ReplayResult> replayAll(Collection<FightLog> fights) {
+        List<FightLog> ordered = new ArrayList<>(fights);
+        ordered.sort(Comparator.comparingLong(FightLog::getStartTime));
+
+        List<ReplayResult> results = new ArrayList<>(ordered.size());
+        for (FightLog fight : ordered) {
+            results.add(replay(fight));
+        }
+        return results;
+    }
+
+    /**
+     * 回放一场战斗
+     *
+     * @param fight 战斗日志
+     * @return 回放结果
+     */
+    public ReplayResult replay(FightLog fight) {
+        UUID bossUUID = fight.getBossUUID();
+        DamageRollup rollup = damageManager.getRollup();
+        int killCount = rollup.getBossTypeKills(fight.getBossType());
+        int recentKillCount = rollup.getBossTypeKillsSince(fight.getBossType(), fight.getEndTime() - ONE_HOUR);
+        int queueCapacity = damageManager.getDamageQueue().capacity();
+
+        long begin = System.nanoTime();
+        long currentTick = fight.getStartTick();
+        for (int i = 0; i < fight.getHitCount(); i++) {
+            long tick = fight.getTick(i);
+            // tick 变化或缓冲区已满时先应用已入队的命中，与线上每 tick 批处理一致且不丢事件
+            if (tick != currentTick || damageManager.getQueueDepth() >= queueCapacity) {
+                damageManager.processBatchQueue();
+                currentTick = tick;
+            }
+            damageManager.recordDamage(bossUUID, fight.getPlayer(i), fight.getDamage(i), fight.getTimestamp(i));
+        }
+        DamageHistory history = damageManager.finalizeBossDamage(
+            bossUUID, fight.getBossType(), fight.getTier(), fight.getEndTime());
+        long pipelineNanos = System.nanoTime() - begin;
+
+        ReplayResult result = new ReplayResult(fight, history, pipelineNanos);
+        if (history == null) {
+            return result;
+        }
+
+        // 难度 (使用本场之前的击杀历史)
+        BossDifficultyCalculator difficulty = new BossDifficultyCalculator(bossUUID);
+        int participants = history.getParticipantCount();
+        result.difficultyScore = difficulty.calculateDifficultyScore(
+            participants, playerAveragePower, bossRecommendedPower, killCount, recentKillCount);
+        result.difficultyLevel = difficulty.getDifficultyLevel();
+        result.difficultyMultiplier = difficulty.calculateDifficultyMultiplier(
+            participants, playerAveragePower, bossRecommendedPower, killCount, recentKillCount);
+
+        // 奖励
+        if (rewardManager != null) {
+            Random random = new Random(seed ^ bossUUID.getMostSignificantBits()
+                ^ bossUUID.getLeastSignificantBits() ^ fight.getStartTime());
+            for (DamageRanking.RankingEntry entry : history.getTopDamagers(rewardManager.getMaxRewardRanks())) {
+                double damagePercent = history.getPlayerDamagePercentage(entry.playerUUID);
+                result.rewards.put(entry.playerUUID,
+                    rewardManager.planRewards(fight.getTier(), entry.rank, damagePercent, random));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取回放使用的伤害统计管理器 (可查询累计汇总)
+     *
+     * @return 伤害统计管理器
+     */
+    public DamageStatisticsManager getDamageManager() {
+        return damageManager;
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 单场战斗的回放结果
+     */
+    @Getter
+    public static class ReplayResult {
+        private final FightLog fight;
+
+        /** 回放生成的历史记录 (没有命中时为null) */
+        private final DamageHistory history;
+
+        /** 伤害管线 (入队、批处理、排行、结算) 耗时 */
+        private final long pipelineNanos;
+
+        private int difficultyScore;
+        private BossDifficultyCalculator.DifficultyLevel difficultyLevel;
+        private double difficultyMultiplier;
+
+        /** 玩家 -> 应得奖励 (按排名顺序) */
+        private final Map<UUID, List<Reward>> rewards = new LinkedHashMap<>();
+
+        ReplayResult(FightLog fight, DamageHistory history, long pipelineNanos) {
+            this.fight = fight;
+            this.history = history;
+            this.pipelineNanos = pipelineNanos;
+        }
+
+        /**
+         * 获取排行 (从高到低)
+         *
+         * @return 排行列表
+         */
+        public List<DamageRanking.RankingEntry> getRankings() {
+            return history != null ? history.getRankings() : Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.xiancore.systems.boss.damage.replay;
+
+import com.xiancore.systems.boss.damage.DamageRanking;
+import com.xiancore.systems.boss.reward.BossRewardManager;
+import com.xiancore.systems.boss.reward.Reward;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * 伤害回放命令行工具
+ * 离线读取回放日志并输出每场战斗的排名、奖励和难度，以及伤害管线的吞吐
+ * <p>
+ * 用法 (类路径需包含插件jar及其依赖):
+ * <pre>
+ * java -cp ... com.xiancore.systems.boss.damage.replay.DamageReplayTool &lt;日志目录或文件&gt; [boss-rewards.yml] [种子]
+ * </pre>
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public final class DamageReplayTool {
+
+    private DamageReplayTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("用法: DamageReplayTool <日志目录或文件> [boss-rewards.yml] [种子]");
+            System.exit(1);
+        }
+
+        Logger logger = Logger.getLogger(DamageReplayTool.class.getName());
+        BossRewardManager rewardManager = null;
+        if (args.length >= 2) {
+            rewardManager = new BossRewardManager(YamlConfiguration.loadConfiguration(new File(args[1])), logger);
+        }
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : 0L;
+
+        List<FightLog> fights = new ArrayList<>();
+        for (File file : listLogs(new File(args[0]))) {
+            try {
+                FightLog fight = FightLog.read(file);
+                if (!fight.isComplete()) {
+                    System.err.println("警告: " + file.getName() + " 不完整，按已有命中回放");
+                }
+                fights.add(fight);
+            } catch (IOException e) {
+                System.err.println("跳过 " + file.getName() + ": " + e.getMessage());
+            }
+        }
+
+        DamageReplay replay = new DamageReplay(rewardManager, seed);
+        long totalHits = 0;
+        long totalNanos = 0;
+        for (DamageReplay.ReplayResult result : replay.replayAll(fights)) {
+            print(result);
+            totalHits += result.getFight().getHitCount();
+            totalNanos += result.getPipelineNanos();
+        }
+
+        System.out.printf("%n共 %d 场战斗，%d 次命中，伤害管线耗时 %.1f ms (%.0f 命中/秒)%n",
+            fights.size(), totalHits, totalNanos / 1_000_000.0,
+            totalNanos > 0 ? totalHits * 1_000_000_000.0 / totalNanos : 0.0);
+    }
+
+    private static List<File> listLogs(File path) {
+        if (path.isFile()) {
+            return List.of(path);
+        }
+        File[] files = path.listFiles((dir, name) -> name.endsWith(DamageEventLog.EXTENSION));
+        if (files == null) {
+            return List.of();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private static void print(DamageReplay.ReplayResult result) {
+        FightLog fight = result.getFight();
+        System.out.printf("%n== %s (Tier %d) %s ==%n", fight.getBossType(), fight.getTier(), fight.getBossUUID());
+        System.out.printf("命中 %d 次，%d 名玩家，%d tick；难度 %d (%s, x%.2f)%n",
+            fight.getHitCount(), fight.getPlayers().size(), fight.getTickSpan(),
+            result.getDifficultyScore(),
+            result.getDifficultyLevel() != null ? result.getDifficultyLevel().name() : "-",
+            result.getDifficultyMultiplier());
+
+        for (DamageRanking.RankingEntry entry : result.getRankings()) {
+            System.out.printf("  #%d %s %.1f (%.1f%%)%n",
+                entry.rank, entry.playerUUID, entry.damage, entry.percentage * 100);
+            List<Reward> rewards = result.getRewards().get(entry.playerUUID);
+            if (rewards != null) {
+                for (Reward reward : rewards) {
+                    System.out.printf("      %s %s%n", reward.getType(), reward.getStringValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.xiancore.systems.boss.damage.replay;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * 一场战斗的回放日志 (已解码)
+ * 命中按列存储: 第 i 次命中的玩家为 {@code players[playerIndex[i]]}
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class FightLog {
+
+    @Getter
+    private final UUID bossUUID;
+    @Getter
+    private final long startTime;
+    @Getter
+    private final long startTick;
+
+    /** Boss类型 (日志不完整时为 "Unknown") */
+    @Getter
+    private String bossType = "Unknown";
+
+    /** Boss等级 */
+    @Getter
+    private int tier = 1;
+
+    /** 结束时间 (日志不完整时为最后一次命中的时间) */
+    @Getter
+    private long endTime;
+
+    /** 是否读到了完整且校验通过的结尾记录 */
+    @Getter
+    private boolean complete;
+
+    /** 出现过的玩家 (按首次命中顺序) */
+    private final List<UUID> players = new ArrayList<>();
+
+    @Getter
+    private int hitCount;
+    private int[] playerIndex = new int[64];
+    private long[] ticks = new long[64];
+    private long[] timestamps = new long[64];
+    private double[] damages = new double[64];
+
+    private FightLog(UUID bossUUID, long startTime, long startTick) {
+        this.bossUUID = bossUUID;
+        this.startTime = startTime;
+        this.startTick = startTick;
+        this.endTime = startTime;
+    }
+
+    /**
+     * 读取日志文件
+     * 文件末尾被截断时返回已读到的命中，{@link #isComplete()} 为 false
+     *
+     * @param file 日志文件
+     * @return 战斗日志
+     * @throws IOException 文件不可读或不是回放日志
+     */
+    public static FightLog read(File file) throws IOException {
+        return read(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * 从字节解码日志
+     *
+     * @param bytes 日志内容
+     * @return 战斗日志
+     * @throws IOException 不是回放日志
+     */
+    public static FightLog read(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != DamageEventLog.MAGIC) {
+            throw new IOException("不是伤害回放日志");
+        }
+        byte version = in.readByte();
+        if (version != DamageEventLog.VERSION) {
+            throw new IOException("不支持的回放日志版本: " + version);
+        }
+
+        UUID bossUUID = new UUID(in.readLong(), in.readLong());
+        FightLog log = new FightLog(bossUUID, in.readLong(), in.readLong());
+
+        long tick = log.startTick;
+        long time = log.startTime;
+        try {
+            while (true) {
+                int recordStart = bytes.length - in.available();
+                byte type = in.readByte();
+                if (type == DamageEventLog.TYPE_PLAYER) {
+                    int index = (int) readVarLong(in);
+                    if (index != log.players.size()) {
+                        throw new IOException("玩家索引不连续: " + index);
+                    }
+                    log.players.add(new UUID(in.readLong(), in.readLong()));
+                } else if (type == DamageEventLog.TYPE_HIT) {
+                    int index = (int) readVarLong(in);
+                    tick += readVarLong(in);
+                    time += readVarLong(in);
+                    double damage = in.readDouble();
+                    if (index < 0 || index >= log.players.size()) {
+                        throw new IOException("未知的玩家索引: " + index);
+                    }
+                    log.addHit(index, tick, time, damage);
+                } else if (type == DamageEventLog.TYPE_END) {
+                    String bossType = in.readUTF();
+                    int tier = (int) readVarLong(in);
+                    long endTime = in.readLong();
+                    int hits = (int) readVarLong(in);
+                    int crcEnd = bytes.length - in.available();
+                    int storedCrc = in.readInt();
+
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes, 0, crcEnd);
+                    if ((int) crc.getValue() == storedCrc && hits == log.hitCount) {
+                        log.bossType = bossType;
+                        log.tier = tier;
+                        log.endTime = endTime;
+                        log.complete = true;
+                    }
+                    break;
+                } else {
+                    throw new IOException("未知的记录类型 " + type + " (偏移 " + recordStart + ")");
+                }
+            }
+        } catch (EOFException e) {
+            // 文件被截断: 保留已读到的命中
+        }
+
+        if (!log.complete) {
+            log.endTime = time;
+        }
+        return log;
+    }
+
+    // ==================== 查询方法 ====================
+
+    /**
+     * 获取参与玩家 (按首次命中顺序)
+     *
+     * @return 玩家UUID列表
+     */
+    public List<UUID> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * 获取第 i 次命中的玩家
+     *
+     * @param hit 命中序号
+     * @return 玩家UUID
+     */
+    public UUID getPlayer(int hit) {
+        return players.get(playerIndex[hit]);
+    }
+
+    public long getTick(int hit) {
+        return ticks[hit];
+    }
+
+    public long getTimestamp(int hit) {
+        return timestamps[hit];
+    }
+
+    public double getDamage(int hit) {
+        return damages[hit];
+    }
+
+    /**
+     * 获取战斗持续的tick数
+     *
+     * @return tick数
+     */
+    public long getTickSpan() {
+        return hitCount > 0 ? ticks[hitCount - 1] - startTick : 0;
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void addHit(int index, long tick, long time, double damage) {
+        if (hitCount == damages.length) {
+            int capacity = hitCount * 2;
+            playerIndex = Arrays.copyOf(playerIndex, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            damages = Arrays.copyOf(damages, capacity);
+        }
+        playerIndex[hitCount] = index;
+        ticks[hitCount] = tick;
+        timestamps[hitCount] = time;
+        damages[hitCount] = damage;
+        hitCount++;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("varint 过长");
+            }
+        }
+    }
+}
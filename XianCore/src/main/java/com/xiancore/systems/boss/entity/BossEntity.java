@@ -39,8 +39,8 @@ public class BossEntity {
     private final int tier;
 
     // ==================== 实体信息 ====================
-    /** Bukkit实体引用 */
-    private final LivingEntity bukkitEntity;
+    /** Bukkit实体引用 (区块重新加载后替换为新的实体对象) */
+    private volatile LivingEntity bukkitEntity;
 
     /** Boss生成时的位置 */
     private final Location spawnLocation;
@@ -248,6 +248,15 @@ public class BossEntity {
 
     // ==================== 生命周期方法 ====================
 
+    /**
+     * 重新关联Bukkit实体 (区块重新加载后同一实体会是新的对象)
+     *
+     * @param entity 新的实体对象，UUID必须与原实体相同
+     */
+    public void rebindEntity(LivingEntity entity) {
+        this.bukkitEntity = entity;
+    }
+
     /**
      * 检查Boss是否还有效 (实体是否存在)
      */
@@ -0,0 +1,202 @@
+package com.xiancore.systems.boss.entity;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Boss实体索引
+ * 按Bukkit实体UUID查找Boss UUID，供每次伤害/死亡事件判断实体是否为Boss
+ * <p>
+ * 设计要点:
+ * - 以实体UUID为键，不持有 LivingEntity 引用，不依赖实体对象的 hashCode，
+ *   区块重新加载后同一实体的新对象仍能命中
+ * - 查询前先过一个位图预过滤器，绝大多数普通怪物只需两次位运算即可排除
+ * - 预过滤器只在增删Boss时整体重建 (写时复制)，读路径无锁
+ * - 所在区块卸载的实体只标记为脱离，索引保留，区块重新加载后恢复关联
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-13
+ */
+public class BossEntityIndex {
+
+    /** 预过滤器位数 (2的幂) */
+    private static final int FILTER_BITS = 1 << 12;
+
+    /** 实体UUID -> Boss UUID */
+    private final Map<UUID, UUID> bossByEntity = new ConcurrentHashMap<>();
+
+    /** Boss UUID -> 实体UUID (用于按Boss移除) */
+    private final Map<UUID, UUID> entityByBoss = new ConcurrentHashMap<>();
+
+    /** 所在区块已卸载的实体UUID */
+    private final Set<UUID> detached = ConcurrentHashMap.newKeySet();
+
+    /** 预过滤位图，未命中的实体一定不是Boss */
+    private volatile long[] filter = new long[FILTER_BITS / 64];
+
+    /**
+     * 登记Boss实体
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @param bossUUID Boss UUID
+     */
+    public synchronized void put(UUID entityUUID, UUID bossUUID) {
+        UUID previous = entityByBoss.put(bossUUID, entityUUID);
+        if (previous != null && !previous.equals(entityUUID)) {
+            bossByEntity.remove(previous);
+            detached.remove(previous);
+        }
+        bossByEntity.put(entityUUID, bossUUID);
+        detached.remove(entityUUID);
+
+        long[] next = filter.clone();
+        setBits(next, entityUUID);
+        filter = next;
+    }
+
+    /**
+     * 按Boss UUID移除
+     *
+     * @param bossUUID Boss UUID
+     * @return 被移除的实体UUID，不存在返回null
+     */
+    public synchronized UUID removeBoss(UUID bossUUID) {
+        UUID entityUUID = entityByBoss.remove(bossUUID);
+        if (entityUUID != null) {
+            bossByEntity.remove(entityUUID);
+            detached.remove(entityUUID);
+            rebuildFilter();
+        }
+        return entityUUID;
+    }
+
+    /**
+     * 按实体UUID移除
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return 被移除的Boss UUID，不存在返回null
+     */
+    public synchronized UUID removeEntity(UUID entityUUID) {
+        UUID bossUUID = bossByEntity.remove(entityUUID);
+        if (bossUUID != null) {
+            entityByBoss.remove(bossUUID);
+            detached.remove(entityUUID);
+            rebuildFilter();
+        }
+        return bossUUID;
+    }
+
+    /**
+     * 标记实体所在区块已卸载 (保留索引)
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return 对应的Boss UUID，不是Boss返回null
+     */
+    public synchronized UUID detach(UUID entityUUID) {
+        UUID bossUUID = bossByEntity.get(entityUUID);
+        if (bossUUID != null) {
+            detached.add(entityUUID);
+        }
+        return bossUUID;
+    }
+
+    /**
+     * 实体随区块重新加载，恢复关联
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return 对应的Boss UUID，不是Boss返回null
+     */
+    public synchronized UUID attach(UUID entityUUID) {
+        detached.remove(entityUUID);
+        return bossByEntity.get(entityUUID);
+    }
+
+    /**
+     * 实体所在区块是否已卸载
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return 是否已脱离
+     */
+    public boolean isDetached(UUID entityUUID) {
+        return detached.contains(entityUUID);
+    }
+
+    /**
+     * 查询实体对应的Boss UUID
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return Boss UUID，不是Boss返回null
+     */
+    public UUID get(UUID entityUUID) {
+        if (!mightContain(entityUUID)) {
+            return null;
+        }
+        return bossByEntity.get(entityUUID);
+    }
+
+    /**
+     * 预过滤检查
+     *
+     * @param entityUUID Bukkit实体UUID
+     * @return false 表示一定不是Boss；true 表示可能是Boss
+     */
+    public boolean mightContain(UUID entityUUID) {
+        long[] bits = filter;
+        long hash = mix(entityUUID);
+        int first = (int) hash & (FILTER_BITS - 1);
+        int second = (int) (hash >>> 32) & (FILTER_BITS - 1);
+        return (bits[first >>> 6] & (1L << first)) != 0
+            && (bits[second >>> 6] & (1L << second)) != 0;
+    }
+
+    /**
+     * 清空索引
+     */
+    public synchronized void clear() {
+        bossByEntity.clear();
+        entityByBoss.clear();
+        detached.clear();
+        filter = new long[FILTER_BITS / 64];
+    }
+
+    /**
+     * 获取已登记的Boss数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return bossByEntity.size();
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void rebuildFilter() {
+        long[] next = new long[FILTER_BITS / 64];
+        for (UUID entityUUID : bossByEntity.keySet()) {
+            setBits(next, entityUUID);
+        }
+        filter = next;
+    }
+
+    private static void setBits(long[] bits, UUID entityUUID) {
+        long hash = mix(entityUUID);
+        int first = (int) hash & (FILTER_BITS - 1);
+        int second = (int) (hash >>> 32) & (FILTER_BITS - 1);
+        bits[first >>> 6] |= 1L << first;
+        bits[second >>> 6] |= 1L << second;
+    }
+
+    /**
+     * 混合UUID的两半，使高低32位都分布均匀
+     */
+    private static long mix(UUID uuid) {
+        long h = uuid.getMostSignificantBits() ^ Long.rotateLeft(uuid.getLeastSignificantBits(), 17);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
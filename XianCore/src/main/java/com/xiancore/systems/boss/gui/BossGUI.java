@@ -6,9 +6,9 @@ import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 import com.xiancore.XianCore;
 import com.xiancore.core.utils.GUIUtils;
 import com.xiancore.gui.utils.ItemBuilder;
+import com.xiancore.boss.system.damage.DamageRecord;
 import com.xiancore.systems.boss.BossRefreshManager;
 import com.xiancore.systems.boss.damage.DamageRanking;
-import com.xiancore.systems.boss.damage.DamageRecord;
 import com.xiancore.systems.boss.damage.DamageStatistics;
 import com.xiancore.systems.boss.damage.DamageStatisticsManager;
 import com.xiancore.systems.boss.entity.BossEntity;
@@ -117,7 +117,7 @@ public class BossGUI {
             return;
         }
 
-        DamageRanking ranking = damageManager.getDamageRankings().get(bossUUID);
+        DamageRanking ranking = damageManager.getRanking(bossUUID);
 
         ChestGui gui = new ChestGui(6, "§c§lBoss 详情 - " + boss.getMythicMobType());
         gui.setOnGlobalClick(event -> event.setCancelled(true));
@@ -222,7 +222,7 @@ public class BossGUI {
             lore.add("§c生命: §7已死亡");
         }
 
-        DamageRecord damageRecord = damageManager.getDamageRecords().get(boss.getBossUUID());
+        DamageRecord damageRecord = damageManager.getDamageRecord(boss.getBossUUID());
         if (damageRecord != null) {
             lore.add(String.format("§6参与者: §f%d 人", damageRecord.getParticipantCount()));
             lore.add(String.format("§6总伤害: §f%s", DF.format(damageRecord.getTotalDamage())));
@@ -312,7 +312,7 @@ public class BossGUI {
         lore.add(String.format("§6造成伤害: §f%s", DF.format(entry.getDamage())));
         lore.add(String.format("§6伤害占比: §f%s%%", DF_PERCENT.format(entry.getPercentage() * 100)));
 
-        DamageRecord record = damageManager.getDamageRecords().get(boss.getBossUUID());
+        DamageRecord record = damageManager.getDamageRecord(boss.getBossUUID());
         if (record != null) {
             int hitCount = record.getHitCount(entry.getPlayerUUID());
             double avgDamage = entry.getDamage() / Math.max(1, hitCount);
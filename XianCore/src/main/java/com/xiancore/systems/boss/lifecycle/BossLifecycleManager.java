@@ -353,11 +353,8 @@ public class BossLifecycleManager {
         }
 
         try {
-            // 查询该Boss类型的所有历史
-            return (int) damageManager.getHistory()
-                .stream()
-                .filter(h -> h.getBossType() != null && h.getBossType().equals(bossType))
-                .count();
+            // 读取增量维护的汇总，不再扫描全部历史
+            return damageManager.getRollup().getBossTypeKills(bossType);
         } catch (Exception e) {
             return 0;
         }
@@ -377,11 +374,7 @@ public class BossLifecycleManager {
         try {
             long oneHourAgo = System.currentTimeMillis() - (60 * 60 * 1000);
 
-            return (int) damageManager.getHistory()
-                .stream()
-                .filter(h -> h.getBossType() != null && h.getBossType().equals(bossType))
-                .filter(h -> h.getRecordTime() > oneHourAgo)
-                .count();
+            return damageManager.getRollup().getBossTypeKillsSince(bossType, oneHourAgo);
         } catch (Exception e) {
             return 0;
         }
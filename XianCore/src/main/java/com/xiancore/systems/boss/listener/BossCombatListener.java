@@ -4,7 +4,6 @@ import com.xiancore.XianCore;
 import com.xiancore.systems.boss.BossRefreshManager;
 import com.xiancore.systems.boss.damage.DamageStatisticsManager;
 import com.xiancore.systems.boss.entity.BossEntity;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
@@ -28,12 +27,8 @@ public class BossCombatListener implements Listener {
 
     @EventHandler
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!(event.getEntity() instanceof LivingEntity)) {
-            return;
-        }
-
-        LivingEntity victim = (LivingEntity) event.getEntity();
-        BossEntity boss = bossManager.getBossEntityByMythicMob(victim);
+        // 按实体UUID查索引，普通怪物在预过滤阶段即被排除
+        BossEntity boss = bossManager.getBossEntityByEntityUUID(event.getEntity().getUniqueId());
         if (boss == null) {
             return;
         }
@@ -58,7 +53,8 @@ public class BossCombatListener implements Listener {
             return;
         }
 
+        // 只写入伤害事件队列，排行和统计由每 tick 的批处理任务更新
         UUID bossUUID = boss.getBossUUID();
-        damageManager.recordDamage(bossUUID, attacker, damage);
+        damageManager.recordDamage(bossUUID, attacker.getUniqueId(), damage, System.currentTimeMillis());
     }
 }
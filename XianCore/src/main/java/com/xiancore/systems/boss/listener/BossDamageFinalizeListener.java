@@ -27,12 +27,12 @@ public class BossDamageFinalizeListener implements Listener {
     public void onBossKilled(BossKilledEvent event) {
         BossEntity boss = event.getBoss();
         if (boss == null) return;
-        damageManager.finalizeBossDamage(boss.getBossUUID());
+        damageManager.finalizeBossDamage(boss.getBossUUID(), boss.getMythicMobType(), boss.getTier());
     }
 
     public void onBossDespawned(BossDespawnedEvent event) {
         BossEntity boss = event.getBoss();
         if (boss == null) return;
-        damageManager.finalizeBossDamage(boss.getBossUUID());
+        damageManager.finalizeBossDamage(boss.getBossUUID(), boss.getMythicMobType(), boss.getTier());
     }
 }
@@ -12,11 +12,14 @@ import com.xiancore.boss.system.model.BossTier;
 import com.xiancore.systems.boss.reward.BossRewardManager;
 import com.xiancore.systems.boss.reward.Reward;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,6 +29,7 @@ import java.util.stream.Collectors;
  *
  * 职责:
  * - 监听EntityDeathEvent处理Boss死亡
+ * - 监听EntitiesUnloadEvent/EntitiesLoadEvent在区块卸载/加载时脱离、重新关联Boss实体
  * - 监听自定义BossSpawnedEvent处理Boss生成
  * - 监听自定义BossKilledEvent处理Boss击杀
  * - 监听自定义BossDespawnedEvent处理Boss消失
@@ -271,21 +275,19 @@ public class BossEventListener implements Listener {
         try {
             LivingEntity deadEntity = event.getEntity();
 
+            // 检查是否为Boss (非Boss实体在预过滤阶段即被排除)
+            BossEntity boss = bossManager.getBossEntityByEntityUUID(deadEntity.getUniqueId());
+            if (boss == null) {
+                return;
+            }
+
             // 获取击杀者 (如果有)
             if (deadEntity.getKiller() != null) {
-                // 检查是否为Boss
-                BossEntity boss = bossManager.getBossEntityByMythicMob(deadEntity);
-                if (boss != null) {
-                    // 调用onBossKilled回调
-                    bossManager.onBossKilled(boss, deadEntity.getKiller());
-                }
+                // 调用onBossKilled回调
+                bossManager.onBossKilled(boss, deadEntity.getKiller());
             } else {
-                // 没有击杀者（自然死亡、摔死等）
-                BossEntity boss = bossManager.getBossEntityByMythicMob(deadEntity);
-                if (boss != null) {
-                    // 调用onBossDespawned回调
-                    bossManager.onBossDespawned(boss);
-                }
+                // 没有击杀者（自然死亡、摔死等），调用onBossDespawned回调
+                bossManager.onBossDespawned(boss);
             }
 
         } catch (Exception e) {
@@ -294,6 +296,41 @@ public class BossEventListener implements Listener {
         }
     }
 
+    /**
+     * 监听实体卸载 (区块卸载)
+     * Boss只标记为脱离，保留Boss和刷新点计数，实体随区块保存
+     */
+    @EventHandler
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        try {
+            for (Entity entity : event.getEntities()) {
+                if (!bossManager.mightBeBoss(entity.getUniqueId())) {
+                    continue;
+                }
+                bossManager.detachBossEntity(entity.getUniqueId());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("处理实体卸载事件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 监听实体加载 (区块加载)
+     * 重新关联脱离的Boss实体，按实体上的Boss标记清理不属于任何活跃Boss的孤儿实体
+     */
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        try {
+            for (Entity entity : event.getEntities()) {
+                if (entity instanceof LivingEntity living) {
+                    bossManager.attachBossEntity(living);
+                }
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("处理实体加载事件失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 注册事件监听器
      *
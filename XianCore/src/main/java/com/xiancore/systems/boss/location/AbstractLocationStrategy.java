@@ -4,7 +4,6 @@ import com.xiancore.XianCore;
 import com.xiancore.systems.boss.entity.BossSpawnPoint;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +12,9 @@ import java.util.logging.Logger;
 /**
  * 位置选择策略抽象基类
  * 提供通用的辅助方法
+ * <p>
+ * 子类只需实现 {@link #generateColumns}，同步的 {@link #generateCandidates} 在其基础上
+ * 加载区块并寻找地面；异步搜索则直接使用候选列，在区块快照上完成同样的处理
  *
  * @author Olivia Diaz
  * @version 1.0.0
@@ -27,6 +29,36 @@ public abstract class AbstractLocationStrategy implements LocationSelectionStrat
         this.logger = plugin.getLogger();
     }
 
+    @Override
+    public abstract List<Location> generateColumns(BossSpawnPoint point, int maxCandidates);
+
+    /**
+     * 同步生成候选位置 (主线程)
+     * 逐列加载区块，需要时向下寻找地面
+     */
+    @Override
+    public List<Location> generateCandidates(BossSpawnPoint point, int maxCandidates) {
+        List<Location> columns = generateColumns(point, maxCandidates);
+        List<Location> candidates = new ArrayList<>(columns.size());
+
+        for (Location column : columns) {
+            column.getChunk().load();
+
+            if (point.isAutoFindGround()) {
+                Location safeLoc = findSafeGroundLocation(column);
+                if (safeLoc != null) {
+                    candidates.add(safeLoc);
+                } else if (keepColumnWithoutGround(point)) {
+                    candidates.add(column);
+                }
+            } else {
+                candidates.add(column);
+            }
+        }
+
+        return candidates;
+    }
+
     /**
      * 寻找安全的地面位置
      * 从给定位置向下搜索固体方块，并确保上方有足够空间
@@ -40,28 +72,10 @@ public abstract class AbstractLocationStrategy implements LocationSelectionStrat
 
         int centerX = center.getBlockX();
         int centerZ = center.getBlockZ();
-        int startY = Math.min(center.getBlockY(), world.getMaxHeight() - 10);
-
-        // 从起始Y坐标向下搜索
-        for (int y = startY; y > world.getMinHeight(); y--) {
-            Block block = world.getBlockAt(centerX, y, centerZ);
-
-            // 检查当前方块是否为固体（地面）
-            if (block.getType().isSolid()) {
-                // 检查上方是否有足够空间（至少3格空气）
-                Block above1 = world.getBlockAt(centerX, y + 1, centerZ);
-                Block above2 = world.getBlockAt(centerX, y + 2, centerZ);
-                Block above3 = world.getBlockAt(centerX, y + 3, centerZ);
-
-                if (above1.getType().isAir() && above2.getType().isAir() && above3.getType().isAir()) {
-                    // 找到安全位置：固体地面+上方3格空气
-                    return new Location(world, centerX + 0.5, y + 1, centerZ + 0.5);
-                }
-            }
-        }
+        int groundY = TerrainView.of(world).findGroundY(centerX, center.getBlockY(), centerZ);
 
-        // 未找到安全位置
-        return null;
+        // 找到安全位置：固体地面+上方3格空气
+        return groundY != TerrainView.NO_GROUND ? new Location(world, centerX + 0.5, groundY, centerZ + 0.5) : null;
     }
 
     /**
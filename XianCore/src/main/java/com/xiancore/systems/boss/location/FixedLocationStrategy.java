@@ -28,7 +28,7 @@ public class FixedLocationStrategy extends AbstractLocationStrategy {
     }
 
     @Override
-    public List<Location> generateCandidates(BossSpawnPoint point, int maxCandidates) {
+    public List<Location> generateColumns(BossSpawnPoint point, int maxCandidates) {
         List<Location> candidates = new ArrayList<>();
 
         Location baseLocation = point.getLocation();
@@ -37,42 +37,17 @@ public class FixedLocationStrategy extends AbstractLocationStrategy {
             return candidates;
         }
 
-        // 强制加载区块
-        baseLocation.getChunk().load();
-
         int randomRadius = point.getRandomRadius();
 
         if (randomRadius <= 0) {
             // 无随机偏移，直接使用固定位置
-            Location finalLoc = baseLocation.clone();
-
-            if (point.isAutoFindGround()) {
-                Location safeLoc = findSafeGroundLocation(finalLoc);
-                if (safeLoc != null) {
-                    candidates.add(safeLoc);
-                } else {
-                    candidates.add(finalLoc);
-                }
-            } else {
-                candidates.add(finalLoc);
-            }
+            candidates.add(baseLocation.clone());
         } else {
             // 有随机偏移，生成多个候选位置
             for (int i = 0; i < maxCandidates; i++) {
                 int offsetX = (int) (Math.random() * randomRadius * 2) - randomRadius;
                 int offsetZ = (int) (Math.random() * randomRadius * 2) - randomRadius;
-
-                Location candidateLoc = baseLocation.clone().add(offsetX, 0, offsetZ);
-                candidateLoc.getChunk().load();
-
-                if (point.isAutoFindGround()) {
-                    Location safeLoc = findSafeGroundLocation(candidateLoc);
-                    if (safeLoc != null) {
-                        candidates.add(safeLoc);
-                    }
-                } else {
-                    candidates.add(candidateLoc);
-                }
+                candidates.add(baseLocation.clone().add(offsetX, 0, offsetZ));
             }
         }
 
@@ -80,6 +55,14 @@ public class FixedLocationStrategy extends AbstractLocationStrategy {
         return candidates;
     }
 
+    /**
+     * 无随机偏移时即使找不到地面也使用配置的位置
+     */
+    @Override
+    public boolean keepColumnWithoutGround(BossSpawnPoint point) {
+        return point.getRandomRadius() <= 0;
+    }
+
     @Override
     public boolean isApplicable(BossSpawnPoint point) {
         // 固定位置是默认策略，当 spawnMode 为 null、空或 "fixed" 时使用
@@ -3,12 +3,12 @@ package com.xiancore.systems.boss.location;
 import com.xiancore.XianCore;
 import com.xiancore.systems.boss.entity.BossSpawnPoint;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
 
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 import java.util.logging.Logger;
 
 /**
@@ -37,16 +37,41 @@ public class LocationScorer {
      * @return 综合评分 (0.0-1.0)
      */
     public double calculateSmartScore(Location location, BossSpawnPoint point) {
+        World world = location != null ? location.getWorld() : null;
+        if (world == null) return 0.0;
+
+        PlayerSpatialIndex players = point.isEnableSmartScoring()
+                ? PlayerSpatialIndex.forWorld(world) : PlayerSpatialIndex.EMPTY;
+        return calculateSmartScore(TerrainView.of(world), location, point, players);
+    }
+
+    /**
+     * 计算综合位置评分 (基于地形视图)
+     * 方块只从地形视图读取，玩家位置使用调用方预先构建的索引，可在工作线程上调用
+     *
+     * @param terrain  地形视图
+     * @param location 待评分的位置
+     * @param point    刷新点配置
+     * @param players  同一世界内的玩家位置索引
+     * @return 综合评分 (0.0-1.0)
+     */
+    public double calculateSmartScore(TerrainView terrain, Location location, BossSpawnPoint point,
+                                      PlayerSpatialIndex players) {
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+
         // 如果未启用智能评分，直接使用简单开阔度评分
         if (!point.isEnableSmartScoring()) {
-            return calculateOpennessScore(location);
+            return calculateOpennessScore(terrain, x, y, z);
         }
 
         // 各维度评分
-        double opennessScore = calculateOpennessScore(location);
-        double biomeScore = calculateBiomeMatchScore(location, point);
-        double spiritualScore = calculateSpiritualEnergyScore(location);
-        double playerDensityScore = calculatePlayerDensityScore(location);
+        Biome biome = terrain.getBiome(x, y, z);
+        double opennessScore = calculateOpennessScore(terrain, x, y, z);
+        double biomeScore = calculateBiomeMatchScore(biome, point);
+        double spiritualScore = calculateSpiritualEnergyScore(biome, y);
+        double playerDensityScore = calculatePlayerDensityScore(location, players);
 
         // 获取权重
         double w1 = point.getOpennessWeight();
@@ -90,15 +115,26 @@ public class LocationScorer {
         World world = location.getWorld();
         if (world == null) return 0.0;
 
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
+        return calculateOpennessScore(TerrainView.of(world),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
 
+    /**
+     * 计算方块位置的开阔度评分（0.0-1.0）
+     * 不可用区块中的方块按不开阔处理
+     *
+     * @param terrain 地形视图
+     * @param x       方块X
+     * @param y       方块Y
+     * @param z       方块Z
+     * @return 开阔度分数
+     */
+    public double calculateOpennessScore(TerrainView terrain, int x, int y, int z) {
         int totalChecks = 0;
         int openChecks = 0;
 
         // 1. 检查头顶是否露天（能看到天空）
-        boolean canSeeSky = world.getHighestBlockYAt(x, z) <= y;
+        boolean canSeeSky = terrain.getHighestBlockYAt(x, z) <= y;
         if (canSeeSky) {
             openChecks += 5; // 露天加5分
         }
@@ -118,8 +154,8 @@ public class LocationScorer {
 
                 // 检查该位置及上方2格是否为空气
                 for (int dy = 0; dy <= 2; dy++) {
-                    Block block = world.getBlockAt(checkX, y + dy, checkZ);
-                    if (block.getType().isSolid()) {
+                    Material type = terrain.getType(checkX, y + dy, checkZ);
+                    if (type == null || type.isSolid()) {
                         isOpen = false;
                         break;
                     }
@@ -150,15 +186,24 @@ public class LocationScorer {
      * @return 匹配评分 (0.0-1.0)
      */
     public double calculateBiomeMatchScore(Location location, BossSpawnPoint point) {
+        return calculateBiomeMatchScore(location.getBlock().getBiome(), point);
+    }
+
+    /**
+     * 计算生物群系匹配评分
+     *
+     * @param currentBiome 生物群系 (未知时为null)
+     * @param point        刷新点配置
+     * @return 匹配评分 (0.0-1.0)
+     */
+    public double calculateBiomeMatchScore(Biome currentBiome, BossSpawnPoint point) {
         List<String> preferredBiomes = point.getPreferredBiomes();
 
         // 如果没有配置偏好生物群系，返回中性分数
-        if (preferredBiomes == null || preferredBiomes.isEmpty()) {
+        if (preferredBiomes == null || preferredBiomes.isEmpty() || currentBiome == null) {
             return 0.5;
         }
 
-        // 获取当前位置的生物群系
-        Biome currentBiome = location.getBlock().getBiome();
         String biomeName = currentBiome.name();
 
         // 完全匹配：1.0分
@@ -188,8 +233,18 @@ public class LocationScorer {
      * @return 灵气评分 (0.0-1.0)
      */
     public double calculateSpiritualEnergyScore(Location location) {
-        Biome biome = location.getBlock().getBiome();
-        String biomeName = biome.name();
+        return calculateSpiritualEnergyScore(location.getBlock().getBiome(), location.getBlockY());
+    }
+
+    /**
+     * 计算灵气浓度评分
+     *
+     * @param biome 生物群系 (未知时为null)
+     * @param y     高度
+     * @return 灵气评分 (0.0-1.0)
+     */
+    public double calculateSpiritualEnergyScore(Biome biome, int y) {
+        String biomeName = biome != null ? biome.name() : "";
         double baseScore = 0.5; // 默认基础分
 
         // 高灵气生物群系（神秘、稀有）
@@ -226,7 +281,6 @@ public class LocationScorer {
         }
 
         // 环境加成：高度修正（高山获得加成）
-        int y = location.getBlockY();
         if (y > 120) {
             baseScore += 0.05; // 高处+5%
         } else if (y < 40) {
@@ -250,15 +304,19 @@ public class LocationScorer {
             return 0.5;
         }
 
-        // 统计附近玩家数量
-        int nearbyPlayers = 0;
-        int checkRadius = 100; // 检查半径100格
+        return calculatePlayerDensityScore(location, PlayerSpatialIndex.forWorld(world));
+    }
 
-        for (Player player : world.getPlayers()) {
-            if (player.getLocation().distance(location) <= checkRadius) {
-                nearbyPlayers++;
-            }
-        }
+    /**
+     * 计算玩家密集度评分 (基于玩家位置索引)
+     *
+     * @param location 位置
+     * @param players  同一世界内的玩家位置索引
+     * @return 密集度评分 (0.0-1.0)
+     */
+    public double calculatePlayerDensityScore(Location location, PlayerSpatialIndex players) {
+        // 统计附近玩家数量 (检查半径100格)
+        int nearbyPlayers = players.countWithin(location.getX(), location.getY(), location.getZ(), 100.0);
 
         // 评分逻辑：
         // 0人：0.3分（太冷清）
@@ -280,6 +338,16 @@ public class LocationScorer {
         }
     }
 
+    /**
+     * 获取候选位置的最低可接受分数
+     *
+     * @param point 刷新点配置
+     * @return 最低分数
+     */
+    public double getMinAcceptableScore(BossSpawnPoint point) {
+        return point.isEnableSmartScoring() ? point.getMinScore() : 0.3;
+    }
+
     /**
      * 从候选列表中选择最佳位置
      *
@@ -288,6 +356,19 @@ public class LocationScorer {
      * @return 最佳位置，如果所有候选都不合格则返回null
      */
     public Location selectBestLocation(List<Location> candidates, BossSpawnPoint point) {
+        return selectBestLocation(candidates, point, candidate -> calculateSmartScore(candidate, point));
+    }
+
+    /**
+     * 使用给定的评分函数从候选列表中选择最佳位置
+     *
+     * @param candidates 候选位置列表
+     * @param point      刷新点配置
+     * @param scoring    评分函数
+     * @return 最佳位置，如果所有候选都不合格则返回null
+     */
+    public Location selectBestLocation(List<Location> candidates, BossSpawnPoint point,
+                                       ToDoubleFunction<Location> scoring) {
         if (candidates == null || candidates.isEmpty()) {
             return null;
         }
@@ -296,7 +377,7 @@ public class LocationScorer {
         Location bestLocation = null;
 
         for (Location candidate : candidates) {
-            double score = calculateSmartScore(candidate, point);
+            double score = scoring.applyAsDouble(candidate);
 
             logger.info("  候选点: (" +
                     candidate.getBlockX() + ", " +
@@ -318,7 +399,7 @@ public class LocationScorer {
         }
 
         // 检查最佳候选是否达到最低分数要求
-        double minAcceptableScore = point.isEnableSmartScoring() ? point.getMinScore() : 0.3;
+        double minAcceptableScore = getMinAcceptableScore(point);
         if (bestLocation != null && bestScore >= minAcceptableScore) {
             return bestLocation;
         }
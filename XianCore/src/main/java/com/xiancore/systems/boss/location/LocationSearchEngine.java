@@ -0,0 +1,378 @@
+package com.xiancore.systems.boss.location;
+
+import com.xiancore.XianCore;
+import com.xiancore.systems.boss.entity.BossSpawnPoint;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * 异步位置搜索引擎
+ * 主线程只负责生成候选列和截取区块快照，地面检测、安全性和评分都在工作线程上基于快照完成
+ * <p>
+ * 区块获取顺序:
+ * <ol>
+ *   <li>已加载的区块直接截取快照</li>
+ *   <li>服务端提供 {@code World#getChunkAtAsync(int, int)} (Paper) 时异步加载后截取</li>
+ *   <li>否则排队，每 tick 最多同步加载 {@link #maxChunkLoadsPerTick} 个区块，把开销摊到多个 tick</li>
+ * </ol>
+ * 返回的 future 在工作线程上完成，调用方需要自行切回主线程再生成实体
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public class LocationSearchEngine {
+
+    /** 候选列周围需要截取的半径 (开阔度5格 + 悬崖检测1格 + 余量) */
+    private static final int CHUNK_MARGIN = 7;
+
+    /** 单次搜索的超时时间 */
+    private static final long SEARCH_TIMEOUT_SECONDS = 15;
+
+    /** Paper 的异步区块加载方法 (Spigot 上为null) */
+    private static final Method ASYNC_CHUNK_METHOD = findAsyncChunkMethod();
+
+    private final XianCore plugin;
+    private final Logger logger;
+    private final LocationScorer scorer;
+    private final SafetyAnalyzer safetyAnalyzer = new SafetyAnalyzer();
+
+    /** 评分工作线程池 (按需创建，关闭后可重新创建) */
+    private ExecutorService workers;
+
+    /** 待同步加载的区块 (仅主线程访问) */
+    private final Deque<PendingLoad> loadQueue = new ArrayDeque<>();
+
+    /** 分帧加载任务 */
+    private BukkitTask loadTask;
+
+    /** 每 tick 最多同步加载的区块数 */
+    private volatile int maxChunkLoadsPerTick = 2;
+
+    // ==================== 统计 ====================
+    private final AtomicLong totalSearches = new AtomicLong();
+    private final AtomicLong loadedSnapshots = new AtomicLong();
+    private final AtomicLong asyncLoads = new AtomicLong();
+    private final AtomicLong throttledLoads = new AtomicLong();
+    private final AtomicLong totalWorkerNanos = new AtomicLong();
+
+    public LocationSearchEngine(XianCore plugin, LocationScorer scorer) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.scorer = scorer;
+    }
+
+    // ==================== 搜索 ====================
+
+    /**
+     * 为刷新点搜索最佳生成位置 (主线程调用)
+     *
+     * @param strategy      位置选择策略
+     * @param point         刷新点配置
+     * @param maxCandidates 最大候选数量
+     * @return 最佳位置的 future，未找到时结果为null
+     */
+    public CompletableFuture<Location> search(LocationSelectionStrategy strategy, BossSpawnPoint point,
+                                              int maxCandidates) {
+        return searchOnSnapshots(strategy, point, maxCandidates, null,
+                (terrain, candidates, players) -> scorer.selectBestLocation(candidates, point,
+                        candidate -> scorer.calculateSmartScore(terrain, candidate, point, players)));
+    }
+
+    /**
+     * 为刷新点搜索并评分所有合格的候选位置 (主线程调用)
+     * 用于预先填充候选缓存，不做提前结束
+     *
+     * @param strategy      位置选择策略
+     * @param point         刷新点配置
+     * @param maxCandidates 最大候选数量
+     * @return 达到最低分数的候选 future，按评分从高到低排列
+     */
+    public CompletableFuture<List<SpawnCandidate>> searchCandidates(LocationSelectionStrategy strategy,
+                                                                    BossSpawnPoint point, int maxCandidates) {
+        return searchOnSnapshots(strategy, point, maxCandidates, List.of(), (terrain, candidates, players) -> {
+            double minScore = scorer.getMinAcceptableScore(point);
+            long now = System.currentTimeMillis();
+            List<SpawnCandidate> scored = new ArrayList<>(candidates.size());
+            for (Location candidate : candidates) {
+                double score = scorer.calculateSmartScore(terrain, candidate, point, players);
+                if (score >= minScore) {
+                    scored.add(SpawnCandidate.of(candidate, score, now));
+                }
+            }
+            scored.sort(Comparator.comparingDouble(SpawnCandidate::getScore).reversed());
+            return scored;
+        });
+    }
+
+    /**
+     * 截取快照并在工作线程上筛选候选，再交给评估函数
+     *
+     * @param empty 没有候选时的结果
+     */
+    private <T> CompletableFuture<T> searchOnSnapshots(LocationSelectionStrategy strategy, BossSpawnPoint point,
+                                                       int maxCandidates, T empty, CandidateEvaluator<T> evaluator) {
+        totalSearches.incrementAndGet();
+
+        List<Location> columns = strategy.generateColumns(point, maxCandidates);
+        World world = columns.isEmpty() ? null : columns.get(0).getWorld();
+        if (world == null) {
+            return CompletableFuture.completedFuture(empty);
+        }
+
+        // 1. 截取覆盖所有候选列及其检测范围的区块
+        List<Location> sameWorld = new ArrayList<>(columns.size());
+        Set<Long> chunkKeys = new LinkedHashSet<>();
+        for (Location column : columns) {
+            if (column.getWorld() != world) {
+                continue;
+            }
+            sameWorld.add(column);
+            int x = column.getBlockX();
+            int z = column.getBlockZ();
+            for (int cx = (x - CHUNK_MARGIN) >> 4; cx <= (x + CHUNK_MARGIN) >> 4; cx++) {
+                for (int cz = (z - CHUNK_MARGIN) >> 4; cz <= (z + CHUNK_MARGIN) >> 4; cz++) {
+                    chunkKeys.add(SnapshotTerrain.key(cx, cz));
+                }
+            }
+        }
+
+        List<CompletableFuture<ChunkSnapshot>> snapshots = new ArrayList<>(chunkKeys.size());
+        for (long key : chunkKeys) {
+            snapshots.add(snapshotChunk(world, (int) (key >> 32), (int) key));
+        }
+
+        // 2. 主线程上截取评分所需的其余状态
+        PlayerSpatialIndex players = point.isEnableSmartScoring()
+                ? PlayerSpatialIndex.forWorld(world) : PlayerSpatialIndex.EMPTY;
+        boolean autoFindGround = point.isAutoFindGround();
+        boolean keepWithoutGround = strategy.keepColumnWithoutGround(point);
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+
+        // 3. 快照齐备后在工作线程上评估
+        return CompletableFuture.allOf(snapshots.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> {
+                    long begin = System.nanoTime();
+                    SnapshotTerrain terrain = new SnapshotTerrain(minHeight, maxHeight);
+                    for (CompletableFuture<ChunkSnapshot> future : snapshots) {
+                        ChunkSnapshot snapshot = future.join();
+                        if (snapshot != null) {
+                            terrain.add(snapshot);
+                        }
+                    }
+
+                    List<Location> candidates = collectCandidates(terrain, world, sameWorld,
+                            autoFindGround, keepWithoutGround);
+                    T result;
+                    if (candidates.isEmpty()) {
+                        logger.warning("✗ [异步位置搜索] 刷新点 " + point.getId() + " 没有可用的候选位置");
+                        result = empty;
+                    } else {
+                        result = evaluator.evaluate(terrain, candidates, players);
+                    }
+                    totalWorkerNanos.addAndGet(System.nanoTime() - begin);
+                    return result;
+                }, workers())
+                .orTimeout(SEARCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 在快照上完成地面检测和安全过滤 (工作线程)
+     */
+    private List<Location> collectCandidates(SnapshotTerrain terrain, World world, List<Location> columns,
+                                             boolean autoFindGround, boolean keepWithoutGround) {
+        List<Location> candidates = new ArrayList<>(columns.size());
+
+        for (Location column : columns) {
+            int x = column.getBlockX();
+            int z = column.getBlockZ();
+            if (!terrain.hasChunk(x, z)) {
+                continue;
+            }
+
+            if (!autoFindGround) {
+                candidates.add(column);
+                continue;
+            }
+
+            int groundY = terrain.findGroundY(x, column.getBlockY(), z);
+            if (groundY == TerrainView.NO_GROUND) {
+                if (keepWithoutGround) {
+                    candidates.add(column);
+                }
+                continue;
+            }
+
+            // 自动寻找的地面还需通过安全检查 (岩浆、水、悬崖等)
+            if (safetyAnalyzer.isSafeLocation(terrain, x, groundY, z)) {
+                candidates.add(new Location(world, x + 0.5, groundY, z + 0.5));
+            }
+        }
+
+        return candidates;
+    }
+
+    // ==================== 区块快照 ====================
+
+    /**
+     * 获取区块快照 (主线程调用)，加载失败时结果为null
+     */
+    private CompletableFuture<ChunkSnapshot> snapshotChunk(World world, int chunkX, int chunkZ) {
+        if (world.isChunkLoaded(chunkX, chunkZ)) {
+            loadedSnapshots.incrementAndGet();
+            return CompletableFuture.completedFuture(takeSnapshot(world.getChunkAt(chunkX, chunkZ)));
+        }
+
+        if (ASYNC_CHUNK_METHOD != null) {
+            try {
+                CompletableFuture<?> future = (CompletableFuture<?>) ASYNC_CHUNK_METHOD.invoke(world, chunkX, chunkZ);
+                asyncLoads.incrementAndGet();
+                // Paper 在主线程上完成该 future，快照仍在主线程截取
+                return future.thenApply(chunk -> takeSnapshot((Chunk) chunk))
+                        .exceptionally(e -> null);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                logger.fine("异步区块加载不可用，改为分帧加载: " + e.getMessage());
+            }
+        }
+
+        PendingLoad load = new PendingLoad(world, chunkX, chunkZ);
+        loadQueue.add(load);
+        if (loadTask == null) {
+            loadTask = Bukkit.getScheduler().runTaskTimer(plugin, this::pumpLoads, 1L, 1L);
+        }
+        return load.future;
+    }
+
+    /**
+     * 每 tick 加载有限数量的区块
+     */
+    private void pumpLoads() {
+        for (int i = 0; i < maxChunkLoadsPerTick && !loadQueue.isEmpty(); i++) {
+            PendingLoad load = loadQueue.poll();
+            try {
+                load.future.complete(takeSnapshot(load.world.getChunkAt(load.chunkX, load.chunkZ)));
+                throttledLoads.incrementAndGet();
+            } catch (Exception e) {
+                load.future.complete(null);
+            }
+        }
+
+        if (loadQueue.isEmpty() && loadTask != null) {
+            loadTask.cancel();
+            loadTask = null;
+        }
+    }
+
+    private static ChunkSnapshot takeSnapshot(Chunk chunk) {
+        return chunk.getChunkSnapshot(true, true, false);
+    }
+
+    private static Method findAsyncChunkMethod() {
+        try {
+            return World.class.getMethod("getChunkAtAsync", int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    // ==================== 生命周期 ====================
+
+    private synchronized ExecutorService workers() {
+        if (workers == null || workers.isShutdown()) {
+            AtomicInteger index = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(2, r -> {
+                Thread t = new Thread(r, "BossLocationSearch-" + index.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return workers;
+    }
+
+    /**
+     * 停止搜索: 取消分帧加载并关闭工作线程 (主线程调用)
+     * 未完成的搜索以null结果结束
+     */
+    public void shutdown() {
+        if (loadTask != null) {
+            loadTask.cancel();
+            loadTask = null;
+        }
+        PendingLoad load;
+        while ((load = loadQueue.poll()) != null) {
+            load.future.complete(null);
+        }
+
+        synchronized (this) {
+            if (workers != null) {
+                workers.shutdownNow();
+                workers = null;
+            }
+        }
+    }
+
+    // ==================== 配置和统计 ====================
+
+    public void setMaxChunkLoadsPerTick(int maxChunkLoadsPerTick) {
+        this.maxChunkLoadsPerTick = Math.max(1, maxChunkLoadsPerTick);
+    }
+
+    /**
+     * 是否支持异步区块加载
+     */
+    public boolean isAsyncChunkLoadingSupported() {
+        return ASYNC_CHUNK_METHOD != null;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public String getStatistics() {
+        long searches = totalSearches.get();
+        return String.format(
+                "位置搜索: %d次, 已加载区块快照%d, 异步加载%d, 分帧加载%d, 平均评估耗时%.2fms",
+                searches, loadedSnapshots.get(), asyncLoads.get(), throttledLoads.get(),
+                searches > 0 ? totalWorkerNanos.get() / 1_000_000.0 / searches : 0.0);
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 候选评估函数 (工作线程)
+     */
+    @FunctionalInterface
+    private interface CandidateEvaluator<T> {
+        T evaluate(SnapshotTerrain terrain, List<Location> candidates, PlayerSpatialIndex players);
+    }
+
+    /**
+     * 排队等待加载的区块
+     */
+    private static class PendingLoad {
+        final World world;
+        final int chunkX;
+        final int chunkZ;
+        final CompletableFuture<ChunkSnapshot> future = new CompletableFuture<>();
+
+        PendingLoad(World world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
@@ -33,6 +33,40 @@ public interface LocationSelectionStrategy {
      */
     List<Location> generateCandidates(BossSpawnPoint point, int maxCandidates);
 
+    /**
+     * 生成候选列 (只计算坐标，不读取方块、不加载区块)
+     * 异步位置搜索在主线程调用此方法，再在区块快照上完成地面检测和评分；
+     * 默认实现退化为 {@link #generateCandidates}
+     *
+     * @param point      刷新点配置
+     * @param maxCandidates 最大候选数量
+     * @return 候选列，Y 为向下寻找地面的起始高度
+     */
+    default List<Location> generateColumns(BossSpawnPoint point, int maxCandidates) {
+        return generateCandidates(point, maxCandidates);
+    }
+
+    /**
+     * 自动寻找地面失败时是否保留原始坐标
+     *
+     * @param point 刷新点配置
+     * @return 是否保留
+     */
+    default boolean keepColumnWithoutGround(BossSpawnPoint point) {
+        return false;
+    }
+
+    /**
+     * 候选位置是否可以预先计算并缓存
+     * 依赖实时状态 (如玩家位置) 生成候选的策略应返回false
+     *
+     * @param point 刷新点配置
+     * @return 是否可缓存
+     */
+    default boolean isCacheable(BossSpawnPoint point) {
+        return true;
+    }
+
     /**
      * 检查此策略是否适用于给定的刷新点
      *
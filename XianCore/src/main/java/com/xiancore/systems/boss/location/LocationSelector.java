@@ -1,6 +1,7 @@
 package com.xiancore.systems.boss.location;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -185,8 +186,9 @@ public class LocationSelector {
             return null;
         }
 
-        // 计算每个候选位置的分数
+        // 计算每个候选位置的分数 (每个世界只构建一次玩家索引)
         Map<Location, Double> scores = new HashMap<>();
+        Map<World, PlayerSpatialIndex> playerIndexes = new HashMap<>();
         double maxScore = 0;
 
         for (Location candidate : candidates) {
@@ -195,7 +197,8 @@ public class LocationSelector {
 
             // 玩家分布分数
             double distributionScore = players != null && !players.isEmpty() ?
-                playerDistribution.calculateDistributionScore(candidate, players) : 0.5;
+                playerDistribution.calculateDistributionScore(candidate,
+                    playerIndexes.computeIfAbsent(candidate.getWorld(), w -> PlayerSpatialIndex.of(w, players))) : 0.5;
 
             // 距离分数 (远离其他Boss) - 这里简化处理
             double distanceScore = 0.5;
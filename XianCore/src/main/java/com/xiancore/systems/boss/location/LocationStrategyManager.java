@@ -7,6 +7,7 @@ import org.bukkit.Location;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -22,6 +23,7 @@ public class LocationStrategyManager {
     private final Logger logger;
     private final Map<String, LocationSelectionStrategy> strategies;
     private final LocationScorer scorer;
+    private final LocationSearchEngine searchEngine;
 
     /**
      * 默认候选位置数量
@@ -33,6 +35,7 @@ public class LocationStrategyManager {
         this.logger = plugin.getLogger();
         this.strategies = new HashMap<>();
         this.scorer = new LocationScorer(plugin);
+        this.searchEngine = new LocationSearchEngine(plugin, scorer);
 
         // 注册默认策略
         registerDefaultStrategies();
@@ -113,6 +116,50 @@ public class LocationStrategyManager {
         return bestLocation;
     }
 
+    /**
+     * 异步为刷新点选择最佳生成位置 (主线程调用)
+     * 候选列在主线程生成，地面检测和评分在区块快照上离线程完成，不会同步加载区块
+     *
+     * @param point 刷新点配置
+     * @return 最佳位置的 future (在工作线程上完成)，未找到合适位置时结果为null
+     */
+    public CompletableFuture<Location> determineSpawnLocationAsync(BossSpawnPoint point) {
+        LocationSelectionStrategy strategy = findApplicableStrategy(point);
+        if (strategy == null) {
+            logger.warning("✗ 未找到适用的位置选择策略: " + point.getSpawnMode());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        logger.info("[位置选择] 异步搜索，策略: " + strategy.getName() + ", 刷新点: " + point.getId());
+        return searchEngine.search(strategy, point, DEFAULT_MAX_CANDIDATES);
+    }
+
+    /**
+     * 异步计算刷新点所有合格的候选位置 (主线程调用)，用于填充候选缓存
+     *
+     * @param point         刷新点配置
+     * @param maxCandidates 最大候选数量
+     * @return 候选 future (在工作线程上完成)，按评分从高到低排列
+     */
+    public CompletableFuture<List<SpawnCandidate>> precomputeCandidates(BossSpawnPoint point, int maxCandidates) {
+        LocationSelectionStrategy strategy = findApplicableStrategy(point);
+        if (strategy == null || !strategy.isCacheable(point)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return searchEngine.searchCandidates(strategy, point, maxCandidates);
+    }
+
+    /**
+     * 判断刷新点的候选位置是否可以预先计算
+     *
+     * @param point 刷新点配置
+     * @return 是否可缓存
+     */
+    public boolean isCacheable(BossSpawnPoint point) {
+        LocationSelectionStrategy strategy = findApplicableStrategy(point);
+        return strategy != null && strategy.isCacheable(point);
+    }
+
     /**
      * 查找适用于刷新点的策略
      *
@@ -150,6 +197,23 @@ public class LocationStrategyManager {
         return scorer;
     }
 
+    /**
+     * 获取异步位置搜索引擎
+     *
+     * @return 搜索引擎
+     */
+    public LocationSearchEngine getSearchEngine() {
+        return searchEngine;
+    }
+
+    /**
+     * 停止进行中的异步搜索并丢弃缓存的玩家索引
+     */
+    public void shutdown() {
+        searchEngine.shutdown();
+        PlayerSpatialIndex.clearCache();
+    }
+
     /**
      * 获取所有已注册的策略名称
      *
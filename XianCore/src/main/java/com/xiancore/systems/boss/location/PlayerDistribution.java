@@ -1,6 +1,7 @@
 package com.xiancore.systems.boss.location;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -18,6 +19,7 @@ public class PlayerDistribution {
     // ==================== 常量 ====================
 
     private static final double DENSITY_CHECK_RADIUS = 50.0;  // 密度检查半径
+    private static final double FULL_SCORE_DISTANCE = 200.0;  // 分布满分距离
 
     // ==================== 分析方法 ====================
 
@@ -33,19 +35,24 @@ public class PlayerDistribution {
         if (location == null || players == null || players.isEmpty()) {
             return 0.5;
         }
+        return calculateDistributionScore(location, PlayerSpatialIndex.of(location.getWorld(), players));
+    }
 
-        // 计算到最近玩家的距离
-        double minDistance = Double.MAX_VALUE;
-        for (Player player : players) {
-            if (player.getWorld().equals(location.getWorld())) {
-                double distance = player.getLocation().distance(location);
-                minDistance = Math.min(minDistance, distance);
-            }
+    /**
+     * 计算玩家分布分数 (基于玩家位置索引)
+     *
+     * @param location 位置
+     * @param players 同一世界内的玩家位置索引
+     * @return 分布分数
+     */
+    public double calculateDistributionScore(Location location, PlayerSpatialIndex players) {
+        // 距离越远，分数越高 (最远200格为满分)，只需要在200格内查找最近玩家
+        double distanceSq = players.nearestDistanceSq(location.getX(), location.getY(), location.getZ(),
+                FULL_SCORE_DISTANCE);
+        if (distanceSq == Double.POSITIVE_INFINITY) {
+            return 1.0;
         }
-
-        // 距离越远，分数越高 (最远200格为满分)
-        double score = Math.min(1.0, minDistance / 200.0);
-        return score;
+        return Math.min(1.0, Math.sqrt(distanceSq) / FULL_SCORE_DISTANCE);
     }
 
     /**
@@ -60,16 +67,20 @@ public class PlayerDistribution {
         if (location == null || players == null) {
             return 1.0;
         }
+        return calculateDensityScore(location, PlayerSpatialIndex.of(location.getWorld(), players));
+    }
 
+    /**
+     * 计算位置的玩家密度分数 (基于玩家位置索引)
+     *
+     * @param location 位置
+     * @param players 同一世界内的玩家位置索引
+     * @return 密度分数 (高分=玩家少)
+     */
+    public double calculateDensityScore(Location location, PlayerSpatialIndex players) {
         // 计算半径内的玩家数量
-        int playerCount = 0;
-        for (Player player : players) {
-            if (player.getWorld().equals(location.getWorld())) {
-                if (player.getLocation().distance(location) <= DENSITY_CHECK_RADIUS) {
-                    playerCount++;
-                }
-            }
-        }
+        int playerCount = players.countWithin(location.getX(), location.getY(), location.getZ(),
+                DENSITY_CHECK_RADIUS);
 
         // 玩家数越少，分数越高 (0个玩家满分)
         return Math.max(0.0, 1.0 - (playerCount / 10.0));
@@ -86,27 +97,15 @@ public class PlayerDistribution {
             return null;
         }
 
-        double totalX = 0, totalY = 0, totalZ = 0;
-        int validCount = 0;
-
-        for (Player player : players) {
-            if (player.getLocation() != null) {
-                Location loc = player.getLocation();
-                totalX += loc.getX();
-                totalY += loc.getY();
-                totalZ += loc.getZ();
-                validCount++;
-            }
-        }
-
-        if (validCount == 0) {
+        double[] centroid = PlayerSpatialIndex.of(null, players).getCentroid();
+        if (centroid == null) {
             return null;
         }
 
         Location center = players.get(0).getWorld().getSpawnLocation();
-        center.setX(totalX / validCount);
-        center.setY(totalY / validCount);
-        center.setZ(totalZ / validCount);
+        center.setX(centroid[0]);
+        center.setY(centroid[1]);
+        center.setZ(centroid[2]);
 
         return center;
     }
@@ -122,20 +121,23 @@ public class PlayerDistribution {
         if (location == null || players == null || players.isEmpty()) {
             return Double.MAX_VALUE;
         }
+        return getDistanceToNearestPlayer(location, PlayerSpatialIndex.of(location.getWorld(), players));
+    }
 
-        double minDistance = Double.MAX_VALUE;
-        for (Player player : players) {
-            if (player.getWorld().equals(location.getWorld())) {
-                double distance = player.getLocation().distance(location);
-                minDistance = Math.min(minDistance, distance);
-            }
-        }
-
-        return minDistance;
+    /**
+     * 计算到最近玩家的距离 (基于玩家位置索引)
+     *
+     * @param location 位置
+     * @param players 同一世界内的玩家位置索引
+     * @return 距离，没有玩家时返回 {@link Double#MAX_VALUE}
+     */
+    public double getDistanceToNearestPlayer(Location location, PlayerSpatialIndex players) {
+        return players.nearestDistance(location.getX(), location.getY(), location.getZ());
     }
 
     /**
      * 获取最优分散位置 (远离玩家)
+     * 每个世界只构建一次玩家索引，每个候选只评分一次
      *
      * @param candidates 候选位置
      * @param players 在线玩家列表
@@ -147,12 +149,20 @@ public class PlayerDistribution {
         }
 
         // 按分布分数排序
-        List<Location> sorted = new ArrayList<>(candidates);
-        sorted.sort((a, b) -> Double.compare(
-            calculateDistributionScore(b, players),
-            calculateDistributionScore(a, players)
-        ));
+        Map<World, PlayerSpatialIndex> indexes = new HashMap<>();
+        List<Map.Entry<Location, Double>> scored = new ArrayList<>(candidates.size());
+        for (Location candidate : candidates) {
+            double score = players == null || players.isEmpty() ? 0.5
+                : calculateDistributionScore(candidate,
+                    indexes.computeIfAbsent(candidate.getWorld(), w -> PlayerSpatialIndex.of(w, players)));
+            scored.add(new AbstractMap.SimpleImmutableEntry<>(candidate, score));
+        }
+        scored.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
 
+        List<Location> sorted = new ArrayList<>(scored.size());
+        for (Map.Entry<Location, Double> entry : scored) {
+            sorted.add(entry.getKey());
+        }
         return sorted;
     }
 
@@ -160,11 +170,13 @@ public class PlayerDistribution {
      * 获取分析报告
      */
     public String getAnalysisReport(Location location, List<Player> players) {
+        PlayerSpatialIndex index = players != null && !players.isEmpty()
+            ? PlayerSpatialIndex.of(location.getWorld(), players) : PlayerSpatialIndex.EMPTY;
         StringBuilder sb = new StringBuilder();
         sb.append("=== 玩家分布分析 ===\n");
         sb.append(String.format("分布分数: %.2f\n", calculateDistributionScore(location, players)));
-        sb.append(String.format("密度分数: %.2f\n", calculateDensityScore(location, players)));
-        sb.append(String.format("最近玩家距离: %.1f\n", getDistanceToNearestPlayer(location, players)));
+        sb.append(String.format("密度分数: %.2f\n", calculateDensityScore(location, index)));
+        sb.append(String.format("最近玩家距离: %.1f\n", getDistanceToNearestPlayer(location, index)));
         sb.append(String.format("在线玩家数: %d\n", players != null ? players.size() : 0));
 
         if (players != null && !players.isEmpty()) {
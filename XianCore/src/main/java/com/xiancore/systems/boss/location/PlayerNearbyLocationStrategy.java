@@ -30,8 +30,16 @@ public class PlayerNearbyLocationStrategy extends AbstractLocationStrategy {
         return NAME;
     }
 
+    /**
+     * 候选位置跟随在线玩家变化，不能预先计算
+     */
     @Override
-    public List<Location> generateCandidates(BossSpawnPoint point, int maxCandidates) {
+    public boolean isCacheable(BossSpawnPoint point) {
+        return false;
+    }
+
+    @Override
+    public List<Location> generateColumns(BossSpawnPoint point, int maxCandidates) {
         List<Location> candidates = new ArrayList<>();
 
         // 1. 获取所有在线玩家
@@ -60,20 +68,7 @@ public class PlayerNearbyLocationStrategy extends AbstractLocationStrategy {
             int offsetX = (int) (distance * Math.cos(angle));
             int offsetZ = (int) (distance * Math.sin(angle));
 
-            Location candidateLoc = playerLoc.clone().add(offsetX, 0, offsetZ);
-
-            // 加载区块
-            candidateLoc.getChunk().load();
-
-            // 寻找安全地面
-            if (point.isAutoFindGround()) {
-                Location safeLoc = findSafeGroundLocation(candidateLoc);
-                if (safeLoc != null) {
-                    candidates.add(safeLoc);
-                }
-            } else {
-                candidates.add(candidateLoc);
-            }
+            candidates.add(playerLoc.clone().add(offsetX, 0, offsetZ));
         }
 
         logger.info("[玩家附近策略] 生成了 " + candidates.size() + " 个候选位置");
@@ -0,0 +1,344 @@
+package com.xiancore.systems.boss.location;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家位置空间索引
+ * 按 XZ 平面把玩家位置分入固定大小的网格，半径计数、最近玩家和中心点查询
+ * 只访问查询范围覆盖的网格，不再随 在线玩家数 × 候选数 增长
+ * <p>
+ * 索引构建后不可变，可在工作线程上读取；
+ * {@link #forWorld(World)} 为每个世界缓存一份索引，同一 tick 内重复查询不会重建
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public class PlayerSpatialIndex {
+
+    /** 网格边长 (格) */
+    static final int CELL_SIZE = 32;
+
+    /** 索引有效期，约一个 tick */
+    private static final long REFRESH_MILLIS = 50;
+
+    /** 空索引 */
+    public static final PlayerSpatialIndex EMPTY = new PlayerSpatialIndex(new double[0], new double[0], new double[0]);
+
+    /** 世界UID -> 最近一次构建的索引 */
+    private static final Map<UUID, PlayerSpatialIndex> WORLD_INDEXES = new ConcurrentHashMap<>();
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    /** 网格键 -> 该网格内的玩家下标 */
+    private final Map<Long, int[]> cells;
+
+    private final int minCellX;
+    private final int maxCellX;
+    private final int minCellZ;
+    private final int maxCellZ;
+
+    private final double sumX;
+    private final double sumY;
+    private final double sumZ;
+
+    private final long builtAt;
+
+    /**
+     * 构造函数
+     *
+     * @param xs 玩家X坐标
+     * @param ys 玩家Y坐标
+     * @param zs 玩家Z坐标
+     */
+    public PlayerSpatialIndex(double[] xs, double[] ys, double[] zs) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.builtAt = System.currentTimeMillis();
+
+        int n = xs.length;
+        Map<Long, Integer> counts = new HashMap<>();
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+        double sx = 0, sy = 0, sz = 0;
+        for (int i = 0; i < n; i++) {
+            int cx = cell(xs[i]);
+            int cz = cell(zs[i]);
+            counts.merge(key(cx, cz), 1, Integer::sum);
+            minX = Math.min(minX, cx);
+            maxX = Math.max(maxX, cx);
+            minZ = Math.min(minZ, cz);
+            maxZ = Math.max(maxZ, cz);
+            sx += xs[i];
+            sy += ys[i];
+            sz += zs[i];
+        }
+
+        this.cells = new HashMap<>(counts.size() * 2);
+        Map<Long, Integer> fill = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            cells.put(entry.getKey(), new int[entry.getValue()]);
+        }
+        for (int i = 0; i < n; i++) {
+            long key = key(cell(xs[i]), cell(zs[i]));
+            int slot = fill.merge(key, 1, Integer::sum) - 1;
+            cells.get(key)[slot] = i;
+        }
+
+        this.minCellX = minX;
+        this.maxCellX = maxX;
+        this.minCellZ = minZ;
+        this.maxCellZ = maxZ;
+        this.sumX = sx;
+        this.sumY = sy;
+        this.sumZ = sz;
+    }
+
+    // ==================== 构建 ====================
+
+    /**
+     * 获取世界的玩家索引 (主线程调用)
+     * 同一 tick 内返回同一份索引，过期后从 {@link World#getPlayers()} 重建
+     *
+     * @param world 世界
+     * @return 玩家索引
+     */
+    public static PlayerSpatialIndex forWorld(World world) {
+        if (world == null) {
+            return EMPTY;
+        }
+        long now = System.currentTimeMillis();
+        PlayerSpatialIndex cached = WORLD_INDEXES.get(world.getUID());
+        if (cached != null && now - cached.builtAt < REFRESH_MILLIS) {
+            return cached;
+        }
+
+        PlayerSpatialIndex index = of(world, world.getPlayers());
+        WORLD_INDEXES.put(world.getUID(), index);
+        return index;
+    }
+
+    /**
+     * 为给定玩家集合构建索引，只包含位于该世界的玩家
+     *
+     * @param world   世界 (为null时包含所有玩家)
+     * @param players 玩家列表
+     * @return 玩家索引
+     */
+    public static PlayerSpatialIndex of(World world, Collection<? extends Player> players) {
+        if (players == null || players.isEmpty()) {
+            return EMPTY;
+        }
+        List<Location> positions = new ArrayList<>(players.size());
+        for (Player player : players) {
+            Location location = player.getLocation();
+            if (location != null && (world == null || world.equals(location.getWorld()))) {
+                positions.add(location);
+            }
+        }
+        return ofLocations(positions);
+    }
+
+    /**
+     * 为位置列表构建索引
+     *
+     * @param positions 位置列表
+     * @return 玩家索引
+     */
+    public static PlayerSpatialIndex ofLocations(List<Location> positions) {
+        if (positions.isEmpty()) {
+            return EMPTY;
+        }
+        int n = positions.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            Location location = positions.get(i);
+            xs[i] = location.getX();
+            ys[i] = location.getY();
+            zs[i] = location.getZ();
+        }
+        return new PlayerSpatialIndex(xs, ys, zs);
+    }
+
+    /**
+     * 丢弃缓存的世界索引 (插件关闭时调用)
+     */
+    public static void clearCache() {
+        WORLD_INDEXES.clear();
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 索引中的玩家数
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    public boolean isEmpty() {
+        return xs.length == 0;
+    }
+
+    /**
+     * 统计球形半径内的玩家数
+     *
+     * @param radius 半径
+     * @return 玩家数
+     */
+    public int countWithin(double x, double y, double z, double radius) {
+        if (xs.length == 0) {
+            return 0;
+        }
+        double radiusSq = radius * radius;
+        int fromX = Math.max(cell(x - radius), minCellX);
+        int toX = Math.min(cell(x + radius), maxCellX);
+        int fromZ = Math.max(cell(z - radius), minCellZ);
+        int toZ = Math.min(cell(z + radius), maxCellZ);
+        if (fromX > toX || fromZ > toZ) {
+            return 0;
+        }
+
+        int count = 0;
+        // 覆盖的网格比有人的网格还多时直接遍历有人的网格
+        if ((long) (toX - fromX + 1) * (toZ - fromZ + 1) > cells.size()) {
+            for (int[] members : cells.values()) {
+                count += countMembers(members, x, y, z, radiusSq);
+            }
+            return count;
+        }
+
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cz = fromZ; cz <= toZ; cz++) {
+                int[] members = cells.get(key(cx, cz));
+                if (members != null) {
+                    count += countMembers(members, x, y, z, radiusSq);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 到最近玩家的距离
+     *
+     * @return 距离，索引为空时返回 {@link Double#MAX_VALUE}
+     */
+    public double nearestDistance(double x, double y, double z) {
+        double distanceSq = nearestDistanceSq(x, y, z, Double.POSITIVE_INFINITY);
+        return distanceSq == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : Math.sqrt(distanceSq);
+    }
+
+    /**
+     * 在最大半径内查找最近玩家的距离平方
+     * 从查询点所在网格向外逐圈搜索，找到的距离小于下一圈的最小可能距离时停止
+     *
+     * @param maxRadius 最大搜索半径
+     * @return 距离平方，半径内没有玩家时返回 {@link Double#POSITIVE_INFINITY}
+     */
+    public double nearestDistanceSq(double x, double y, double z, double maxRadius) {
+        if (xs.length == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        int cx = cell(x);
+        int cz = cell(z);
+        int maxRing = Math.max(Math.max(Math.abs(cx - minCellX), Math.abs(cx - maxCellX)),
+                Math.max(Math.abs(cz - minCellZ), Math.abs(cz - maxCellZ)));
+        if (maxRadius != Double.POSITIVE_INFINITY) {
+            maxRing = (int) Math.min(maxRing, Math.ceil(maxRadius / CELL_SIZE) + 1);
+        }
+
+        double best = Double.POSITIVE_INFINITY;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // 第 ring 圈内的点与查询点的水平距离至少为 (ring - 1) 个网格
+            double ringMin = (double) (ring - 1) * CELL_SIZE;
+            if (ring > 0 && ringMin * ringMin >= best) {
+                break;
+            }
+            best = Math.min(best, nearestInRing(cx, cz, ring, x, y, z));
+        }
+
+        return best <= maxRadius * maxRadius ? best : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 所有玩家的中心点
+     *
+     * @return {x, y, z}，索引为空时返回null
+     */
+    public double[] getCentroid() {
+        int n = xs.length;
+        return n > 0 ? new double[]{sumX / n, sumY / n, sumZ / n} : null;
+    }
+
+    // ==================== 内部方法 ====================
+
+    private int countMembers(int[] members, double x, double y, double z, double radiusSq) {
+        int count = 0;
+        for (int i : members) {
+            if (distanceSq(i, x, y, z) <= radiusSq) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double nearestInRing(int cx, int cz, int ring, double x, double y, double z) {
+        if (ring == 0) {
+            return nearestInCell(cx, cz, x, y, z);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int dx = -ring; dx <= ring; dx++) {
+            best = Math.min(best, nearestInCell(cx + dx, cz - ring, x, y, z));
+            best = Math.min(best, nearestInCell(cx + dx, cz + ring, x, y, z));
+        }
+        for (int dz = -ring + 1; dz <= ring - 1; dz++) {
+            best = Math.min(best, nearestInCell(cx - ring, cz + dz, x, y, z));
+            best = Math.min(best, nearestInCell(cx + ring, cz + dz, x, y, z));
+        }
+        return best;
+    }
+
+    private double nearestInCell(int cx, int cz, double x, double y, double z) {
+        int[] members = cells.get(key(cx, cz));
+        if (members == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i : members) {
+            best = Math.min(best, distanceSq(i, x, y, z));
+        }
+        return best;
+    }
+
+    private double distanceSq(int i, double x, double y, double z) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        double dz = zs[i] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int cell(double coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), CELL_SIZE);
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
@@ -33,7 +33,7 @@ public class RegionLocationStrategy extends AbstractLocationStrategy {
     }
 
     @Override
-    public List<Location> generateCandidates(BossSpawnPoint point, int maxCandidates) {
+    public List<Location> generateColumns(BossSpawnPoint point, int maxCandidates) {
         List<Location> candidates = new ArrayList<>();
 
         List<String> regions = point.getRegions();
@@ -60,22 +60,11 @@ public class RegionLocationStrategy extends AbstractLocationStrategy {
         logger.info("  区域范围: X(" + bounds.minX + " - " + bounds.maxX +
                    "), Z(" + bounds.minZ + " - " + bounds.maxZ + ")");
 
-        // 在区域内生成候选位置
+        // 在区域内生成候选列 (从较高处开始搜索地面)
         for (int i = 0; i < maxCandidates; i++) {
             int randomX = bounds.minX + random.nextInt(bounds.maxX - bounds.minX + 1);
             int randomZ = bounds.minZ + random.nextInt(bounds.maxZ - bounds.minZ + 1);
-
-            // 从较高处开始搜索
-            Location candidateLoc = new Location(bounds.world, randomX, 128, randomZ);
-
-            if (point.isAutoFindGround()) {
-                Location safeLoc = findSafeGroundLocation(candidateLoc);
-                if (safeLoc != null) {
-                    candidates.add(safeLoc);
-                }
-            } else {
-                candidates.add(candidateLoc);
-            }
+            candidates.add(new Location(bounds.world, randomX, 128, randomZ));
         }
 
         logger.info("[区域策略] 生成了 " + candidates.size() + " 个候选位置");
@@ -2,7 +2,6 @@ package com.xiancore.systems.boss.location;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
 
 import java.util.*;
 
@@ -47,25 +46,40 @@ public class SafetyAnalyzer {
             return 0.0;
         }
 
+        return calculateSafetyScore(TerrainView.of(location.getWorld()),
+            location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * 计算方块位置的安全性分数 (0.0-1.0)
+     * 只通过地形视图读取方块，可在工作线程上对区块快照调用
+     *
+     * @param terrain 地形视图
+     * @param x 方块X
+     * @param y 方块Y
+     * @param z 方块Z
+     * @return 安全性分数
+     */
+    public double calculateSafetyScore(TerrainView terrain, int x, int y, int z) {
         double score = 1.0;
 
         // 检查高度
-        if (!isHeightValid(location)) {
+        if (!isHeightValid(y)) {
             score -= 0.3;
         }
 
         // 检查危险方块
-        if (hasDangerousBlocks(location)) {
+        if (hasDangerousBlocks(terrain, x, y, z)) {
             score -= 0.4;
         }
 
         // 检查空间
-        if (!hasEnoughSpace(location)) {
+        if (!hasEnoughSpace(terrain, x, y, z)) {
             score -= 0.2;
         }
 
         // 检查悬崖
-        if (isOnCliff(location)) {
+        if (isOnCliff(terrain, x, y, z)) {
             score -= 0.1;
         }
 
@@ -82,6 +96,16 @@ public class SafetyAnalyzer {
         return calculateSafetyScore(location) >= 0.5;
     }
 
+    /**
+     * 判断方块位置是否安全
+     *
+     * @param terrain 地形视图
+     * @return 是否安全
+     */
+    public boolean isSafeLocation(TerrainView terrain, int x, int y, int z) {
+        return calculateSafetyScore(terrain, x, y, z) >= 0.5;
+    }
+
     /**
      * 过滤不安全的位置
      *
@@ -107,24 +131,22 @@ public class SafetyAnalyzer {
     /**
      * 检查高度是否有效
      */
-    private boolean isHeightValid(Location location) {
-        int y = location.getBlockY();
+    private boolean isHeightValid(int y) {
         return y >= MIN_HEIGHT && y <= MAX_HEIGHT;
     }
 
     /**
      * 检查周围是否有危险方块
      */
-    private boolean hasDangerousBlocks(Location location) {
-        if (location.getBlock().getType() == Material.LAVA ||
-            location.getBlock().getType() == Material.MAGMA_BLOCK) {
+    private boolean hasDangerousBlocks(TerrainView terrain, int x, int y, int z) {
+        Material feet = terrain.getType(x, y, z);
+        if (feet == Material.LAVA || feet == Material.MAGMA_BLOCK) {
             return true;
         }
 
         // 检查下方2格
         for (int i = 0; i < 2; i++) {
-            Block below = location.getBlock().getRelative(0, -i, 0);
-            if (DANGEROUS_BLOCKS.contains(below.getType())) {
+            if (DANGEROUS_BLOCKS.contains(terrain.getType(x, y - i, z))) {
                 return true;
             }
         }
@@ -135,32 +157,28 @@ public class SafetyAnalyzer {
     /**
      * 检查是否有足够的空间
      */
-    private boolean hasEnoughSpace(Location location) {
-        Block block = location.getBlock();
+    private boolean hasEnoughSpace(TerrainView terrain, int x, int y, int z) {
+        // 需要至少2格高的空间 (区块不可用时视为不足)
+        Material above1 = terrain.getType(x, y + 1, z);
+        Material above2 = terrain.getType(x, y + 2, z);
 
-        // 需要至少2格高的空间
-        Block above1 = block.getRelative(0, 1, 0);
-        Block above2 = block.getRelative(0, 2, 0);
-
-        return !above1.getType().isSolid() && !above2.getType().isSolid();
+        return above1 != null && above2 != null && !above1.isSolid() && !above2.isSolid();
     }
 
     /**
      * 检查是否在悬崖边缘
      */
-    private boolean isOnCliff(Location location) {
+    private boolean isOnCliff(TerrainView terrain, int x, int y, int z) {
         // 检查周围8个方向是否有下陷
         int[][] directions = {{1,0}, {-1,0}, {0,1}, {0,-1},
                               {1,1}, {1,-1}, {-1,1}, {-1,-1}};
 
-        int baseY = location.getBlockY();
-
         for (int[] dir : directions) {
-            Block neighbor = location.getBlock().getRelative(dir[0], 0, dir[1]);
-            Block below = neighbor.getRelative(0, -1, 0);
+            Material neighbor = terrain.getType(x + dir[0], y, z + dir[1]);
+            Material below = terrain.getType(x + dir[0], y - 1, z + dir[1]);
 
             // 如果相邻块是空的或液体，可能是悬崖
-            if (neighbor.getType() == Material.AIR && below.getType() == Material.AIR) {
+            if (neighbor == Material.AIR && below == Material.AIR) {
                 return true;
             }
         }
@@ -174,18 +192,20 @@ public class SafetyAnalyzer {
      * 获取位置详细的安全性报告
      */
     public String getSafetyReport(Location location) {
+        TerrainView terrain = TerrainView.of(location.getWorld());
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+
         StringBuilder sb = new StringBuilder();
         sb.append("=== 安全性报告 ===\n");
-        sb.append(String.format("位置: (%d, %d, %d)\n",
-            location.getBlockX(),
-            location.getBlockY(),
-            location.getBlockZ()));
-        sb.append(String.format("安全性分数: %.2f\n", calculateSafetyScore(location)));
-        sb.append(String.format("高度有效: %s\n", isHeightValid(location) ? "是" : "否"));
-        sb.append(String.format("危险方块: %s\n", hasDangerousBlocks(location) ? "有" : "无"));
-        sb.append(String.format("空间足够: %s\n", hasEnoughSpace(location) ? "是" : "否"));
-        sb.append(String.format("悬崖边缘: %s\n", isOnCliff(location) ? "是" : "否"));
-        sb.append(String.format("安全: %s\n", isSafeLocation(location) ? "是" : "否"));
+        sb.append(String.format("位置: (%d, %d, %d)\n", x, y, z));
+        sb.append(String.format("安全性分数: %.2f\n", calculateSafetyScore(terrain, x, y, z)));
+        sb.append(String.format("高度有效: %s\n", isHeightValid(y) ? "是" : "否"));
+        sb.append(String.format("危险方块: %s\n", hasDangerousBlocks(terrain, x, y, z) ? "有" : "无"));
+        sb.append(String.format("空间足够: %s\n", hasEnoughSpace(terrain, x, y, z) ? "是" : "否"));
+        sb.append(String.format("悬崖边缘: %s\n", isOnCliff(terrain, x, y, z) ? "是" : "否"));
+        sb.append(String.format("安全: %s\n", isSafeLocation(terrain, x, y, z) ? "是" : "否"));
 
         return sb.toString();
     }
@@ -194,7 +214,27 @@ public class SafetyAnalyzer {
      * 计算到最近安全位置的调整
      */
     public Location findNearestSafeLocation(Location location, int radius) {
-        if (isSafeLocation(location)) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+        return findNearestSafeLocation(TerrainView.of(location.getWorld()), location, radius);
+    }
+
+    /**
+     * 在地形视图中逐层向外寻找最近的安全位置
+     * 只读取地形视图，不访问世界，可在工作线程上调用
+     *
+     * @param terrain 地形视图
+     * @param location 起始位置
+     * @param radius 搜索半径
+     * @return 安全位置，未找到返回null
+     */
+    public Location findNearestSafeLocation(TerrainView terrain, Location location, int radius) {
+        int baseX = location.getBlockX();
+        int y = location.getBlockY();
+        int baseZ = location.getBlockZ();
+
+        if (isSafeLocation(terrain, baseX, y, baseZ)) {
             return location;
         }
 
@@ -203,9 +243,8 @@ public class SafetyAnalyzer {
             for (int x = -r; x <= r; x++) {
                 for (int z = -r; z <= r; z++) {
                     if (Math.abs(x) == r || Math.abs(z) == r) {  // 只检查外围
-                        Location candidate = location.clone().add(x, 0, z);
-                        if (isSafeLocation(candidate)) {
-                            return candidate;
+                        if (isSafeLocation(terrain, baseX + x, y, baseZ + z)) {
+                            return location.clone().add(x, 0, z);
                         }
                     }
                 }
@@ -0,0 +1,106 @@
+package com.xiancore.systems.boss.location;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于区块快照的地形视图
+ * 快照在主线程截取后即不可变，可在任意线程读取；未截取的区块视为不可用
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public class SnapshotTerrain implements TerrainView {
+
+    private final Map<Long, ChunkSnapshot> chunks;
+    private final int minHeight;
+    private final int maxHeight;
+
+    /**
+     * 构造函数
+     *
+     * @param minHeight 世界最低高度
+     * @param maxHeight 世界最高高度
+     */
+    public SnapshotTerrain(int minHeight, int maxHeight) {
+        this.chunks = new HashMap<>();
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+    }
+
+    /**
+     * 添加区块快照 (构建阶段调用，之后只读)
+     *
+     * @param snapshot 区块快照
+     */
+    public void add(ChunkSnapshot snapshot) {
+        chunks.put(key(snapshot.getX(), snapshot.getZ()), snapshot);
+    }
+
+    /**
+     * 判断方块坐标所在区块是否可用
+     */
+    public boolean hasChunk(int x, int z) {
+        return chunks.containsKey(key(x >> 4, z >> 4));
+    }
+
+    /**
+     * 已包含的区块数
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        ChunkSnapshot chunk = chunks.get(key(x >> 4, z >> 4));
+        if (chunk == null) {
+            return null;
+        }
+        if (y < minHeight) {
+            return Material.VOID_AIR;
+        }
+        if (y >= maxHeight) {
+            return Material.AIR;
+        }
+        return chunk.getBlockType(x & 15, y, z & 15);
+    }
+
+    @Override
+    public int getHighestBlockYAt(int x, int z) {
+        ChunkSnapshot chunk = chunks.get(key(x >> 4, z >> 4));
+        return chunk != null ? chunk.getHighestBlockYAt(x & 15, z & 15) : maxHeight;
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        ChunkSnapshot chunk = chunks.get(key(x >> 4, z >> 4));
+        if (chunk == null) {
+            return null;
+        }
+        int clampedY = Math.max(minHeight, Math.min(maxHeight - 1, y));
+        return chunk.getBiome(x & 15, clampedY, z & 15);
+    }
+
+    @Override
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    @Override
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * 区块坐标打包为键
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,118 @@
+package com.xiancore.systems.boss.location;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * 预计算的生成候选位置
+ * 记录已通过地面和安全检查的坐标、评分以及最后一次验证时间
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+@Getter
+public class SpawnCandidate {
+
+    /** 世界名称 */
+    private final String worldName;
+
+    /** 方块坐标 */
+    private final int x;
+    private final int y;
+    private final int z;
+
+    /** 综合评分 */
+    private final double score;
+
+    /** 最后一次验证时间 */
+    private long validatedAt;
+
+    /** 是否需要在使用前重新验证 (如从磁盘恢复的候选) */
+    private boolean revalidationRequired;
+
+    public SpawnCandidate(String worldName, int x, int y, int z, double score, long validatedAt) {
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.score = score;
+        this.validatedAt = validatedAt;
+    }
+
+    /**
+     * 从位置创建候选
+     */
+    public static SpawnCandidate of(Location location, double score, long validatedAt) {
+        return new SpawnCandidate(location.getWorld().getName(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ(), score, validatedAt);
+    }
+
+    /**
+     * 标记验证通过
+     */
+    public void markValidated(long now) {
+        this.validatedAt = now;
+        this.revalidationRequired = false;
+    }
+
+    /**
+     * 标记需要重新验证
+     */
+    public void requireRevalidation() {
+        this.revalidationRequired = true;
+    }
+
+    /**
+     * 所在区块的键
+     */
+    public long getChunkKey() {
+        return SnapshotTerrain.key(x >> 4, z >> 4);
+    }
+
+    /**
+     * 判断是否与另一个候选处于同一方块
+     */
+    public boolean sameBlock(SpawnCandidate other) {
+        return x == other.x && y == other.y && z == other.z && worldName.equals(other.worldName);
+    }
+
+    /**
+     * 转换为生成位置 (方块中心)
+     */
+    public Location toLocation(World world) {
+        return new Location(world, x + 0.5, y, z + 0.5);
+    }
+
+    /**
+     * 序列化为一行文本: world;x;y;z;score;validatedAt
+     */
+    public String serialize() {
+        return worldName + ";" + x + ";" + y + ";" + z + ";" + score + ";" + validatedAt;
+    }
+
+    /**
+     * 从一行文本解析
+     *
+     * @return 候选位置，格式错误返回null
+     */
+    public static SpawnCandidate deserialize(String line) {
+        String[] parts = line.split(";");
+        if (parts.length != 6) {
+            return null;
+        }
+        try {
+            return new SpawnCandidate(parts[0],
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                    Double.parseDouble(parts[4]), Long.parseLong(parts[5]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SpawnCandidate{%s (%d, %d, %d), score=%.2f}", worldName, x, y, z, score);
+    }
+}
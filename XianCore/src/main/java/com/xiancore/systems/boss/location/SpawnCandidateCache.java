@@ -0,0 +1,474 @@
+package com.xiancore.systems.boss.location;
+
+import com.xiancore.XianCore;
+import com.xiancore.systems.boss.entity.BossSpawnPoint;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * 生成位置候选缓存
+ * 后台为每个刷新点预先计算一批已通过地面和安全检查、已评分的候选位置，
+ * 刷新时直接从池中取出最高分的候选，不再在主线程上扫描方块
+ * <p>
+ * 候选在取用时惰性验证: 超过有效期、所在区块有方块变动或从磁盘恢复的候选，
+ * 只重新检查该位置本身；验证失败的候选直接丢弃。所有池操作都在主线程上进行
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public class SpawnCandidateCache implements Listener {
+
+    /** 单次取用最多验证的候选数，超过后回退到异步搜索 */
+    private static final int MAX_POLL_ATTEMPTS = 3;
+
+    private final XianCore plugin;
+    private final Logger logger;
+    private final LocationStrategyManager strategyManager;
+    private final Supplier<Collection<BossSpawnPoint>> pointSupplier;
+    private final SafetyAnalyzer safetyAnalyzer = new SafetyAnalyzer();
+    private final File dataFile;
+
+    /** 刷新点ID -> 候选池 */
+    private final Map<String, SpawnCandidatePool> pools = new HashMap<>();
+
+    /** 世界名 -> 区块键 -> 监听状态 (只记录有候选的区块) */
+    private final Map<String, Map<Long, ChunkWatch>> watchedChunks = new HashMap<>();
+
+    private BukkitTask refillTask;
+    private int refillsInFlight;
+
+    // ==================== 配置 ====================
+    private boolean enabled = true;
+    private int poolSize = 8;
+    private long ttlMillis = 30 * 60 * 1000L;
+    private long refillIntervalTicks = 15 * 20L;
+    private int maxConcurrentRefills = 1;
+
+    // ==================== 统计 ====================
+    private long hits;
+    private long misses;
+    private long revalidations;
+    private long discarded;
+
+    public SpawnCandidateCache(XianCore plugin, LocationStrategyManager strategyManager,
+                               Supplier<Collection<BossSpawnPoint>> pointSupplier) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.strategyManager = strategyManager;
+        this.pointSupplier = pointSupplier;
+        this.dataFile = new File(new File(plugin.getDataFolder(), "boss-data"), "spawn-candidates.yml");
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 读取配置、恢复缓存并启动后台补充任务 (主线程调用)
+     */
+    public void start() {
+        ConfigurationSection config = plugin.getConfig().getConfigurationSection("boss-refresh.candidate-cache");
+        if (config != null) {
+            enabled = config.getBoolean("enabled", true);
+            poolSize = Math.max(1, config.getInt("pool-size", 8));
+            ttlMillis = Math.max(1, config.getLong("ttl-seconds", 1800)) * 1000L;
+            refillIntervalTicks = Math.max(1, config.getLong("refill-interval-seconds", 15)) * 20L;
+        }
+        if (!enabled) {
+            logger.info("§e生成位置候选缓存已禁用");
+            return;
+        }
+
+        load();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        refillTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refill, 20L, refillIntervalTicks);
+        logger.info("✓ 生成位置候选缓存已启动 (每个刷新点 " + poolSize + " 个候选, 已恢复 " + pools.size() + " 个刷新点)");
+    }
+
+    /**
+     * 停止后台补充并保存缓存 (主线程调用)
+     */
+    public void shutdown() {
+        if (refillTask == null) {
+            return;
+        }
+        refillTask.cancel();
+        refillTask = null;
+        refillsInFlight = 0;
+        HandlerList.unregisterAll(this);
+        save();
+
+        pools.clear();
+        watchedChunks.clear();
+    }
+
+    // ==================== 取用 ====================
+
+    /**
+     * 取出刷新点的最佳候选位置 (主线程调用)
+     *
+     * @param point 刷新点
+     * @return 已验证的生成位置，没有可用候选时返回null (调用方回退到异步搜索)
+     */
+    public Location poll(BossSpawnPoint point) {
+        if (refillTask == null) {
+            return null;
+        }
+
+        SpawnCandidatePool pool = pools.get(point.getId());
+        if (pool == null || !pool.getSignature().equals(signatureOf(point))) {
+            misses++;
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        SpawnCandidate candidate = pool.poll(c -> isUsable(c, point, now), MAX_POLL_ATTEMPTS, this::unwatch);
+        if (candidate == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return candidate.toLocation(Bukkit.getWorld(candidate.getWorldName()));
+    }
+
+    /**
+     * 判断候选是否仍可使用，必要时重新验证
+     */
+    private boolean isUsable(SpawnCandidate candidate, BossSpawnPoint point, long now) {
+        World world = Bukkit.getWorld(candidate.getWorldName());
+        if (world == null) {
+            discarded++;
+            return false;
+        }
+
+        // 不自动寻找地面时候选就是配置的坐标，不需要检查方块
+        if (!point.isAutoFindGround()) {
+            return true;
+        }
+
+        boolean stale = candidate.isRevalidationRequired()
+                || now - candidate.getValidatedAt() > ttlMillis
+                || changedSince(candidate, candidate.getValidatedAt());
+        if (!stale) {
+            return true;
+        }
+
+        // 只检查候选自身所在的列；该区块随后生成Boss时本来就要加载
+        revalidations++;
+        TerrainView terrain = TerrainView.of(world);
+        int x = candidate.getX();
+        int y = candidate.getY();
+        int z = candidate.getZ();
+        Material ground = terrain.getType(x, y - 1, z);
+        if (ground != null && ground.isSolid()
+                && terrain.isAir(x, y, z) && terrain.isAir(x, y + 1, z) && terrain.isAir(x, y + 2, z)
+                && safetyAnalyzer.isSafeLocation(terrain, x, y, z)) {
+            candidate.markValidated(now);
+            return true;
+        }
+
+        discarded++;
+        return false;
+    }
+
+    // ==================== 后台补充 ====================
+
+    /**
+     * 为候选不足的刷新点补充候选 (主线程定时调用)
+     */
+    private void refill() {
+        long now = System.currentTimeMillis();
+        Set<String> activeIds = new HashSet<>();
+
+        for (BossSpawnPoint point : pointSupplier.get()) {
+            activeIds.add(point.getId());
+            if (refillsInFlight >= maxConcurrentRefills) {
+                continue;
+            }
+
+            if (!strategyManager.isCacheable(point)) {
+                dropPool(point.getId());
+                continue;
+            }
+
+            String signature = signatureOf(point);
+            SpawnCandidatePool pool = pools.get(point.getId());
+            if (pool == null || !pool.getSignature().equals(signature)) {
+                dropPool(point.getId());
+                pool = new SpawnCandidatePool(signature);
+                pools.put(point.getId(), pool);
+            }
+
+            if (!needsRefill(pool, now)) {
+                continue;
+            }
+            startRefill(point, pool);
+        }
+
+        // 移除已注销或禁用刷新点的池
+        for (String id : new ArrayList<>(pools.keySet())) {
+            if (!activeIds.contains(id)) {
+                dropPool(id);
+            }
+        }
+    }
+
+    /**
+     * 判断池是否需要补充
+     * 上次补充没有带来新候选时 (如固定位置) 等到有效期过后再试
+     */
+    private boolean needsRefill(SpawnCandidatePool pool, long now) {
+        if (pool.isRefilling() || pool.size() > poolSize / 2) {
+            return false;
+        }
+        return pool.getLastRefillAdded() != 0 || now - pool.getLastRefillTime() > ttlMillis;
+    }
+
+    private void startRefill(BossSpawnPoint point, SpawnCandidatePool pool) {
+        pool.setRefilling(true);
+        refillsInFlight++;
+
+        strategyManager.precomputeCandidates(point, poolSize * 2).whenComplete((fresh, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pool.setRefilling(false);
+                if (refillTask == null || pools.get(point.getId()) != pool) {
+                    return;
+                }
+                refillsInFlight = Math.max(0, refillsInFlight - 1);
+
+                if (error != null) {
+                    logger.warning("✗ [候选缓存] 刷新点 " + point.getId() + " 补充失败: " + error);
+                    return;
+                }
+
+                pool.getCandidates().forEach(this::unwatch);
+                pool.merge(fresh, poolSize);
+                pool.getCandidates().forEach(this::watch);
+            });
+        });
+    }
+
+    /**
+     * 移除刷新点的候选池
+     *
+     * @param pointId 刷新点ID
+     */
+    public void invalidate(String pointId) {
+        dropPool(pointId);
+    }
+
+    private void dropPool(String pointId) {
+        SpawnCandidatePool pool = pools.remove(pointId);
+        if (pool != null) {
+            if (pool.isRefilling()) {
+                refillsInFlight = Math.max(0, refillsInFlight - 1);
+            }
+            pool.clear(this::unwatch);
+        }
+    }
+
+    /**
+     * 刷新点配置签名，位置相关配置变化后旧候选作废
+     */
+    static String signatureOf(BossSpawnPoint point) {
+        return String.join("|",
+                String.valueOf(point.getSpawnMode()), String.valueOf(point.getWorld()),
+                String.valueOf(point.getX()), String.valueOf(point.getY()), String.valueOf(point.getZ()),
+                String.valueOf(point.getRandomRadius()), String.valueOf(point.getSpawnRadius()),
+                String.valueOf(point.isAutoFindGround()),
+                String.valueOf(point.getMinDistance()), String.valueOf(point.getMaxDistance()),
+                String.valueOf(point.getRegions()),
+                String.valueOf(point.isEnableSmartScoring()), String.valueOf(point.getMinScore()),
+                String.valueOf(point.getPreferredBiomes()),
+                String.valueOf(point.getBiomeWeight()), String.valueOf(point.getSpiritualEnergyWeight()),
+                String.valueOf(point.getPlayerDensityWeight()), String.valueOf(point.getOpennessWeight()));
+    }
+
+    // ==================== 区块变动 ====================
+
+    private void watch(SpawnCandidate candidate) {
+        watchedChunks.computeIfAbsent(candidate.getWorldName(), k -> new HashMap<>())
+                .computeIfAbsent(candidate.getChunkKey(), k -> new ChunkWatch())
+                .references++;
+    }
+
+    private void unwatch(SpawnCandidate candidate) {
+        Map<Long, ChunkWatch> chunks = watchedChunks.get(candidate.getWorldName());
+        if (chunks == null) {
+            return;
+        }
+        ChunkWatch watch = chunks.get(candidate.getChunkKey());
+        if (watch != null && --watch.references <= 0) {
+            chunks.remove(candidate.getChunkKey());
+            if (chunks.isEmpty()) {
+                watchedChunks.remove(candidate.getWorldName());
+            }
+        }
+    }
+
+    private boolean changedSince(SpawnCandidate candidate, long time) {
+        Map<Long, ChunkWatch> chunks = watchedChunks.get(candidate.getWorldName());
+        ChunkWatch watch = chunks != null ? chunks.get(candidate.getChunkKey()) : null;
+        return watch != null && watch.lastChange > time;
+    }
+
+    private void markChanged(Block block) {
+        Map<Long, ChunkWatch> chunks = watchedChunks.get(block.getWorld().getName());
+        if (chunks == null) {
+            return;
+        }
+        ChunkWatch watch = chunks.get(SnapshotTerrain.key(block.getX() >> 4, block.getZ() >> 4));
+        if (watch != null) {
+            watch.lastChange = System.currentTimeMillis();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFlow(BlockFromToEvent event) {
+        markChanged(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        event.blockList().forEach(this::markChanged);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        event.blockList().forEach(this::markChanged);
+    }
+
+    // ==================== 持久化 ====================
+
+    /**
+     * 从磁盘恢复候选，恢复的候选在首次取用前重新验证
+     */
+    private void load() {
+        if (!dataFile.exists()) {
+            return;
+        }
+
+        try {
+            YamlConfiguration data = YamlConfiguration.loadConfiguration(dataFile);
+            ConfigurationSection section = data.getConfigurationSection("points");
+            if (section == null) {
+                return;
+            }
+
+            for (String pointId : section.getKeys(false)) {
+                String signature = section.getString(pointId + ".signature");
+                if (signature == null) {
+                    continue;
+                }
+                SpawnCandidatePool pool = new SpawnCandidatePool(signature);
+                for (String line : section.getStringList(pointId + ".candidates")) {
+                    SpawnCandidate candidate = SpawnCandidate.deserialize(line);
+                    if (candidate != null && pool.size() < poolSize) {
+                        candidate.requireRevalidation();
+                        pool.restore(candidate);
+                        watch(candidate);
+                    }
+                }
+                if (!pool.isEmpty()) {
+                    pools.put(pointId, pool);
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("✗ 加载生成位置候选缓存失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 保存当前候选
+     */
+    private void save() {
+        try {
+            YamlConfiguration data = new YamlConfiguration();
+            for (Map.Entry<String, SpawnCandidatePool> entry : pools.entrySet()) {
+                SpawnCandidatePool pool = entry.getValue();
+                if (pool.isEmpty()) {
+                    continue;
+                }
+                List<String> lines = new ArrayList<>(pool.size());
+                for (SpawnCandidate candidate : pool.getCandidates()) {
+                    lines.add(candidate.serialize());
+                }
+                data.set("points." + entry.getKey() + ".signature", pool.getSignature());
+                data.set("points." + entry.getKey() + ".candidates", lines);
+            }
+
+            dataFile.getParentFile().mkdirs();
+            data.save(dataFile);
+        } catch (Exception e) {
+            logger.warning("✗ 保存生成位置候选缓存失败: " + e.getMessage());
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 获取刷新点当前的候选数量
+     */
+    public int getPoolSize(String pointId) {
+        SpawnCandidatePool pool = pools.get(pointId);
+        return pool != null ? pool.size() : 0;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public String getStatistics() {
+        long total = hits + misses;
+        int candidates = 0;
+        for (SpawnCandidatePool pool : pools.values()) {
+            candidates += pool.size();
+        }
+        return String.format(
+                "候选缓存: %d个刷新点/%d个候选, 命中%d/%d (%.1f%%), 重新验证%d, 丢弃%d",
+                pools.size(), candidates, hits, total, total > 0 ? hits * 100.0 / total : 0.0,
+                revalidations, discarded);
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 区块监听状态
+     */
+    private static class ChunkWatch {
+        int references;
+        long lastChange;
+    }
+}
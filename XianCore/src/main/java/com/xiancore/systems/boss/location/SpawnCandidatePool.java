@@ -0,0 +1,147 @@
+package com.xiancore.systems.boss.location;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 单个刷新点的候选位置池
+ * 候选按评分从高到低排列，取用时从队首弹出，不可用的候选直接丢弃
+ * <p>
+ * 池与刷新点配置签名绑定，配置变化后由 {@link SpawnCandidateCache} 整体替换
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public class SpawnCandidatePool {
+
+    /** 刷新点配置签名 */
+    @Getter
+    private final String signature;
+
+    /** 候选队列 (评分从高到低) */
+    private Deque<SpawnCandidate> candidates = new ArrayDeque<>();
+
+    /** 是否有补充任务在进行 */
+    @Getter
+    @Setter
+    private boolean refilling;
+
+    /** 上次补充时间 */
+    @Getter
+    private long lastRefillTime;
+
+    /** 上次补充新增的候选数 */
+    @Getter
+    private int lastRefillAdded = -1;
+
+    public SpawnCandidatePool(String signature) {
+        this.signature = signature;
+    }
+
+    /**
+     * 合并新计算的候选
+     * 同一方块保留新计算的候选，合并后按评分排序并截断到容量
+     *
+     * @param fresh    新候选
+     * @param capacity 池容量
+     * @return 新增的候选数 (之前不在池中的方块)
+     */
+    public int merge(List<SpawnCandidate> fresh, int capacity) {
+        List<SpawnCandidate> merged = new ArrayList<>(fresh.size() + candidates.size());
+        for (SpawnCandidate candidate : fresh) {
+            if (!containsBlock(merged, candidate)) {
+                merged.add(candidate);
+            }
+        }
+        for (SpawnCandidate existing : candidates) {
+            if (!containsBlock(merged, existing)) {
+                merged.add(existing);
+            }
+        }
+
+        merged.sort(Comparator.comparingDouble(SpawnCandidate::getScore).reversed());
+        if (merged.size() > capacity) {
+            merged.subList(capacity, merged.size()).clear();
+        }
+
+        int added = 0;
+        for (SpawnCandidate candidate : merged) {
+            if (!containsBlock(candidates, candidate)) {
+                added++;
+            }
+        }
+
+        candidates = new ArrayDeque<>(merged);
+        lastRefillTime = System.currentTimeMillis();
+        lastRefillAdded = added;
+        return added;
+    }
+
+    /**
+     * 弹出第一个可用的候选，不可用的候选直接丢弃
+     *
+     * @param usable      可用性判断
+     * @param maxAttempts 最多判断的候选数
+     * @param removed     被弹出候选的回调 (包括返回的候选)
+     * @return 可用候选，没有时返回null
+     */
+    public SpawnCandidate poll(Predicate<SpawnCandidate> usable, int maxAttempts, Consumer<SpawnCandidate> removed) {
+        for (int i = 0; i < maxAttempts && !candidates.isEmpty(); i++) {
+            SpawnCandidate candidate = candidates.pollFirst();
+            removed.accept(candidate);
+            if (usable.test(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 添加从磁盘恢复的候选 (保持原有顺序)
+     */
+    public void restore(SpawnCandidate candidate) {
+        candidates.addLast(candidate);
+    }
+
+    /**
+     * 清空并回调所有候选
+     */
+    public void clear(Consumer<SpawnCandidate> removed) {
+        candidates.forEach(removed);
+        candidates.clear();
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    public boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * 获取候选快照 (评分从高到低)
+     */
+    public List<SpawnCandidate> getCandidates() {
+        return Collections.unmodifiableList(new ArrayList<>(candidates));
+    }
+
+    private static boolean containsBlock(Iterable<SpawnCandidate> list, SpawnCandidate candidate) {
+        for (SpawnCandidate other : list) {
+            if (other.sameBlock(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package com.xiancore.systems.boss.location;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+
+/**
+ * 地形只读视图
+ * 位置搜索中的地面检测、安全性和开阔度计算都只通过此接口读取方块，
+ * 主线程上可直接包装 {@link World}，工作线程上使用 {@link SnapshotTerrain} 包装区块快照
+ *
+ * @author XianCore Team
+ * @version 1.0.0
+ * @since 2025-11-14
+ */
+public interface TerrainView {
+
+    /** 未找到地面时 {@link #findGroundY} 的返回值 */
+    int NO_GROUND = Integer.MIN_VALUE;
+
+    /**
+     * 获取方块类型
+     *
+     * @return 方块类型，所在区块不可用时返回null
+     */
+    Material getType(int x, int y, int z);
+
+    /**
+     * 获取最高非空气方块的Y坐标
+     *
+     * @return Y坐标，所在区块不可用时返回 {@link #getMaxHeight()}
+     */
+    int getHighestBlockYAt(int x, int z);
+
+    /**
+     * 获取生物群系
+     *
+     * @return 生物群系，所在区块不可用时返回null
+     */
+    Biome getBiome(int x, int y, int z);
+
+    int getMinHeight();
+
+    int getMaxHeight();
+
+    /**
+     * 从给定高度向下寻找可站立的地面
+     * 要求: 固体方块且上方至少3格空气
+     *
+     * @param x 方块X
+     * @param startY 起始Y
+     * @param z 方块Z
+     * @return 站立位置的Y (地面方块上一格)，未找到返回 {@link #NO_GROUND}
+     */
+    default int findGroundY(int x, int startY, int z) {
+        int top = Math.min(startY, getMaxHeight() - 10);
+        for (int y = top; y > getMinHeight(); y--) {
+            Material ground = getType(x, y, z);
+            if (ground == null) {
+                return NO_GROUND;
+            }
+            if (ground.isSolid() && isAir(x, y + 1, z) && isAir(x, y + 2, z) && isAir(x, y + 3, z)) {
+                return y + 1;
+            }
+        }
+        return NO_GROUND;
+    }
+
+    /**
+     * 判断方块是否为空气 (区块不可用时视为否)
+     */
+    default boolean isAir(int x, int y, int z) {
+        Material type = getType(x, y, z);
+        return type != null && type.isAir();
+    }
+
+    /**
+     * 包装一个已加载的世界 (只能在主线程使用)
+     *
+     * @param world 世界
+     * @return 地形视图
+     */
+    static TerrainView of(World world) {
+        return new TerrainView() {
+            @Override
+            public Material getType(int x, int y, int z) {
+                return world.getBlockAt(x, y, z).getType();
+            }
+
+            @Override
+            public int getHighestBlockYAt(int x, int z) {
+                return world.getHighestBlockYAt(x, z);
+            }
+
+            @Override
+            public Biome getBiome(int x, int y, int z) {
+                return world.getBlockAt(x, y, z).getBiome();
+            }
+
+            @Override
+            public int getMinHeight() {
+                return world.getMinHeight();
+            }
+
+            @Override
+            public int getMaxHeight() {
+                return world.getMaxHeight();
+            }
+        };
+    }
+}
@@ -12,6 +12,7 @@ import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
 
 /**
@@ -44,6 +45,21 @@ public class BossRewardManager {
         this.rewardPools = new HashMap<>();
     }
     
+    /**
+     * 离线构造函数（不依赖服务器，用于伤害回放等工具）
+     * 只能用于 {@link #planRewards}，不能发放奖励
+     * 
+     * @param config 奖励配置 (boss-rewards.yml)
+     * @param logger 日志记录器
+     */
+    public BossRewardManager(FileConfiguration config, Logger logger) {
+        this.plugin = null;
+        this.mythicIntegration = null;
+        this.logger = logger;
+        this.rewardPools = new HashMap<>();
+        loadConfig(config);
+    }
+    
     /**
      * 初始化奖励系统
      */
@@ -76,8 +92,15 @@ public class BossRewardManager {
             plugin.saveResource("boss-rewards.yml", false);
         }
         
-        FileConfiguration config = YamlConfiguration.loadConfiguration(configFile);
-        
+        loadConfig(YamlConfiguration.loadConfiguration(configFile));
+    }
+    
+    /**
+     * 从配置对象加载奖励设置
+     * 
+     * @param config 奖励配置
+     */
+    public void loadConfig(FileConfiguration config) {
         // 加载全局设置
         enableRewards = config.getBoolean("settings.enable-rewards", true);
         enableMoneyRewards = config.getBoolean("settings.enable-money-rewards", true);
@@ -172,7 +195,8 @@ public class BossRewardManager {
                     .build();
                     
             case MONEY:
-                if (!enableMoneyRewards || !VaultIntegration.isEnabled()) {
+                // Vault 是否可用在发放时检查，离线计算奖励时也需要保留金钱项
+                if (!enableMoneyRewards) {
                     return null;
                 }
                 double money = section.getDouble("amount", 0.0);
@@ -238,15 +262,7 @@ public class BossRewardManager {
             return Collections.emptyList();
         }
         
-        // 获取奖励池
-        RewardPool pool = getRewardPool(tier, rank);
-        if (pool == null || pool.isEmpty()) {
-            // 使用默认奖励
-            return giveDefaultRewards(player, tier, rank, damagePercent);
-        }
-        
-        // 获取缩放后的奖励
-        List<Reward> rewards = pool.getScaledRewards(damagePercent);
+        List<Reward> rewards = planRewards(tier, rank, damagePercent, ThreadLocalRandom.current());
         
         // 发放奖励
         List<Reward> givenRewards = new ArrayList<>();
@@ -259,6 +275,32 @@ public class BossRewardManager {
         return givenRewards;
     }
     
+    /**
+     * 计算玩家应得的奖励（只计算不发放）
+     * 概率由传入的随机源决定，回放时使用固定种子即可复现
+     * 
+     * @param tier Boss等级
+     * @param rank 排名
+     * @param damagePercent 伤害占比
+     * @param random 随机源
+     * @return 应发放的奖励列表
+     */
+    public List<Reward> planRewards(int tier, int rank, double damagePercent, Random random) {
+        if (!enableRewards) {
+            return Collections.emptyList();
+        }
+        
+        // 获取奖励池
+        RewardPool pool = getRewardPool(tier, rank);
+        if (pool == null || pool.isEmpty()) {
+            // 使用默认奖励
+            return planDefaultRewards(tier, rank, damagePercent);
+        }
+        
+        // 获取缩放后的奖励
+        return pool.getScaledRewards(damagePercent, random);
+    }
+    
     /**
      * 发放单个奖励
      */
@@ -344,9 +386,10 @@ public class BossRewardManager {
     }
     
     /**
-     * 给予默认奖励（当配置不存在时）
+     * 计算默认奖励（当配置不存在时）
+     * 金钱奖励是否到账由发放时的 Vault 状态决定
      */
-    private List<Reward> giveDefaultRewards(Player player, int tier, int rank, double damagePercent) {
+    private List<Reward> planDefaultRewards(int tier, int rank, double damagePercent) {
         List<Reward> rewards = new ArrayList<>();
         
         // 默认排名倍率
@@ -362,17 +405,12 @@ public class BossRewardManager {
         
         // 经验奖励
         int expAmount = (int) (50.0 * tier * finalMultiplier);
-        Reward expReward = Reward.experience(expAmount);
-        player.giveExp(expAmount);
-        rewards.add(expReward);
+        rewards.add(Reward.experience(expAmount));
         
         // 金钱奖励（如果启用）
-        if (enableMoneyRewards && VaultIntegration.isEnabled()) {
+        if (enableMoneyRewards) {
             double moneyAmount = 100.0 * tier * finalMultiplier;
-            Reward moneyReward = Reward.money(moneyAmount);
-            if (VaultIntegration.giveMoney(player, moneyAmount)) {
-                rewards.add(moneyReward);
-            }
+            rewards.add(Reward.money(moneyAmount));
         }
         
         return rewards;
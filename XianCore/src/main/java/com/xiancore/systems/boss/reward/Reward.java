@@ -5,6 +5,7 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * 单个奖励项
@@ -87,6 +88,13 @@ public class Reward {
         return Math.random() < chance;
     }
     
+    /**
+     * 是否触发（使用指定随机源，便于回放时复现）
+     */
+    public boolean shouldGive(Random random) {
+        return random.nextDouble() < chance;
+    }
+    
     /**
      * Builder 模式创建奖励
      */
@@ -2,6 +2,8 @@ package com.xiancore.systems.boss.reward;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 奖励池 - 存储某个排名/等级的所有奖励
@@ -52,9 +54,16 @@ public class RewardPool {
      * 获取应该给予的奖励（基于概率筛选）
      */
     public List<Reward> getRolledRewards() {
+        return getRolledRewards(ThreadLocalRandom.current());
+    }
+    
+    /**
+     * 获取应该给予的奖励（使用指定随机源）
+     */
+    public List<Reward> getRolledRewards(Random random) {
         List<Reward> result = new ArrayList<>();
         for (Reward reward : rewards) {
-            if (reward.shouldGive()) {
+            if (reward.shouldGive(random)) {
                 result.add(reward);
             }
         }
@@ -65,10 +74,17 @@ public class RewardPool {
      * 获取缩放后的奖励（应用排名倍率）
      */
     public List<Reward> getScaledRewards(double damagePercent) {
+        return getScaledRewards(damagePercent, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * 获取缩放后的奖励（使用指定随机源）
+     */
+    public List<Reward> getScaledRewards(double damagePercent, Random random) {
         List<Reward> result = new ArrayList<>();
         double finalMultiplier = rankMultiplier * (0.5 + damagePercent);
         
-        for (Reward reward : getRolledRewards()) {
+        for (Reward reward : getRolledRewards(random)) {
             Reward scaledReward = scaleReward(reward, finalMultiplier);
             result.add(scaledReward);
         }
@@ -713,13 +713,9 @@ public class SectSystem {
      * 保存所有宗门数据
      */
     public void saveAll() {
-        plugin.getLogger().info(String.format("正在保存 %d 个宗门的数据...", sects.size()));
-
-        // 保存宗门基础数据
-        for (Sect sect : sects.values()) {
-            sect.touch();
-            plugin.getDataManager().saveSect(sect);
-        }
+        // 保存宗门基础数据（只写入有变化的宗门和成员）
+        int saved = plugin.getDataManager().saveSects(sects.values());
+        plugin.getLogger().info(String.format("已保存 %d/%d 个宗门的数据（未变化的已跳过）", saved, sects.size()));
 
         // 保存仓库数据
         if (warehouseManager != null) {
@@ -0,0 +1,76 @@
+package com.xiancore.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PathCache 单元测试
+ */
+public class PathCacheTest {
+
+    /**
+     * 沿X轴的直线路径
+     */
+    private static PathfindingAI.PathResult straightPath(int fromX, int toX) {
+        PathfindingAI.PathResult result = new PathfindingAI.PathResult();
+        for (int x = fromX; x <= toX; x++) {
+            result.path.add(new PathfindingAI.Node(x, 64, 0));
+        }
+        result.distance = toX - fromX;
+        result.success = true;
+        return result;
+    }
+
+    @Test
+    public void testHitReturnsFreshCopy() {
+        PathCache cache = new PathCache(16, 60_000L);
+        assertNull(cache.get("world", 0, 64, 0, 20, 64, 0));
+
+        cache.put("world", 0, 64, 0, 20, 64, 0, straightPath(0, 20));
+        PathfindingAI.PathResult first = cache.get("world", 0, 64, 0, 20, 64, 0);
+        assertNotNull(first);
+        assertTrue(first.success);
+        assertEquals(21, first.path.size());
+        assertEquals(20.0, first.distance);
+        assertSame(first.path.get(0), first.path.get(1).parent);
+
+        first.path.clear();
+        assertEquals(21, cache.get("world", 0, 64, 0, 20, 64, 0).path.size());
+        assertNull(cache.get("world_nether", 0, 64, 0, 20, 64, 0));
+    }
+
+    @Test
+    public void testChunkChangeInvalidatesPathsThroughIt() {
+        PathCache cache = new PathCache(16, 60_000L);
+        cache.put("world", 0, 64, 0, 20, 64, 0, straightPath(0, 20));   // 区块 0, 1
+        cache.put("world", 0, 64, 0, 10, 64, 0, straightPath(0, 10));   // 区块 0
+        cache.put("world", 40, 64, 0, 50, 64, 0, straightPath(40, 50)); // 区块 2, 3
+
+        assertEquals(2, cache.invalidateChunk("world", 0, 0));
+        assertNull(cache.get("world", 0, 64, 0, 20, 64, 0));
+        assertNull(cache.get("world", 0, 64, 0, 10, 64, 0));
+        assertNotNull(cache.get("world", 40, 64, 0, 50, 64, 0));
+
+        assertEquals(0, cache.invalidateChunk("world", 1, 0));
+        assertEquals(0, cache.invalidateChunk("world_nether", 2, 0));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedAndIgnoresFailures() {
+        PathCache cache = new PathCache(2, 60_000L);
+        cache.put("world", 0, 64, 0, 5, 64, 0, straightPath(0, 5));
+        cache.put("world", 0, 64, 0, 6, 64, 0, straightPath(0, 6));
+        cache.get("world", 0, 64, 0, 5, 64, 0);
+        cache.put("world", 0, 64, 0, 7, 64, 0, straightPath(0, 7));
+
+        assertNotNull(cache.get("world", 0, 64, 0, 5, 64, 0));
+        assertNull(cache.get("world", 0, 64, 0, 6, 64, 0));
+        assertNotNull(cache.get("world", 0, 64, 0, 7, 64, 0));
+
+        cache.put("world", 0, 64, 0, 9, 64, 0, new PathfindingAI.PathResult());
+        assertNull(cache.get("world", 0, 64, 0, 9, 64, 0));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,220 @@
+package com.xiancore.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * PathfindingAI 基准测试
+ * 大网格上测量索引堆实现的开阔和绕墙寻路；小网格上与原先 PriorityQueue + 线性查找的实现对比
+ * (原实现在大网格绕墙时是 O(n²)，无法在合理时间内完成)
+ * <p>
+ * 运行: 在测试类路径下执行本类的 main 方法，或 org.openjdk.jmh.Main PathfindingAIBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class PathfindingAIBenchmark {
+
+    /**
+     * 在 x = size / 2 处有一堵墙，只在 z = size - 1 处留有缺口
+     */
+    static boolean walled(int size, int x, int y, int z) {
+        if (x < 0 || x >= size || y < 0 || y >= size || z < 0 || z >= size) {
+            return false;
+        }
+        return x != size / 2 || z == size - 1;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LargeGrid {
+        @Param({"64", "128"})
+        public int size;
+
+        PathfindingAI open;
+        PathfindingAI walled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Logger.getLogger(PathfindingAI.class.getName()).setLevel(java.util.logging.Level.OFF);
+            open = new PathfindingAI(size);
+            walled = new PathfindingAI(size) {
+                @Override
+                protected boolean isWalkable(int x, int y, int z) {
+                    return walled(size, x, y, z);
+                }
+            };
+            walled.setMaxExpansions(Integer.MAX_VALUE);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SmallGrid {
+        @Param({"24"})
+        public int size;
+
+        PathfindingAI indexed;
+        LegacyPathfinding legacy;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Logger.getLogger(PathfindingAI.class.getName()).setLevel(java.util.logging.Level.OFF);
+            indexed = new PathfindingAI(size) {
+                @Override
+                protected boolean isWalkable(int x, int y, int z) {
+                    return walled(size, x, y, z);
+                }
+            };
+            legacy = new LegacyPathfinding(size);
+        }
+    }
+
+    @Benchmark
+    public PathfindingAI.PathResult openDiagonal(LargeGrid grid) {
+        int end = grid.size - 1;
+        return grid.open.findPath(0, 0, 0, end, end, end);
+    }
+
+    @Benchmark
+    public PathfindingAI.PathResult aroundWall(LargeGrid grid) {
+        int end = grid.size - 1;
+        return grid.walled.findPath(0, grid.size / 2, 0, end, grid.size / 2, 0);
+    }
+
+    @Benchmark
+    public PathfindingAI.PathResult timeSlicedAroundWall(LargeGrid grid) {
+        int end = grid.size - 1;
+        PathfindingAI.PathSearch search = grid.walled.startSearch(0, grid.size / 2, 0, end, grid.size / 2, 0);
+        while (!search.stepFor(1_000_000L)) {
+            // 每个时间片 1ms，模拟每 tick 推进一次
+        }
+        return search.getResult();
+    }
+
+    @Benchmark
+    public PathfindingAI.PathResult indexedSmallWall(SmallGrid grid) {
+        int end = grid.size - 1;
+        return grid.indexed.findPath(0, grid.size / 2, 0, end, grid.size / 2, 0);
+    }
+
+    @Benchmark
+    public boolean legacySmallWall(SmallGrid grid) {
+        int end = grid.size - 1;
+        return grid.legacy.findPath(0, grid.size / 2, 0, end, grid.size / 2, 0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PathfindingAIBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * 原先的实现: PriorityQueue + 线性查找开放集 + 字符串关闭集
+     */
+    static class LegacyPathfinding {
+        private final int size;
+
+        LegacyPathfinding(int size) {
+            this.size = size;
+        }
+
+        private static class Node {
+            final int x, y, z;
+            double g, f;
+            Node parent;
+
+            Node(int x, int y, int z) {
+                this.x = x;
+                this.y = y;
+                this.z = z;
+            }
+
+            String getKey() {
+                return x + "," + y + "," + z;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Node node)) return false;
+                return x == node.x && y == node.y && z == node.z;
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(x, y, z);
+            }
+        }
+
+        boolean findPath(int sx, int sy, int sz, int ex, int ey, int ez) {
+            Node end = new Node(ex, ey, ez);
+            PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble((Node n) -> n.f));
+            Set<String> closedSet = new HashSet<>();
+            Node start = new Node(sx, sy, sz);
+            start.f = distance(start, end);
+            openSet.add(start);
+
+            while (!openSet.isEmpty()) {
+                Node current = openSet.poll();
+                if (current.equals(end)) {
+                    return true;
+                }
+                closedSet.add(current.getKey());
+
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            if (dx == 0 && dy == 0 && dz == 0) continue;
+                            if (!walled(size, current.x + dx, current.y + dy, current.z + dz)) continue;
+                            Node neighbor = new Node(current.x + dx, current.y + dy, current.z + dz);
+                            if (closedSet.contains(neighbor.getKey())) continue;
+
+                            double tentativeG = current.g + distance(current, neighbor);
+                            Node openNode = null;
+                            for (Node node : openSet) {
+                                if (node.equals(neighbor)) {
+                                    openNode = node;
+                                    break;
+                                }
+                            }
+                            if (openNode != null && tentativeG >= openNode.g) continue;
+
+                            neighbor.g = tentativeG;
+                            neighbor.f = tentativeG + distance(neighbor, end);
+                            neighbor.parent = current;
+                            if (openNode == null) {
+                                openSet.add(neighbor);
+                            }
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static double distance(Node a, Node b) {
+            double dx = a.x - b.x;
+            double dy = a.y - b.y;
+            double dz = a.z - b.z;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.xiancore.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PathfindingAI 单元测试
+ */
+public class PathfindingAITest {
+
+    /**
+     * 在 x = wallX 处有一堵墙，只在 (wallX, *, holeZ) 处留有缺口
+     */
+    private static class WalledPathfinding extends PathfindingAI {
+        private final int size;
+        private final int wallX;
+        private final int holeZ;
+
+        WalledPathfinding(int size, int wallX, int holeZ) {
+            super(size);
+            this.size = size;
+            this.wallX = wallX;
+            this.holeZ = holeZ;
+        }
+
+        @Override
+        protected boolean isWalkable(int x, int y, int z) {
+            if (!super.isWalkable(x, y, z)) {
+                return false;
+            }
+            return x != wallX || z == holeZ;
+        }
+
+        /**
+         * 暴力 Dijkstra，作为最短距离的参照
+         */
+        double dijkstra(int sx, int sy, int sz, int ex, int ey, int ez) {
+            double[] dist = new double[size * size * size];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            dist[(sx * size + sy) * size + sz] = 0;
+            queue.add(new double[]{0, sx, sy, sz});
+            while (!queue.isEmpty()) {
+                double[] top = queue.poll();
+                int x = (int) top[1], y = (int) top[2], z = (int) top[3];
+                if (top[0] > dist[(x * size + y) * size + z]) continue;
+                if (x == ex && y == ey && z == ez) return top[0];
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            if (dx == 0 && dy == 0 && dz == 0) continue;
+                            int nx = x + dx, ny = y + dy, nz = z + dz;
+                            if (!isWalkable(nx, ny, nz)) continue;
+                            double nd = top[0] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+                            int key = (nx * size + ny) * size + nz;
+                            if (nd < dist[key]) {
+                                dist[key] = nd;
+                                queue.add(new double[]{nd, nx, ny, nz});
+                            }
+                        }
+                    }
+                }
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Test
+    public void testStraightPathInOpenGrid() {
+        PathfindingAI ai = new PathfindingAI(16);
+        PathfindingAI.PathResult result = ai.findPath(0, 0, 0, 5, 5, 5);
+
+        assertTrue(result.success);
+        assertEquals(6, result.path.size());
+        assertEquals(5 * Math.sqrt(3), result.distance, 1e-9);
+        assertEquals(2, ai.smoothPath(result.path).size());
+        assertSame(result.path.get(4), result.path.get(5).parent);
+    }
+
+    @Test
+    public void testStartEqualsGoal() {
+        PathfindingAI.PathResult result = new PathfindingAI(8).findPath(3, 3, 3, 3, 3, 3);
+        assertTrue(result.success);
+        assertEquals(1, result.path.size());
+        assertEquals(0.0, result.distance);
+    }
+
+    @Test
+    public void testPathAroundWallIsOptimal() {
+        WalledPathfinding ai = new WalledPathfinding(12, 6, 10);
+        PathfindingAI.PathResult result = ai.findPath(0, 2, 0, 11, 2, 0);
+
+        assertTrue(result.success);
+        assertEquals(ai.dijkstra(0, 2, 0, 11, 2, 0), result.distance, 1e-9);
+        for (PathfindingAI.Node node : result.path) {
+            assertTrue(ai.isWalkable(node.x, node.y, node.z));
+        }
+
+        // 上下文复用后结果不变
+        PathfindingAI.PathResult again = ai.findPath(0, 2, 0, 11, 2, 0);
+        assertEquals(result.distance, again.distance, 1e-9);
+        assertEquals(result.nodesExpanded, again.nodesExpanded);
+    }
+
+    @Test
+    public void testUnreachableGoal() {
+        // 没有缺口的墙 (缺口位于网格外)
+        WalledPathfinding ai = new WalledPathfinding(6, 3, 99);
+        PathfindingAI.PathResult result = ai.findPath(0, 0, 0, 5, 0, 0);
+        assertFalse(result.success);
+        assertFalse(result.budgetExceeded);
+        assertEquals(3 * 6 * 6, result.nodesExpanded);
+    }
+
+    @Test
+    public void testExpansionBudget() {
+        WalledPathfinding ai = new WalledPathfinding(24, 12, 23);
+        ai.setMaxExpansions(50);
+        PathfindingAI.PathResult result = ai.findPath(0, 0, 0, 23, 0, 0);
+        assertFalse(result.success);
+        assertTrue(result.budgetExceeded);
+        assertEquals(50, result.nodesExpanded);
+    }
+
+    @Test
+    public void testOversizedContextIsNotPooled() {
+        // 墙左侧 20*40*40 个节点全部被扩展，上下文容量超过池化上限
+        WalledPathfinding ai = new WalledPathfinding(40, 20, 99);
+        ai.setMaxExpansions(Integer.MAX_VALUE);
+        PathfindingAI.PathResult result = ai.findPath(0, 0, 0, 39, 0, 0);
+        assertFalse(result.success);
+        assertTrue(result.nodesExpanded > PathfindingAI.MAX_POOLED_CAPACITY);
+        assertEquals(0, ai.getStatistics().get("pooled_contexts"));
+
+        assertTrue(ai.findPath(0, 0, 0, 5, 5, 5).success);
+        assertEquals(1, ai.getStatistics().get("pooled_contexts"));
+    }
+
+    @Test
+    public void testTimeSlicedSearchMatchesFullSearch() {
+        WalledPathfinding ai = new WalledPathfinding(16, 8, 14);
+        PathfindingAI.PathResult full = ai.findPath(0, 4, 0, 15, 4, 0);
+
+        PathfindingAI.PathSearch search = ai.startSearch(0, 4, 0, 15, 4, 0);
+        int slices = 0;
+        while (!search.step(7)) {
+            assertNull(search.getResult());
+            slices++;
+        }
+        PathfindingAI.PathResult sliced = search.getResult();
+
+        assertTrue(slices > 1);
+        assertTrue(sliced.success);
+        assertEquals(full.distance, sliced.distance, 1e-9);
+        assertEquals(full.nodesExpanded, sliced.nodesExpanded);
+    }
+
+    @Test
+    public void testCancelReleasesSearch() {
+        PathfindingAI ai = new PathfindingAI(32);
+        PathfindingAI.PathSearch search = ai.startSearch(0, 0, 0, 31, 31, 31);
+        search.step(3);
+        search.cancel();
+
+        assertTrue(search.isDone());
+        assertFalse(search.getResult().success);
+        assertEquals(1, ai.getStatistics().get("pooled_contexts"));
+
+        List<PathfindingAI.Node> path = ai.findPath(0, 0, 0, 31, 31, 31).path;
+        assertEquals(32, path.size());
+    }
+}
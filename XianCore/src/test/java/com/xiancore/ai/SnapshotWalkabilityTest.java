@@ -0,0 +1,98 @@
+package com.xiancore.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnapshotWalkability 单元测试
+ */
+public class SnapshotWalkabilityTest {
+
+    private static final int MIN_HEIGHT = -64;
+    private static final int MAX_HEIGHT = 320;
+    private static final int FLOOR_Y = 63;
+
+    /**
+     * y <= 63 为地面；x = 8 处有一堵两格高的墙，只在 z = 15 处留有缺口；
+     * 区块 (1, 0) 的 z = 3 处有一格水
+     */
+    private static byte terrain(int chunkX, int localX, int y, int localZ) {
+        if (y <= FLOOR_Y) {
+            return ChunkWalkability.SOLID;
+        }
+        int x = (chunkX << 4) + localX;
+        if (x == 8 && localZ != 15 && y <= FLOOR_Y + 2) {
+            return ChunkWalkability.SOLID;
+        }
+        if (chunkX == 1 && localZ == 3 && localX == 0 && y == FLOOR_Y + 1) {
+            return ChunkWalkability.LIQUID;
+        }
+        return ChunkWalkability.AIR;
+    }
+
+    private static Map<Long, ChunkWalkability> chunks(int... chunkXs) {
+        Map<Long, ChunkWalkability> chunks = new HashMap<>();
+        for (int cx : chunkXs) {
+            chunks.put(ChunkWalkability.key(cx, 0), new ChunkWalkability(cx, 0, MIN_HEIGHT, MAX_HEIGHT,
+                (x, y, z) -> terrain(cx, x, y, z)));
+        }
+        return chunks;
+    }
+
+    @Test
+    public void testSectionsEncodeLazilyAndShareUniformSections() {
+        ChunkWalkability chunk = new ChunkWalkability(0, 0, MIN_HEIGHT, MAX_HEIGHT, (x, y, z) -> terrain(0, x, y, z));
+        assertEquals(0, chunk.getEncodedSectionCount());
+
+        assertEquals(ChunkWalkability.SOLID, chunk.getType(0, 0, 0));
+        assertEquals(ChunkWalkability.AIR, chunk.getType(0, 200, 0));
+        assertEquals(ChunkWalkability.SOLID, chunk.getType(8, FLOOR_Y + 2, 0));
+        assertEquals(ChunkWalkability.AIR, chunk.getType(8, FLOOR_Y + 1, 15));
+        assertEquals(3, chunk.getEncodedSectionCount());
+
+        // 世界高度范围外视为空气
+        assertEquals(ChunkWalkability.AIR, chunk.getType(0, MIN_HEIGHT - 1, 0));
+        assertEquals(ChunkWalkability.AIR, chunk.getType(0, MAX_HEIGHT, 0));
+    }
+
+    @Test
+    public void testWalkabilityRequiresFloorAndClearance() {
+        SnapshotWalkability view = new SnapshotWalkability(chunks(0, 1), 2);
+
+        assertTrue(view.isWalkable(2, FLOOR_Y + 1, 2));
+        assertFalse(view.isWalkable(2, FLOOR_Y + 2, 2), "悬空位置不可行走");
+        assertFalse(view.isWalkable(2, FLOOR_Y, 2), "固体方块内不可行走");
+        assertFalse(view.isWalkable(8, FLOOR_Y + 1, 2), "墙体不可行走");
+        assertTrue(view.isWalkable(16, FLOOR_Y + 1, 3), "液体中可以通过");
+        assertFalse(view.isWalkable(40, FLOOR_Y + 1, 2), "未缓存的区块不可行走");
+        assertEquals(-1, view.getType(40, FLOOR_Y, 2));
+    }
+
+    @Test
+    public void testPathfindingRoutesAroundWallOnSnapshots() {
+        PathfindingAI pathfinding = new PathfindingAI(32);
+        SnapshotWalkability view = new SnapshotWalkability(chunks(0, 1), 2);
+
+        PathfindingAI.PathResult result = pathfinding.findPath(view, 2, FLOOR_Y + 1, 2, 14, FLOOR_Y + 1, 2);
+        assertTrue(result.success);
+        for (PathfindingAI.Node node : result.path) {
+            assertTrue(view.isWalkable(node.x, node.y, node.z));
+        }
+        assertTrue(result.path.stream().anyMatch(n -> n.x == 8 && n.z == 15), "路径应经过墙上的缺口");
+        assertFalse(view.isStale());
+    }
+
+    @Test
+    public void testInvalidatedChunkMarksViewStale() {
+        Map<Long, ChunkWalkability> chunks = chunks(0);
+        SnapshotWalkability view = new SnapshotWalkability(chunks, 2);
+        assertTrue(view.isWalkable(2, FLOOR_Y + 1, 2));
+
+        chunks.remove(ChunkWalkability.key(0, 0)).invalidate();
+        assertTrue(view.isStale());
+    }
+}
@@ -0,0 +1,66 @@
+package com.xiancore.core.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SqlDialect 单元测试
+ */
+public class SqlDialectTest {
+
+    private static final String UPSERT =
+            "INSERT INTO xian_sect_warehouses (sect_id, capacity, items_json) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE capacity = VALUES(capacity), items_json = VALUES(items_json)";
+
+    private static final String DDL = """
+            CREATE TABLE IF NOT EXISTS xian_sects (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                name VARCHAR(32) NOT NULL,
+                owner_uuid VARCHAR(36),
+                INDEX idx_name (name),
+                INDEX idx_owner (owner_uuid)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8
+            """;
+
+    @Test
+    public void testMySqlKeepsStatementsUnchanged() {
+        assertSame(UPSERT, SqlDialect.MYSQL.upsert(UPSERT, "sect_id"));
+        assertEquals(List.of(DDL), SqlDialect.MYSQL.createTable(DDL));
+    }
+
+    @Test
+    public void testSqliteUpsertUsesOnConflict() {
+        String sql = SqlDialect.SQLITE.upsert(UPSERT, "sect_id");
+
+        assertFalse(sql.contains("DUPLICATE"));
+        assertFalse(sql.contains("VALUES(capacity)"));
+        assertTrue(sql.endsWith("ON CONFLICT(sect_id) DO UPDATE SET capacity = excluded.capacity, "
+                + "items_json = excluded.items_json"));
+        assertTrue(sql.startsWith("INSERT INTO xian_sect_warehouses (sect_id, capacity, items_json) VALUES (?, ?, ?) "));
+    }
+
+    @Test
+    public void testSqliteUpsertKeepsQuotedColumns() {
+        String sql = SqlDialect.SQLITE.upsert("INSERT INTO xian_sect_members (sect_id, player_uuid, `rank`) "
+                + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `rank` = VALUES(`rank`)", "sect_id, player_uuid");
+
+        assertTrue(sql.endsWith("ON CONFLICT(sect_id, player_uuid) DO UPDATE SET `rank` = excluded.`rank`"));
+    }
+
+    @Test
+    public void testSqliteCreateTableSplitsInlineIndexes() {
+        List<String> statements = SqlDialect.SQLITE.createTable(DDL);
+
+        assertEquals(3, statements.size());
+        String table = statements.get(0);
+        assertTrue(table.contains("id INTEGER PRIMARY KEY AUTOINCREMENT"));
+        assertFalse(table.contains("INDEX"));
+        assertFalse(table.contains("ENGINE"));
+        assertTrue(table.replaceAll("\\s+", " ").endsWith("owner_uuid VARCHAR(36) )"));
+        assertEquals("CREATE INDEX IF NOT EXISTS xian_sects_idx_name ON xian_sects (name)", statements.get(1));
+        assertEquals("CREATE INDEX IF NOT EXISTS xian_sects_idx_owner ON xian_sects (owner_uuid)", statements.get(2));
+    }
+}
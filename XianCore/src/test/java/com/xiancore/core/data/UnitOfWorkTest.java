@@ -0,0 +1,132 @@
+package com.xiancore.core.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UnitOfWork 单元测试（使用记录调用的伪连接）
+ */
+public class UnitOfWorkTest {
+
+    private List<String> calls;
+    private boolean autoCommit;
+    private StatementMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        calls = new ArrayList<>();
+        autoCommit = true;
+        metrics = new StatementMetrics();
+    }
+
+    @Test
+    public void testStatementsArePreparedOncePerUnit() throws Exception {
+        try (UnitOfWork work = new UnitOfWork(fakeConnection(), SqlDialect.MYSQL, metrics)) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement pstmt = work.prepare("SELECT 1")) {
+                    pstmt.executeQuery();
+                }
+            }
+            work.prepare("SELECT 2").executeUpdate();
+
+            assertEquals(2, count("prepare"));
+            assertEquals(0, count("statement.close"));
+        }
+
+        assertEquals(2, count("statement.close"));
+        assertEquals(1, count("connection.close"));
+        assertEquals(1, metrics.getConnectionCount());
+    }
+
+    @Test
+    public void testExecutionsAreRecordedPerStatement() throws Exception {
+        try (UnitOfWork work = new UnitOfWork(fakeConnection(), SqlDialect.MYSQL, metrics)) {
+            PreparedStatement select = work.prepare("SELECT 1");
+            select.setInt(1, 1);
+            select.executeQuery();
+            select.executeQuery();
+            work.prepare("UPDATE t").executeBatch();
+        }
+
+        List<StatementMetrics.Histogram> top = metrics.getTop(10);
+        assertEquals(2, top.size());
+        long selects = top.stream().filter(h -> h.getSql().equals("SELECT 1")).findFirst().orElseThrow().getCount();
+        assertEquals(2, selects);
+    }
+
+    @Test
+    public void testUncommittedTransactionIsRolledBackOnClose() throws Exception {
+        try (UnitOfWork work = new UnitOfWork(fakeConnection(), SqlDialect.MYSQL, metrics)) {
+            work.begin();
+            work.prepare("UPDATE t").executeUpdate();
+        }
+
+        assertEquals(1, count("rollback"));
+        assertEquals(0, count("commit"));
+        assertTrue(autoCommit);
+    }
+
+    @Test
+    public void testCommittedTransactionIsNotRolledBack() throws Exception {
+        try (UnitOfWork work = new UnitOfWork(fakeConnection(), SqlDialect.MYSQL, metrics)) {
+            work.begin();
+            work.prepare("UPDATE t").executeUpdate();
+            work.commit();
+            assertFalse(work.isInTransaction());
+        }
+
+        assertEquals(1, count("commit"));
+        assertEquals(0, count("rollback"));
+        assertTrue(autoCommit);
+    }
+
+    private long count(String call) {
+        return calls.stream().filter(call::equals).count();
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> {
+                        calls.add("prepare");
+                        yield fakeStatement();
+                    }
+                    case "setAutoCommit" -> {
+                        autoCommit = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "getAutoCommit" -> autoCommit;
+                    case "commit", "rollback" -> {
+                        calls.add(method.getName());
+                        yield null;
+                    }
+                    case "close" -> {
+                        calls.add("connection.close");
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    private PreparedStatement fakeStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        calls.add("statement.close");
+                        yield null;
+                    }
+                    case "executeUpdate", "isClosed" -> method.getReturnType() == int.class ? 0 : false;
+                    case "executeBatch" -> new int[0];
+                    default -> null;
+                });
+    }
+}
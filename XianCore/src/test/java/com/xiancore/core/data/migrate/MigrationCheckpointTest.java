@@ -0,0 +1,72 @@
+package com.xiancore.core.data.migrate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MigrationCheckpoint 单元测试
+ */
+public class MigrationCheckpointTest {
+
+    private Path dir;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("xiancore-migration");
+        file = dir.resolve("migration/player.checkpoint");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.getParent());
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testMissingFileLoadsEmpty() throws IOException {
+        assertTrue(new MigrationCheckpoint(file).load().isEmpty());
+    }
+
+    @Test
+    public void testAppendedBatchesAreReloaded() throws IOException {
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(file);
+        checkpoint.append(List.of("a", "b"));
+        checkpoint.append(List.of("c"));
+        checkpoint.close();
+
+        assertEquals(Set.of("a", "b", "c"), new MigrationCheckpoint(file).load());
+    }
+
+    @Test
+    public void testTornLastLineIsIgnored() throws IOException {
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(file);
+        checkpoint.append(List.of("a", "b"));
+        checkpoint.close();
+        Files.write(file, "c-partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(Set.of("a", "b"), new MigrationCheckpoint(file).load());
+    }
+
+    @Test
+    public void testDeleteRemovesCheckpoint() throws IOException {
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(file);
+        checkpoint.append(List.of("a"));
+        checkpoint.delete();
+
+        assertFalse(Files.exists(file));
+        assertTrue(new MigrationCheckpoint(file).load().isEmpty());
+    }
+}
@@ -0,0 +1,187 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+import com.xiancore.core.data.mapper.PlayerDataMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinaryPlayerStore 单元测试
+ */
+public class BinaryPlayerStoreTest {
+
+    private final PlayerDataMapper mapper = new PlayerDataMapper();
+    private final Logger logger = Logger.getLogger("test");
+
+    private File dir;
+    private File file;
+    private BinaryPlayerStore store;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("xiancore-store").toFile();
+        file = new File(dir, "players.dat");
+        store = new BinaryPlayerStore(file, mapper, logger);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRoundTripAfterReopen() throws IOException {
+        PlayerData data = newPlayer("Alice");
+        data.setSectId(7);
+        data.getLearnedSkills().put("sword", 3);
+        data.getSkillBindings().put(1, "sword");
+        data.getEquipment().put("weapon", UUID.randomUUID().toString());
+        store.save(List.of(data));
+
+        store.close();
+        store = new BinaryPlayerStore(file, mapper, logger);
+
+        PlayerData loaded = store.load(data.getUuid());
+        assertNotNull(loaded);
+        assertEquals("Alice", loaded.getName());
+        assertEquals(12345L, loaded.getQi());
+        assertEquals(7, loaded.getSectId());
+        assertEquals(data.getLearnedSkills(), loaded.getLearnedSkills());
+        assertEquals(data.getSkillBindings(), loaded.getSkillBindings());
+        assertEquals(data.getEquipment(), loaded.getEquipment());
+        assertNull(store.load(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testLatestRecordWins() throws IOException {
+        PlayerData data = newPlayer("Bob");
+        store.save(List.of(data));
+        data.setQi(999);
+        store.save(List.of(data));
+
+        store.close();
+        store = new BinaryPlayerStore(file, mapper, logger);
+
+        assertEquals(999, store.load(data.getUuid()).getQi());
+        assertEquals(1, store.getPlayerCount());
+    }
+
+    @Test
+    public void testDuplicatesInBatchKeepLastEntry() throws IOException {
+        PlayerData data = newPlayer("Dup");
+        store.save(List.of(data));
+        long before = store.getFileSize();
+        store.save(List.of(data));
+        long singleRecord = store.getFileSize() - before;
+
+        // 同一批中重复的玩家只追加一条记录
+        before = store.getFileSize();
+        store.save(List.of(data, data, data));
+        assertEquals(singleRecord, store.getFileSize() - before);
+
+        PlayerData newer = new PlayerData(data.getUuid());
+        newer.setName("Dup");
+        newer.setQi(999);
+        store.save(List.of(data, newer));
+        assertEquals(999, store.load(data.getUuid()).getQi());
+        assertEquals(1, store.getPlayerCount());
+    }
+
+    @Test
+    public void testTornTailIsTruncatedOnRecovery() throws IOException {
+        PlayerData kept = newPlayer("Kept");
+        store.save(List.of(kept));
+        long validSize = store.getFileSize();
+        store.save(List.of(newPlayer("Torn")));
+        store.close();
+
+        // 模拟写入中途崩溃：最后一条记录只写了一半
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+
+        store = new BinaryPlayerStore(file, mapper, logger);
+        assertEquals(1, store.getPlayerCount());
+        assertEquals(validSize, file.length());
+        assertEquals("Kept", store.load(kept.getUuid()).getName());
+    }
+
+    @Test
+    public void testCorruptedRecordInMiddleIsSkipped() throws IOException {
+        PlayerData first = newPlayer("First");
+        PlayerData broken = newPlayer("Broken");
+        PlayerData last = newPlayer("Last");
+        store.save(List.of(first));
+        long brokenStart = store.getFileSize();
+        store.save(List.of(broken));
+        store.save(List.of(last));
+        long size = store.getFileSize();
+        store.close();
+
+        // 损坏中间一条记录的数据，之后的记录不应被截断
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(brokenStart + 30);
+            int b = raf.read();
+            raf.seek(brokenStart + 30);
+            raf.write(b ^ 0xFF);
+        }
+
+        store = new BinaryPlayerStore(file, mapper, logger);
+        assertEquals(size, file.length());
+        assertEquals(2, store.getPlayerCount());
+        assertNull(store.load(broken.getUuid()));
+        assertEquals("First", store.load(first.getUuid()).getName());
+        assertEquals("Last", store.load(last.getUuid()).getName());
+    }
+
+    @Test
+    public void testCompactionKeepsLatestRecords() throws IOException {
+        PlayerData first = newPlayer("First");
+        PlayerData second = newPlayer("Second");
+
+        List<PlayerData> batch = new ArrayList<>();
+        batch.add(first);
+        for (int i = 0; i < 499; i++) {
+            batch.add(newPlayer("Filler" + i));
+        }
+        for (int round = 0; round < 60; round++) {
+            first.setQi(round);
+            store.save(batch);
+        }
+        store.save(List.of(second));
+
+        // 不压缩时文件会超过 60 批记录的大小
+        assertTrue(store.getFileSize() < 2 * 1024 * 1024);
+        assertEquals(59, store.load(first.getUuid()).getQi());
+
+        store.close();
+        store = new BinaryPlayerStore(file, mapper, logger);
+        assertEquals(501, store.getPlayerCount());
+        assertEquals(59, store.load(first.getUuid()).getQi());
+        assertEquals("Second", store.load(second.getUuid()).getName());
+    }
+
+    private PlayerData newPlayer(String name) {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setName(name);
+        data.setQi(12345);
+        return data;
+    }
+}
@@ -0,0 +1,193 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.core.data.PlayerData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlayerDataCache 单元测试
+ */
+public class PlayerDataCacheTest {
+
+    private List<UUID> flushed;
+    private Set<UUID> failing;
+    private Map<UUID, CompletableFuture<Boolean>> deferred;
+    private PlayerDataCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        flushed = new ArrayList<>();
+        failing = new HashSet<>();
+        deferred = new HashMap<>();
+        cache = new PlayerDataCache(Logger.getLogger("test"), 2, 60_000, data -> {
+            if (deferred.containsKey(data.getUuid())) {
+                return deferred.get(data.getUuid());
+            }
+            if (failing.contains(data.getUuid())) {
+                return CompletableFuture.completedFuture(false);
+            }
+            flushed.add(data.getUuid());
+            return CompletableFuture.completedFuture(true);
+        });
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        cache.put(data);
+
+        assertSame(data, cache.get(data.getUuid()));
+        assertNull(cache.get(UUID.randomUUID()));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testOfflineTierEvictsLeastRecentlyUsed() {
+        PlayerData first = new PlayerData(UUID.randomUUID());
+        PlayerData second = new PlayerData(UUID.randomUUID());
+        PlayerData third = new PlayerData(UUID.randomUUID());
+
+        cache.put(first);
+        cache.put(second);
+        cache.get(first.getUuid());
+        cache.put(third);
+
+        assertEquals(List.of(second.getUuid()), flushed);
+        assertNull(cache.peek(second.getUuid()));
+        assertNotNull(cache.peek(first.getUuid()));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testOnlinePlayersAreNeverEvicted() {
+        PlayerData online = new PlayerData(UUID.randomUUID());
+        cache.put(online);
+        cache.markOnline(online);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(new PlayerData(UUID.randomUUID()));
+        }
+
+        assertSame(online, cache.peek(online.getUuid()));
+        assertTrue(cache.isOnline(online.getUuid()));
+        assertEquals(1, cache.getOnlineSize());
+        assertEquals(2, cache.getOfflineSize());
+    }
+
+    @Test
+    public void testFailedFlushKeepsEntry() {
+        PlayerData dirty = new PlayerData(UUID.randomUUID());
+        failing.add(dirty.getUuid());
+
+        cache.put(dirty);
+        cache.put(new PlayerData(UUID.randomUUID()));
+        cache.put(new PlayerData(UUID.randomUUID()));
+
+        assertNotNull(cache.peek(dirty.getUuid()));
+        assertFalse(flushed.contains(dirty.getUuid()));
+    }
+
+    @Test
+    public void testMarkOfflineAndExpire() {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        cache.markOnline(data);
+        cache.markOffline(data.getUuid());
+        assertFalse(cache.isOnline(data.getUuid()));
+
+        cache.configure(2, 0);
+        assertEquals(1, cache.evictExpired());
+        assertEquals(List.of(data.getUuid()), flushed);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEntryStaysReadableUntilWriteCompletes() {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        CompletableFuture<Boolean> write = new CompletableFuture<>();
+        deferred.put(data.getUuid(), write);
+
+        cache.put(data);
+        cache.put(new PlayerData(UUID.randomUUID()));
+        cache.put(new PlayerData(UUID.randomUUID()));
+
+        assertTrue(cache.isEvicting(data.getUuid()));
+        assertSame(data, cache.peek(data.getUuid()));
+        assertEquals(3, cache.getOfflineSize());
+
+        // 正在淘汰的条目计入超出数量，不再挑选其他条目
+        assertTrue(flushed.isEmpty());
+
+        write.complete(true);
+        assertNull(cache.peek(data.getUuid()));
+        assertEquals(2, cache.getOfflineSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testAccessDuringWriteCancelsEviction() {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        CompletableFuture<Boolean> write = new CompletableFuture<>();
+        deferred.put(data.getUuid(), write);
+
+        cache.put(data);
+        cache.configure(2, 0);
+        assertEquals(1, cache.evictExpired());
+        assertTrue(cache.isEvicting(data.getUuid()));
+
+        assertSame(data, cache.get(data.getUuid()));
+        assertFalse(cache.isEvicting(data.getUuid()));
+
+        write.complete(true);
+        assertSame(data, cache.peek(data.getUuid()));
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testOverflowFromOtherThreadIsDeferredToEvictionThread() {
+        List<Runnable> scheduled = new ArrayList<>();
+        boolean[] evictionThread = {false};
+        cache = new PlayerDataCache(Logger.getLogger("test"), 2, 60_000, new PlayerDataCache.EvictionHandler() {
+            @Override
+            public CompletableFuture<Boolean> beforeEvict(PlayerData data) {
+                flushed.add(data.getUuid());
+                return CompletableFuture.completedFuture(true);
+            }
+
+            @Override
+            public boolean isEvictionThread() {
+                return evictionThread[0];
+            }
+
+            @Override
+            public void runOnEvictionThread(Runnable task) {
+                scheduled.add(task);
+            }
+        });
+
+        PlayerData first = new PlayerData(UUID.randomUUID());
+        cache.put(first);
+        cache.put(new PlayerData(UUID.randomUUID()));
+        cache.put(new PlayerData(UUID.randomUUID()));
+        cache.put(new PlayerData(UUID.randomUUID()));
+
+        // 异步线程上放入时不截取副本，只调度一次淘汰
+        assertTrue(flushed.isEmpty());
+        assertEquals(4, cache.getOfflineSize());
+        assertEquals(1, scheduled.size());
+
+        evictionThread[0] = true;
+        scheduled.get(0).run();
+        assertEquals(2, flushed.size());
+        assertEquals(first.getUuid(), flushed.get(0));
+        assertEquals(2, cache.getOfflineSize());
+    }
+}
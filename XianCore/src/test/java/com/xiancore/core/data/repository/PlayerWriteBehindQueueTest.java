@@ -0,0 +1,131 @@
+package com.xiancore.core.data.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlayerWriteBehindQueue 单元测试
+ */
+public class PlayerWriteBehindQueueTest {
+
+    private Map<UUID, Integer> writes;
+    private Set<UUID> failing;
+    private PlayerWriteBehindQueue queue;
+    private int batches;
+
+    @BeforeEach
+    public void setUp() {
+        writes = new ConcurrentHashMap<>();
+        failing = ConcurrentHashMap.newKeySet();
+        queue = new PlayerWriteBehindQueue(Logger.getLogger("test"), uuids -> {
+            batches++;
+            List<UUID> failed = new ArrayList<>();
+            for (UUID uuid : uuids) {
+                if (failing.contains(uuid)) {
+                    failed.add(uuid);
+                } else {
+                    writes.merge(uuid, 1, Integer::sum);
+                }
+            }
+            return failed;
+        });
+    }
+
+    @Test
+    public void testRepeatedSavesAreCoalesced() {
+        UUID player = UUID.randomUUID();
+
+        for (int i = 0; i < 50; i++) {
+            queue.enqueue(player);
+        }
+
+        assertEquals(1, queue.getPendingCount());
+        assertEquals(49, queue.getCoalescedCount());
+
+        assertEquals(1, queue.flush());
+        assertEquals(1, writes.get(player));
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void testPendingPlayersAreFlushedAsOneBatch() {
+        for (int i = 0; i < 30; i++) {
+            queue.enqueue(UUID.randomUUID());
+        }
+
+        assertEquals(30, queue.flush());
+        assertEquals(1, batches);
+        assertEquals(30, queue.getFlushedCount());
+    }
+
+    @Test
+    public void testFailedWriteIsRequeued() {
+        UUID player = UUID.randomUUID();
+        failing.add(player);
+
+        queue.enqueue(player);
+        assertEquals(0, queue.flush());
+        assertTrue(queue.isPending(player));
+        assertEquals(1, queue.getFailedCount());
+
+        failing.clear();
+        assertEquals(1, queue.flush());
+        assertFalse(queue.isPending(player));
+    }
+
+    @Test
+    public void testFlushOneOnlyWritesPendingPlayer() {
+        UUID pendingPlayer = UUID.randomUUID();
+        UUID cleanPlayer = UUID.randomUUID();
+        queue.enqueue(pendingPlayer);
+
+        assertTrue(queue.flushOne(pendingPlayer));
+        assertTrue(queue.flushOne(cleanPlayer));
+
+        assertEquals(1, writes.get(pendingPlayer));
+        assertFalse(writes.containsKey(cleanPlayer));
+    }
+
+    @Test
+    public void testFlushAsyncRunsOnWriterThread() throws Exception {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        queue = new PlayerWriteBehindQueue(Logger.getLogger("test"), uuids -> {
+            threads.add(Thread.currentThread().getName());
+            uuids.forEach(uuid -> writes.merge(uuid, 1, Integer::sum));
+            return List.of();
+        });
+        assertEquals(0, queue.flushAsync().get(5, TimeUnit.SECONDS));
+
+        queue.start(60_000);
+        try {
+            queue.enqueue(UUID.randomUUID());
+            queue.enqueue(UUID.randomUUID());
+
+            assertEquals(2, queue.flushAsync().get(5, TimeUnit.SECONDS));
+            assertEquals(Set.of("XianCore-PlayerWriter"), threads);
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsQueue() {
+        queue.start(60_000);
+        for (int i = 0; i < 20; i++) {
+            queue.enqueue(UUID.randomUUID());
+        }
+
+        queue.shutdown();
+
+        assertFalse(queue.isRunning());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(20, writes.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.xiancore.core.data.repository;
+
+import com.xiancore.systems.sect.Sect;
+import com.xiancore.systems.sect.SectRank;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SectSnapshot 单元测试
+ */
+public class SectSnapshotTest {
+
+    private final UUID owner = UUID.randomUUID();
+    private final UUID member = UUID.randomUUID();
+
+    private Sect sect;
+
+    @BeforeEach
+    public void setUp() {
+        sect = new Sect(1, "青云门", owner, "owner");
+        sect.setMaxMembers(200);
+        sect.addMember(member, "member");
+    }
+
+    @Test
+    public void testUnchangedSectIsClean() {
+        SectSnapshot persisted = SectSnapshot.of(sect);
+        sect.touch();
+
+        assertFalse(SectSnapshot.of(sect).isDirty(persisted));
+    }
+
+    @Test
+    public void testNeverPersistedWritesAllMembers() {
+        SectSnapshot current = SectSnapshot.of(sect);
+
+        assertTrue(current.isDirty(null));
+        assertTrue(current.isMainDirty(null));
+        assertEquals(2, current.changedMembers(null).size());
+        assertTrue(current.removedMembers(null).isEmpty());
+    }
+
+    @Test
+    public void testMemberChangeDoesNotDirtyMainRow() {
+        SectSnapshot persisted = SectSnapshot.of(sect);
+        sect.getMember(member).addContribution(10);
+
+        SectSnapshot current = SectSnapshot.of(sect);
+        assertTrue(current.isDirty(persisted));
+        assertFalse(current.isMainDirty(persisted));
+        assertEquals(List.of(member), current.changedMembers(persisted));
+    }
+
+    @Test
+    public void testRankChangeAndRemovalAreDetected() {
+        UUID other = UUID.randomUUID();
+        sect.addMember(other, "other");
+        SectSnapshot persisted = SectSnapshot.of(sect);
+
+        sect.getMember(member).setRank(SectRank.ELDER);
+        sect.getMembers().remove(other);
+
+        SectSnapshot current = SectSnapshot.of(sect);
+        assertEquals(List.of(member), current.changedMembers(persisted));
+        assertEquals(List.of(other), current.removedMembers(persisted));
+    }
+
+    @Test
+    public void testFieldChangeDirtiesMainRow() {
+        SectSnapshot persisted = SectSnapshot.of(sect);
+        sect.addFunds(100);
+
+        SectSnapshot current = SectSnapshot.of(sect);
+        assertTrue(current.isMainDirty(persisted));
+        assertTrue(current.changedMembers(persisted).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.xiancore.systems.boss.damage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BossDamageState 单元测试
+ */
+public class BossDamageStateTest {
+
+    @Test
+    public void testCachesAreReusedUntilNextHit() {
+        BossDamageState state = new BossDamageState(UUID.randomUUID(), 1000L);
+        UUID alice = UUID.randomUUID();
+        state.recordHit(alice, 10.0, 1000L);
+
+        DamageStatistics stats = state.getStatistics();
+        List<Map.Entry<UUID, Double>> top = state.getTopDetailed(5);
+        assertSame(stats, state.getStatistics());
+        assertSame(top, state.getTopDetailed(5));
+        assertNotSame(top, state.getTopDetailed(3));
+
+        long version = state.getVersion();
+        state.recordHit(alice, 5.0, 1100L);
+        assertEquals(version + 1, state.getVersion());
+
+        assertNotSame(stats, state.getStatistics());
+        assertEquals(15.0, state.getStatistics().getTotalDamage());
+        assertEquals(15.0, state.getTopDetailed(5).get(0).getValue());
+    }
+
+    @Test
+    public void testBatchUpdatesRankingOncePerPlayer() {
+        BossDamageState state = new BossDamageState(UUID.randomUUID(), 1000L);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        state.recordHits(List.of(
+            new DamageStatisticsManager.DamageEntry(alice, 3.0, 1000L),
+            new DamageStatisticsManager.DamageEntry(bob, 5.0, 1001L),
+            new DamageStatisticsManager.DamageEntry(alice, 4.0, 1002L)));
+
+        assertEquals(1, state.getVersion());
+        assertEquals(1, state.getRanking().getPlayerRank(alice));
+        assertEquals(2, state.getRanking().getPlayerRank(bob));
+        assertEquals(12.0, state.getRecord().getTotalDamage());
+        assertEquals(1000L, state.getRecord().getStartTime());
+    }
+
+    @Test
+    public void testManagerIsolatesBosses() {
+        DamageStatisticsManager manager = new DamageStatisticsManager();
+        manager.setBatchProcessingEnabled(false);
+        UUID bossA = UUID.randomUUID();
+        UUID bossB = UUID.randomUUID();
+        UUID player = UUID.randomUUID();
+
+        manager.recordDamage(bossA, player, 10.0, 1000L);
+        manager.recordDamage(bossB, player, 20.0, 1000L);
+        assertEquals(2, manager.getActiveFightCount());
+
+        DamageStatistics statsA = manager.getStatisticsWithCache(bossA);
+        manager.recordDamage(bossB, player, 1.0, 1001L);
+        assertSame(statsA, manager.getStatisticsWithCache(bossA));
+
+        manager.finalizeBossDamage(bossA);
+        assertNull(manager.getRanking(bossA));
+        assertEquals(21.0, manager.getTotalDamage(bossB));
+    }
+}
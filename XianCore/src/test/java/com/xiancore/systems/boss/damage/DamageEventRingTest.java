@@ -0,0 +1,118 @@
+package com.xiancore.systems.boss.damage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageEventRing 单元测试
+ */
+public class DamageEventRingTest {
+
+    @Test
+    public void testOfferAndDrainInOrder() {
+        DamageEventRing ring = new DamageEventRing(4);
+        UUID boss = UUID.randomUUID();
+        UUID player = UUID.randomUUID();
+
+        assertTrue(ring.offer(boss, player, 1, 100L));
+        assertTrue(ring.offer(boss, player, 2, 200L));
+        assertEquals(2, ring.size());
+
+        List<Double> damages = new ArrayList<>();
+        int drained = ring.drain((b, p, damage, timestamp) -> {
+            assertEquals(boss, b);
+            assertEquals(player, p);
+            damages.add(damage);
+        }, 10);
+
+        assertEquals(2, drained);
+        assertEquals(List.of(1.0, 2.0), damages);
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void testDropsWhenFull() {
+        DamageEventRing ring = new DamageEventRing(3);
+        assertEquals(4, ring.capacity());
+
+        UUID boss = UUID.randomUUID();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(boss, UUID.randomUUID(), 1, i));
+        }
+        assertFalse(ring.offer(boss, UUID.randomUUID(), 1, 5));
+        assertEquals(1, ring.getDroppedCount());
+        assertEquals(4, ring.getOfferedCount());
+
+        // 消费后槽位可复用
+        assertEquals(2, ring.drain((b, p, damage, timestamp) -> { }, 2));
+        assertTrue(ring.offer(boss, UUID.randomUUID(), 1, 6));
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothing() throws InterruptedException {
+        int threads = 4;
+        int hitsPerThread = 5000;
+        DamageEventRing ring = new DamageEventRing(threads * hitsPerThread);
+        UUID boss = UUID.randomUUID();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            UUID player = UUID.randomUUID();
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < hitsPerThread; i++) {
+                    ring.offer(boss, player, 2, i);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        DoubleAdder total = new DoubleAdder();
+        int drained = ring.drain((b, p, damage, timestamp) -> total.add(damage), Integer.MAX_VALUE);
+
+        assertEquals(threads * hitsPerThread, drained);
+        assertEquals(threads * hitsPerThread * 2.0, total.sum());
+        assertEquals(0, ring.getDroppedCount());
+    }
+
+    @Test
+    public void testManagerAppliesQueuedDamagePerTick() {
+        DamageStatisticsManager manager = new DamageStatisticsManager();
+        UUID boss = UUID.randomUUID();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        manager.recordDamage(boss, a, 10, 1L);
+        manager.recordDamage(boss, b, 30, 2L);
+        manager.recordDamage(boss, a, 5, 3L);
+
+        // 处理前排行和记录都不受影响
+        assertEquals(3, manager.getQueueDepth());
+        assertNull(manager.getDamageRecord(boss));
+
+        assertEquals(3, manager.processBatchQueue());
+        assertEquals(0, manager.getQueueDepth());
+        assertEquals(45, manager.getTotalDamage(boss));
+        assertEquals(2, manager.getDamageRecord(boss).getHitCount(a));
+        assertEquals(List.of(b, a), manager.getDamageRanking(boss, 10));
+        assertEquals(3, manager.getProcessedDamageEvents());
+    }
+}
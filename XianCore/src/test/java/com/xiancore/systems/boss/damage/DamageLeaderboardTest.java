@@ -0,0 +1,105 @@
+package com.xiancore.systems.boss.damage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageLeaderboard 单元测试
+ */
+public class DamageLeaderboardTest {
+
+    private DamageLeaderboard leaderboard;
+
+    @BeforeEach
+    public void setUp() {
+        leaderboard = new DamageLeaderboard();
+    }
+
+    @Test
+    public void testEmptyLeaderboard() {
+        assertEquals(0, leaderboard.size());
+        assertEquals(-1, leaderboard.rankOf(UUID.randomUUID()));
+        assertNull(leaderboard.playerAt(1));
+        assertTrue(leaderboard.topPlayers(10).isEmpty());
+    }
+
+    @Test
+    public void testUpdateMovesPlayer() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        leaderboard.update(a, 100);
+        leaderboard.update(b, 50);
+        leaderboard.update(c, 10);
+
+        leaderboard.update(c, 150);
+
+        assertEquals(List.of(c, a, b), leaderboard.topPlayers(10));
+        assertEquals(1, leaderboard.rankOf(c));
+        assertEquals(3, leaderboard.rankOf(b));
+        assertEquals(150, leaderboard.damageOf(c));
+        assertEquals(3, leaderboard.size());
+    }
+
+    @Test
+    public void testTiesKeepFirstArrivalAhead() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        leaderboard.update(first, 20);
+        leaderboard.update(second, 20);
+
+        assertEquals(1, leaderboard.rankOf(first));
+        assertEquals(2, leaderboard.rankOf(second));
+    }
+
+    @Test
+    public void testTopLimitAndRemove() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        leaderboard.update(a, 1);
+        leaderboard.update(b, 2);
+
+        assertEquals(List.of(b), leaderboard.topPlayers(1));
+        assertTrue(leaderboard.remove(b));
+        assertFalse(leaderboard.remove(b));
+        assertEquals(1, leaderboard.rankOf(a));
+        assertEquals(-1, leaderboard.rankOf(b));
+    }
+
+    @Test
+    public void testMatchesFullSortUnderRandomHits() {
+        Random random = new Random(42);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            players.add(UUID.randomUUID());
+        }
+
+        Map<UUID, Double> totals = new HashMap<>();
+        for (int hit = 0; hit < 5000; hit++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            double total = totals.merge(player, (double) (1 + random.nextInt(50)), Double::sum);
+            leaderboard.update(player, total);
+        }
+
+        List<UUID> sorted = new ArrayList<>(totals.keySet());
+        sorted.sort((x, y) -> Double.compare(totals.get(y), totals.get(x)));
+
+        List<UUID> top = leaderboard.topPlayers(Integer.MAX_VALUE);
+        assertEquals(sorted.size(), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            UUID player = top.get(i);
+            assertEquals(totals.get(sorted.get(i)), totals.get(player));
+            assertEquals(i + 1, leaderboard.rankOf(player));
+            assertEquals(player, leaderboard.playerAt(i + 1));
+        }
+    }
+}
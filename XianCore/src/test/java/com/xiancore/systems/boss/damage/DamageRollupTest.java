@@ -0,0 +1,123 @@
+package com.xiancore.systems.boss.damage;
+
+import com.xiancore.boss.system.damage.DamageRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageRollup 单元测试
+ */
+public class DamageRollupTest {
+
+    @Test
+    public void testAllTimeTotals() {
+        DamageRollup rollup = new DamageRollup();
+        UUID boss = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        rollup.record(newHistory(boss, "SkeletonKing", 1000L, alice, 300.0, bob, 100.0));
+        rollup.record(newHistory(boss, "SkeletonKing", 2000L, alice, 50.0, bob, 250.0));
+        rollup.record(newHistory(UUID.randomUUID(), "Dragon", 3000L, bob, 10.0, null, 0.0));
+
+        assertEquals(350.0, rollup.getPlayerDamage(alice));
+        assertEquals(360.0, rollup.getPlayerDamage(bob));
+        assertEquals(3, rollup.getPlayerFights(bob));
+        assertEquals(1, rollup.getPlayerTopFinishes(alice));
+        assertEquals(2, rollup.getPlayerTopFinishes(bob));
+        assertEquals(2, rollup.getBossKillCount(boss));
+        assertEquals(2, rollup.getBossTypeKills("SkeletonKing"));
+        assertEquals(1, rollup.getBossTypeKills("Dragon"));
+        assertEquals(3, rollup.getFightCount());
+        assertEquals(710.0 / 3, rollup.getAverageDamage(), 1e-9);
+
+        Map<UUID, Double> top = rollup.getTopDamagers(1);
+        assertEquals(1, top.size());
+        assertEquals(360.0, top.get(bob));
+        assertEquals(1, rollup.getPlayerRank(bob));
+    }
+
+    @Test
+    public void testCurrentWindowBuckets() {
+        DamageRollup rollup = new DamageRollup();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        // 战斗结束时间为当前时间
+        rollup.record(newHistory(UUID.randomUUID(), "Dragon", now - 30_000L, alice, 40.0, bob, 60.0));
+        // 三天前的战斗只计入全时段
+        rollup.record(newHistory(UUID.randomUUID(), "Dragon", now - 3L * 24 * 60 * 60 * 1000, alice, 500.0, null, 0.0));
+
+        assertEquals(2, rollup.getFightCount(DamageRollup.Window.ALL_TIME));
+        assertEquals(1, rollup.getFightCount(DamageRollup.Window.HOUR));
+        assertEquals(1, rollup.getFightCount(DamageRollup.Window.DAY));
+        assertEquals(100.0, rollup.getTotalDamage(DamageRollup.Window.DAY), 1e-9);
+
+        Map<UUID, Double> today = rollup.getTopDamagers(DamageRollup.Window.DAY, 10);
+        assertEquals(2, today.size());
+        assertEquals(bob, today.keySet().iterator().next());
+        assertEquals(40.0, today.get(alice), 1e-9);
+
+        assertEquals(1, rollup.getBossTypeKillsSince("Dragon", now - 2L * 60 * 60 * 1000));
+        assertEquals(2, rollup.getBossTypeKills("Dragon"));
+    }
+
+    @Test
+    public void testRebuildReplacesState() {
+        DamageRollup rollup = new DamageRollup();
+        UUID alice = UUID.randomUUID();
+        DamageHistory kept = newHistory(UUID.randomUUID(), "Dragon", 1000L, alice, 10.0, null, 0.0);
+        DamageHistory dropped = newHistory(UUID.randomUUID(), "Dragon", 2000L, alice, 90.0, null, 0.0);
+        rollup.record(kept);
+        rollup.record(dropped);
+        assertEquals(100.0, rollup.getPlayerDamage(alice));
+
+        List<DamageHistory> source = new ArrayList<>();
+        source.add(kept);
+        assertEquals(1, rollup.rebuild(() -> source));
+
+        assertEquals(10.0, rollup.getPlayerDamage(alice));
+        assertEquals(1, rollup.getFightCount());
+        assertEquals(10.0, rollup.getTopDamagers(5).get(alice));
+    }
+
+    @Test
+    public void testRebuildKeepsFightsRecordedDuringRebuild() {
+        DamageRollup rollup = new DamageRollup();
+        UUID alice = UUID.randomUUID();
+        DamageHistory stored = newHistory(UUID.randomUUID(), "Dragon", 1000L, alice, 10.0, null, 0.0);
+        stored.getMetadata().put("_id", "stored");
+        DamageHistory late = newHistory(UUID.randomUUID(), "Dragon", 2000L, alice, 5.0, null, 0.0);
+
+        rollup.rebuild(() -> {
+            // 模拟重建期间有战斗结束，且尚未写入数据源
+            rollup.record(late);
+            List<DamageHistory> source = new ArrayList<>();
+            source.add(stored);
+            return source;
+        });
+
+        assertEquals(15.0, rollup.getPlayerDamage(alice));
+        assertEquals(2, rollup.getFightCount());
+    }
+
+    private static DamageHistory newHistory(UUID boss, String bossType, long startTime,
+                                            UUID first, double firstDamage,
+                                            UUID second, double secondDamage) {
+        DamageRecord record = new DamageRecord(boss, startTime);
+        record.restorePlayer(first, firstDamage, 1, startTime);
+        if (second != null) {
+            record.restorePlayer(second, secondDamage, 1, startTime);
+        }
+        DamageHistory history = new DamageHistory(record, startTime + 30_000L);
+        history.setBossType(bossType);
+        return history;
+    }
+}
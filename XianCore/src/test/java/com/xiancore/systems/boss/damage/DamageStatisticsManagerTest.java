@@ -0,0 +1,62 @@
+package com.xiancore.systems.boss.damage;
+
+import com.xiancore.systems.boss.damage.persistence.InMemoryDamageDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageStatisticsManager 单元测试
+ */
+public class DamageStatisticsManagerTest {
+
+    private static UUID fight(DamageStatisticsManager manager, long time) {
+        UUID boss = UUID.randomUUID();
+        manager.recordDamage(boss, UUID.randomUUID(), 10.0, time);
+        manager.finalizeBossDamage(boss, "test", 1, time + 1);
+        return boss;
+    }
+
+    @Test
+    public void testRecentHistoryIsBounded() {
+        DamageStatisticsManager manager = new DamageStatisticsManager();
+        manager.setBatchProcessingEnabled(false);
+        int capacity = manager.getConfig().getRecentHistorySize();
+
+        UUID first = fight(manager, 1000L);
+        for (int i = 0; i < capacity + 5; i++) {
+            fight(manager, 2000L + i);
+        }
+
+        assertEquals(capacity, manager.getRecentHistory().size());
+        assertTrue(manager.getHistory(first).isEmpty(), "最旧的战斗已被淘汰");
+        assertEquals(5, manager.getHistoryRecords(2, capacity - 5).size());
+        assertEquals(capacity + 6, manager.getRollup().getFightCount());
+    }
+
+    @Test
+    public void testHistoryQueriesAreServedFromDatabase() {
+        DamageStatisticsManager manager = new DamageStatisticsManager();
+        manager.setBatchProcessingEnabled(false);
+        manager.setDatabase(new InMemoryDamageDatabase());
+        assertTrue(manager.enablePersistence());
+        try {
+            int capacity = manager.getConfig().getRecentHistorySize();
+            UUID first = fight(manager, 1000L);
+            for (int i = 0; i < capacity + 5; i++) {
+                fight(manager, 2000L + i);
+            }
+
+            // 内存中只保留最近的战斗，更早的历史从数据库查询，尚未写入的战斗合并到结果中
+            assertEquals(capacity, manager.getRecentHistory().size());
+            assertEquals(1, manager.getHistory(first).size());
+            assertEquals(capacity, manager.getHistory().size());
+            assertEquals(capacity, manager.getHistoryRecords(1, capacity).size());
+            assertEquals(6, manager.getHistoryRecords(2, capacity).size());
+        } finally {
+            manager.disablePersistence();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.xiancore.systems.boss.damage.persistence;
+
+import com.xiancore.boss.system.damage.DamageRecord;
+import com.xiancore.systems.boss.damage.DamageHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FileBasedDamageDatabase 单元测试
+ */
+public class FileBasedDamageDatabaseTest {
+
+    private File dir;
+    private FileBasedDamageDatabase database;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("xiancore-damage").toFile();
+        database = new FileBasedDamageDatabase(dir.getPath(), Logger.getLogger("test"));
+        database.initialize();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        database.shutdown();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRoundTripAfterReopen() throws Exception {
+        UUID boss = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        DamageHistory history = newHistory(boss, 1000L, alice, 300.0, bob, 100.0);
+        history.setBossType("SkeletonKing");
+        assertTrue(database.saveHistory(history));
+
+        database.shutdown();
+        database = new FileBasedDamageDatabase(dir.getPath(), Logger.getLogger("test"));
+        database.initialize();
+
+        List<DamageHistory> loaded = database.queryByBossUUID(boss);
+        assertEquals(1, loaded.size());
+        DamageHistory restored = loaded.get(0);
+        assertEquals("SkeletonKing", restored.getBossType());
+        assertEquals(1000L, restored.getStartTime());
+        assertEquals(400.0, restored.getTotalDamage());
+        assertEquals(300.0, restored.getPlayerDamage(alice));
+        assertEquals(alice, restored.getTopDamager());
+        assertEquals(1, database.queryByPlayerUUID(bob).size());
+        assertEquals(history.getMetadata().get("_id"), restored.getMetadata().get("_id"));
+    }
+
+    @Test
+    public void testIndexedQueriesAndAggregates() {
+        UUID boss = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        List<DamageHistory> batch = new ArrayList<>();
+        batch.add(newHistory(boss, 1000L, alice, 50.0, bob, 10.0));
+        batch.add(newHistory(boss, 2000L, alice, 70.0, bob, 90.0));
+        batch.add(newHistory(UUID.randomUUID(), 3000L, bob, 5.0, null, 0.0));
+        assertEquals(3, database.saveHistories(batch));
+
+        assertEquals(2, database.getBossKillCount(boss));
+        assertEquals(2, database.queryByTimeRange(1500L, 3000L).size());
+        assertEquals(120.0, database.getTotalDamageForPlayer(alice));
+        assertEquals(105.0, database.getTotalDamageForPlayer(bob));
+
+        Map<UUID, Double> top = database.getTopDamagers(1);
+        assertEquals(1, top.size());
+        assertEquals(120.0, top.get(alice));
+
+        assertEquals(1, database.deleteBeforeTime(1500L));
+        assertEquals(70.0, database.getTotalDamageForPlayer(alice));
+        assertEquals(2, database.getTotalCount());
+    }
+
+    @Test
+    public void testResaveWithSameIdReplacesRecord() {
+        UUID boss = UUID.randomUUID();
+        DamageHistory history = newHistory(boss, 1000L, UUID.randomUUID(), 10.0, null, 0.0);
+        assertTrue(database.saveHistory(history));
+        assertTrue(database.saveHistory(history));
+
+        assertEquals(1, database.getTotalCount());
+        assertEquals(1, database.queryByBossUUID(boss).size());
+    }
+
+    @Test
+    public void testOptimizeDropsDeletedRecords() throws Exception {
+        UUID keep = UUID.randomUUID();
+        UUID drop = UUID.randomUUID();
+        database.saveHistory(newHistory(keep, 1000L, UUID.randomUUID(), 10.0, null, 0.0));
+        database.saveHistory(newHistory(drop, 2000L, UUID.randomUUID(), 10.0, null, 0.0));
+        long before = new File(dir, "histories.seg").length();
+
+        assertEquals(1, database.deleteByBossUUID(drop));
+        database.optimize();
+
+        assertTrue(new File(dir, "histories.seg").length() < before);
+        assertEquals(1, database.queryByBossUUID(keep).size());
+        assertTrue(database.queryByBossUUID(drop).isEmpty());
+    }
+
+    @Test
+    public void testTruncatesTornTail() throws Exception {
+        UUID boss = UUID.randomUUID();
+        database.saveHistory(newHistory(boss, 1000L, UUID.randomUUID(), 10.0, null, 0.0));
+        database.shutdown();
+
+        File segment = new File(dir, "histories.seg");
+        long valid = segment.length();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(valid);
+            raf.writeInt(64);
+            raf.writeInt(0);
+            raf.write(new byte[10]);
+        }
+
+        database = new FileBasedDamageDatabase(dir.getPath(), Logger.getLogger("test"));
+        database.initialize();
+        assertEquals(valid, segment.length());
+        assertEquals(1, database.getTotalCount());
+    }
+
+    @Test
+    public void testSkipsCorruptedRecordInMiddle() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        File segment = new File(dir, "histories.seg");
+        database.saveHistory(newHistory(first, 1000L, UUID.randomUUID(), 10.0, null, 0.0));
+        long secondStart = segment.length();
+        database.saveHistory(newHistory(second, 2000L, UUID.randomUUID(), 10.0, null, 0.0));
+        database.saveHistory(newHistory(third, 3000L, UUID.randomUUID(), 10.0, null, 0.0));
+        database.shutdown();
+
+        long size = segment.length();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(secondStart + 20);
+            int b = raf.read();
+            raf.seek(secondStart + 20);
+            raf.write(b ^ 0xFF);
+        }
+
+        // 只丢弃损坏的记录，之后的记录保留
+        database = new FileBasedDamageDatabase(dir.getPath(), Logger.getLogger("test"));
+        database.initialize();
+        assertEquals(size, segment.length());
+        assertEquals(2, database.getTotalCount());
+        assertEquals(1, database.queryByBossUUID(first).size());
+        assertTrue(database.queryByBossUUID(second).isEmpty());
+        assertEquals(1, database.queryByBossUUID(third).size());
+    }
+
+    @Test
+    public void testClearAllSurvivesReopen() throws Exception {
+        database.saveHistory(newHistory(UUID.randomUUID(), 1000L, UUID.randomUUID(), 10.0, null, 0.0));
+        database.saveHistory(newHistory(UUID.randomUUID(), 2000L, UUID.randomUUID(), 10.0, null, 0.0));
+
+        database.clearAll();
+        assertEquals(0, database.getTotalCount());
+
+        database.shutdown();
+        database = new FileBasedDamageDatabase(dir.getPath(), Logger.getLogger("test"));
+        database.initialize();
+        assertEquals(0, database.getTotalCount());
+        assertTrue(database.saveHistory(newHistory(UUID.randomUUID(), 3000L, UUID.randomUUID(), 10.0, null, 0.0)));
+        assertEquals(1, database.getTotalCount());
+    }
+
+    @Test
+    public void testWriterFlushesQueuedHistories() {
+        DamageHistoryWriter writer = new DamageHistoryWriter(database, Logger.getLogger("test"), 2);
+        for (int i = 0; i < 5; i++) {
+            writer.enqueue(newHistory(UUID.randomUUID(), i, UUID.randomUUID(), 1.0, null, 0.0));
+        }
+
+        assertEquals(5, writer.getPendingSnapshot().size());
+        assertEquals(0, database.getTotalCount());
+
+        assertEquals(5, writer.flush());
+        assertTrue(writer.getPendingSnapshot().isEmpty());
+        assertEquals(0, writer.getPendingCount());
+        assertEquals(5, database.getTotalCount());
+    }
+
+    private static DamageHistory newHistory(UUID boss, long startTime,
+                                            UUID first, double firstDamage,
+                                            UUID second, double secondDamage) {
+        DamageRecord record = new DamageRecord(boss, startTime);
+        record.restorePlayer(first, firstDamage, 1, startTime);
+        if (second != null) {
+            record.restorePlayer(second, secondDamage, 1, startTime);
+        }
+        return new DamageHistory(record, startTime + 60_000L);
+    }
+}
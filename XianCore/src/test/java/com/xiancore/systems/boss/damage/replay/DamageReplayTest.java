@@ -0,0 +1,158 @@
+package com.xiancore.systems.boss.damage.replay;
+
+import com.xiancore.systems.boss.damage.DamageRanking;
+import com.xiancore.systems.boss.reward.BossRewardManager;
+import com.xiancore.systems.boss.reward.Reward;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageEventLog / FightLog / DamageReplay 单元测试
+ */
+public class DamageReplayTest {
+
+    private File dir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("xiancore-replay").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testLogRoundTrip() throws Exception {
+        UUID boss = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        DamageEventLog log = new DamageEventLog(dir, Logger.getLogger("test"));
+        log.append(boss, alice, 10.0, 100, 5_000L);
+        log.append(boss, bob, 2.5, 100, 5_010L);
+        log.append(boss, alice, 7.0, 103, 5_150L);
+        log.finish(boss, "SkeletonKing", 3, 9_000L);
+        log.shutdown();
+
+        File[] files = dir.listFiles((d, name) -> name.endsWith(DamageEventLog.EXTENSION));
+        assertNotNull(files);
+        assertEquals(1, files.length);
+
+        FightLog fight = FightLog.read(files[0]);
+        assertTrue(fight.isComplete());
+        assertEquals(boss, fight.getBossUUID());
+        assertEquals("SkeletonKing", fight.getBossType());
+        assertEquals(3, fight.getTier());
+        assertEquals(5_000L, fight.getStartTime());
+        assertEquals(9_000L, fight.getEndTime());
+        assertEquals(3, fight.getHitCount());
+        assertEquals(2, fight.getPlayers().size());
+        assertEquals(alice, fight.getPlayer(2));
+        assertEquals(103L, fight.getTick(2));
+        assertEquals(5_150L, fight.getTimestamp(2));
+        assertEquals(2.5, fight.getDamage(1));
+        assertEquals(3L, fight.getTickSpan());
+    }
+
+    @Test
+    public void testTruncatedLogIsIncomplete() throws Exception {
+        UUID boss = UUID.randomUUID();
+        DamageEventLog log = new DamageEventLog(dir, Logger.getLogger("test"));
+        for (int i = 0; i < 10; i++) {
+            log.append(boss, UUID.randomUUID(), 1.0, i, 1_000L + i);
+        }
+        log.finish(boss, "Dragon", 1, 2_000L);
+        log.shutdown();
+
+        File file = dir.listFiles((d, name) -> name.endsWith(DamageEventLog.EXTENSION))[0];
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        FightLog fight = FightLog.read(Arrays.copyOf(bytes, bytes.length - 20));
+        assertFalse(fight.isComplete());
+        assertEquals("Unknown", fight.getBossType());
+        assertTrue(fight.getHitCount() > 0 && fight.getHitCount() <= 10);
+    }
+
+    @Test
+    public void testReplayReproducesRankingAndRewards() throws Exception {
+        UUID boss = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        DamageEventLog log = new DamageEventLog(dir, Logger.getLogger("test"));
+        for (int tick = 0; tick < 100; tick++) {
+            log.append(boss, alice, 3.0, tick, 10_000L + tick * 50L);
+            log.append(boss, bob, 1.0, tick, 10_000L + tick * 50L);
+        }
+        log.finish(boss, "SkeletonKing", 2, 20_000L);
+        log.shutdown();
+        FightLog fight = FightLog.read(dir.listFiles((d, name) -> name.endsWith(DamageEventLog.EXTENSION))[0]);
+
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("tiers.2.ranks.1.multiplier", 2.0);
+        config.set("tiers.2.ranks.1.rewards.exp.type", "experience");
+        config.set("tiers.2.ranks.1.rewards.exp.amount", 100);
+        config.set("tiers.2.ranks.1.rewards.exp.chance", 0.5);
+        BossRewardManager rewards = new BossRewardManager(config, Logger.getLogger("test"));
+
+        DamageReplay.ReplayResult first = new DamageReplay(rewards, 42L).replay(fight);
+        DamageReplay.ReplayResult second = new DamageReplay(rewards, 42L).replay(fight);
+
+        List<DamageRanking.RankingEntry> ranking = first.getRankings();
+        assertEquals(2, ranking.size());
+        assertEquals(alice, ranking.get(0).playerUUID);
+        assertEquals(300.0, ranking.get(0).damage, 1e-9);
+        assertEquals(0.75, first.getHistory().getPlayerDamagePercentage(alice), 1e-9);
+        assertEquals(20_000L, first.getHistory().getEndTime());
+
+        // 相同种子得到相同的奖励抽取结果
+        List<Reward> firstRewards = first.getRewards().get(alice);
+        List<Reward> secondRewards = second.getRewards().get(alice);
+        assertEquals(firstRewards.size(), secondRewards.size());
+        for (Reward reward : firstRewards) {
+            assertEquals(250, reward.getIntValue());
+        }
+        assertEquals(first.getDifficultyScore(), second.getDifficultyScore());
+    }
+
+    @Test
+    public void testReplayAccumulatesKillHistory() throws Exception {
+        DamageEventLog log = new DamageEventLog(dir, Logger.getLogger("test"));
+        for (int fight = 0; fight < 3; fight++) {
+            UUID boss = UUID.randomUUID();
+            log.append(boss, UUID.randomUUID(), 5.0, fight * 10L, 1_000L * fight);
+            log.finish(boss, "Dragon", 1, 1_000L * fight + 500L);
+        }
+        log.shutdown();
+
+        List<FightLog> fights = new java.util.ArrayList<>();
+        for (File file : dir.listFiles((d, name) -> name.endsWith(DamageEventLog.EXTENSION))) {
+            fights.add(FightLog.read(file));
+        }
+
+        DamageReplay replay = new DamageReplay(null, 0L);
+        List<DamageReplay.ReplayResult> results = replay.replayAll(fights);
+        assertEquals(3, results.size());
+        assertEquals(3, replay.getDamageManager().getRollup().getBossTypeKills("Dragon"));
+        assertTrue(results.get(0).getRewards().isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.xiancore.systems.boss.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BossEntityIndex 单元测试
+ */
+public class BossEntityIndexTest {
+
+    @Test
+    public void testPutAndGet() {
+        BossEntityIndex index = new BossEntityIndex();
+        UUID entity = UUID.randomUUID();
+        UUID boss = UUID.randomUUID();
+
+        index.put(entity, boss);
+
+        assertTrue(index.mightContain(entity));
+        assertEquals(boss, index.get(entity));
+        assertNull(index.get(UUID.randomUUID()));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRemoveClearsFilter() {
+        BossEntityIndex index = new BossEntityIndex();
+        UUID entity = UUID.randomUUID();
+        UUID boss = UUID.randomUUID();
+        index.put(entity, boss);
+
+        assertEquals(entity, index.removeBoss(boss));
+        assertFalse(index.mightContain(entity));
+        assertNull(index.get(entity));
+        assertNull(index.removeEntity(entity));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testRebindBossToNewEntity() {
+        BossEntityIndex index = new BossEntityIndex();
+        UUID boss = UUID.randomUUID();
+        UUID oldEntity = UUID.randomUUID();
+        UUID newEntity = UUID.randomUUID();
+
+        index.put(oldEntity, boss);
+        index.put(newEntity, boss);
+
+        assertNull(index.get(oldEntity));
+        assertEquals(boss, index.get(newEntity));
+        assertEquals(boss, index.removeEntity(newEntity));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testDetachKeepsEntryUntilReattached() {
+        BossEntityIndex index = new BossEntityIndex();
+        UUID entity = UUID.randomUUID();
+        UUID boss = UUID.randomUUID();
+        index.put(entity, boss);
+
+        assertEquals(boss, index.detach(entity));
+        assertTrue(index.isDetached(entity));
+        assertEquals(boss, index.get(entity));
+        assertNull(index.detach(UUID.randomUUID()));
+
+        assertEquals(boss, index.attach(entity));
+        assertFalse(index.isDetached(entity));
+        assertEquals(1, index.size());
+
+        index.detach(entity);
+        index.removeBoss(boss);
+        assertFalse(index.isDetached(entity));
+        assertNull(index.attach(entity));
+    }
+
+    @Test
+    public void testPrefilterRejectsMostEntities() {
+        BossEntityIndex index = new BossEntityIndex();
+        for (int i = 0; i < 10; i++) {
+            index.put(UUID.randomUUID(), UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (index.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        // 10个Boss、4096位、两个哈希: 理论误判率约 0.0002
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+    }
+}
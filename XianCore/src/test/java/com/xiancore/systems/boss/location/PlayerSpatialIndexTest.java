@@ -0,0 +1,75 @@
+package com.xiancore.systems.boss.location;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlayerSpatialIndex 单元测试
+ */
+public class PlayerSpatialIndexTest {
+
+    @Test
+    public void testEmptyIndex() {
+        PlayerSpatialIndex index = PlayerSpatialIndex.EMPTY;
+        assertEquals(0, index.countWithin(0, 64, 0, 100));
+        assertEquals(Double.MAX_VALUE, index.nearestDistance(0, 64, 0));
+        assertEquals(Double.POSITIVE_INFINITY, index.nearestDistanceSq(0, 64, 0, 200));
+        assertNull(index.getCentroid());
+    }
+
+    @Test
+    public void testQueriesMatchBruteForce() {
+        Random random = new Random(42);
+        int n = 300;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 2000 - 1000;
+            ys[i] = 40 + random.nextDouble() * 60;
+            zs[i] = random.nextDouble() * 2000 - 1000;
+        }
+        PlayerSpatialIndex index = new PlayerSpatialIndex(xs, ys, zs);
+        assertEquals(n, index.size());
+
+        for (int q = 0; q < 200; q++) {
+            double x = random.nextDouble() * 3000 - 1500;
+            double y = 40 + random.nextDouble() * 60;
+            double z = random.nextDouble() * 3000 - 1500;
+            double radius = 10 + random.nextDouble() * 300;
+
+            int expectedCount = 0;
+            double expectedNearestSq = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double dx = xs[i] - x;
+                double dy = ys[i] - y;
+                double dz = zs[i] - z;
+                double distanceSq = dx * dx + dy * dy + dz * dz;
+                if (distanceSq <= radius * radius) {
+                    expectedCount++;
+                }
+                expectedNearestSq = Math.min(expectedNearestSq, distanceSq);
+            }
+
+            assertEquals(expectedCount, index.countWithin(x, y, z, radius));
+            assertEquals(Math.sqrt(expectedNearestSq), index.nearestDistance(x, y, z), 1e-9);
+
+            double boundedSq = index.nearestDistanceSq(x, y, z, radius);
+            if (expectedNearestSq <= radius * radius) {
+                assertEquals(expectedNearestSq, boundedSq, 1e-9);
+            } else {
+                assertEquals(Double.POSITIVE_INFINITY, boundedSq);
+            }
+        }
+    }
+
+    @Test
+    public void testCentroid() {
+        PlayerSpatialIndex index = new PlayerSpatialIndex(
+            new double[]{0, 10, -40}, new double[]{60, 70, 80}, new double[]{5, -5, 300});
+        assertArrayEquals(new double[]{-10, 70, 100}, index.getCentroid(), 1e-9);
+    }
+}
@@ -0,0 +1,68 @@
+package com.xiancore.systems.boss.location;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpawnCandidatePool 单元测试
+ */
+public class SpawnCandidatePoolTest {
+
+    private static SpawnCandidate candidate(int x, double score) {
+        return new SpawnCandidate("world", x, 64, 0, score, 1000L);
+    }
+
+    @Test
+    public void testMergeSortsDeduplicatesAndTrims() {
+        SpawnCandidatePool pool = new SpawnCandidatePool("sig");
+        assertEquals(3, pool.merge(List.of(candidate(1, 0.5), candidate(2, 0.9), candidate(3, 0.7)), 3));
+
+        // 同一方块以新计算的候选为准，超出容量的低分候选被截断
+        int added = pool.merge(List.of(candidate(1, 0.95), candidate(4, 0.8)), 3);
+        assertEquals(1, added);
+        assertEquals(1, pool.getLastRefillAdded());
+
+        List<SpawnCandidate> candidates = pool.getCandidates();
+        assertEquals(3, candidates.size());
+        assertEquals(1, candidates.get(0).getX());
+        assertEquals(0.95, candidates.get(0).getScore());
+        assertEquals(2, candidates.get(1).getX());
+        assertEquals(4, candidates.get(2).getX());
+    }
+
+    @Test
+    public void testPollSkipsUnusableCandidates() {
+        SpawnCandidatePool pool = new SpawnCandidatePool("sig");
+        pool.merge(List.of(candidate(1, 0.9), candidate(2, 0.8), candidate(3, 0.7)), 8);
+
+        List<SpawnCandidate> removed = new ArrayList<>();
+        SpawnCandidate polled = pool.poll(c -> c.getX() != 1, 3, removed::add);
+        assertNotNull(polled);
+        assertEquals(2, polled.getX());
+        assertEquals(2, removed.size());
+        assertEquals(1, pool.size());
+
+        // 超过尝试次数后返回null
+        assertNull(pool.poll(c -> false, 1, removed::add));
+        assertTrue(pool.isEmpty());
+    }
+
+    @Test
+    public void testCandidateSerializationRoundTrip() {
+        SpawnCandidate original = new SpawnCandidate("world_nether", -17, 70, 33, 0.625, 123456789L);
+        SpawnCandidate restored = SpawnCandidate.deserialize(original.serialize());
+
+        assertNotNull(restored);
+        assertTrue(original.sameBlock(restored));
+        assertEquals(0.625, restored.getScore());
+        assertEquals(123456789L, restored.getValidatedAt());
+        assertEquals(SnapshotTerrain.key(-2, 2), restored.getChunkKey());
+
+        assertNull(SpawnCandidate.deserialize("world;1;2"));
+        assertNull(SpawnCandidate.deserialize("world;a;2;3;0.5;0"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.xiancore.systems.boss.location;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TerrainView 地面检测与 SafetyAnalyzer 地形评分单元测试
+ */
+public class TerrainSearchTest {
+
+    @Test
+    public void testFindGroundOnFlatTerrain() {
+        FlatTerrain terrain = new FlatTerrain(63);
+        assertEquals(64, terrain.findGroundY(0, 120, 0));
+        assertEquals(64, terrain.findGroundY(5, 64, -3));
+    }
+
+    @Test
+    public void testFindGroundSkipsLowCeiling() {
+        FlatTerrain terrain = new FlatTerrain(63);
+        // 地面上方2格处有方块，空间不足，继续向下也找不到上方有3格空气的固体
+        terrain.set(0, 66, 0, Material.STONE);
+        assertEquals(67, terrain.findGroundY(0, 120, 0));
+        assertEquals(TerrainView.NO_GROUND, terrain.findGroundY(0, 65, 0));
+    }
+
+    @Test
+    public void testFindGroundStopsAtMissingChunk() {
+        FlatTerrain terrain = new FlatTerrain(63);
+        terrain.missingX = 100;
+        assertEquals(TerrainView.NO_GROUND, terrain.findGroundY(100, 120, 0));
+        assertFalse(terrain.isAir(100, 80, 0));
+    }
+
+    @Test
+    public void testSafetyScoreOnTerrain() {
+        SafetyAnalyzer analyzer = new SafetyAnalyzer();
+        FlatTerrain terrain = new FlatTerrain(63);
+        assertEquals(1.0, analyzer.calculateSafetyScore(terrain, 0, 64, 0), 1e-9);
+        assertTrue(analyzer.isSafeLocation(terrain, 0, 64, 0));
+
+        terrain.set(0, 64, 0, Material.LAVA);
+        assertEquals(0.6, analyzer.calculateSafetyScore(terrain, 0, 64, 0), 1e-9);
+
+        // 岩浆上方空间不足时判定为不安全
+        terrain.set(0, 65, 0, Material.STONE);
+        assertFalse(analyzer.isSafeLocation(terrain, 0, 64, 0));
+    }
+
+    @Test
+    public void testSafetyTreatsMissingChunkAsNoSpace() {
+        SafetyAnalyzer analyzer = new SafetyAnalyzer();
+        FlatTerrain terrain = new FlatTerrain(63);
+        terrain.missingX = 0;
+        assertEquals(0.8, analyzer.calculateSafetyScore(terrain, 0, 64, 0), 1e-9);
+    }
+
+    /**
+     * 平坦地形: groundLevel 及以下为石头，以上为空气
+     */
+    private static class FlatTerrain implements TerrainView {
+        private final int groundLevel;
+        private final Map<String, Material> overrides = new HashMap<>();
+        private Integer missingX;
+
+        FlatTerrain(int groundLevel) {
+            this.groundLevel = groundLevel;
+        }
+
+        void set(int x, int y, int z, Material type) {
+            overrides.put(x + "," + y + "," + z, type);
+        }
+
+        @Override
+        public Material getType(int x, int y, int z) {
+            if (missingX != null && missingX == x) {
+                return null;
+            }
+            Material type = overrides.get(x + "," + y + "," + z);
+            if (type != null) {
+                return type;
+            }
+            return y <= groundLevel ? Material.STONE : Material.AIR;
+        }
+
+        @Override
+        public int getHighestBlockYAt(int x, int z) {
+            return groundLevel;
+        }
+
+        @Override
+        public Biome getBiome(int x, int y, int z) {
+            return Biome.PLAINS;
+        }
+
+        @Override
+        public int getMinHeight() {
+            return -64;
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return 320;
+        }
+    }
+}
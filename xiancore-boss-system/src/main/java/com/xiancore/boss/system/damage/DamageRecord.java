@@ -5,70 +5,71 @@ import lombok.Setter;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 伤害记录
- * 记录单个Boss的所有伤害数据
- *
- * 职责:
- * - 记录玩家对Boss的伤害
- * - 维护伤害统计数据
- * - 提供伤害查询方法
- * - 计算伤害相关统计
+ * 记录单个Boss的所有伤害数据，是插件与 Boss 系统共用的唯一伤害累加实现
+ * <p>
+ * 每个玩家在首次命中时分配一个累加槽位，之后的命中只做无锁的原始类型累加，
+ * 不产生装箱对象，并发命中也不会丢失更新
  *
  * @author XianCore Team
  * @version 1.0.0
  * @since 2025-11-13
  */
-@Getter
-@Setter
 public class DamageRecord {
 
     // ==================== 基础信息 ====================
     /** Boss UUID */
-    private UUID bossUUID;
+    @Getter
+    private final UUID bossUUID;
+
+    /** 开始记录时间 */
+    @Getter
+    private final long startTime;
 
     /** Boss类型 (如 "SkeletonKing") */
-    private String bossType = "Unknown";
+    @Getter
+    @Setter
+    private volatile String bossType = "Unknown";
 
     /** Boss等级 (1-4) */
-    private int bossTier = 1;
-
-    /** 记录创建时间 */
-    private long recordTime = System.currentTimeMillis();
+    @Getter
+    @Setter
+    private volatile int bossTier = 1;
 
     // ==================== 伤害数据 ====================
-    /** 玩家伤害记录 (玩家UUID -> 伤害值) */
-    private final Map<UUID, Double> playerDamage = new ConcurrentHashMap<>();
-
-    /** 玩家伤害次数 (玩家UUID -> 伤害次数) */
-    private final Map<UUID, Integer> damageCount = new ConcurrentHashMap<>();
-
-    /** 玩家最后伤害时间 (玩家UUID -> 时间戳) */
-    private final Map<UUID, Long> lastDamageTime = new ConcurrentHashMap<>();
+    /** 玩家累加槽位 (玩家UUID -> 槽位) */
+    private final Map<UUID, PlayerSlot> slots = new ConcurrentHashMap<>();
 
     /** 总伤害 */
-    private volatile double totalDamage = 0.0;
+    private final DoubleAdder totalDamage = new DoubleAdder();
 
     /** 总伤害次数 */
-    private volatile int totalDamageCount = 0;
+    private final LongAdder totalDamageCount = new LongAdder();
 
     // ==================== 构造函数 ====================
 
     /**
-     * 默认构造函数
+     * 构造函数
+     *
+     * @param bossUUID Boss UUID
      */
-    public DamageRecord() {
+    public DamageRecord(UUID bossUUID) {
+        this(bossUUID, System.currentTimeMillis());
     }
 
     /**
-     * 构造函数 (指定Boss UUID)
+     * 构造函数 (用于从持久化数据恢复)
      *
      * @param bossUUID Boss UUID
+     * @param startTime 开始记录时间
      */
-    public DamageRecord(UUID bossUUID) {
+    public DamageRecord(UUID bossUUID, long startTime) {
         this.bossUUID = bossUUID;
+        this.startTime = startTime;
     }
 
     /**
@@ -79,7 +80,7 @@ public class DamageRecord {
      * @param bossTier Boss等级
      */
     public DamageRecord(UUID bossUUID, String bossType, int bossTier) {
-        this.bossUUID = bossUUID;
+        this(bossUUID);
         this.bossType = bossType;
         this.bossTier = bossTier;
     }
@@ -87,135 +88,148 @@ public class DamageRecord {
     // ==================== 伤害记录方法 ====================
 
     /**
-     * 记录玩家伤害
+     * 记录伤害
      *
      * @param playerUUID 玩家UUID
      * @param damage 伤害值
-     * @param timestamp 时间戳
      */
-    public void recordDamage(UUID playerUUID, double damage, long timestamp) {
-        if (playerUUID == null || damage <= 0) {
-            return;
-        }
+    public void recordDamage(UUID playerUUID, double damage) {
+        recordDamage(playerUUID, damage, System.currentTimeMillis());
+    }
 
-        // 记录伤害
-        playerDamage.merge(playerUUID, damage, Double::sum);
-        totalDamage += damage;
+    /**
+     * 记录伤害 (使用命中发生时的时间戳)
+     *
+     * @param playerUUID 玩家UUID
+     * @param damage 伤害值
+     * @param timestamp 命中时间戳
+     */
+    public void recordDamage(UUID playerUUID, double damage, long timestamp) {
+        if (playerUUID == null || damage <= 0) return;
 
-        // 记录伤害次数
-        damageCount.merge(playerUUID, 1, Integer::sum);
-        totalDamageCount++;
+        // 已有槽位直接累加，只有首次命中才会创建槽位
+        PlayerSlot slot = slots.get(playerUUID);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(playerUUID, k -> new PlayerSlot());
+        }
+        slot.record(damage, timestamp);
 
-        // 记录最后伤害时间
-        lastDamageTime.put(playerUUID, timestamp);
+        // 更新总伤害
+        totalDamage.add(damage);
+        totalDamageCount.increment();
     }
 
     /**
-     * 记录玩家伤害 (便捷版本，使用当前时间)
+     * 恢复玩家的累计数据 (用于从持久化数据重建记录)
      *
      * @param playerUUID 玩家UUID
-     * @param damage 伤害值
+     * @param damage 累计伤害
+     * @param hits 命中次数
+     * @param lastDamageTime 最后伤害时间
      */
-    public void recordDamage(UUID playerUUID, double damage) {
-        recordDamage(playerUUID, damage, System.currentTimeMillis());
+    public void restorePlayer(UUID playerUUID, double damage, int hits, long lastDamageTime) {
+        PlayerSlot slot = slots.computeIfAbsent(playerUUID, k -> new PlayerSlot());
+        slot.damage.add(damage);
+        slot.hits.add(hits);
+        slot.lastDamageTime = Math.max(slot.lastDamageTime, lastDamageTime);
+
+        totalDamage.add(damage);
+        totalDamageCount.add(hits);
     }
 
-    // ==================== 伤害查询方法 ====================
+    // ==================== 查询方法 ====================
 
     /**
-     * 获取玩家对Boss的伤害
+     * 获取玩家伤害
      *
      * @param playerUUID 玩家UUID
      * @return 伤害值
      */
     public double getPlayerDamage(UUID playerUUID) {
-        return playerDamage.getOrDefault(playerUUID, 0.0);
+        PlayerSlot slot = slots.get(playerUUID);
+        return slot != null ? slot.damage.sum() : 0.0;
     }
 
     /**
-     * 获取玩家的伤害次数
+     * 获取玩家命中次数
      *
      * @param playerUUID 玩家UUID
-     * @return 伤害次数
+     * @return 命中次数
      */
-    public int getPlayerDamageCount(UUID playerUUID) {
-        return damageCount.getOrDefault(playerUUID, 0);
+    public int getHitCount(UUID playerUUID) {
+        PlayerSlot slot = slots.get(playerUUID);
+        return slot != null ? slot.hits.intValue() : 0;
     }
 
     /**
-     * 获取玩家的伤害百分比
+     * 获取玩家最后伤害时间
      *
      * @param playerUUID 玩家UUID
-     * @return 伤害百分比 (0.0-1.0)
+     * @return 时间戳，如果没有记录则返回0
      */
-    public double getPlayerDamagePercentage(UUID playerUUID) {
-        if (totalDamage <= 0) {
-            return 0.0;
-        }
-
-        return getPlayerDamage(playerUUID) / totalDamage;
+    public long getLastDamageTime(UUID playerUUID) {
+        PlayerSlot slot = slots.get(playerUUID);
+        return slot != null ? slot.lastDamageTime : 0L;
     }
 
     /**
-     * 获取前N名伤害者
+     * 获取玩家的平均单次伤害
      *
-     * @param limit 限制数量
-     * @return 排行榜 (玩家UUID列表，从高到低)
+     * @param playerUUID 玩家UUID
+     * @return 平均伤害
      */
-    public List<UUID> getTopDamagers(int limit) {
-        return playerDamage.entrySet().stream()
-            .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+    public double getPlayerAverageDamage(UUID playerUUID) {
+        PlayerSlot slot = slots.get(playerUUID);
+        if (slot == null) return 0.0;
+        long hits = slot.hits.sum();
+        return hits > 0 ? slot.damage.sum() / hits : 0.0;
     }
 
     /**
-     * 获取前N名伤害者 (详细信息)
+     * 获取参与者列表
      *
-     * @param limit 限制数量
-     * @return 包含伤害值的排行列表
+     * @return 参与者UUID列表
      */
-    public List<Map.Entry<UUID, Double>> getTopDamagersDetailed(int limit) {
-        return playerDamage.entrySet().stream()
-            .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .collect(Collectors.toList());
+    public Set<UUID> getParticipants() {
+        return Collections.unmodifiableSet(slots.keySet());
     }
 
     /**
-     * 获取所有参与伤害的玩家
+     * 获取玩家伤害快照 (不可变)
      *
-     * @return 玩家UUID集合
+     * @return Map<玩家UUID, 伤害总量>
      */
-    public Set<UUID> getParticipants() {
-        return new HashSet<>(playerDamage.keySet());
+    public Map<UUID, Double> getPlayerDamageMap() {
+        Map<UUID, Double> snapshot = new HashMap<>(slots.size() * 2);
+        slots.forEach((playerUUID, slot) -> snapshot.put(playerUUID, slot.damage.sum()));
+        return Collections.unmodifiableMap(snapshot);
     }
 
     /**
-     * 获取参与人数
+     * 获取参与者数量
      *
-     * @return 参与人数
+     * @return 参与者数量
      */
     public int getParticipantCount() {
-        return playerDamage.size();
+        return slots.size();
     }
 
-    // ==================== 统计方法 ====================
-
     /**
-     * 获取玩家的平均单次伤害
+     * 获取总伤害
      *
-     * @param playerUUID 玩家UUID
-     * @return 平均伤害
+     * @return 总伤害
      */
-    public double getPlayerAverageDamage(UUID playerUUID) {
-        int count = getPlayerDamageCount(playerUUID);
-        if (count == 0) {
-            return 0.0;
-        }
+    public double getTotalDamage() {
+        return totalDamage.sum();
+    }
 
-        return getPlayerDamage(playerUUID) / count;
+    /**
+     * 获取总伤害次数
+     *
+     * @return 总伤害次数
+     */
+    public int getTotalDamageCount() {
+        return totalDamageCount.intValue();
     }
 
     /**
@@ -224,11 +238,21 @@ public class DamageRecord {
      * @return 平均伤害
      */
     public double getAverageDamagePerPlayer() {
-        if (playerDamage.isEmpty()) {
-            return 0.0;
-        }
+        int participants = slots.size();
+        return participants > 0 ? getTotalDamage() / participants : 0.0;
+    }
 
-        return totalDamage / playerDamage.size();
+    /**
+     * 获取玩家伤害占比
+     *
+     * @param playerUUID 玩家UUID
+     * @return 伤害占比 (0.0-1.0)
+     */
+    public double getDamagePercentage(UUID playerUUID) {
+        double total = getTotalDamage();
+        if (total <= 0) return 0.0;
+        double damage = getPlayerDamage(playerUUID);
+        return damage / total;
     }
 
     /**
@@ -237,33 +261,87 @@ public class DamageRecord {
      * @return 最高伤害玩家UUID，如果无数据则返回null
      */
     public UUID getTopDamager() {
-        return playerDamage.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
+        UUID top = null;
+        double best = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<UUID, PlayerSlot> entry : slots.entrySet()) {
+            double damage = entry.getValue().damage.sum();
+            if (damage > best) {
+                best = damage;
+                top = entry.getKey();
+            }
+        }
+        return top;
     }
 
     /**
-     * 获取最高单次伤害
+     * 获取排序后的伤害列表
      *
-     * @return 最高伤害值
+     * @return 按伤害降序排列的玩家UUID列表
      */
-    public double getMaxDamage() {
-        return playerDamage.values().stream()
-            .mapToDouble(Double::doubleValue)
-            .max()
-            .orElse(0.0);
+    public List<UUID> getSortedPlayers() {
+        return getTopPlayers(Integer.MAX_VALUE);
     }
 
     /**
-     * 清空所有伤害数据
+     * 获取前N名伤害玩家
+     * 只保留一个大小为N的最小堆，不对全部参与者排序
+     *
+     * @param n 数量
+     * @return 玩家UUID列表 (从高到低)
+     */
+    public List<UUID> getTopPlayers(int n) {
+        if (n <= 0 || slots.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int capacity = Math.min(n, slots.size());
+        PriorityQueue<Map.Entry<UUID, Double>> heap =
+            new PriorityQueue<>(capacity + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, PlayerSlot> entry : slots.entrySet()) {
+            double damage = entry.getValue().damage.sum();
+            if (heap.size() < capacity) {
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), damage));
+            } else if (damage > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), damage));
+            }
+        }
+
+        UUID[] ordered = new UUID[heap.size()];
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            ordered[i] = heap.poll().getKey();
+        }
+        return new ArrayList<>(Arrays.asList(ordered));
+    }
+
+    /**
+     * 获取玩家伤害排名
+     * 只统计伤害更高的玩家数量，不需要排序
+     *
+     * @param playerUUID 玩家UUID
+     * @return 排名 (1-based)，如果不存在则返回-1
+     */
+    public int getPlayerRank(UUID playerUUID) {
+        PlayerSlot own = slots.get(playerUUID);
+        if (own == null) return -1;
+
+        double damage = own.damage.sum();
+        int higher = 0;
+        for (PlayerSlot slot : slots.values()) {
+            if (slot.damage.sum() > damage) {
+                higher++;
+            }
+        }
+        return higher + 1;
+    }
+
+    /**
+     * 清空所有记录
      */
     public void clear() {
-        playerDamage.clear();
-        damageCount.clear();
-        lastDamageTime.clear();
-        totalDamage = 0.0;
-        totalDamageCount = 0;
+        slots.clear();
+        totalDamage.reset();
+        totalDamageCount.reset();
     }
 
     // ==================== 信息方法 ====================
@@ -274,10 +352,8 @@ public class DamageRecord {
      * @return 信息字符串
      */
     public String getSimpleInfo() {
-        return String.format(
-            "DamageRecord{type=%s, tier=%d, totalDamage=%.1f, players=%d}",
-            bossType, bossTier, totalDamage, playerDamage.size()
-        );
+        return String.format("DamageRecord{boss=%s, type=%s, tier=%d, participants=%d, totalDamage=%.1f}",
+            bossUUID.toString().substring(0, 8), bossType, bossTier, getParticipantCount(), getTotalDamage());
     }
 
     /**
@@ -287,24 +363,14 @@ public class DamageRecord {
      */
     public String getDetailedInfo() {
         StringBuilder sb = new StringBuilder();
-        sb.append("DamageRecord{\n");
-        sb.append("  Boss UUID: ").append(bossUUID).append("\n");
-        sb.append("  类型: ").append(bossType).append("\n");
-        sb.append("  等级: ").append(bossTier).append("\n");
-        sb.append("  总伤害: ").append(String.format("%.1f", totalDamage)).append("\n");
-        sb.append("  伤害次数: ").append(totalDamageCount).append("\n");
-        sb.append("  参与人数: ").append(playerDamage.size()).append("\n");
-        sb.append("  平均伤害: ").append(String.format("%.1f", getAverageDamagePerPlayer())).append("\n");
-        sb.append("  最高伤害者: ");
-
-        UUID topDamager = getTopDamager();
-        if (topDamager != null) {
-            sb.append(topDamager).append(" (").append(String.format("%.1f", getPlayerDamage(topDamager))).append(")\n");
-        } else {
-            sb.append("无\n");
-        }
+        sb.append("=== Boss伤害记录 ===\n");
+        sb.append(String.format("Boss UUID: %s\n", bossUUID));
+        sb.append(String.format("类型: %s (Tier %d)\n", bossType, bossTier));
+        sb.append(String.format("总伤害: %.1f\n", getTotalDamage()));
+        sb.append(String.format("总次数: %d\n", getTotalDamageCount()));
+        sb.append(String.format("参与者: %d人\n", getParticipantCount()));
+        sb.append(String.format("记录时长: %ds\n", (System.currentTimeMillis() - startTime) / 1000));
 
-        sb.append("}\n");
         return sb.toString();
     }
 
@@ -313,16 +379,20 @@ public class DamageRecord {
         return getSimpleInfo();
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        DamageRecord that = (DamageRecord) o;
-        return Objects.equals(bossUUID, that.bossUUID);
-    }
+    // ==================== 内部类 ====================
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(bossUUID);
+    /**
+     * 单个玩家的累加槽位
+     */
+    private static class PlayerSlot {
+        final DoubleAdder damage = new DoubleAdder();
+        final LongAdder hits = new LongAdder();
+        volatile long lastDamageTime;
+
+        void record(double amount, long timestamp) {
+            damage.add(amount);
+            hits.increment();
+            lastDamageTime = timestamp;
+        }
     }
 }
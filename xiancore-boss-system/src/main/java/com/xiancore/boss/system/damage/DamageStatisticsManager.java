@@ -77,9 +77,9 @@ public interface DamageStatisticsManager {
     void clearDamageStatistics(@NotNull UUID bossUUID);
 
     /**
-     * 获取历史伤害记录
+     * 获取最近的历史伤害记录（更早的记录请分页查询）
      *
-     * @return 所有伤害记录列表
+     * @return 最近的伤害记录列表
      */
     @NotNull
     List<DamageRecord> getHistoryRecords();
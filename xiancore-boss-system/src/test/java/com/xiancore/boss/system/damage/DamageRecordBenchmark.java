@@ -0,0 +1,136 @@
+package com.xiancore.boss.system.damage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DamageRecord 基准测试 (插件与 Boss 系统模块共用)
+ * 对比原始类型累加槽位与原先 ConcurrentHashMap.merge 装箱实现，并覆盖排行查询
+ * <p>
+ * 运行: 在测试类路径下执行本类的 main 方法，或 org.openjdk.jmh.Main DamageRecordBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@State(Scope.Benchmark)
+public class DamageRecordBenchmark {
+
+    /** 参与者数量 */
+    @Param({"8", "80"})
+    public int players;
+
+    private UUID[] playerUUIDs;
+    private DamageRecord record;
+    private BoxedDamageRecord boxed;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        UUID bossUUID = UUID.randomUUID();
+        playerUUIDs = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            playerUUIDs[i] = UUID.randomUUID();
+        }
+        record = new DamageRecord(bossUUID);
+        boxed = new BoxedDamageRecord();
+        for (int i = 0; i < players; i++) {
+            record.recordDamage(playerUUIDs[i], i + 1);
+        }
+    }
+
+    /**
+     * 每个线程独立的命中游标
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance(int bound) {
+            int index = next;
+            next = index + 1 == bound ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void primitiveSingleThread(Cursor cursor) {
+        record.recordDamage(playerUUIDs[cursor.advance(players)], 12.5);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void boxedSingleThread(Cursor cursor) {
+        boxed.recordDamage(playerUUIDs[cursor.advance(players)], 12.5);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void primitiveContended(Cursor cursor) {
+        record.recordDamage(playerUUIDs[cursor.advance(players)], 12.5);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void boxedContended(Cursor cursor) {
+        boxed.recordDamage(playerUUIDs[cursor.advance(players)], 12.5);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object topThree() {
+        return record.getTopPlayers(3);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int playerRank(Cursor cursor) {
+        return record.getPlayerRank(playerUUIDs[cursor.advance(players)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DamageRecordBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * 原先的装箱实现 (三次 merge + 非原子的 volatile 累加)，仅作为对照
+     */
+    static class BoxedDamageRecord {
+        private final Map<UUID, Double> playerDamage = new ConcurrentHashMap<>();
+        private final Map<UUID, Integer> playerHitCounts = new ConcurrentHashMap<>();
+        private final Map<UUID, Long> lastDamageTime = new ConcurrentHashMap<>();
+        private volatile double totalDamage = 0.0;
+        private volatile int totalDamageCount = 0;
+
+        void recordDamage(UUID playerUUID, double damage) {
+            if (damage <= 0) return;
+            playerDamage.merge(playerUUID, damage, Double::sum);
+            playerHitCounts.merge(playerUUID, 1, Integer::sum);
+            lastDamageTime.put(playerUUID, System.currentTimeMillis());
+            totalDamage += damage;
+            totalDamageCount++;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.xiancore.boss.system.damage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DamageRecord 单元测试
+ */
+public class DamageRecordTest {
+
+    private DamageRecord record;
+
+    @BeforeEach
+    public void setUp() {
+        record = new DamageRecord(UUID.randomUUID());
+    }
+
+    @Test
+    public void testAccumulatesPerPlayer() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        record.recordDamage(a, 10);
+        record.recordDamage(a, 5);
+        record.recordDamage(b, 30);
+        record.recordDamage(b, 0);
+
+        assertEquals(15, record.getPlayerDamage(a));
+        assertEquals(2, record.getHitCount(a));
+        assertEquals(1, record.getHitCount(b));
+        assertEquals(45, record.getTotalDamage());
+        assertEquals(3, record.getTotalDamageCount());
+        assertEquals(2, record.getParticipantCount());
+        assertEquals(List.of(b, a), record.getSortedPlayers());
+        assertTrue(record.getLastDamageTime(a) > 0);
+    }
+
+    @Test
+    public void testConcurrentHitsAreNotLost() throws InterruptedException {
+        int threads = 4;
+        int hitsPerThread = 20000;
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < hitsPerThread; i++) {
+                    record.recordDamage(players.get(i % players.size()), 2);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * hitsPerThread, record.getTotalDamageCount());
+        assertEquals(threads * hitsPerThread * 2.0, record.getTotalDamage());
+        int hits = 0;
+        for (UUID player : players) {
+            hits += record.getHitCount(player);
+        }
+        assertEquals(threads * hitsPerThread, hits);
+    }
+
+    @Test
+    public void testTopPlayersAndRank() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        record.recordDamage(a, 5);
+        record.recordDamage(b, 50);
+        record.recordDamage(c, 20);
+
+        assertEquals(List.of(b, c), record.getTopPlayers(2));
+        assertEquals(List.of(b, c, a), record.getTopPlayers(10));
+        assertTrue(record.getTopPlayers(0).isEmpty());
+        assertEquals(b, record.getTopDamager());
+        assertEquals(1, record.getPlayerRank(b));
+        assertEquals(3, record.getPlayerRank(a));
+        assertEquals(-1, record.getPlayerRank(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testBossInfoAndRestore() {
+        DamageRecord restored = new DamageRecord(UUID.randomUUID(), "SkeletonKing", 3);
+        UUID a = UUID.randomUUID();
+        restored.restorePlayer(a, 40, 4, 1234L);
+
+        assertEquals("SkeletonKing", restored.getBossType());
+        assertEquals(3, restored.getBossTier());
+        assertEquals(40, restored.getTotalDamage());
+        assertEquals(4, restored.getTotalDamageCount());
+        assertEquals(10, restored.getPlayerAverageDamage(a));
+        assertEquals(1234L, restored.getLastDamageTime(a));
+    }
+
+    @Test
+    public void testClearResetsTotals() {
+        record.recordDamage(UUID.randomUUID(), 10);
+        record.clear();
+
+        assertEquals(0, record.getTotalDamage());
+        assertEquals(0, record.getTotalDamageCount());
+        assertEquals(0, record.getParticipantCount());
+    }
+}